@@ -0,0 +1,108 @@
+package com.techstore.benchmark;
+
+import com.techstore.model.Category;
+import com.techstore.model.Product;
+import com.techstore.model.Provider;
+import com.techstore.repository.projection.ProductView;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Catálogo sintético para los benchmarks: nombres, descripciones, precios, stock y fechas con la
+ * forma de los datos reales (marca + tipo + modelo, descripciones de 60-200 caracteres, precios
+ * con dos decimales de 5 a 3000 EUR, 40 categorías y 25 proveedores).
+ *
+ * La semilla es fija: la misma ejecución genera siempre los mismos datos, así los resultados
+ * de distintos commits son comparables.
+ */
+public final class CatalogData {
+
+    public static final long SEED = 20260301L;
+
+    private static final String[] BRANDS = {"Lenovo", "HP", "Dell", "Asus", "Acer", "Apple", "Samsung", "Logitech",
+            "Sony", "LG", "MSI", "Razer", "Corsair", "Kingston", "Western Digital"};
+    private static final String[] TYPES = {"Laptop", "Monitor", "Teclado", "Ratón", "Auriculares", "SSD", "Router",
+            "Webcam", "Tablet", "Impresora"};
+    private static final String[] FEATURES = {"16GB RAM", "512GB SSD", "RTX 4060", "pantalla IPS 27 pulgadas",
+            "144Hz", "USB-C", "Bluetooth 5.3", "retroiluminación RGB", "cancelación de ruido", "WiFi 6E",
+            "batería de 12 horas", "garantía de 3 años", "switches mecánicos", "4K HDR", "NVMe PCIe 4.0"};
+    private static final String[] CATEGORY_SUFFIXES = {"Gaming", "Oficina", "Profesional", "Accesorios"};
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    private CatalogData() {
+    }
+
+    public static List<ProductView> views(int count) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<ProductView> views = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            int type = random.nextInt(TYPES.length);
+            long categoryId = categoryId(type, random);
+            long providerId = 1 + random.nextInt(25);
+            LocalDateTime createdAt = EPOCH.plusMinutes(random.nextInt(2 * 365 * 24 * 60));
+            views.add(new ProductView(id, name(type, random), description(random), price(random), random.nextInt(500),
+                    categoryId, categoryName(categoryId), providerId, providerName(providerId),
+                    createdAt, random.nextInt(4) == 0 ? null : createdAt.plusHours(random.nextInt(2000))));
+        }
+        return views;
+    }
+
+    // Entidades equivalentes a views(count), con categoría y proveedor ya enlazados (sin proxies)
+    public static List<Product> products(int count) {
+        List<Category> categories = new ArrayList<>();
+        for (long id = 1; id <= TYPES.length * CATEGORY_SUFFIXES.length; id++) {
+            categories.add(Category.builder().id(id).name(categoryName(id)).build());
+        }
+        List<Provider> providers = new ArrayList<>();
+        for (long id = 1; id <= 25; id++) {
+            providers.add(Provider.builder().id(id).name(providerName(id)).taxId("B" + (10_000_000 + id)).build());
+        }
+        return views(count).stream()
+                .<Product>map(view -> Product.builder()
+                        .id(view.id()).name(view.name()).description(view.description())
+                        .price(view.price()).stock(view.stock())
+                        .category(categories.get((int) (view.categoryId() - 1)))
+                        .provider(providers.get((int) (view.providerId() - 1)))
+                        .createdAt(view.createdAt()).updatedAt(view.updatedAt())
+                        .build())
+                .toList();
+    }
+
+    private static String name(int type, SplittableRandom random) {
+        return BRANDS[random.nextInt(BRANDS.length)] + " " + TYPES[type] + " " + (char) ('A' + random.nextInt(26))
+                + (100 + random.nextInt(900));
+    }
+
+    private static String description(SplittableRandom random) {
+        StringBuilder description = new StringBuilder("Modelo con ");
+        int features = 3 + random.nextInt(6);
+        for (int i = 0; i < features; i++) {
+            description.append(i == 0 ? "" : ", ").append(FEATURES[random.nextInt(FEATURES.length)]);
+        }
+        return description.append('.').toString();
+    }
+
+    private static BigDecimal price(SplittableRandom random) {
+        // Sesgo hacia precios bajos, como en un catálogo real (muchos accesorios, pocos equipos caros)
+        double value = 5 + Math.pow(random.nextDouble(), 2.5) * 2995;
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static long categoryId(int type, SplittableRandom random) {
+        return 1 + (long) type * CATEGORY_SUFFIXES.length + random.nextInt(CATEGORY_SUFFIXES.length);
+    }
+
+    private static String categoryName(long categoryId) {
+        int index = (int) (categoryId - 1);
+        return TYPES[index / CATEGORY_SUFFIXES.length] + " " + CATEGORY_SUFFIXES[index % CATEGORY_SUFFIXES.length];
+    }
+
+    private static String providerName(long providerId) {
+        return BRANDS[(int) ((providerId - 1) % BRANDS.length)] + " Distribución " + providerId;
+    }
+}
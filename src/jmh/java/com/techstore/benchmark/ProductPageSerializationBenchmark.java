@@ -0,0 +1,48 @@
+package com.techstore.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techstore.dto.ProductDto;
+import com.techstore.mapper.ProductMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Cuerpo JSON de un listado: Page<ProductDto> (contenido + metadatos de paginación), como lo escribe Spring MVC
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductPageSerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    // Misma configuración base que el ObjectMapper de Spring Boot (fechas ISO, módulos registrados)
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private Page<ProductDto> page;
+
+    @Setup
+    public void setUp() {
+        ProductMapper productMapper = new ProductMapper();
+        List<ProductDto> content = CatalogData.views(pageSize).stream().map(productMapper::fromView).toList();
+        page = new PageImpl<>(content, PageRequest.of(3, pageSize, Sort.by("name")), 25_000);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,53 @@
+package com.techstore.mapper;
+
+import com.techstore.benchmark.CatalogData;
+import com.techstore.dto.ProductDto;
+import com.techstore.model.Product;
+import com.techstore.repository.projection.ProductView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Entidad -> DTO (GET /{id}, altas) y proyección -> DTO (todos los listados), por página de productos
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductMapperBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private final ProductMapper productMapper = new ProductMapper();
+    private List<Product> products;
+    private List<ProductView> views;
+
+    @Setup
+    public void setUp() {
+        products = CatalogData.products(pageSize);
+        views = CatalogData.views(pageSize);
+    }
+
+    @Benchmark
+    public void toDto(Blackhole blackhole) {
+        for (Product product : products) {
+            blackhole.consume(productMapper.toDto(product));
+        }
+    }
+
+    @Benchmark
+    public void fromView(Blackhole blackhole) {
+        for (ProductView view : views) {
+            ProductDto dto = productMapper.fromView(view);
+            blackhole.consume(dto);
+        }
+    }
+}
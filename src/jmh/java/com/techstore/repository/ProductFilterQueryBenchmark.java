@@ -0,0 +1,130 @@
+package com.techstore.repository;
+
+import com.techstore.model.Category;
+import com.techstore.model.CategoryClosure;
+import com.techstore.model.Product;
+import com.techstore.model.Provider;
+import com.techstore.repository.spec.ProductFilter;
+import com.techstore.repository.spec.ProductSpecifications;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste por llamada de /filter (datos + COUNT) con Criteria, que construye y traduce la consulta en
+ * cada petición, frente a las 16 variantes JPQL precompiladas de ProductFilterQueries.
+ *
+ * Contra una H2 en memoria casi vacía, para que el tiempo sea sobre todo construcción y traducción.
+ * Cada llamada pasa a la siguiente combinación de criterios con otros valores, como el tráfico real.
+ * Que la ruta precompilada no vuelva a traducir lo comprueba ProductRepositoryStatementCountTest.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductFilterQueryBenchmark {
+
+    // Página de 5 sobre 20 filas: siempre hay COUNT, como en cualquier página que no sea la última
+    private static final Pageable PAGE = PageRequest.of(0, 5, Sort.by("price"));
+
+    private StandardServiceRegistry registry;
+    private SessionFactory sessionFactory;
+    private EntityManager entityManager;
+    private ProductRepositoryImpl repository;
+    private int round;
+
+    @Setup
+    public void setUp() {
+        registry = new StandardServiceRegistryBuilder()
+                .applySetting("hibernate.connection.url", "jdbc:h2:mem:filter-benchmark;DB_CLOSE_DELAY=-1")
+                .applySetting("hibernate.hbm2ddl.auto", "create-drop")
+                .build();
+        sessionFactory = new MetadataSources(registry)
+                .addAnnotatedClass(Product.class)
+                .addAnnotatedClass(Category.class)
+                .addAnnotatedClass(Provider.class)
+                .addAnnotatedClass(CategoryClosure.class)
+                .buildMetadata()
+                .buildSessionFactory();
+        entityManager = sessionFactory.createEntityManager();
+        insertCatalog();
+
+        // Sin contexto de Spring: el repositorio recibe el EntityManager como lo haría @PersistenceContext
+        repository = new ProductRepositoryImpl();
+        ReflectionTestUtils.setField(repository, "entityManager", entityManager);
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManager.close();
+        sessionFactory.close();
+        StandardServiceRegistryBuilder.destroy(registry);
+    }
+
+    // Antes: cadena de Specification + árbol Criteria, traducido por Hibernate en cada llamada
+    @Benchmark
+    public long criteria() {
+        ProductFilter filter = nextFilter();
+        Specification<Product> spec = Specification.where(ProductSpecifications.hasName(filter.name()))
+                .and(ProductSpecifications.hasMinPrice(filter.minPrice()))
+                .and(ProductSpecifications.hasMaxPrice(filter.maxPrice()))
+                .and(ProductSpecifications.hasCategory(filter.category()));
+        return repository.findViews(spec, PAGE).getTotalElements();
+    }
+
+    // Ruta actual: el mismo texto JPQL por combinación, servido desde la caché de planes
+    @Benchmark
+    public long precompiled() {
+        return repository.findFilteredViews(nextFilter(), PAGE).getTotalElements();
+    }
+
+    // --- MÉTODOS AUXILIARES ---
+
+    // Recorre las 16 combinaciones de criterios presentes / ausentes, con valores que cambian en cada vuelta
+    private ProductFilter nextFilter() {
+        int current = round++;
+        int mask = current % ProductFilter.COMBINATIONS;
+        return ProductFilter.of(
+                (mask & ProductFilter.NAME) != 0 ? "laptop " + (current % 10) : null,
+                (mask & ProductFilter.MIN_PRICE) != 0 ? BigDecimal.valueOf(current % 700) : null,
+                (mask & ProductFilter.MAX_PRICE) != 0 ? BigDecimal.valueOf(1000 + current % 500) : null,
+                (mask & ProductFilter.CATEGORY) != 0 ? "laptops" : null);
+    }
+
+    private void insertCatalog() {
+        LocalDateTime now = LocalDateTime.now();
+        entityManager.getTransaction().begin();
+        Category category = Category.builder().name("Laptops").createdAt(now).build();
+        Provider provider = Provider.builder().name("Lenovo").taxId("TAX-1").createdAt(now).build();
+        entityManager.persist(category);
+        entityManager.persist(provider);
+        entityManager.persist(CategoryClosure.builder()
+                .ancestorId(category.getId()).descendantId(category.getId()).depth(0).build());
+        for (int i = 0; i < 20; i++) {
+            entityManager.persist(Product.builder()
+                    .name("Laptop " + i).price(BigDecimal.valueOf(500 + i * 50)).stock(i)
+                    .category(category).provider(provider).createdAt(now)
+                    .build());
+        }
+        entityManager.getTransaction().commit();
+        entityManager.clear();
+    }
+}
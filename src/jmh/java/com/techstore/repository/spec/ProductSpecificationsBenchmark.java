@@ -0,0 +1,86 @@
+package com.techstore.repository.spec;
+
+import com.techstore.model.Category;
+import com.techstore.model.CategoryClosure;
+import com.techstore.model.Product;
+import com.techstore.model.Provider;
+import com.techstore.repository.projection.ProductView;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construcción del predicado de /filter con ProductSpecifications (los cuatro criterios, con la
+ * subconsulta de subárbol de categoría) frente a elegir la variante precompilada con ProductFilter.
+ *
+ * Solo hace falta el metamodelo: la SessionFactory se arranca con el dialecto de H2, sin conexiones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProductSpecificationsBenchmark {
+
+    private static final BigDecimal MIN_PRICE = new BigDecimal("100");
+    private static final BigDecimal MAX_PRICE = new BigDecimal("2000");
+
+    private StandardServiceRegistry registry;
+    private SessionFactory sessionFactory;
+    private CriteriaBuilder criteriaBuilder;
+
+    @Setup
+    public void setUp() {
+        registry = new StandardServiceRegistryBuilder()
+                .applySetting("hibernate.dialect", "org.hibernate.dialect.H2Dialect")
+                .applySetting("hibernate.temp.use_jdbc_metadata_defaults", "false")
+                .build();
+        sessionFactory = new MetadataSources(registry)
+                .addAnnotatedClass(Product.class)
+                .addAnnotatedClass(Category.class)
+                .addAnnotatedClass(Provider.class)
+                .addAnnotatedClass(CategoryClosure.class)
+                .buildMetadata()
+                .buildSessionFactory();
+        criteriaBuilder = sessionFactory.getCriteriaBuilder();
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+        StandardServiceRegistryBuilder.destroy(registry);
+    }
+
+    // Lo que hacía cada petición a /filter: cadena de Specification + árbol Criteria de la consulta de datos
+    @Benchmark
+    public Predicate specificationPredicate() {
+        Specification<Product> spec = Specification.where(ProductSpecifications.hasName("Lenovo Laptop"))
+                .and(ProductSpecifications.hasMinPrice(MIN_PRICE))
+                .and(ProductSpecifications.hasMaxPrice(MAX_PRICE))
+                .and(ProductSpecifications.hasCategory("Portátiles"));
+        CriteriaQuery<ProductView> query = criteriaBuilder.createQuery(ProductView.class);
+        Root<Product> root = query.from(Product.class);
+        return spec.toPredicate(root, query, criteriaBuilder);
+    }
+
+    // Ruta actual: normalizar los criterios y elegir una de las 16 variantes
+    @Benchmark
+    public int precompiledVariant() {
+        return ProductFilter.of("Lenovo Laptop", MIN_PRICE, MAX_PRICE, "Portátiles").mask();
+    }
+}
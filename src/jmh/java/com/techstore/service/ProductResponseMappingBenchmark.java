@@ -0,0 +1,43 @@
+package com.techstore.service;
+
+import com.techstore.benchmark.CatalogData;
+import com.techstore.repository.projection.ProductView;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Proyección -> ProductResponseDto de /filter (ProductServiceImpl.convertToResponseDTO), por página
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProductResponseMappingBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ProductServiceImpl productService;
+    private List<ProductView> views;
+
+    @Setup
+    public void setUp() {
+        // La conversión no usa ninguna dependencia del servicio
+        productService = new ProductServiceImpl(null, null, null, null, null, null, null, null, null, null, null, null);
+        views = CatalogData.views(pageSize);
+    }
+
+    @Benchmark
+    public void convertToResponseDto(Blackhole blackhole) {
+        for (ProductView view : views) {
+            blackhole.consume(productService.convertToResponseDTO(view));
+        }
+    }
+}
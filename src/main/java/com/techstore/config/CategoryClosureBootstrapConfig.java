@@ -0,0 +1,35 @@
+package com.techstore.config;
+
+import com.techstore.repository.CategoryClosureRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Arranque de la tabla de cierre de categorías (CATEGORY_CLOSURE).
+ *
+ * Las categorías creadas antes de la jerarquía no tienen padre ni fila propia en el cierre:
+ * sin ella el filtro por categoría (que va contra el cierre) no encontraría sus productos.
+ * Un único INSERT ... SELECT les da la fila (X, X, 0); en arranques posteriores no inserta nada.
+ */
+@Configuration
+@RequiredArgsConstructor
+@Slf4j
+public class CategoryClosureBootstrapConfig {
+
+    private final CategoryClosureRepository categoryClosureRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Bean
+    public CommandLineRunner categoryClosureBootstrap() {
+        return args -> {
+            Integer inserted = transactionTemplate.execute(status -> categoryClosureRepository.insertMissingSelfRows());
+            if (inserted != null && inserted > 0) {
+                log.info("Category closure initialized for {} existing categories", inserted);
+            }
+        };
+    }
+}
@@ -13,6 +13,7 @@ public class CorsConfig implements WebMvcConfigurer {
                 .allowedOriginPatterns("*") // Permite cualquier origen en desarrollo
                 .allowedMethods("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                .exposedHeaders("ETag", "Last-Modified") // El cliente web las necesita para el GET condicional
                 .allowCredentials(true);
     }
 }
\ No newline at end of file
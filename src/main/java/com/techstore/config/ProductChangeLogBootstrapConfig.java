@@ -0,0 +1,40 @@
+package com.techstore.config;
+
+import com.techstore.repository.ProductChangeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+/**
+ * Arranque del registro de cambios (PRODUCT_CHANGE).
+ *
+ * Si la tabla está vacía pero ya hay productos, registra un CREATED por cada uno: así un TPV
+ * nuevo hace la carga inicial con el mismo feed (since=0) y después solo pide incrementos.
+ */
+@Configuration
+@RequiredArgsConstructor
+@Slf4j
+public class ProductChangeLogBootstrapConfig {
+
+    private final ProductChangeRepository productChangeRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Bean
+    public CommandLineRunner productChangeLogBootstrap() {
+        return args -> {
+            if (productChangeRepository.count() > 0) {
+                return;
+            }
+            Integer inserted = transactionTemplate.execute(
+                    status -> productChangeRepository.insertCreatedForAllProducts(LocalDateTime.now()));
+            if (inserted != null && inserted > 0) {
+                log.info("Product change log initialized with {} existing products", inserted);
+            }
+        };
+    }
+}
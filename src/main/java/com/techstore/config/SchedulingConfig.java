@@ -0,0 +1,13 @@
+package com.techstore.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Tareas de fondo del catálogo (refresco de cachés, volcados, agregados...). El pool del planificador
+// se dimensiona en spring.task.scheduling.pool.size: con el hilo único por defecto, un recálculo lento
+// (conteos, carga de la snapshot) retrasaría los volcados de stock y de precios, que corren cada pocos segundos
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+}
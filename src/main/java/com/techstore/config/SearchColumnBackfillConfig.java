@@ -0,0 +1,70 @@
+package com.techstore.config;
+
+import com.techstore.model.SearchText;
+import com.techstore.repository.CategoryRepository;
+import com.techstore.repository.ProductRepository;
+import com.techstore.repository.projection.NameRow;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Migración de datos para las columnas NAME_SEARCH de PRODUCT y CATEGORY.
+ *
+ * Hibernate (ddl-auto=update) crea las columnas y el índice IDX_CATEGORY_NAME_SEARCH a partir de las
+ * anotaciones, pero las filas existentes quedan con NULL. Al arrancar se rellenan por lotes; las
+ * filas nuevas ya se guardan normalizadas desde @PrePersist/@PreUpdate. Tras la primera pasada
+ * completa, las siguientes ejecuciones no encuentran nada que hacer.
+ *
+ * Se avanza por ID y no releyendo "lo que sigue en NULL": en Oracle '' es NULL, así que un nombre que
+ * se normaliza a "" (en blanco, solo marcas diacríticas) nunca sale de la consulta.
+ */
+@Configuration
+@RequiredArgsConstructor
+@Slf4j
+public class SearchColumnBackfillConfig {
+
+    private static final Pageable BATCH = PageRequest.of(0, 500);
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Bean
+    public CommandLineRunner searchColumnBackfill() {
+        return args -> {
+            int categories = backfill(categoryRepository::findRowsWithoutNameSearch, categoryRepository::updateNameSearch);
+            int products = backfill(productRepository::findRowsWithoutNameSearch, productRepository::updateNameSearch);
+            if (categories + products > 0) {
+                log.info("NAME_SEARCH backfill completed: {} categories, {} products", categories, products);
+            }
+        };
+    }
+
+    // Un lote por transacción: si el arranque se interrumpe, se retoma donde quedó
+    private int backfill(BiFunction<Long, Pageable, List<NameRow>> pendingRows, BiFunction<Long, String, Integer> update) {
+        int total = 0;
+        long lastId = 0L;
+        while (true) {
+            long afterId = lastId;
+            List<NameRow> rows = transactionTemplate.execute(status -> {
+                List<NameRow> batch = pendingRows.apply(afterId, BATCH);
+                batch.forEach(row -> update.apply(row.id(), SearchText.normalize(row.name())));
+                return batch;
+            });
+            if (rows == null || rows.isEmpty()) {
+                return total;
+            }
+            total += rows.size();
+            lastId = rows.get(rows.size() - 1).id();
+        }
+    }
+}
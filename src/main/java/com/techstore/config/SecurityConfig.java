@@ -40,6 +40,8 @@ public class SecurityConfig {
                         // 2. ESCAPARATE PÚBLICO (Cualquiera puede VER productos)
                         // Usamos HttpMethod.GET para asegurar que solo puedan LEER, no borrar ni crear
                         .requestMatchers(HttpMethod.GET, "/api/products/**").permitAll()
+                        // Búsqueda por lista de IDs: POST por el tamaño del cuerpo, pero es una lectura
+                        .requestMatchers(HttpMethod.POST, "/api/products/lookup").permitAll()
 
                         // 3. ZONA BLINDADA (Todo lo demás requiere Token)
                         .anyRequest().authenticated()
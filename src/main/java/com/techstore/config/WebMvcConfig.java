@@ -0,0 +1,19 @@
+package com.techstore.config;
+
+import com.techstore.filter.PageableConstraintsInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final PageableConstraintsInterceptor pageableConstraintsInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(pageableConstraintsInterceptor).addPathPatterns("/api/**");
+    }
+}
@@ -1,12 +1,24 @@
 package com.techstore.controller;
 
 import com.techstore.dto.CategoryDto;
+import com.techstore.dto.CategorySummaryDto;
+import com.techstore.dto.CategoryTreeDto;
 import com.techstore.service.CategoryService;
+import com.techstore.service.catalog.CatalogVersions;
+import com.techstore.service.catalog.ResponseBytesCache;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j; // IMPORTANTE
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
@@ -19,15 +31,41 @@ import java.util.List;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final CatalogVersions catalogVersions;
+    private final ResponseBytesCache responseBytesCache;
 
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = "application/json",
+            array = @ArraySchema(schema = @Schema(implementation = CategoryDto.class))))
     @GetMapping
-    public ResponseEntity<List<CategoryDto>> getAllCategories() {
-        return ResponseEntity.ok(categoryService.getAllCategories());
+    public ResponseEntity<byte[]> getAllCategories(WebRequest request) {
+        return ConditionalGet.cached(request, catalogVersions.categories(), responseBytesCache,
+                "categories", categoryService::getAllCategories);
+    }
+
+    // Paginado y con agregados de sus productos (conteo, stock total, precio mínimo y máximo) en un solo GROUP BY
+    @GetMapping("/summary")
+    @PageableConstraints(sort = {"id", "name"}, maxSize = 100)
+    public ResponseEntity<Page<CategorySummaryDto>> getCategorySummaries(
+            @PageableDefault(size = 20, sort = "name") Pageable pageable,
+            WebRequest request) {
+        return ConditionalGet.ok(request, catalogVersions.products(), () -> categoryService.getCategorySummaries(pageable));
+    }
+
+    // Árbol completo de categorías (navegación). Se sirve desde memoria; la versión es la de la tabla CATEGORY
+    @GetMapping("/tree")
+    public ResponseEntity<List<CategoryTreeDto>> getCategoryTree(WebRequest request) {
+        return ConditionalGet.ok(request, catalogVersions.categories(), categoryService::getCategoryTree);
+    }
+
+    // Breadcrumbs: de la raíz a la categoría. Depende de sus ancestros, así que la versión es la de toda la tabla
+    @GetMapping("/{id}/path")
+    public ResponseEntity<List<CategoryTreeDto>> getCategoryPath(@PathVariable Long id, WebRequest request) {
+        return ConditionalGet.ok(request, catalogVersions.categories(), () -> categoryService.getCategoryPath(id));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<CategoryDto> getCategoryById(@PathVariable Long id) {
-        return ResponseEntity.ok(categoryService.getCategoryById(id));
+    public ResponseEntity<CategoryDto> getCategoryById(@PathVariable Long id, WebRequest request) {
+        return ConditionalGet.ok(request, catalogVersions.category(id), () -> categoryService.getCategoryById(id));
     }
 
     @PostMapping
@@ -0,0 +1,59 @@
+package com.techstore.controller;
+
+import com.techstore.service.catalog.CachedResponse;
+import com.techstore.service.catalog.ResourceVersion;
+import com.techstore.service.catalog.ResponseBytesCache;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+// GET condicional para los controladores del catálogo: si la versión coincide con If-None-Match /
+// If-Modified-Since se responde 304 sin llamar al servicio (ni consulta de datos ni mapeo de DTOs).
+final class ConditionalGet {
+
+    private ConditionalGet() {
+    }
+
+    static <T> ResponseEntity<T> ok(WebRequest request, ResourceVersion version, Supplier<T> body) {
+        if (request.checkNotModified(version.etag(), version.lastModifiedMillis())) {
+            return null; // Spring ya escribió el 304 con sus cabeceras ETag / Last-Modified
+        }
+        return ResponseEntity.ok(body.get());
+    }
+
+    // Recurso individual: si no existe, el servicio se encarga del 404 de siempre
+    static <T> ResponseEntity<T> ok(WebRequest request, Optional<ResourceVersion> version, Supplier<T> body) {
+        return version.isPresent() ? ok(request, version.get(), body) : ResponseEntity.ok(body.get());
+    }
+
+    // Igual que ok(), pero el cuerpo sale de la caché de bytes: sin mapper ni Jackson mientras la versión no cambie
+    static ResponseEntity<byte[]> cached(WebRequest request, ResourceVersion version,
+                                         ResponseBytesCache cache, String key, Supplier<?> body) {
+        if (request.checkNotModified(version.etag(), version.lastModifiedMillis())) {
+            return null;
+        }
+        CachedResponse cached = cache.get(key, version, body);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (cached.gzip() != null && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(cached.gzip());
+        }
+        return response.body(cached.json());
+    }
+
+    static ResponseEntity<byte[]> cached(WebRequest request, Optional<ResourceVersion> version,
+                                         ResponseBytesCache cache, String key, Supplier<?> body) {
+        if (version.isEmpty()) {
+            body.get(); // no existe: el servicio lanza el 404 de siempre
+            return ResponseEntity.notFound().build();
+        }
+        return cached(request, version.get(), cache, key, body);
+    }
+}
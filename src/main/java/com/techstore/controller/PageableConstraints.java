@@ -0,0 +1,29 @@
+package com.techstore.controller;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Límites de los parámetros page/size/sort de un endpoint paginado (en el método o en todo el controlador).
+ *
+ * Los comprueba PageableConstraintsInterceptor antes de llegar al controlador: un sort fuera de la lista
+ * o un size por encima del tope se rechazan con 400 en lugar de acabar en un ORDER BY sin índice
+ * sobre toda la tabla. Solo se aplica a los métodos que reciben un Pageable.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface PageableConstraints {
+
+    // Propiedades por las que se puede ordenar: solo las que tienen índice
+    String[] sort();
+
+    // Tope de size (incluido)
+    int maxSize() default 100;
+
+    // Dónde mandar a quien necesita leerlo todo (se añade al mensaje de error del size)
+    String bulkAlternative() default "";
+}
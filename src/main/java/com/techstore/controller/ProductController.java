@@ -1,33 +1,71 @@
 package com.techstore.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.techstore.dto.CountMode;
+import com.techstore.dto.CursorSliceDto;
+import com.techstore.dto.FacetedPageDto;
+import com.techstore.dto.LocationStockDto;
+import com.techstore.dto.PriceBucketDto;
+import com.techstore.dto.PricePointDto;
+import com.techstore.dto.PriceResolution;
+import com.techstore.dto.ProductBulkRequestDto;
+import com.techstore.dto.ProductBulkResultDto;
 import com.techstore.dto.ProductDto;
+import com.techstore.dto.ProductLookupRequestDto;
+import com.techstore.dto.ProductLookupResultDto;
+import com.techstore.dto.ProductRepriceRequestDto;
+import com.techstore.dto.ProductRepriceResultDto;
 import com.techstore.dto.ProductResponseDto;
+import com.techstore.repository.spec.ProductField;
+import com.techstore.service.LocationStockService;
+import com.techstore.service.PriceHistoryService;
+import com.techstore.service.ProductBulkService;
 import com.techstore.service.ProductImportService;
+import com.techstore.service.ProductLookupService;
+import com.techstore.service.ProductPatchService;
 import com.techstore.service.ProductService;
+import com.techstore.service.catalog.CatalogVersions;
+import com.techstore.service.catalog.LowStockAlerts;
+import com.techstore.service.catalog.ProductChangeFeed;
+import com.techstore.service.catalog.ProductNdjsonStream;
+import com.techstore.service.catalog.ResponseBytesCache;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j; // IMPORTANTE
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/products")
@@ -35,31 +73,142 @@ import java.util.List;
 @Validated
 @Slf4j // Habilita el logger
 @Tag(name = "Product Management", description = "Inventory management operations")
+// Orden solo por columnas con índice (PK, IDX_PRODUCT_NAME_ID, IDX_PRODUCT_PRICE_ID, IDX_PRODUCT_UPDATED_AT)
+@PageableConstraints(sort = {"id", "name", "price", "updatedAt"}, maxSize = 100,
+        bulkAlternative = "/api/products/scroll (keyset) or /api/products/changes (NDJSON stream)")
 public class ProductController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     private final ProductService productService;
     private final ProductImportService productImportService;
+    private final ProductBulkService productBulkService;
+    private final ProductLookupService productLookupService;
+    private final ProductPatchService productPatchService;
+    private final CatalogVersions catalogVersions;
+    private final ResponseBytesCache responseBytesCache;
+    private final ProductChangeFeed productChangeFeed;
+    private final ProductNdjsonStream productNdjsonStream;
+    private final LowStockAlerts lowStockAlerts;
+    private final PriceHistoryService priceHistoryService;
+    private final LocationStockService locationStockService;
 
-    @Operation(summary = "List products")
+    @Operation(summary = "List products",
+            description = "count=exact runs COUNT(*) per page, count=approx uses a cached total, count=none returns a slice without total")
     @GetMapping
-    public ResponseEntity<Page<ProductDto>> getAllProducts(@PageableDefault(size = 10) Pageable pageable) {
-        return ResponseEntity.ok(productService.getAllProducts(pageable));
+    public ResponseEntity<Slice<ProductDto>> getAllProducts(
+            @PageableDefault(size = 10) Pageable pageable,
+            @RequestParam(defaultValue = "exact") String count,
+            WebRequest request) {
+        CountMode countMode = CountMode.from(count);
+        return ConditionalGet.ok(request, catalogVersions.products(),
+                () -> productService.getAllProducts(pageable, countMode));
+    }
+
+    // ?fields=id,name,price: la consulta solo lee esas columnas (DESCRIPTION no sale de la BD si no se pide)
+    @Operation(summary = "List products (sparse fields)",
+            description = "Returns only the requested fields (id is always included); the query selects just those columns")
+    @GetMapping(params = "fields")
+    public ResponseEntity<Slice<Map<String, Object>>> getAllProductFields(
+            @RequestParam String fields,
+            @PageableDefault(size = 10) Pageable pageable,
+            @RequestParam(defaultValue = "exact") String count,
+            WebRequest request) {
+        Set<ProductField> selected = ProductField.parse(fields);
+        CountMode countMode = CountMode.from(count);
+        return ConditionalGet.ok(request, catalogVersions.products(),
+                () -> productService.getProductFields(selected, pageable, countMode));
+    }
+
+    @Operation(summary = "List products (cursor)",
+            description = "Keyset pagination: pass the returned nextCursor to get the next slice. No total count is computed.")
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorSliceDto<ProductDto>> scrollProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) Integer size,
+            @RequestParam(defaultValue = "id,asc") String sort,
+            WebRequest request) {
+        return ConditionalGet.ok(request, catalogVersions.products(),
+                () -> productService.scrollProducts(cursor, size, sort));
+    }
+
+    @Operation(summary = "Catalog changes (NDJSON)",
+            description = "Created, updated and deleted products after the given watermark, one JSON object per line. " +
+                    "The last line carries the new watermark; since=0 replays the whole catalog.")
+    @GetMapping(value = "/changes", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> getChanges(
+            @RequestParam @PositiveOrZero Long since,
+            @RequestParam(defaultValue = "10000") @Min(1) @Max(100000) Integer limit) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(out -> productChangeFeed.stream(since, limit, out));
     }
 
     @Operation(summary = "Get By ID")
-    @ApiResponse(responseCode = "200", description = "Product found")
+    @ApiResponse(responseCode = "200", description = "Product found",
+            content = @Content(mediaType = "application/json", schema = @Schema(implementation = ProductDto.class)))
     @ApiResponse(responseCode = "404", description = "Product doesn't exist")
     @GetMapping("/{id}")
-    public ResponseEntity<ProductDto> getProductById(@PathVariable @Positive Long id) {
-        return ResponseEntity.ok(productService.getProductById(id));
+    public ResponseEntity<byte[]> getProductById(@PathVariable @Positive Long id, WebRequest request) {
+        return ConditionalGet.cached(request, catalogVersions.product(id), responseBytesCache,
+                ResponseBytesCache.productKey(id), () -> productService.getProductById(id));
+    }
+
+    // --- HISTÓRICO DE PRECIOS (sin fechas: últimos 30 días) ---
+
+    @Operation(summary = "Price history of a product", description = "Every price change within [from, to], oldest first")
+    @GetMapping("/{id}/price-history")
+    public ResponseEntity<List<PricePointDto>> getPriceHistory(
+            @PathVariable @Positive Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(priceHistoryService.getHistory(id, from, to));
+    }
+
+    @Operation(summary = "Downsampled price history",
+            description = "Open/high/low/close per hour, day or week within [from, to] for trend charts")
+    @GetMapping("/{id}/price-history/summary")
+    public ResponseEntity<List<PriceBucketDto>> getPriceHistorySummary(
+            @PathVariable @Positive Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "day") String resolution) {
+        return ResponseEntity.ok(priceHistoryService.getSummary(id, from, to, PriceResolution.from(resolution)));
+    }
+
+    // POST solo porque la lista de IDs no cabe en una URL; es una lectura pública como los GET
+    @Operation(summary = "Lookup products by ID list",
+            description = "Returns up to 5000 products in request order, with found=false for IDs that do not exist. "
+                    + "Bodies are shared with the GET /{id} cache; misses are fetched in chunked IN queries.")
+    @PostMapping("/lookup")
+    public ResponseEntity<ProductLookupResultDto> lookupProducts(@Valid @RequestBody ProductLookupRequestDto request) {
+        return ResponseEntity.ok(productLookupService.lookup(request.getIds()));
     }
 
     @Operation(summary = "Simple search")
     @GetMapping("/search")
-    public ResponseEntity<Page<ProductDto>> searchProducts(
+    public ResponseEntity<Slice<ProductDto>> searchProducts(
             @RequestParam @NotBlank String query,
-            @PageableDefault(size = 10) Pageable pageable) {
-        return ResponseEntity.ok(productService.searchProducts(query, pageable));
+            @PageableDefault(size = 10) Pageable pageable,
+            @RequestParam(defaultValue = "exact") String count,
+            WebRequest request) {
+        CountMode countMode = CountMode.from(count);
+        return ConditionalGet.ok(request, catalogVersions.products(),
+                () -> productService.searchProducts(query, pageable, countMode));
+    }
+
+    @Operation(summary = "Simple search (sparse fields)")
+    @GetMapping(value = "/search", params = "fields")
+    public ResponseEntity<Slice<Map<String, Object>>> searchProductFields(
+            @RequestParam @NotBlank String query,
+            @RequestParam String fields,
+            @PageableDefault(size = 10) Pageable pageable,
+            @RequestParam(defaultValue = "exact") String count,
+            WebRequest request) {
+        Set<ProductField> selected = ProductField.parse(fields);
+        CountMode countMode = CountMode.from(count);
+        return ConditionalGet.ok(request, catalogVersions.products(),
+                () -> productService.searchProductFields(query, selected, pageable, countMode));
     }
 
     @Operation(summary = "Register product")
@@ -88,6 +237,25 @@ public class ProductController {
         return ResponseEntity.ok(productService.updateProduct(id, productDto));
     }
 
+    @Operation(summary = "Partially update product (JSON Merge Patch)",
+            description = "Only the fields present in the document are written. Send the ETag from GET as If-Match "
+                    + "to reject the change (412) if the product was modified in between.")
+    @ApiResponse(responseCode = "412", description = "If-Match no longer matches the current version")
+    @SecurityRequirement(name = "bearerAuth")
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<ProductDto> patchProduct(
+            @PathVariable @Positive Long id,
+            @RequestBody JsonNode patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.info("Admin patching product ID: {} fields: {}", id, patch.isObject() ? patch.size() : 0);
+        ProductDto patched = productPatchService.patchProduct(id, patch, ifMatch);
+        // ETag nuevo (ya confirmado): el cliente puede encadenar otro PATCH sin volver a leer
+        return catalogVersions.product(id)
+                .map(version -> ResponseEntity.ok().eTag(version.etag()).body(patched))
+                .orElseGet(() -> ResponseEntity.ok(patched));
+    }
+
     @Operation(summary = "Delete product")
     @SecurityRequirement(name = "bearerAuth")
     @DeleteMapping("/{id}")
@@ -98,6 +266,28 @@ public class ProductController {
         return ResponseEntity.noContent().build();
     }
 
+    @Operation(summary = "Bulk create/update/delete",
+            description = "Applies up to 1000 operations in one transaction. Invalid operations are rejected "
+                    + "individually and reported in the per-item result; the rest are applied.")
+    @SecurityRequirement(name = "bearerAuth")
+    @PostMapping("/bulk")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<ProductBulkResultDto> bulkProducts(@Valid @RequestBody ProductBulkRequestDto request) {
+        log.info("Admin applying {} bulk product operations", request.getOperations().size());
+        return ResponseEntity.ok(productBulkService.apply(request));
+    }
+
+    @Operation(summary = "Bulk reprice",
+            description = "Applies a percentage or absolute price change to every product matching the filters "
+                    + "in a single UPDATE. Products whose new price would not be positive are left unchanged.")
+    @SecurityRequirement(name = "bearerAuth")
+    @PostMapping("/reprice")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<ProductRepriceResultDto> repriceProducts(@Valid @RequestBody ProductRepriceRequestDto request) {
+        log.warn("Admin repricing products: {} {}", request.getMode(), request.getValue());
+        return ResponseEntity.ok(productService.repriceProducts(request));
+    }
+
     @Operation(summary = "Upload (Excel)")
     @SecurityRequirement(name = "bearerAuth")
     @PostMapping(value = "/upload", consumes = {"multipart/form-data"})
@@ -108,39 +298,152 @@ public class ProductController {
         return ResponseEntity.ok("File uploaded successfully");
     }
 
-    @Operation(summary = "Management stock")
+    @Operation(summary = "Management stock",
+            description = "Without location, products stocked per location are served from the location with the most units "
+                    + "that can fulfil the whole quantity")
     @PatchMapping("/{id}/stock")
     public ResponseEntity<ProductDto> reduceStock(
             @PathVariable Long id,
-            @RequestParam @Positive Integer quantity) {
-        log.info("Reducing stock for product ID: {} by {} units", id, quantity);
-        return ResponseEntity.ok(productService.reduceStock(id, quantity));
+            @RequestParam @Positive Integer quantity,
+            @RequestParam(required = false) String location) {
+        log.info("Reducing stock for product ID: {} by {} units (location: {})", id, quantity, location);
+        return ResponseEntity.ok(locationStockService.reduceStock(id, quantity, location));
+    }
+
+    // --- STOCK POR UBICACIÓN ---
+
+    @Operation(summary = "Stock per location")
+    @GetMapping("/{id}/locations")
+    public ResponseEntity<List<LocationStockDto>> getLocationStock(@PathVariable @Positive Long id) {
+        return ResponseEntity.ok(locationStockService.getLocations(id));
+    }
+
+    @Operation(summary = "Set stock at a location", description = "Creates the location row if it does not exist")
+    @SecurityRequirement(name = "bearerAuth")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    @PutMapping("/{id}/locations/{location}")
+    public ResponseEntity<LocationStockDto> setLocationStock(@PathVariable @Positive Long id,
+                                                             @PathVariable String location,
+                                                             @Valid @RequestBody LocationStockDto request) {
+        log.info("Setting stock of product ID: {} at {} to {}", id, location, request.getQuantity());
+        return ResponseEntity.ok(locationStockService.setQuantity(id, location, request.getQuantity()));
     }
 
     // --- Endpoints de Búsqueda (Sin logs explícitos para no saturar) ---
 
     @GetMapping("/search/low-stock")
-    public ResponseEntity<List<ProductDto>> getLowStock(@RequestParam @Min(1) Integer limit) {
-        return ResponseEntity.ok(productService.getProductsLowStock(limit));
+    public ResponseEntity<List<ProductDto>> getLowStock(@RequestParam @Min(1) Integer limit, WebRequest request) {
+        return ConditionalGet.ok(request, catalogVersions.products(), () -> productService.getProductsLowStock(limit));
     }
 
+    @Operation(summary = "Products with the lowest stock")
+    @GetMapping("/search/lowest")
+    public ResponseEntity<List<ProductDto>> getLowestStock(@RequestParam(defaultValue = "10") @Min(1) @Max(100) int k,
+                                                           WebRequest request) {
+        return ConditionalGet.ok(request, catalogVersions.products(), () -> productService.getLowestStockProducts(k));
+    }
+
+    @Operation(summary = "Low-stock alerts (Server-Sent Events)",
+            description = "Pushes a 'stock-alert' event each time a product crosses catalog.low-stock.alert-threshold")
+    @GetMapping(value = "/low-stock/alerts", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter lowStockAlerts() {
+        return lowStockAlerts.subscribe();
+    }
+
+    @Operation(summary = "Most expensive products above a price floor",
+            description = "Top-N by price (descending). For every match use /search/expensive/stream")
     @GetMapping("/search/expensive")
-    public ResponseEntity<List<ProductDto>> getExpensiveProducts(@RequestParam @Positive BigDecimal min) {
-        return ResponseEntity.ok(productService.getProductsByMinPrice(min));
+    public ResponseEntity<List<ProductDto>> getExpensiveProducts(@RequestParam @Positive BigDecimal min,
+                                                                 @RequestParam(defaultValue = "50") @Min(1) @Max(500) int limit,
+                                                                 WebRequest request) {
+        return ConditionalGet.ok(request, catalogVersions.products(), () -> productService.getProductsByMinPrice(min, limit));
     }
 
     @GetMapping("/search/quick")
-    public ResponseEntity<List<ProductDto>> search(@RequestParam @NotBlank String term) {
-        return ResponseEntity.ok(productService.searchProductsByTerm(term));
+    public ResponseEntity<List<ProductDto>> search(@RequestParam @NotBlank String term, WebRequest request) {
+        return ConditionalGet.ok(request, catalogVersions.products(), () -> productService.searchProductsByTerm(term));
+    }
+
+    // --- Variantes NDJSON de los listados sin límite: una línea por producto, escrita según sale de la BD ---
+
+    @Operation(summary = "Low stock (NDJSON stream)")
+    @GetMapping(value = "/search/low-stock/stream", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamLowStock(@RequestParam @Min(1) Integer limit) {
+        return ndjson(out -> productNdjsonStream.lowStock(limit, out));
+    }
+
+    @Operation(summary = "Expensive products (NDJSON stream)")
+    @GetMapping(value = "/search/expensive/stream", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamExpensiveProducts(@RequestParam @Positive BigDecimal min) {
+        return ndjson(out -> productNdjsonStream.minPrice(min, out));
+    }
+
+    @Operation(summary = "Quick search (NDJSON stream)")
+    @GetMapping(value = "/search/quick/stream", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamSearch(@RequestParam @NotBlank String term) {
+        return ndjson(out -> productNdjsonStream.term(term, out));
+    }
+
+    private static ResponseEntity<StreamingResponseBody> ndjson(StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
     }
 
     @GetMapping("/filter")
-    public ResponseEntity<Page<ProductResponseDto>> filterProducts(
+    public ResponseEntity<Slice<ProductResponseDto>> filterProducts(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) String category,
+            @PageableDefault(size = 10) Pageable pageable,
+            @RequestParam(defaultValue = "exact") String count,
+            WebRequest request) {
+        CountMode countMode = CountMode.from(count);
+        return ConditionalGet.ok(request, catalogVersions.products(),
+                () -> productService.searchProducts(name, minPrice, maxPrice, category, pageable, countMode));
+    }
+
+    @GetMapping(value = "/filter", params = "fields")
+    public ResponseEntity<Slice<Map<String, Object>>> filterProductFields(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) String category,
+            @RequestParam String fields,
+            @PageableDefault(size = 10) Pageable pageable,
+            @RequestParam(defaultValue = "exact") String count,
+            WebRequest request) {
+        Set<ProductField> selected = ProductField.parse(fields);
+        CountMode countMode = CountMode.from(count);
+        return ConditionalGet.ok(request, catalogVersions.products(),
+                () -> productService.filterProductFields(name, minPrice, maxPrice, category, selected, pageable, countMode));
+    }
+
+    @GetMapping("/filter/scroll")
+    public ResponseEntity<CursorSliceDto<ProductResponseDto>> filterProductsScroll(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) Integer size,
+            @RequestParam(defaultValue = "id,asc") String sort,
+            WebRequest request) {
+        return ConditionalGet.ok(request, catalogVersions.products(),
+                () -> productService.scrollProducts(name, minPrice, maxPrice, category, cursor, size, sort));
+    }
+
+    // Resultados filtrados + conteos por categoría, proveedor y banda de precio en una sola respuesta
+    @GetMapping("/filter/facets")
+    public ResponseEntity<FacetedPageDto<ProductResponseDto>> filterProductsWithFacets(
             @RequestParam(required = false) String name,
             @RequestParam(required = false) BigDecimal minPrice,
             @RequestParam(required = false) BigDecimal maxPrice,
             @RequestParam(required = false) String category,
-            @PageableDefault(size = 10) Pageable pageable) {
-        return ResponseEntity.ok(productService.searchProducts(name, minPrice, maxPrice, category, pageable));
+            @PageableDefault(size = 10) Pageable pageable,
+            WebRequest request) {
+        return ConditionalGet.ok(request, catalogVersions.products(),
+                () -> productService.searchProductsWithFacets(name, minPrice, maxPrice, category, pageable));
     }
-}
\ No newline at end of file
+}
@@ -2,10 +2,12 @@ package com.techstore.controller;
 
 import com.techstore.dto.ProviderDto;
 import com.techstore.service.ProviderService;
+import com.techstore.service.catalog.CatalogVersions;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.net.URI;
@@ -17,10 +19,11 @@ import java.util.List;
 public class ProviderController {
 
     private final ProviderService providerService;
+    private final CatalogVersions catalogVersions;
 
     @GetMapping
-    public ResponseEntity<List<ProviderDto>> getAllProviders() {
-        return ResponseEntity.ok(providerService.getAllProviders());
+    public ResponseEntity<List<ProviderDto>> getAllProviders(WebRequest request) {
+        return ConditionalGet.ok(request, catalogVersions.providers(), providerService::getAllProviders);
     }
 
     @PostMapping
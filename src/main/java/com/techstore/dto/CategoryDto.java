@@ -24,6 +24,9 @@ public class CategoryDto {
     @Size(min = 3, max = 50, message = "The name must be between 3 and 50 characters")
     private String name;
 
+    @Schema(description = "ID de la categoría padre (null = raíz)", example = "3")
+    private Long parentId;
+
     @Schema(description = "Fecha de creación", example = "2026-01-01T09:00:00")
     private LocalDateTime createdAt;
 
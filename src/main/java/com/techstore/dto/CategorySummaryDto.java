@@ -0,0 +1,35 @@
+package com.techstore.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Category with aggregated figures of its products")
+public class CategorySummaryDto {
+
+    @Schema(description = "ID de la categoría", example = "10")
+    private Long id;
+
+    @Schema(description = "Nombre de la categoría", example = "Periféricos")
+    private String name;
+
+    @Schema(description = "Number of products in the category", example = "42")
+    private long productCount;
+
+    @Schema(description = "Sum of the stock of its products", example = "1350")
+    private long totalStock;
+
+    @Schema(description = "Cheapest product price (absent when the category is empty)", example = "9.99")
+    private BigDecimal minPrice;
+
+    @Schema(description = "Most expensive product price (absent when the category is empty)", example = "1499.00")
+    private BigDecimal maxPrice;
+}
@@ -0,0 +1,28 @@
+package com.techstore.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_EMPTY) // Las hojas y los breadcrumbs no llevan "children"
+@Schema(description = "Category node for navigation (tree or breadcrumb)")
+public class CategoryTreeDto {
+
+    @Schema(description = "Category ID", example = "10")
+    private Long id;
+
+    @Schema(description = "Category name", example = "Laptops")
+    private String name;
+
+    @Schema(description = "Subcategories, sorted by name")
+    private List<CategoryTreeDto> children;
+}
@@ -0,0 +1,21 @@
+package com.techstore.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Last line of the catalog change feed: where to resume from")
+public class ChangeFeedEndDto {
+
+    @Schema(description = "Pass as 'since' in the next request", example = "1532")
+    private Long watermark;
+
+    @Schema(description = "Whether more changes are already available after the watermark", example = "false")
+    private boolean hasMore;
+}
@@ -0,0 +1,20 @@
+package com.techstore.dto;
+
+import com.techstore.exception.InvalidQueryParameterException;
+
+import java.util.Locale;
+
+// Cómo calcular el total de una página: "?count=none|approx|exact"
+public enum CountMode {
+    NONE,   // Sin total: se devuelve un Slice (solo sabe si hay página siguiente)
+    APPROX, // Total cacheado por predicado y refrescado en segundo plano
+    EXACT;  // SELECT COUNT(*) en cada petición (comportamiento histórico)
+
+    public static CountMode from(String value) {
+        try {
+            return CountMode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidQueryParameterException("Invalid count mode: '" + value + "'. Allowed: none, approx, exact");
+        }
+    }
+}
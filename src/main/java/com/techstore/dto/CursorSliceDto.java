@@ -0,0 +1,34 @@
+package com.techstore.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL) // Sin nextCursor en la última página
+@Schema(description = "Slice of results for cursor (keyset) pagination. No total count is computed.")
+public class CursorSliceDto<T> {
+
+    @Schema(description = "Items of this slice")
+    private List<T> content;
+
+    @Schema(description = "Requested slice size", example = "20")
+    private Integer size;
+
+    @Schema(description = "Number of items actually returned", example = "20")
+    private Integer numberOfElements;
+
+    @Schema(description = "Whether more items exist after this slice", example = "true")
+    private boolean hasNext;
+
+    @Schema(description = "Opaque token to request the next slice (absent on the last one)")
+    private String nextCursor;
+}
@@ -0,0 +1,35 @@
+package com.techstore.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Page of filtered results together with the facet counts of the whole match set")
+public class FacetedPageDto<T> {
+
+    @Schema(description = "Items of this page")
+    private List<T> content;
+
+    @Schema(description = "Zero-based page number", example = "0")
+    private Integer page;
+
+    @Schema(description = "Requested page size", example = "10")
+    private Integer size;
+
+    @Schema(description = "Total number of matching products", example = "128")
+    private long totalElements;
+
+    @Schema(description = "Total number of pages", example = "13")
+    private Integer totalPages;
+
+    @Schema(description = "Counts per category, provider and price band")
+    private ProductFacetsDto facets;
+}
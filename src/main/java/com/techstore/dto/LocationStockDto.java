@@ -0,0 +1,30 @@
+package com.techstore.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Stock of a product at one warehouse or store")
+public class LocationStockDto {
+
+    @Schema(description = "Location code", example = "MAD-01", accessMode = Schema.AccessMode.READ_ONLY)
+    private String location;
+
+    @NotNull(message = "Quantity is required")
+    @PositiveOrZero(message = "Quantity cannot be negative")
+    @Schema(description = "Units available at this location", example = "25")
+    private Integer quantity;
+
+    @Schema(description = "Last change at this location", accessMode = Schema.AccessMode.READ_ONLY)
+    private LocalDateTime updatedAt;
+}
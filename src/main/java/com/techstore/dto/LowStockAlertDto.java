@@ -0,0 +1,36 @@
+package com.techstore.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "A product crossed the low-stock alert threshold")
+public class LowStockAlertDto {
+
+    public enum Type {
+        LOW, RESTOCKED
+    }
+
+    @Schema(description = "LOW = dropped below the threshold, RESTOCKED = back at or above it", example = "LOW")
+    private Type type;
+
+    @Schema(description = "Product ID", example = "12")
+    private Long productId;
+
+    @Schema(description = "Current stock", example = "3")
+    private Integer stock;
+
+    @Schema(description = "Configured alert threshold", example = "5")
+    private Integer threshold;
+
+    @Schema(description = "When the crossing was detected")
+    private LocalDateTime detectedAt;
+}
@@ -0,0 +1,36 @@
+package com.techstore.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Price changes of one product within a time bucket (open/high/low/close)")
+public class PriceBucketDto {
+
+    @Schema(description = "Bucket start (inclusive)")
+    private LocalDateTime start;
+
+    @Schema(description = "First price set in the bucket", example = "1299.99")
+    private BigDecimal open;
+
+    @Schema(description = "Highest price set in the bucket", example = "1349.99")
+    private BigDecimal high;
+
+    @Schema(description = "Lowest price set in the bucket", example = "1199.99")
+    private BigDecimal low;
+
+    @Schema(description = "Last price set in the bucket", example = "1249.99")
+    private BigDecimal close;
+
+    @Schema(description = "Number of price changes in the bucket", example = "3")
+    private Integer changes;
+}
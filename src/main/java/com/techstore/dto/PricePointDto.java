@@ -0,0 +1,24 @@
+package com.techstore.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Price of a product from this moment on")
+public class PricePointDto {
+
+    @Schema(description = "When the price changed (second precision)")
+    private LocalDateTime at;
+
+    @Schema(description = "New price", example = "1299.99")
+    private BigDecimal price;
+}
@@ -0,0 +1,33 @@
+package com.techstore.dto;
+
+import com.techstore.exception.InvalidQueryParameterException;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Locale;
+
+// Tamaño de tramo del histórico de precios resumido: "?resolution=hour|day|week"
+public enum PriceResolution {
+    HOUR,
+    DAY,
+    WEEK; // Semanas de lunes a domingo
+
+    // Inicio del tramo al que pertenece el instante
+    public LocalDateTime bucketStart(LocalDateTime at) {
+        return switch (this) {
+            case HOUR -> at.truncatedTo(ChronoUnit.HOURS);
+            case DAY -> at.truncatedTo(ChronoUnit.DAYS);
+            case WEEK -> at.truncatedTo(ChronoUnit.DAYS).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        };
+    }
+
+    public static PriceResolution from(String value) {
+        try {
+            return PriceResolution.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidQueryParameterException("Invalid resolution: '" + value + "'. Allowed: hour, day, week");
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.techstore.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Batch of product operations applied in a single transaction")
+public class ProductBulkRequestDto {
+
+    // Tope de 1000: cada tipo de operación se resuelve con un IN (...) y Oracle no admite más elementos
+    @Schema(description = "Operations to apply (max 1000)")
+    @NotEmpty(message = "At least one operation is required")
+    @Size(max = 1000, message = "A bulk request cannot exceed 1000 operations")
+    private List<@NotNull(message = "Operation cannot be null") Operation> operations;
+
+    public enum Action {
+        CREATE, UPDATE, DELETE
+    }
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Operation {
+
+        @Schema(description = "Operation type", example = "UPDATE")
+        @NotNull(message = "Action is required")
+        private Action action;
+
+        @Schema(description = "Target product ID (UPDATE and DELETE only)", example = "12")
+        private Long id;
+
+        // Se valida por operación en el servicio (no con @Valid): un producto inválido no tumba el lote entero
+        @Schema(description = "Product data (CREATE and UPDATE only)")
+        private ProductDto product;
+    }
+}
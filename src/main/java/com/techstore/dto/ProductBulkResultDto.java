@@ -0,0 +1,49 @@
+package com.techstore.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Per-operation outcome of a bulk request")
+public class ProductBulkResultDto {
+
+    @Schema(description = "Operations applied", example = "98")
+    private int applied;
+
+    @Schema(description = "Operations rejected during validation (nothing was written for them)", example = "2")
+    private int rejected;
+
+    @Schema(description = "One entry per operation, in request order")
+    private List<Item> items;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL) // Sin "errors" en las operaciones aplicadas
+    public static class Item {
+
+        @Schema(description = "Position of the operation in the request", example = "0")
+        private int index;
+
+        @Schema(description = "Operation type", example = "CREATE")
+        private ProductBulkRequestDto.Action action;
+
+        @Schema(description = "Product ID (generated for CREATE)", example = "57")
+        private Long id;
+
+        @Schema(description = "Whether the operation was applied", example = "true")
+        private boolean success;
+
+        @Schema(description = "Why the operation was rejected")
+        private List<String> errors;
+    }
+}
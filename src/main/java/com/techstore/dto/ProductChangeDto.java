@@ -0,0 +1,30 @@
+package com.techstore.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.techstore.model.enums.ChangeType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL) // Las lápidas (DELETED) no llevan "product"
+@Schema(description = "One line of the catalog change feed (NDJSON)")
+public class ProductChangeDto {
+
+    @Schema(description = "Change sequence number (monotonic)", example = "1532")
+    private Long seq;
+
+    @Schema(description = "Kind of change", example = "UPDATED")
+    private ChangeType type;
+
+    @Schema(description = "Product ID", example = "42")
+    private Long id;
+
+    @Schema(description = "Current product state (absent for deletions)")
+    private ProductDto product;
+}
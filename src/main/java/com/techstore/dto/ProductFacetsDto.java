@@ -0,0 +1,59 @@
+package com.techstore.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Facet counts for the products matching the current filter")
+public class ProductFacetsDto {
+
+    @Schema(description = "Matches per category")
+    private List<FacetValue> categories;
+
+    @Schema(description = "Matches per provider")
+    private List<FacetValue> providers;
+
+    @Schema(description = "Matches per price band (lower bound inclusive, upper bound exclusive)")
+    private List<PriceBand> priceBands;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class FacetValue {
+
+        @Schema(description = "Category or provider ID", example = "1")
+        private Long id;
+
+        @Schema(description = "Category or provider name", example = "Electronics")
+        private String name;
+
+        @Schema(description = "Number of matching products", example = "42")
+        private long count;
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL) // Sin "from" en la primera banda ni "to" en la última
+    public static class PriceBand {
+
+        @Schema(description = "Inclusive lower bound (absent on the first band)", example = "100")
+        private BigDecimal from;
+
+        @Schema(description = "Exclusive upper bound (absent on the last band)", example = "500")
+        private BigDecimal to;
+
+        @Schema(description = "Number of matching products", example = "17")
+        private long count;
+    }
+}
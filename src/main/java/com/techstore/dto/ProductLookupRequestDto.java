@@ -0,0 +1,27 @@
+package com.techstore.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Product IDs to fetch in a single call")
+public class ProductLookupRequestDto {
+
+    // El servicio los parte en bloques de IN (...) de 1000 (límite de Oracle)
+    @Schema(description = "Product IDs (max 5000, duplicates allowed)", example = "[12, 7, 99]")
+    @NotEmpty(message = "At least one product ID is required")
+    @Size(max = 5000, message = "A lookup cannot exceed 5000 IDs")
+    private List<@NotNull(message = "Product ID cannot be null") @Positive(message = "Product ID must be positive") Long> ids;
+}
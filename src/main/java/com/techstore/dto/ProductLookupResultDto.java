@@ -0,0 +1,46 @@
+package com.techstore.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Products for a list of IDs, in request order")
+public class ProductLookupResultDto {
+
+    @Schema(description = "IDs found", example = "2")
+    private int found;
+
+    @Schema(description = "IDs that do not exist", example = "1")
+    private int missing;
+
+    @Schema(description = "One entry per requested ID, in request order")
+    private List<Item> items;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL) // Sin "product" en los IDs que no existen
+    public static class Item {
+
+        @Schema(description = "Requested product ID", example = "12")
+        private Long id;
+
+        @Schema(description = "Whether the product exists", example = "true")
+        private boolean found;
+
+        // JSON ya serializado (el mismo cuerpo que GET /api/products/{id}, compartido con su caché de bytes)
+        @Schema(description = "Product, same representation as GET /api/products/{id}", implementation = ProductDto.class)
+        @JsonRawValue
+        private String product;
+    }
+}
@@ -0,0 +1,71 @@
+package com.techstore.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Price change applied to every product matching the filters, in a single statement")
+public class ProductRepriceRequestDto {
+
+    public enum Mode {
+        PERCENT, AMOUNT
+    }
+
+    @Schema(description = "PERCENT: +10 raises prices 10%. AMOUNT: -5 lowers them 5 EUR", example = "PERCENT")
+    @NotNull(message = "Mode is required")
+    private Mode mode;
+
+    @Schema(description = "Percentage or amount (may be negative)", example = "10")
+    @NotNull(message = "Value is required")
+    @Digits(integer = 10, fraction = 4, message = "Value format is invalid")
+    private BigDecimal value;
+
+    // --- FILTROS (se combinan con AND; al menos uno) ---
+    @Schema(description = "Only products of this category", example = "2")
+    @Positive(message = "Category ID must be a positive number")
+    private Long categoryId;
+
+    @Schema(description = "Only products of this provider", example = "5")
+    @Positive(message = "Provider ID must be a positive number")
+    private Long providerId;
+
+    @Schema(description = "Same filters as /api/products/filter", example = "laptop")
+    private String name;
+
+    @Schema(description = "Same filters as /api/products/filter", example = "100")
+    private BigDecimal minPrice;
+
+    @Schema(description = "Same filters as /api/products/filter", example = "2000")
+    private BigDecimal maxPrice;
+
+    @Schema(description = "Same filters as /api/products/filter (category name)", example = "Laptops")
+    private String category;
+
+    // Un reprecio sin filtros tocaría el catálogo entero: se exige al menos uno
+    @JsonIgnore
+    @AssertTrue(message = "At least one filter is required (categoryId, providerId, name, minPrice, maxPrice or category)")
+    public boolean isFiltered() {
+        return categoryId != null || providerId != null || minPrice != null || maxPrice != null
+                || StringUtils.hasText(name) || StringUtils.hasText(category);
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "A percentage change must be greater than -100")
+    public boolean isPercentInRange() {
+        return mode != Mode.PERCENT || value == null || value.compareTo(BigDecimal.valueOf(-100)) > 0;
+    }
+}
@@ -0,0 +1,18 @@
+package com.techstore.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Outcome of a bulk price change")
+public class ProductRepriceResultDto {
+
+    @Schema(description = "Products whose price was changed", example = "128")
+    private int affected;
+}
@@ -0,0 +1,16 @@
+package com.techstore.event;
+
+import java.util.Set;
+
+/**
+ * Evento de dominio: ha cambiado el stock por ubicación de estos productos.
+ *
+ * No toca PRODUCT.STOCK en la transacción del escritor: LocationStockAggregator recalcula el
+ * total de los productos afectados en segundo plano y publica entonces su ProductChangedEvent.
+ */
+public record LocationStockChangedEvent(Set<Long> productIds) {
+
+    public static LocationStockChangedEvent of(Long productId) {
+        return new LocationStockChangedEvent(Set.of(productId));
+    }
+}
@@ -0,0 +1,32 @@
+package com.techstore.event;
+
+import com.techstore.model.enums.ChangeType;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Evento de dominio: uno o varios productos se han creado, modificado o borrado.
+ *
+ * Se publica dentro de la transacción de escritura. El registro de cambios lo persiste antes del
+ * commit (misma transacción); las copias en memoria del catálogo lo reciben tras el commit.
+ * Renombrar o borrar una categoría publica los IDs de todos sus productos.
+ */
+public record ProductChangedEvent(ChangeType type, Set<Long> productIds) {
+
+    public static ProductChangedEvent created(Long productId) {
+        return new ProductChangedEvent(ChangeType.CREATED, Set.of(productId));
+    }
+
+    public static ProductChangedEvent updated(Long productId) {
+        return new ProductChangedEvent(ChangeType.UPDATED, Set.of(productId));
+    }
+
+    public static ProductChangedEvent deleted(Long productId) {
+        return new ProductChangedEvent(ChangeType.DELETED, Set.of(productId));
+    }
+
+    public static ProductChangedEvent of(ChangeType type, Collection<Long> productIds) {
+        return new ProductChangedEvent(type, Set.copyOf(productIds));
+    }
+}
@@ -0,0 +1,22 @@
+package com.techstore.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Evento de dominio: el precio de uno o varios productos ha cambiado (producto -> precio nuevo).
+ *
+ * Alimenta el histórico de precios. Los reprecios masivos no lo publican: el histórico lee sus
+ * precios nuevos por la marca de ProductsBulkUpdatedEvent justo antes del commit.
+ */
+public record ProductPricesChangedEvent(Map<Long, BigDecimal> prices, LocalDateTime changedAt) {
+
+    public static ProductPricesChangedEvent of(Long productId, BigDecimal price) {
+        return new ProductPricesChangedEvent(Map.of(productId, price), LocalDateTime.now());
+    }
+
+    public static ProductPricesChangedEvent of(Map<Long, BigDecimal> prices) {
+        return new ProductPricesChangedEvent(Map.copyOf(prices), LocalDateTime.now());
+    }
+}
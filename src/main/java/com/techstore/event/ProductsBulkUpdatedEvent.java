@@ -0,0 +1,12 @@
+package com.techstore.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento de dominio: una sentencia masiva (UPDATE ... WHERE) ha modificado un conjunto de productos.
+ *
+ * No lleva IDs: los productos afectados son los que quedaron con UPDATED_AT = updatedAt. Así el
+ * registro de cambios y las cachés se actualizan de una vez, sin leer ni recorrer las filas.
+ */
+public record ProductsBulkUpdatedEvent(LocalDateTime updatedAt) {
+}
@@ -0,0 +1,18 @@
+package com.techstore.event;
+
+/**
+ * Evento de dominio: se ha creado, modificado o borrado una categoría o un proveedor.
+ *
+ * Tras el commit invalida la caché de datos de referencia de esta instancia y se reenvía
+ * por el canal de difusión (si lo hay) al resto de instancias.
+ */
+public record ReferenceDataChangedEvent(String entity, Long id) {
+
+    public static ReferenceDataChangedEvent category(Long id) {
+        return new ReferenceDataChangedEvent("Category", id);
+    }
+
+    public static ReferenceDataChangedEvent provider(Long id) {
+        return new ReferenceDataChangedEvent("Provider", id);
+    }
+}
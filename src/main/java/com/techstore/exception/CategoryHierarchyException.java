@@ -0,0 +1,14 @@
+package com.techstore.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// 409 (Conflict): la petición está bien formada, pero rompería el árbol de categorías
+// (colgar una categoría de sí misma o de un descendiente, borrar una categoría con hijas)
+@ResponseStatus(HttpStatus.CONFLICT)
+public class CategoryHierarchyException extends RuntimeException {
+
+    public CategoryHierarchyException(String message) {
+        super(message);
+    }
+}
@@ -111,4 +111,80 @@ public class GlobalExceptionHandler {
 
         return new ResponseEntity<>(apiError, HttpStatus.CONFLICT);
     }
-}
\ No newline at end of file
+
+    // 6. Handle Invalid Query Parameters (cursor, sort, etc.)
+    @ExceptionHandler(InvalidQueryParameterException.class)
+    public ResponseEntity<ApiError> handleInvalidQueryParameterException(InvalidQueryParameterException exception, HttpServletRequest request) {
+        ApiError apiError = ApiError.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.BAD_REQUEST.value())
+                .error(HttpStatus.BAD_REQUEST.getReasonPhrase())
+                .message(exception.getMessage())
+                .path(request.getRequestURI())
+                .correlationId(getCorrelationId())
+                .build();
+
+        return new ResponseEntity<>(apiError, HttpStatus.BAD_REQUEST);
+    }
+
+    // 7. Handle Invalid Merge Patch Documents
+    @ExceptionHandler(InvalidPatchException.class)
+    public ResponseEntity<ApiError> handleInvalidPatchException(InvalidPatchException exception, HttpServletRequest request) {
+        ApiError apiError = ApiError.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.BAD_REQUEST.value())
+                .error(HttpStatus.BAD_REQUEST.getReasonPhrase())
+                .message(exception.getMessage())
+                .path(request.getRequestURI())
+                .details(exception.getDetails())
+                .correlationId(getCorrelationId())
+                .build();
+
+        return new ResponseEntity<>(apiError, HttpStatus.BAD_REQUEST);
+    }
+
+    // 8. Handle Failed Preconditions (If-Match)
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ApiError> handlePreconditionFailedException(PreconditionFailedException exception, HttpServletRequest request) {
+        ApiError apiError = ApiError.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.PRECONDITION_FAILED.value())
+                .error(HttpStatus.PRECONDITION_FAILED.getReasonPhrase())
+                .message(exception.getMessage())
+                .path(request.getRequestURI())
+                .correlationId(getCorrelationId())
+                .build();
+
+        return new ResponseEntity<>(apiError, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    // 9. Handle Category Hierarchy Conflicts (cycles, categories with children)
+    @ExceptionHandler(CategoryHierarchyException.class)
+    public ResponseEntity<ApiError> handleCategoryHierarchyException(CategoryHierarchyException exception, HttpServletRequest request) {
+        ApiError apiError = ApiError.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.CONFLICT.value())
+                .error(HttpStatus.CONFLICT.getReasonPhrase())
+                .message(exception.getMessage())
+                .path(request.getRequestURI())
+                .correlationId(getCorrelationId())
+                .build();
+
+        return new ResponseEntity<>(apiError, HttpStatus.CONFLICT);
+    }
+
+    // 10. Handle Stock Writes on Products Stocked per Location
+    @ExceptionHandler(StockManagedByLocationException.class)
+    public ResponseEntity<ApiError> handleStockManagedByLocationException(StockManagedByLocationException exception, HttpServletRequest request) {
+        ApiError apiError = ApiError.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.CONFLICT.value())
+                .error(HttpStatus.CONFLICT.getReasonPhrase())
+                .message(exception.getMessage())
+                .path(request.getRequestURI())
+                .correlationId(getCorrelationId())
+                .build();
+
+        return new ResponseEntity<>(apiError, HttpStatus.CONFLICT);
+    }
+}
@@ -0,0 +1,20 @@
+package com.techstore.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.List;
+
+// 400 (Bad Request): documento JSON Merge Patch con campos desconocidos, de solo lectura o con valores inválidos
+@Getter
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidPatchException extends RuntimeException {
+
+    private final List<String> details;
+
+    public InvalidPatchException(List<String> details) {
+        super("Invalid merge patch document");
+        this.details = details;
+    }
+}
@@ -0,0 +1,14 @@
+package com.techstore.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// 400 (Bad Request): el cliente envió un parámetro de consulta que no podemos interpretar
+// (cursor corrupto, propiedad de ordenación no soportada, etc.)
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidQueryParameterException extends RuntimeException {
+
+    public InvalidQueryParameterException(String message) {
+        super(message);
+    }
+}
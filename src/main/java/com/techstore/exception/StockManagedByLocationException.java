@@ -0,0 +1,15 @@
+package com.techstore.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// 409 (Conflict): el producto tiene stock por ubicación y PRODUCT.STOCK es la suma de sus filas;
+// escribirlo directamente se perdería en el próximo recálculo
+@ResponseStatus(HttpStatus.CONFLICT)
+public class StockManagedByLocationException extends RuntimeException {
+
+    public StockManagedByLocationException(Long productId) {
+        super("Stock of product ID: " + productId + " is managed per location. "
+                + "Use PUT /api/products/" + productId + "/locations/{location} instead");
+    }
+}
@@ -0,0 +1,102 @@
+package com.techstore.filter;
+
+import com.techstore.controller.PageableConstraints;
+import com.techstore.exception.InvalidQueryParameterException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Valida size y sort contra el @PageableConstraints del endpoint antes de ejecutarlo.
+ *
+ * Lee los parámetros crudos de la petición (no el Pageable ya resuelto, que Spring recorta en silencio
+ * a max-page-size): así el cliente recibe un 400 explicando el límite en vez de una página distinta a la pedida.
+ */
+@Component
+public class PageableConstraintsInterceptor implements HandlerInterceptor {
+
+    private static final String SIZE_PARAMETER = "size";
+    private static final String SORT_PARAMETER = "sort";
+    // Tokens de ?sort= que no son propiedades: la dirección
+    private static final List<String> SORT_DIRECTIONS = List.of("asc", "desc");
+    // Spring Data lo traduce a ORDER BY UPPER(...): ningún índice lo sirve y volvería a ser un sort de tabla completa
+    private static final String IGNORE_CASE = "ignorecase";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod method) || !takesPageable(method)) {
+            return true;
+        }
+        PageableConstraints constraints = constraintsOf(method);
+        if (constraints == null) {
+            return true;
+        }
+        checkSize(request.getParameter(SIZE_PARAMETER), constraints);
+        String[] sorts = request.getParameterValues(SORT_PARAMETER);
+        if (sorts != null) {
+            for (String sort : sorts) {
+                checkSort(sort, constraints);
+            }
+        }
+        return true;
+    }
+
+    // --- MÉTODOS AUXILIARES ---
+
+    private static void checkSize(String size, PageableConstraints constraints) {
+        if (size == null) {
+            return;
+        }
+        int requested;
+        try {
+            requested = Integer.parseInt(size.trim());
+        } catch (NumberFormatException e) {
+            return; // Spring lo ignora y usa el size por defecto
+        }
+        if (requested > constraints.maxSize()) {
+            String message = "Page size " + requested + " exceeds the maximum of " + constraints.maxSize() + " for this endpoint";
+            if (!constraints.bulkAlternative().isEmpty()) {
+                message += ". For bulk reads use " + constraints.bulkAlternative();
+            }
+            throw new InvalidQueryParameterException(message);
+        }
+    }
+
+    // "name,desc" o "name,price,asc": todo lo que no sea una dirección es una propiedad
+    private static void checkSort(String sort, PageableConstraints constraints) {
+        for (String token : sort.split(",")) {
+            String property = token.trim();
+            if (property.isEmpty() || SORT_DIRECTIONS.contains(property.toLowerCase(Locale.ROOT))) {
+                continue;
+            }
+            if (IGNORE_CASE.equals(property.toLowerCase(Locale.ROOT))) {
+                throw new InvalidQueryParameterException("Case-insensitive sorting is not supported: "
+                        + "no index can serve it. Remove '" + property + "' from the sort parameter");
+            }
+            if (Arrays.stream(constraints.sort()).noneMatch(property::equals)) {
+                throw new InvalidQueryParameterException("Unsupported sort property '" + property
+                        + "'. Allowed (indexed): " + String.join(", ", constraints.sort()));
+            }
+        }
+    }
+
+    private static boolean takesPageable(HandlerMethod method) {
+        return Arrays.stream(method.getMethodParameters())
+                .anyMatch(parameter -> Pageable.class.isAssignableFrom(parameter.getParameterType()));
+    }
+
+    // La anotación del método manda sobre la del controlador
+    private static PageableConstraints constraintsOf(HandlerMethod method) {
+        PageableConstraints onMethod = method.getMethodAnnotation(PageableConstraints.class);
+        return onMethod != null ? onMethod
+                : AnnotatedElementUtils.findMergedAnnotation(method.getBeanType(), PageableConstraints.class);
+    }
+}
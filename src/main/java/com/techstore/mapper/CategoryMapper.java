@@ -14,6 +14,8 @@ public class CategoryMapper {
         return CategoryDto.builder()
                 .id(entity.getId())
                 .name(entity.getName())
+                // getId() de un proxy LAZY no lo inicializa: no hay SELECT del padre
+                .parentId(entity.getParent() != null ? entity.getParent().getId() : null)
                 .createdAt(entity.getCreatedAt()) // Don't forget the dates!
                 .updatedAt(entity.getUpdatedAt())
                 .build();
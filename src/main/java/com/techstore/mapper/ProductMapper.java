@@ -2,6 +2,7 @@ package com.techstore.mapper;
 
 import com.techstore.dto.ProductDto;
 import com.techstore.model.Product;
+import com.techstore.repository.projection.ProductView;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -11,6 +12,15 @@ public class ProductMapper {
     public ProductDto toDto(Product entity) {
         if (entity == null) return null;
 
+        return toDto(entity,
+                entity.getCategory() != null ? entity.getCategory().getName() : null,
+                entity.getProvider() != null ? entity.getProvider().getName() : null);
+    }
+
+    // ENTITY -> DTO con los nombres ya resueltos (caché de referencia): no inicializa los proxies de las relaciones
+    public ProductDto toDto(Product entity, String categoryName, String providerName) {
+        if (entity == null) return null;
+
         return ProductDto.builder()
                 .id(entity.getId())
                 .name(entity.getName())
@@ -19,8 +29,8 @@ public class ProductMapper {
                 .stock(entity.getStock())
 
                 // --- RELACIONES (INFORMACIÓN VISUAL) ---
-                .categoryName(entity.getCategory() != null ? entity.getCategory().getName() : "Sin Categoría")
-                .providerName(entity.getProvider() != null ? entity.getProvider().getName() : "Sin Proveedor")
+                .categoryName(categoryName != null ? categoryName : "Sin Categoría")
+                .providerName(providerName != null ? providerName : "Sin Proveedor")
 
                 // --- RELACIONES (IDS PARA LA LÓGICA) - ¡ESTO ME FALTABA! ---
                 .categoryId(entity.getCategory() != null ? entity.getCategory().getId() : null)
@@ -32,6 +42,25 @@ public class ProductMapper {
                 .build();
     }
 
+    // PROYECCIÓN -> DTO (Listados: los nombres ya vienen del JOIN, no hay carga perezosa)
+    public ProductDto fromView(ProductView view) {
+        if (view == null) return null;
+
+        return ProductDto.builder()
+                .id(view.id())
+                .name(view.name())
+                .description(view.description())
+                .price(view.price())
+                .stock(view.stock())
+                .categoryName(view.categoryName() != null ? view.categoryName() : "Sin Categoría")
+                .providerName(view.providerName() != null ? view.providerName() : "Sin Proveedor")
+                .categoryId(view.categoryId())
+                .providerId(view.providerId())
+                .createdAt(view.createdAt())
+                .updatedAt(view.updatedAt())
+                .build();
+    }
+
     // DTO -> ENTITY (Entrada: Lo que llega para guardar)
     public Product toEntity(ProductDto dto) {
         if (dto == null) return null;
@@ -8,7 +8,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "CATEGORY")
+@Table(name = "CATEGORY", indexes = {
+        // El filtro por categoría pasa a ser un lookup por índice sobre el nombre normalizado
+        @Index(name = "IDX_CATEGORY_NAME_SEARCH", columnList = "NAME_SEARCH")
+})
 @Getter
 @Setter
 @Data
@@ -26,11 +29,27 @@ public class Category extends BaseEntity {
     @Column(name = "NAME", nullable = false)
     private String name;
 
+    // Columna sombra: nombre normalizado (minúsculas, sin tildes), mantenida al guardar
+    @Column(name = "NAME_SEARCH")
+    private String nameSearch;
+
+    // Categoría padre (null = raíz). Los ancestros completos están en CATEGORY_CLOSURE
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "PARENT_ID")
+    @ToString.Exclude
+    private Category parent;
+
     @OneToMany(mappedBy = "category", cascade = CascadeType.ALL, orphanRemoval = true)
     @ToString.Exclude
     @Builder.Default
     private List<Product> products = new ArrayList<>();
 
+    @PrePersist
+    @PreUpdate
+    void normalizeSearchColumns() {
+        this.nameSearch = SearchText.normalize(name);
+    }
+
     // HELPER METHODS
     public void addProduct(Product product) {
         products.add(product);
@@ -0,0 +1,44 @@
+package com.techstore.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+// Tabla de cierre de la jerarquía de categorías: una fila por cada par (ancestro, descendiente),
+// incluida la de cada categoría consigo misma (DEPTH = 0). "Todo lo que cuelga de X" es un
+// recorrido de la PK por ANCESTOR_ID, sin consultas recursivas. La mantiene CategoryService.
+@Entity
+@Table(name = "CATEGORY_CLOSURE", indexes = {
+        // Ancestros de una categoría (breadcrumbs, mover un subárbol)
+        @Index(name = "IDX_CATEGORY_CLOSURE_DESCENDANT", columnList = "DESCENDANT_ID, ANCESTOR_ID")
+})
+@IdClass(CategoryClosure.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryClosure {
+
+    @Id
+    @Column(name = "ANCESTOR_ID", nullable = false)
+    private Long ancestorId;
+
+    @Id
+    @Column(name = "DESCENDANT_ID", nullable = false)
+    private Long descendantId;
+
+    @Column(name = "DEPTH", nullable = false)
+    private Integer depth;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long ancestorId;
+        private Long descendantId;
+    }
+}
@@ -0,0 +1,41 @@
+package com.techstore.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Stock de un producto en un almacén o tienda. Cada ubicación descuenta su propia fila, así las
+// ventas de sitios distintos no compiten por el mismo bloqueo; PRODUCT.STOCK pasa a ser el total
+// de estas filas (lo recalcula LocationStockAggregator).
+@Entity
+@Table(name = "LOCATION_STOCK", uniqueConstraints = {
+        @UniqueConstraint(name = "UK_LOCATION_STOCK_PRODUCT_LOCATION", columnNames = {"PRODUCT_ID", "LOCATION_CODE"})
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationStock {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "ID")
+    private Long id;
+
+    // Sin FK: las filas de un producto borrado se eliminan con su ProductChangedEvent
+    @Column(name = "PRODUCT_ID", nullable = false)
+    private Long productId;
+
+    @Column(name = "LOCATION_CODE", nullable = false, length = 30)
+    private String locationCode;
+
+    @Column(name = "QUANTITY", nullable = false)
+    private Integer quantity;
+
+    @Column(name = "UPDATED_AT", nullable = false)
+    private LocalDateTime updatedAt;
+}
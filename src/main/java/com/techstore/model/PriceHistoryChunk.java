@@ -0,0 +1,46 @@
+package com.techstore.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Histórico de precios: cada fila es un tramo de la serie de un producto (el volcado solo inserta;
+// PriceHistoryCompactor sustituye los tramos pequeños por uno fusionado),
+// codificado en DATA con PriceSeriesCodec (deltas de tiempo y de céntimos). FIRST_AT y LAST_AT
+// permiten descartar tramos por rango sin decodificarlos.
+@Entity
+@Table(name = "PRICE_HISTORY_CHUNK", indexes = {
+        @Index(name = "IDX_PRICE_HISTORY_PRODUCT", columnList = "PRODUCT_ID, LAST_AT")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceHistoryChunk {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "ID")
+    private Long id;
+
+    // Sin FK: el histórico sobrevive al borrado del producto
+    @Column(name = "PRODUCT_ID", nullable = false)
+    private Long productId;
+
+    @Column(name = "FIRST_AT", nullable = false)
+    private LocalDateTime firstAt;
+
+    @Column(name = "LAST_AT", nullable = false)
+    private LocalDateTime lastAt;
+
+    @Column(name = "POINTS", nullable = false)
+    private Integer points;
+
+    @Lob
+    @Column(name = "DATA", nullable = false)
+    private byte[] data;
+}
@@ -3,16 +3,24 @@ package com.techstore.model;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "PRODUCT")
+@Table(name = "PRODUCT", indexes = {
+        // Índices para la paginación por keyset: (clave de orden, ID)
+        @Index(name = "IDX_PRODUCT_NAME_ID", columnList = "NAME, ID"),
+        @Index(name = "IDX_PRODUCT_PRICE_ID", columnList = "PRICE, ID"),
+        // MAX(UPDATED_AT) para el ETag del catálogo: lectura del extremo del índice, sin recorrer la tabla
+        @Index(name = "IDX_PRODUCT_UPDATED_AT", columnList = "UPDATED_AT")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @SuperBuilder // <--- CRÍTICO: Cambiado de @Builder a @SuperBuilder
 @EqualsAndHashCode(callSuper = true)
+@DynamicUpdate // El UPDATE solo lleva las columnas modificadas: reduceStock no reescribe precio ni nombre
 public class Product extends BaseEntity {
 
     @Id
@@ -23,6 +31,11 @@ public class Product extends BaseEntity {
     @Column(name = "NAME", nullable = false)
     private String name;
 
+    // Columna sombra: nombre normalizado (minúsculas, sin tildes) para buscar sin LOWER() en la consulta.
+    // Se mantiene sola al guardar; nunca se escribe a mano.
+    @Column(name = "NAME_SEARCH")
+    private String nameSearch;
+
     @Column(name = "DESCRIPTION")
     private String description;
 
@@ -40,4 +53,10 @@ public class Product extends BaseEntity {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "PROVIDER_ID")
     private Provider provider;
+
+    @PrePersist
+    @PreUpdate
+    void normalizeSearchColumns() {
+        this.nameSearch = SearchText.normalize(name);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.techstore.model;
+
+import com.techstore.model.enums.ChangeType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Registro de cambios del catálogo (solo inserciones). El ID es la secuencia monótona del feed
+// incremental; las bajas quedan como lápida (DELETED) porque el producto se borra físicamente.
+@Entity
+@Table(name = "PRODUCT_CHANGE", indexes = {
+        @Index(name = "IDX_PRODUCT_CHANGE_CHANGED_AT", columnList = "CHANGED_AT")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "ID")
+    private Long id;
+
+    // Sin FK: la fila debe sobrevivir al borrado del producto
+    @Column(name = "PRODUCT_ID", nullable = false)
+    private Long productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "CHANGE_TYPE", nullable = false, length = 10)
+    private ChangeType changeType;
+
+    @Column(name = "CHANGED_AT", nullable = false)
+    private LocalDateTime changedAt;
+}
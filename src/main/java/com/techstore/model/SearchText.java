@@ -0,0 +1,25 @@
+package com.techstore.model;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+// Normalización de texto para las columnas de búsqueda (NAME_SEARCH):
+// minúsculas y sin tildes, "Periféricos" -> "perifericos".
+// Se aplica al escribir (entidades) y al consultar (ProductSpecifications) para que ambos lados coincidan
+// sin LOWER(columna). En CATEGORY la igualdad usa un índice normal; en PRODUCT el LIKE '%x%' no puede.
+public final class SearchText {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private SearchText() {
+    }
+
+    public static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        String decomposed = Normalizer.normalize(value.trim(), Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+}
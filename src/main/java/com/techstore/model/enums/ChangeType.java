@@ -0,0 +1,8 @@
+package com.techstore.model.enums;
+
+// Tipo de cambio de un producto en el registro de cambios (feed incremental para los TPV)
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
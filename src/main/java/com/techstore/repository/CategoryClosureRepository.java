@@ -0,0 +1,50 @@
+package com.techstore.repository;
+
+import com.techstore.model.CategoryClosure;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+// Mantenimiento de CATEGORY_CLOSURE: cada operación es una sola sentencia, sea cual sea la profundidad
+@Repository
+public interface CategoryClosureRepository extends JpaRepository<CategoryClosure, CategoryClosure.Key> {
+
+    // ¿Está "descendantId" dentro del subárbol de "ancestorId"? (incluida la propia categoría)
+    boolean existsByAncestorIdAndDescendantId(Long ancestorId, Long descendantId);
+
+    // Alta: la fila de la categoría consigo misma...
+    @Modifying
+    @Query("INSERT INTO CategoryClosure (ancestorId, descendantId, depth) " +
+            "SELECT c.id, c.id, 0 FROM Category c WHERE c.id = :id")
+    int insertSelf(@Param("id") Long id);
+
+    // ...y, al colgarla de un padre (alta o movimiento), un camino desde cada ancestro del padre
+    // hasta cada categoría de su subárbol
+    @Modifying
+    @Query("INSERT INTO CategoryClosure (ancestorId, descendantId, depth) " +
+            "SELECT up.ancestorId, down.descendantId, up.depth + down.depth + 1 " +
+            "FROM CategoryClosure up, CategoryClosure down " +
+            "WHERE up.descendantId = :parentId AND down.ancestorId = :id")
+    int attachSubtree(@Param("id") Long id, @Param("parentId") Long parentId);
+
+    // Movimiento: quita los caminos que entran al subárbol desde fuera (los internos se conservan)
+    @Modifying
+    @Query("DELETE FROM CategoryClosure c " +
+            "WHERE c.descendantId IN (SELECT d.descendantId FROM CategoryClosure d WHERE d.ancestorId = :id) " +
+            "AND c.ancestorId NOT IN (SELECT d.descendantId FROM CategoryClosure d WHERE d.ancestorId = :id)")
+    int detachSubtree(@Param("id") Long id);
+
+    // Baja de una categoría hoja: sus caminos desde los ancestros y consigo misma
+    @Modifying
+    @Query("DELETE FROM CategoryClosure c WHERE c.descendantId = :id")
+    int deleteLeaf(@Param("id") Long id);
+
+    // Arranque: categorías anteriores a la jerarquía (todas raíz) sin su fila propia
+    @Modifying
+    @Query("INSERT INTO CategoryClosure (ancestorId, descendantId, depth) " +
+            "SELECT c.id, c.id, 0 FROM Category c " +
+            "WHERE NOT EXISTS (SELECT 1 FROM CategoryClosure cc WHERE cc.ancestorId = c.id AND cc.descendantId = c.id)")
+    int insertMissingSelfRows();
+}
@@ -1,10 +1,61 @@
 package com.techstore.repository;
 
 import com.techstore.model.Category;
+import com.techstore.repository.projection.CategoryNodeRow;
+import com.techstore.repository.projection.CategoryRef;
+import com.techstore.repository.projection.CategorySummary;
+import com.techstore.repository.projection.NameRow;
+import com.techstore.repository.projection.TableStamp;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
 
-}
\ No newline at end of file
+    // Columna sombra NAME_SEARCH (relleno de filas anteriores a la columna), por ID como en ProductRepository
+    @Query("SELECT new com.techstore.repository.projection.NameRow(c.id, c.name) FROM Category c " +
+            "WHERE c.nameSearch IS NULL AND c.id > :afterId ORDER BY c.id")
+    List<NameRow> findRowsWithoutNameSearch(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Category c SET c.nameSearch = :nameSearch WHERE c.id = :id")
+    int updateNameSearch(@Param("id") Long id, @Param("nameSearch") String nameSearch);
+
+    // Versiones para GET condicional (ETag / Last-Modified)
+    @Query("SELECT new com.techstore.repository.projection.TableStamp(COUNT(c), MAX(c.updatedAt)) FROM Category c")
+    TableStamp findTableStamp();
+
+    @Query("SELECT COALESCE(c.updatedAt, c.createdAt) FROM Category c WHERE c.id = :id")
+    Optional<LocalDateTime> findStampById(@Param("id") Long id);
+
+    // Listado con agregados: un GROUP BY con LEFT JOIN (la colección products nunca se inicializa)
+    @Query(value = "SELECT new com.techstore.repository.projection.CategorySummary(" +
+            "c.id, c.name, COUNT(p), SUM(p.stock), MIN(p.price), MAX(p.price)) " +
+            "FROM Category c LEFT JOIN c.products p GROUP BY c.id, c.name",
+            countQuery = "SELECT COUNT(c) FROM Category c")
+    Page<CategorySummary> findSummaries(Pageable pageable);
+
+    // DELETE directo: deleteById carga la entidad y, por la cascada, cada uno de sus productos
+    @Modifying
+    @Query("DELETE FROM Category c WHERE c.id = :id")
+    int deleteCategoryById(@Param("id") Long id);
+
+    // Caché de datos de referencia: la tabla entera como proyección (sin entidades ni colecciones)
+    @Query("SELECT new com.techstore.repository.projection.CategoryRef(c.id, c.name) FROM Category c")
+    List<CategoryRef> findAllRefs();
+
+    // Árbol de categorías en memoria: id, nombre y padre (PARENT_ID, sin JOIN)
+    @Query("SELECT new com.techstore.repository.projection.CategoryNodeRow(c.id, c.name, c.parent.id) FROM Category c")
+    List<CategoryNodeRow> findAllNodes();
+
+    boolean existsByParentId(Long parentId);
+}
@@ -0,0 +1,54 @@
+package com.techstore.repository;
+
+import com.techstore.model.LocationStock;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface LocationStockRepository extends JpaRepository<LocationStock, Long> {
+
+    List<LocationStock> findByProductIdOrderByLocationCode(Long productId);
+
+    Optional<LocationStock> findByProductIdAndLocationCode(Long productId, String locationCode);
+
+    boolean existsByProductId(Long productId);
+
+    // Productos del conjunto que llevan el stock por ubicación
+    @Query("SELECT DISTINCT s.productId FROM LocationStock s WHERE s.productId IN :productIds")
+    List<Long> findProductIdsIn(@Param("productIds") Collection<Long> productIds);
+
+    // Descuento atómico: solo si la ubicación tiene bastante. 0 filas = sin stock suficiente (o no existe)
+    @Modifying
+    @Query("UPDATE LocationStock s SET s.quantity = s.quantity - :quantity, s.updatedAt = :updatedAt " +
+            "WHERE s.productId = :productId AND s.locationCode = :locationCode AND s.quantity >= :quantity")
+    int decrement(@Param("productId") Long productId,
+                  @Param("locationCode") String locationCode,
+                  @Param("quantity") int quantity,
+                  @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Ubicaciones que pueden servir la cantidad entera, de más a menos stock
+    @Query("SELECT s.locationCode FROM LocationStock s WHERE s.productId = :productId AND s.quantity >= :quantity " +
+            "ORDER BY s.quantity DESC, s.locationCode")
+    List<String> findCandidates(@Param("productId") Long productId, @Param("quantity") int quantity, Pageable limit);
+
+    @Query("SELECT COALESCE(SUM(s.quantity), 0) FROM LocationStock s WHERE s.productId = :productId")
+    long sumQuantity(@Param("productId") Long productId);
+
+    // Productos con ubicaciones cuyo PRODUCT.STOCK no es la suma de ellas (recálculos pendientes o perdidos)
+    @Query("SELECT s.productId FROM LocationStock s JOIN Product p ON p.id = s.productId " +
+            "GROUP BY s.productId, p.stock HAVING p.stock IS NULL OR p.stock <> SUM(s.quantity)")
+    List<Long> findProductIdsOutOfSync();
+
+    @Modifying
+    @Query("DELETE FROM LocationStock s WHERE s.productId IN :productIds")
+    int deleteByProductIdIn(@Param("productIds") Collection<Long> productIds);
+}
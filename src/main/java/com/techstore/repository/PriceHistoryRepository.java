@@ -0,0 +1,33 @@
+package com.techstore.repository;
+
+import com.techstore.model.PriceHistoryChunk;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PriceHistoryRepository extends JpaRepository<PriceHistoryChunk, Long> {
+
+    // Tramos que se solapan con [from, to], en orden de escritura (IDX_PRICE_HISTORY_PRODUCT)
+    @Query("SELECT c FROM PriceHistoryChunk c WHERE c.productId = :productId " +
+            "AND c.lastAt >= :from AND c.firstAt <= :to ORDER BY c.firstAt, c.id")
+    List<PriceHistoryChunk> findOverlapping(@Param("productId") Long productId,
+                                            @Param("from") LocalDateTime from,
+                                            @Param("to") LocalDateTime to);
+
+    // Compactación: productos con varios tramos pequeños y esos tramos, en orden de tiempo
+    @Query("SELECT c.productId FROM PriceHistoryChunk c WHERE c.points < :maxPoints " +
+            "GROUP BY c.productId HAVING COUNT(c) > 1 ORDER BY c.productId")
+    List<Long> findProductsWithSmallChunks(@Param("maxPoints") int maxPoints, Pageable limit);
+
+    @Query("SELECT c FROM PriceHistoryChunk c WHERE c.productId IN :productIds AND c.points < :maxPoints " +
+            "ORDER BY c.productId, c.firstAt, c.id")
+    List<PriceHistoryChunk> findSmallChunks(@Param("productIds") Collection<Long> productIds,
+                                            @Param("maxPoints") int maxPoints);
+}
@@ -0,0 +1,34 @@
+package com.techstore.repository;
+
+import com.techstore.model.ProductChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ProductChangeRepository extends JpaRepository<ProductChange, Long> {
+
+    // Cambios posteriores a la marca de agua y ya "asentados" (ver ProductChangeFeed), en orden de secuencia
+    @Query("SELECT c FROM ProductChange c WHERE c.id > :since AND c.changedAt <= :settledBefore ORDER BY c.id")
+    List<ProductChange> findSettledAfter(@Param("since") long since,
+                                         @Param("settledBefore") LocalDateTime settledBefore,
+                                         Pageable pageable);
+
+    // Arranque del registro: un CREATED por cada producto existente, en una sola sentencia
+    @Modifying
+    @Query("INSERT INTO ProductChange (productId, changeType, changedAt) " +
+            "SELECT p.id, com.techstore.model.enums.ChangeType.CREATED, :changedAt FROM Product p")
+    int insertCreatedForAllProducts(@Param("changedAt") LocalDateTime changedAt);
+
+    // Cambios masivos (reprecio...): un UPDATED por cada producto marcado con ese UPDATED_AT, en una sola sentencia
+    @Modifying
+    @Query("INSERT INTO ProductChange (productId, changeType, changedAt) " +
+            "SELECT p.id, com.techstore.model.enums.ChangeType.UPDATED, :updatedAt FROM Product p WHERE p.updatedAt = :updatedAt")
+    int insertUpdatedAt(@Param("updatedAt") LocalDateTime updatedAt);
+}
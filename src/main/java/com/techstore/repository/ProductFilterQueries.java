@@ -0,0 +1,80 @@
+package com.techstore.repository;
+
+import com.techstore.repository.spec.ProductFilter;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JPQL de /api/products/filter, una variante por combinación de criterios presentes.
+ *
+ * Con Criteria, cada llamada construía el árbol de la consulta y Hibernate lo volvía a traducir.
+ * Aquí el texto se genera una sola vez (16 WHERE fijos, solo con parámetros) y, al ser siempre
+ * el mismo, Hibernate reutiliza su interpretación desde la caché de planes de consulta.
+ * Las variantes con ORDER BY se generan la primera vez que se piden y se quedan en memoria.
+ */
+final class ProductFilterQueries {
+
+    // Tope de variantes ordenadas en memoria: los órdenes admitidos por el endpoint dan muchas menos
+    private static final int MAX_SORTED_VARIANTS = 512;
+
+    private static final String[] WHERE = new String[ProductFilter.COMBINATIONS];
+    private static final String[] COUNT = new String[ProductFilter.COMBINATIONS];
+
+    private static final Map<Key, String> SELECT = new ConcurrentHashMap<>();
+
+    static {
+        for (int mask = 0; mask < ProductFilter.COMBINATIONS; mask++) {
+            WHERE[mask] = where(mask);
+            COUNT[mask] = "SELECT COUNT(p) FROM Product p" + WHERE[mask];
+        }
+    }
+
+    private ProductFilterQueries() {
+    }
+
+    static String select(int mask, Sort sort) {
+        Key key = new Key(mask, sort);
+        String cached = SELECT.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        String jpql = QueryUtils.applySorting(ProductRepository.VIEW_SELECT + WHERE[mask], sort, "p");
+        if (SELECT.size() < MAX_SORTED_VARIANTS) {
+            SELECT.putIfAbsent(key, jpql);
+        }
+        return jpql;
+    }
+
+    static String count(int mask) {
+        return COUNT[mask];
+    }
+
+    // Mismos predicados que ProductSpecifications (nombre con LIKE sobre NAME_SEARCH, categoría con su subárbol)
+    private static String where(int mask) {
+        StringBuilder where = new StringBuilder();
+        if ((mask & ProductFilter.NAME) != 0) {
+            and(where, "p.nameSearch LIKE :name");
+        }
+        if ((mask & ProductFilter.MIN_PRICE) != 0) {
+            and(where, "p.price >= :minPrice");
+        }
+        if ((mask & ProductFilter.MAX_PRICE) != 0) {
+            and(where, "p.price <= :maxPrice");
+        }
+        if ((mask & ProductFilter.CATEGORY) != 0) {
+            and(where, "p.category.id IN (SELECT cc.descendantId FROM CategoryClosure cc, Category ac " +
+                    "WHERE cc.ancestorId = ac.id AND ac.nameSearch = :category)");
+        }
+        return where.toString();
+    }
+
+    private static void and(StringBuilder where, String predicate) {
+        where.append(where.isEmpty() ? " WHERE " : " AND ").append(predicate);
+    }
+
+    private record Key(int mask, Sort sort) {
+    }
+}
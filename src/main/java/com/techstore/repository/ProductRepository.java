@@ -1,37 +1,158 @@
 package com.techstore.repository;
 
 import com.techstore.model.Product;
+import com.techstore.repository.projection.CatalogRow;
+import com.techstore.repository.projection.NameRow;
+import com.techstore.repository.projection.ProductIdStamp;
+import com.techstore.repository.projection.ProductPrice;
+import com.techstore.repository.projection.ProductStamp;
+import com.techstore.repository.projection.ProductStock;
+import com.techstore.repository.projection.ProductView;
+import com.techstore.repository.projection.TableStamp;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
-    @EntityGraph(attributePaths = {"category", "provider"})
-    Page<Product> findByNameContainingIgnoreCase(String name, Pageable pageable);
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>, ProductRepositoryCustom {
+
+    // Cabecera común de las consultas de listado: proyección + JOIN a las relaciones en una sola sentencia
+    String VIEW_SELECT = "SELECT new com.techstore.repository.projection.ProductView(" +
+            "p.id, p.name, p.description, p.price, p.stock, " +
+            "c.id, c.name, pr.id, pr.name, p.createdAt, p.updatedAt) " +
+            "FROM Product p LEFT JOIN p.category c LEFT JOIN p.provider pr";
+
+    // Cabecera de la snapshot columnar: las columnas del filtro y las facetas, sin DESCRIPTION
+    String CATALOG_ROW_SELECT = "SELECT new com.techstore.repository.projection.CatalogRow(" +
+            "p.id, p.name, p.price, c.id, c.name, pr.id, pr.name) " +
+            "FROM Product p LEFT JOIN p.category c LEFT JOIN p.provider pr";
+
+    // Filas por viaje de red en las consultas en streaming (el driver de Oracle trae 10 por defecto)
+    String STREAM_FETCH_SIZE = "500";
 
     Page<Product> findByPriceBetweenAndCategoryName(BigDecimal min, BigDecimal max, String categoryName, Pageable pageable);
 
-    //1. DERIVED QUERY (Magia de Spring)
-    //Esto traduce automáticamente a: SELECT * FROM PRODUCT WHERE STOCK < ?
-    List<Product> findByStockLessThan(Integer maxStock);
+    // Los listados no cargan entidades: cada Product arrastraría los SELECT perezosos de categoría y proveedor (N+1).
+    // PROYECCIONES (DTO por constructor): una sola sentencia por llamada, sin N+1
+    @Query(value = VIEW_SELECT, countQuery = "SELECT count(p) FROM Product p")
+    Page<ProductView> findAllViews(Pageable pageable);
 
-    //2. DERIVED QUERY (Más magia)
-    //Esto traduce a: SELECT * FROM PRODUCT WHERE PRICE >=?
-    List<Product> findByPriceGreaterThanEqual(BigDecimal minPrice);
+    // Top-N por precio: recorre IDX_PRODUCT_PRICE_ID hacia atrás y para en N filas (FETCH FIRST con Pageable, sin COUNT)
+    @Query(VIEW_SELECT + " WHERE p.price >= :minPrice ORDER BY p.price DESC, p.id DESC")
+    List<ProductView> findTopViewsByPrice(@Param("minPrice") BigDecimal minPrice, Pageable limit);
 
-    //3. JPQL (Java Persistence Query Language) - El Francotirador
-    //Aquí debo escribir SQL pero usando las Clases (Product) no las tablas.
-    //UPPER() sirve para ignorar mayúsculas/minúsculas (Oracle es estricto con esto)
-    @Query("SELECT p FROM Product p WHERE UPPER(p.name) LIKE UPPER(CONCAT('%', :term, '%')) " +
+    @Query(VIEW_SELECT + " WHERE UPPER(p.name) LIKE UPPER(CONCAT('%', :term, '%')) " +
             "OR UPPER(p.description) LIKE UPPER(CONCAT('%', :term, '%'))")
-    List<Product> searchByTerm(@Param("term") String term);
-}
\ No newline at end of file
+    List<ProductView> searchViewsByTerm(@Param("term") String term);
+
+    // Búsquedas en streaming (NDJSON) por stock, precio mínimo y término: el driver trae las filas en bloques de
+    // STREAM_FETCH_SIZE y se escriben según llegan; ni lista completa en memoria ni entidades en la sesión.
+    // Requieren una transacción abierta mientras se consume el Stream (y cerrarlo al terminar)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(VIEW_SELECT + " WHERE p.stock < :maxStock ORDER BY p.id")
+    Stream<ProductView> streamViewsByStockLessThan(@Param("maxStock") Integer maxStock);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(VIEW_SELECT + " WHERE p.price >= :minPrice ORDER BY p.id")
+    Stream<ProductView> streamViewsByPriceGreaterThanEqual(@Param("minPrice") BigDecimal minPrice);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(VIEW_SELECT + " WHERE UPPER(p.name) LIKE UPPER(CONCAT('%', :term, '%')) " +
+            "OR UPPER(p.description) LIKE UPPER(CONCAT('%', :term, '%')) ORDER BY p.id")
+    Stream<ProductView> streamViewsByTerm(@Param("term") String term);
+
+    // Índice de stock bajo en memoria: carga completa (dos columnas) y refresco de los productos que cambian
+    @Query("SELECT new com.techstore.repository.projection.ProductStock(p.id, p.stock) FROM Product p")
+    List<ProductStock> findAllStocks();
+
+    @Query("SELECT new com.techstore.repository.projection.ProductStock(p.id, p.stock) FROM Product p WHERE p.id IN :ids")
+    List<ProductStock> findStocksByIdIn(@Param("ids") Collection<Long> ids);
+
+    // SELECT ... FOR UPDATE: la venta sin ubicación y el paso a stock por ubicación se turnan sobre la fila del
+    // producto, así ninguno lee un PRODUCT.STOCK que el otro está a punto de cambiar
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id = :id")
+    Optional<Product> findByIdForUpdate(@Param("id") Long id);
+
+    // Snapshot columnar: carga completa en orden de nombre (el límite con Pageable) y refresco de los productos que cambian
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE))
+    @Query(CATALOG_ROW_SELECT + " ORDER BY p.name, p.id")
+    List<CatalogRow> findCatalogRows(Pageable limit);
+
+    @Query(CATALOG_ROW_SELECT + " WHERE p.id IN :ids")
+    List<CatalogRow> findCatalogRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(CATALOG_ROW_SELECT + " WHERE p.updatedAt = :updatedAt")
+    List<CatalogRow> findCatalogRowsUpdatedAt(@Param("updatedAt") LocalDateTime updatedAt);
+
+    // Precios que dejó un reprecio masivo (los productos marcados con ese UPDATED_AT), leídos antes de su commit
+    @Query("SELECT new com.techstore.repository.projection.ProductPrice(p.id, p.price) FROM Product p WHERE p.updatedAt = :updatedAt")
+    List<ProductPrice> findPricesUpdatedAt(@Param("updatedAt") LocalDateTime updatedAt);
+
+    // Stock por ubicación: PRODUCT.STOCK = suma de LOCATION_STOCK, recalculada para varios productos en una sentencia
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = (SELECT CAST(COALESCE(SUM(s.quantity), 0) AS Integer) FROM LocationStock s " +
+            "WHERE s.productId = p.id), p.updatedAt = :updatedAt WHERE p.id IN :ids")
+    int refreshStockFromLocations(@Param("ids") Collection<Long> ids, @Param("updatedAt") LocalDateTime updatedAt);
+
+    //5. COLUMNA SOMBRA NAME_SEARCH (relleno de filas anteriores a la columna)
+    // Por ID: un nombre que se normaliza a "" sigue en NULL en Oracle y no debe volver en el siguiente lote
+    @Query("SELECT new com.techstore.repository.projection.NameRow(p.id, p.name) FROM Product p " +
+            "WHERE p.nameSearch IS NULL AND p.id > :afterId ORDER BY p.id")
+    List<NameRow> findRowsWithoutNameSearch(@Param("afterId") Long afterId, Pageable pageable);
+
+    // UPDATE directo: no pasa por la auditoría, así el relleno no altera UPDATED_AT
+    @Modifying
+    @Query("UPDATE Product p SET p.nameSearch = :nameSearch WHERE p.id = :id")
+    int updateNameSearch(@Param("id") Long id, @Param("nameSearch") String nameSearch);
+
+    // IDs de una categoría: para publicar sus cambios al renombrarla o borrarla
+    @Query("SELECT p.id FROM Product p WHERE p.category.id = :categoryId")
+    List<Long> findIdsByCategoryId(@Param("categoryId") Long categoryId);
+
+    //6. OPERACIONES MASIVAS: una sentencia para todo el lote, sin cargar entidades
+    @Query("SELECT p.id FROM Product p WHERE p.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // DELETE directo: deleteById carga la entidad antes de borrarla (SELECT + DELETE por fila)
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM Product p WHERE p.id IN :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Baja de una categoría entera: un DELETE, sin pasar por la cascada de Category.products
+    @Modifying
+    @Query("DELETE FROM Product p WHERE p.category.id = :categoryId")
+    int deleteByCategoryId(@Param("categoryId") Long categoryId);
+
+    //7. VERSIONES PARA GET CONDICIONAL (ETag / Last-Modified): agregados, sin cargar filas
+    @Query("SELECT new com.techstore.repository.projection.TableStamp(COUNT(p), MAX(p.updatedAt)) FROM Product p")
+    TableStamp findTableStamp();
+
+    @Query("SELECT new com.techstore.repository.projection.ProductStamp(COALESCE(p.updatedAt, p.createdAt), " +
+            "COALESCE(c.updatedAt, c.createdAt), COALESCE(pr.updatedAt, pr.createdAt)) " +
+            "FROM Product p LEFT JOIN p.category c LEFT JOIN p.provider pr WHERE p.id = :id")
+    Optional<ProductStamp> findStampById(@Param("id") Long id);
+
+    // Versiones de un bloque de IDs de una vez: los inexistentes simplemente no aparecen
+    @Query("SELECT new com.techstore.repository.projection.ProductIdStamp(p.id, COALESCE(p.updatedAt, p.createdAt), " +
+            "COALESCE(c.updatedAt, c.createdAt), COALESCE(pr.updatedAt, pr.createdAt)) " +
+            "FROM Product p LEFT JOIN p.category c LEFT JOIN p.provider pr WHERE p.id IN :ids")
+    List<ProductIdStamp> findStampsByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,63 @@
+package com.techstore.repository;
+
+import com.techstore.model.Product;
+import com.techstore.repository.projection.FacetCount;
+import com.techstore.repository.projection.ProductView;
+import com.techstore.repository.spec.ProductField;
+import com.techstore.repository.spec.ProductFilter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Consultas que Spring Data no sabe derivar solo (implementadas en ProductRepositoryImpl).
+// Ninguna carga entidades: proyección ProductView (o solo los campos pedidos) en una sentencia con JOIN.
+public interface ProductRepositoryCustom {
+
+    // Página con total (COUNT(*) sobre el mismo predicado, omitido si la primera página ya lo revela)
+    Page<ProductView> findViews(Specification<Product> spec, Pageable pageable);
+
+    // Página sin COUNT(*): pide size + 1 filas para saber si hay siguiente
+    Slice<ProductView> findViewSlice(Specification<Product> spec, Pageable pageable);
+
+    // Las primeras "limit" filas según el orden dado (paginación por keyset)
+    List<ProductView> findViews(Specification<Product> spec, Sort sort, int limit);
+
+    // /filter con la consulta precompilada de su combinación de criterios (solo parámetros, sin Criteria)
+    Page<ProductView> findFilteredViews(ProductFilter filter, Pageable pageable);
+
+    Slice<ProductView> findFilteredViewSlice(ProductFilter filter, Pageable pageable);
+
+    long countFiltered(ProductFilter filter);
+
+    // ?fields=: solo las columnas pedidas (JOIN solo si se piden nombres de categoría / proveedor).
+    // Cada fila es un mapa nombre JSON -> valor, en el orden de ProductField
+    Page<Map<String, Object>> findFields(Specification<Product> spec, Set<ProductField> fields, Pageable pageable);
+
+    Slice<Map<String, Object>> findFieldSlice(Specification<Product> spec, Set<ProductField> fields, Pageable pageable);
+
+    // Facetas (cuando no hay snapshot en memoria): GROUP BY sobre el mismo predicado del filtro
+    List<FacetCount> countByCategory(Specification<Product> spec);
+
+    List<FacetCount> countByProvider(Specification<Product> spec);
+
+    // Una fila con un SUM(CASE ...) por banda: [-, b0), [b0, b1), ..., [bN, -). Límites ordenados
+    List<Long> countByPriceBand(Specification<Product> spec, List<BigDecimal> bounds);
+
+    // Reprecio masivo en un solo UPDATE: price = ROUND(price * factor + delta, 2), UPDATED_AT = updatedAt.
+    // Filtra como /filter más categoría y proveedor exactos (null = sin filtro).
+    // Las filas cuyo precio nuevo no sería positivo se dejan como están. Devuelve las filas modificadas.
+    int updatePrices(ProductFilter filter, Long categoryId, Long providerId,
+                     BigDecimal factor, BigDecimal delta, LocalDateTime updatedAt);
+
+    // PATCH: UPDATE solo de los atributos dados (nombre de atributo -> valor) más UPDATED_AT.
+    // Con expectedVersion, solo si COALESCE(UPDATED_AT, CREATED_AT) sigue siendo ese: 0 filas = alguien escribió antes.
+    int patch(Long id, Map<String, Object> changes, LocalDateTime updatedAt, LocalDateTime expectedVersion);
+}
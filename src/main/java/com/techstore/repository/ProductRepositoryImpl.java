@@ -0,0 +1,347 @@
+package com.techstore.repository;
+
+import com.techstore.model.Category;
+import com.techstore.model.Product;
+import com.techstore.model.Provider;
+import com.techstore.repository.projection.FacetCount;
+import com.techstore.repository.projection.ProductView;
+import com.techstore.repository.spec.ProductField;
+import com.techstore.repository.spec.ProductFilter;
+import com.techstore.repository.spec.ProductSpecifications;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Spring Data detecta esta clase por el sufijo "Impl" y la fusiona con ProductRepository
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<ProductView> findViews(Specification<Product> spec, Pageable pageable) {
+        List<ProductView> content = viewQuery(spec, pageable.getSort())
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(spec));
+    }
+
+    @Override
+    public Slice<ProductView> findViewSlice(Specification<Product> spec, Pageable pageable) {
+        List<ProductView> rows = viewQuery(spec, pageable.getSort())
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    @Override
+    public List<ProductView> findViews(Specification<Product> spec, Sort sort, int limit) {
+        return viewQuery(spec, sort)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Page<ProductView> findFilteredViews(ProductFilter filter, Pageable pageable) {
+        List<ProductView> content = filteredViewQuery(filter, pageable.getSort())
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> countFiltered(filter));
+    }
+
+    @Override
+    public Slice<ProductView> findFilteredViewSlice(ProductFilter filter, Pageable pageable) {
+        List<ProductView> rows = filteredViewQuery(filter, pageable.getSort())
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    @Override
+    public long countFiltered(ProductFilter filter) {
+        return bind(entityManager.createQuery(ProductFilterQueries.count(filter.mask()), Long.class), filter)
+                .getSingleResult();
+    }
+
+    @Override
+    public Page<Map<String, Object>> findFields(Specification<Product> spec, Set<ProductField> fields, Pageable pageable) {
+        List<Map<String, Object>> content = fieldQuery(spec, fields, pageable.getSort())
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList().stream()
+                .map(tuple -> toRow(tuple, fields))
+                .toList();
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(spec));
+    }
+
+    @Override
+    public Slice<Map<String, Object>> findFieldSlice(Specification<Product> spec, Set<ProductField> fields, Pageable pageable) {
+        List<Map<String, Object>> rows = fieldQuery(spec, fields, pageable.getSort())
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList().stream()
+                .map(tuple -> toRow(tuple, fields))
+                .toList();
+
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    @Override
+    public List<FacetCount> countByCategory(Specification<Product> spec) {
+        return countByRelation(spec, "category");
+    }
+
+    @Override
+    public List<FacetCount> countByProvider(Specification<Product> spec) {
+        return countByRelation(spec, "provider");
+    }
+
+    @Override
+    public List<Long> countByPriceBand(Specification<Product> spec, List<BigDecimal> bounds) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = criteriaBuilder.createQuery(Object[].class);
+        Root<Product> root = query.from(Product.class);
+        Expression<BigDecimal> price = root.get("price");
+
+        List<Selection<?>> sums = new ArrayList<>();
+        for (int band = 0; band <= bounds.size(); band++) {
+            List<Predicate> inBand = new ArrayList<>();
+            if (band > 0) {
+                inBand.add(criteriaBuilder.greaterThanOrEqualTo(price, bounds.get(band - 1)));
+            }
+            if (band < bounds.size()) {
+                inBand.add(criteriaBuilder.lessThan(price, bounds.get(band)));
+            }
+            sums.add(criteriaBuilder.sum(criteriaBuilder.<Long>selectCase()
+                    .when(criteriaBuilder.and(inBand.toArray(Predicate[]::new)), 1L)
+                    .otherwise(0L)));
+        }
+        query.multiselect(sums);
+        where(query, root, criteriaBuilder, spec);
+
+        Object[] row = entityManager.createQuery(query).getSingleResult();
+        List<Long> counts = new ArrayList<>(row.length);
+        for (Object sum : row) {
+            counts.add(sum == null ? 0L : ((Number) sum).longValue()); // SUM sin filas devuelve NULL
+        }
+        return counts;
+    }
+
+    // UPDATE Product p SET p.price = ROUND(p.price * :factor + :delta, 2), p.updatedAt = :updatedAt
+    // WHERE <filtro> AND ROUND(p.price * :factor + :delta, 2) > 0
+    // (un UPDATE no admite JOIN: las relaciones se comparan por FK y el subárbol va en una subconsulta del propio UPDATE)
+    @Override
+    public int updatePrices(ProductFilter filter, Long categoryId, Long providerId,
+                            BigDecimal factor, BigDecimal delta, LocalDateTime updatedAt) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Product> update = criteriaBuilder.createCriteriaUpdate(Product.class);
+        Root<Product> root = update.from(Product.class);
+
+        Expression<BigDecimal> newPrice = criteriaBuilder.function("round", BigDecimal.class,
+                criteriaBuilder.sum(criteriaBuilder.prod(root.get("price"), factor), delta),
+                criteriaBuilder.literal(2));
+        update.set(root.<BigDecimal>get("price"), newPrice);
+        update.set(root.<LocalDateTime>get("updatedAt"), updatedAt);
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(criteriaBuilder.greaterThan(newPrice, BigDecimal.ZERO));
+        if (filter.name() != null) {
+            predicates.add(criteriaBuilder.like(root.get("nameSearch"), "%" + filter.name() + "%"));
+        }
+        if (filter.minPrice() != null) {
+            predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("price"), filter.minPrice()));
+        }
+        if (filter.maxPrice() != null) {
+            predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("price"), filter.maxPrice()));
+        }
+        if (filter.category() != null) {
+            predicates.add(ProductSpecifications.inCategorySubtree(update, root, criteriaBuilder, filter.category()));
+        }
+        if (categoryId != null) {
+            predicates.add(criteriaBuilder.equal(root.get("category").get("id"), categoryId));
+        }
+        if (providerId != null) {
+            predicates.add(criteriaBuilder.equal(root.get("provider").get("id"), providerId));
+        }
+        update.where(predicates.toArray(Predicate[]::new));
+
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    // UPDATE Product p SET <solo los atributos recibidos>, p.updatedAt = :updatedAt
+    // WHERE p.id = :id [AND COALESCE(p.updatedAt, p.createdAt) = :expectedVersion]
+    @Override
+    public int patch(Long id, Map<String, Object> changes, LocalDateTime updatedAt, LocalDateTime expectedVersion) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Product> update = criteriaBuilder.createCriteriaUpdate(Product.class);
+        Root<Product> root = update.from(Product.class);
+
+        changes.forEach((attribute, value) -> update.set(root.get(attribute), value));
+        update.set(root.<LocalDateTime>get("updatedAt"), updatedAt);
+
+        Predicate byId = criteriaBuilder.equal(root.get("id"), id);
+        update.where(expectedVersion == null
+                ? byId
+                : criteriaBuilder.and(byId, criteriaBuilder.equal(
+                        criteriaBuilder.coalesce(root.<LocalDateTime>get("updatedAt"), root.<LocalDateTime>get("createdAt")),
+                        expectedVersion)));
+
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    // SELECT new FacetCount(r.id, r.name, COUNT(p)) FROM Product p JOIN p.<relation> r WHERE <spec> GROUP BY r.id, r.name
+    private List<FacetCount> countByRelation(Specification<Product> spec, String relation) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<FacetCount> query = criteriaBuilder.createQuery(FacetCount.class);
+        Root<Product> root = query.from(Product.class);
+        Join<Product, ?> join = root.join(relation);
+
+        query.select(criteriaBuilder.construct(FacetCount.class, join.get("id"), join.get("name"), criteriaBuilder.count(root)));
+        where(query, root, criteriaBuilder, spec);
+        query.groupBy(join.get("id"), join.get("name"));
+        query.orderBy(criteriaBuilder.asc(join.get("id")));
+
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    private static void where(CriteriaQuery<?> query, Root<Product> root, CriteriaBuilder criteriaBuilder,
+                              Specification<Product> spec) {
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, criteriaBuilder) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+
+    // SELECT new ProductView(...) FROM Product p LEFT JOIN p.category c LEFT JOIN p.provider pr WHERE <spec>
+    private TypedQuery<ProductView> viewQuery(Specification<Product> spec, Sort sort) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductView> query = criteriaBuilder.createQuery(ProductView.class);
+        Root<Product> root = query.from(Product.class);
+        Join<Product, Category> category = root.join("category", JoinType.LEFT);
+        Join<Product, Provider> provider = root.join("provider", JoinType.LEFT);
+
+        query.select(criteriaBuilder.construct(ProductView.class,
+                root.get("id"), root.get("name"), root.get("description"), root.get("price"), root.get("stock"),
+                category.get("id"), category.get("name"), provider.get("id"), provider.get("name"),
+                root.get("createdAt"), root.get("updatedAt")));
+
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, criteriaBuilder) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+
+        return entityManager.createQuery(query);
+    }
+
+    private TypedQuery<ProductView> filteredViewQuery(ProductFilter filter, Sort sort) {
+        return bind(entityManager.createQuery(ProductFilterQueries.select(filter.mask(), sort), ProductView.class), filter);
+    }
+
+    // Solo los parámetros de los criterios presentes: son los únicos que aparecen en el texto de esa variante
+    private static <T> TypedQuery<T> bind(TypedQuery<T> query, ProductFilter filter) {
+        if (filter.name() != null) {
+            query.setParameter("name", "%" + filter.name() + "%");
+        }
+        if (filter.minPrice() != null) {
+            query.setParameter("minPrice", filter.minPrice());
+        }
+        if (filter.maxPrice() != null) {
+            query.setParameter("maxPrice", filter.maxPrice());
+        }
+        if (filter.category() != null) {
+            query.setParameter("category", filter.category());
+        }
+        return query;
+    }
+
+    // SELECT <solo los campos pedidos> FROM Product p [LEFT JOIN p.category c] [LEFT JOIN p.provider pr] WHERE <spec>
+    // Los IDs de categoría / proveedor salen de la FK de PRODUCT: el JOIN solo hace falta para sus nombres
+    private TypedQuery<Tuple> fieldQuery(Specification<Product> spec, Set<ProductField> fields, Sort sort) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Product> root = query.from(Product.class);
+        Map<String, Join<Product, ?>> joins = new HashMap<>();
+
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (ProductField field : fields) {
+            Path<?> path;
+            if (field.getRelation() == null) {
+                path = root.get(field.getAttribute());
+            } else if ("id".equals(field.getAttribute())) {
+                path = root.get(field.getRelation()).get("id");
+            } else {
+                path = joins.computeIfAbsent(field.getRelation(), relation -> root.join(relation, JoinType.LEFT))
+                        .get(field.getAttribute());
+            }
+            selections.add(path.alias(field.getJsonName()));
+        }
+        query.multiselect(selections);
+        where(query, root, criteriaBuilder, spec);
+        query.orderBy(QueryUtils.toOrders(sort, root, criteriaBuilder));
+
+        return entityManager.createQuery(query);
+    }
+
+    private static Map<String, Object> toRow(Tuple tuple, Set<ProductField> fields) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (ProductField field : fields) {
+            row.put(field.getJsonName(), tuple.get(field.getJsonName()));
+        }
+        return row;
+    }
+
+    private long count(Specification<Product> spec) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Product> root = query.from(Product.class);
+
+        Predicate predicate = spec != null ? spec.toPredicate(root, query, criteriaBuilder) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(criteriaBuilder.count(root));
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
@@ -1,9 +1,22 @@
 package com.techstore.repository;
 
 import com.techstore.model.Provider;
+import com.techstore.repository.projection.ProviderRef;
+import com.techstore.repository.projection.TableStamp;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface ProviderRepository extends JpaRepository<Provider, Long> {
+
+    // Versión del listado para GET condicional (ETag)
+    @Query("SELECT new com.techstore.repository.projection.TableStamp(COUNT(p), MAX(p.updatedAt)) FROM Provider p")
+    TableStamp findTableStamp();
+
+    // Caché de datos de referencia: la tabla entera como proyección
+    @Query("SELECT new com.techstore.repository.projection.ProviderRef(p.id, p.name, p.taxId) FROM Provider p")
+    List<ProviderRef> findAllRefs();
 }
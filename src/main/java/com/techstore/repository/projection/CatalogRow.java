@@ -0,0 +1,16 @@
+package com.techstore.repository.projection;
+
+import java.math.BigDecimal;
+
+// Fila de la snapshot columnar: solo lo que evalúan el filtro, la ordenación y las facetas.
+// Sin DESCRIPTION ni fechas: la página resultante se completa después con ProductView por ID.
+public record CatalogRow(
+        Long id,
+        String name,
+        BigDecimal price,
+        Long categoryId,
+        String categoryName,
+        Long providerId,
+        String providerName
+) {
+}
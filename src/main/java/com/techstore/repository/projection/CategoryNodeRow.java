@@ -0,0 +1,5 @@
+package com.techstore.repository.projection;
+
+// Una categoría con su padre (árbol de categorías en memoria)
+public record CategoryNodeRow(Long id, String name, Long parentId) {
+}
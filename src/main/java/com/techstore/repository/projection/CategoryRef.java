@@ -0,0 +1,5 @@
+package com.techstore.repository.projection;
+
+// Datos de referencia de una categoría (caché en memoria): lo mínimo para validar IDs y mostrar el nombre
+public record CategoryRef(Long id, String name) {
+}
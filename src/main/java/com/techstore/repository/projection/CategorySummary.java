@@ -0,0 +1,9 @@
+package com.techstore.repository.projection;
+
+import java.math.BigDecimal;
+
+// Una fila del GROUP BY por categoría: agregados de sus productos sin cargar la colección Category.products.
+// Sin productos: productCount = 0 y el resto NULL (LEFT JOIN)
+public record CategorySummary(Long id, String name, Long productCount, Long totalStock,
+                              BigDecimal minPrice, BigDecimal maxPrice) {
+}
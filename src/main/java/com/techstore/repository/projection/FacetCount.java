@@ -0,0 +1,5 @@
+package com.techstore.repository.projection;
+
+// Valor de faceta (categoría, proveedor o banda de precio) y cuántos productos del filtro caen en él
+public record FacetCount(Long id, String name, Long count) {
+}
@@ -0,0 +1,5 @@
+package com.techstore.repository.projection;
+
+// Par (id, nombre): lo justo para recalcular columnas derivadas sin cargar entidades
+public record NameRow(Long id, String name) {
+}
@@ -0,0 +1,11 @@
+package com.techstore.repository.projection;
+
+import java.time.LocalDateTime;
+
+// ProductStamp de varios productos en una sola consulta (búsqueda por lista de IDs)
+public record ProductIdStamp(Long id, LocalDateTime product, LocalDateTime category, LocalDateTime provider) {
+
+    public ProductStamp stamp() {
+        return new ProductStamp(product, category, provider);
+    }
+}
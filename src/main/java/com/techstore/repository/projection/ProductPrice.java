@@ -0,0 +1,7 @@
+package com.techstore.repository.projection;
+
+import java.math.BigDecimal;
+
+// Precio vigente de un producto (histórico de precios tras un reprecio masivo)
+public record ProductPrice(Long id, BigDecimal price) {
+}
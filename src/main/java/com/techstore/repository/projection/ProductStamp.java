@@ -0,0 +1,8 @@
+package com.techstore.repository.projection;
+
+import java.time.LocalDateTime;
+
+// Marcas de tiempo que determinan el ProductDto de un producto: el suyo y los de su categoría y proveedor
+// (sus nombres viajan en el DTO, así que renombrarlos también cambia la representación)
+public record ProductStamp(LocalDateTime product, LocalDateTime category, LocalDateTime provider) {
+}
@@ -0,0 +1,5 @@
+package com.techstore.repository.projection;
+
+// Stock de un producto (índice de stock bajo en memoria): solo las dos columnas que necesita
+public record ProductStock(Long id, Integer stock) {
+}
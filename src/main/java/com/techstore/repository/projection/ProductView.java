@@ -0,0 +1,22 @@
+package com.techstore.repository.projection;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Proyección plana de un producto: exactamente las columnas que necesitan ProductDto y ProductResponseDto.
+// Se construye en la propia consulta (SELECT new ...) con un único JOIN a CATEGORY y PROVIDER,
+// así que mapearla nunca dispara los SELECT perezosos de las relaciones @ManyToOne.
+public record ProductView(
+        Long id,
+        String name,
+        String description,
+        BigDecimal price,
+        Integer stock,
+        Long categoryId,
+        String categoryName,
+        Long providerId,
+        String providerName,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt
+) {
+}
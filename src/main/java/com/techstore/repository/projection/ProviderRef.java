@@ -0,0 +1,5 @@
+package com.techstore.repository.projection;
+
+// Datos de referencia de un proveedor (caché en memoria)
+public record ProviderRef(Long id, String name, String taxId) {
+}
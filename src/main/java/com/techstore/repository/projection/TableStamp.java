@@ -0,0 +1,8 @@
+package com.techstore.repository.projection;
+
+import java.time.LocalDateTime;
+
+// Huella barata de una tabla para el GET condicional: nº de filas + última modificación.
+// El conteo detecta las bajas, que no dejan rastro en MAX(UPDATED_AT).
+public record TableStamp(Long count, LocalDateTime lastModified) {
+}
@@ -0,0 +1,58 @@
+package com.techstore.repository.spec;
+
+import com.techstore.exception.InvalidQueryParameterException;
+import com.techstore.repository.projection.ProductView;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Token de continuación para la paginación por keyset (seek).
+ * Guarda la clave de orden y el ID de la última fila servida; la siguiente página
+ * se pide con "WHERE (clave, id) > (último valor, último id)" en lugar de un OFFSET,
+ * así que la página 1000 cuesta lo mismo que la primera.
+ *
+ * Para el cliente es opaco: Base64 URL-safe de "clave|dirección|id|valor".
+ */
+public record ProductCursor(ProductSortKey sortKey, Sort.Direction direction, Long lastId, String lastValue) {
+
+    private static final String SEPARATOR = "|";
+
+    public static ProductCursor after(ProductView product, ProductSortKey sortKey, Sort.Direction direction) {
+        return new ProductCursor(sortKey, direction, product.id(), sortKey.valueOf(product));
+    }
+
+    public String encode() {
+        String raw = sortKey.name() + SEPARATOR + direction.name() + SEPARATOR + lastId + SEPARATOR + lastValue;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProductCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // El valor va al final y puede contener el separador (ej: nombres), por eso el límite de 4
+            String[] parts = raw.split("\\" + SEPARATOR, 4);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            ProductSortKey sortKey = ProductSortKey.valueOf(parts[0]);
+            ProductCursor cursor = new ProductCursor(sortKey, Sort.Direction.valueOf(parts[1]), Long.valueOf(parts[2]), parts[3]);
+            sortKey.parse(cursor.lastValue()); // valida que el valor sea interpretable
+            return cursor;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidQueryParameterException("Invalid pagination cursor");
+        }
+    }
+
+    // El ID siempre desempata: sin él, dos productos con el mismo precio podrían saltarse o repetirse
+    public static Sort sortOf(ProductSortKey sortKey, Sort.Direction direction) {
+        return sortKey == ProductSortKey.ID
+                ? Sort.by(direction, "id")
+                : Sort.by(direction, sortKey.getProperty(), "id");
+    }
+
+    Comparable<?> parsedValue() {
+        return sortKey.parse(lastValue);
+    }
+}
@@ -0,0 +1,80 @@
+package com.techstore.repository.spec;
+
+import com.techstore.exception.InvalidQueryParameterException;
+import com.techstore.repository.projection.ProductView;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Campos que se pueden pedir con ?fields= en los listados del catálogo (nombres JSON de ProductDto).
+// Cada uno sabe de qué atributo sale en la consulta y de qué componente de ProductView en memoria.
+public enum ProductField {
+
+    ID("id", null, "id", ProductView::id),
+    NAME("name", null, "name", ProductView::name),
+    DESCRIPTION("description", null, "description", ProductView::description),
+    PRICE("price", null, "price", ProductView::price),
+    STOCK("stock", null, "stock", ProductView::stock),
+    CATEGORY_ID("categoryId", "category", "id", ProductView::categoryId),
+    CATEGORY_NAME("categoryName", "category", "name", ProductView::categoryName),
+    PROVIDER_ID("providerId", "provider", "id", ProductView::providerId),
+    PROVIDER_NAME("providerName", "provider", "name", ProductView::providerName),
+    CREATED_AT("createdAt", null, "createdAt", ProductView::createdAt),
+    UPDATED_AT("updatedAt", null, "updatedAt", ProductView::updatedAt);
+
+    private final String jsonName;
+    private final String relation;
+    private final String attribute;
+    private final Function<ProductView, Object> extractor;
+
+    ProductField(String jsonName, String relation, String attribute, Function<ProductView, Object> extractor) {
+        this.jsonName = jsonName;
+        this.relation = relation;
+        this.attribute = attribute;
+        this.extractor = extractor;
+    }
+
+    public String getJsonName() {
+        return jsonName;
+    }
+
+    // Relación de la que sale el valor (null = columna de PRODUCT)
+    public String getRelation() {
+        return relation;
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+
+    // "name,price" -> {ID, NAME, PRICE}. El ID va siempre: sin él el cliente no puede enlazar la fila
+    public static Set<ProductField> parse(String fields) {
+        Set<ProductField> parsed = EnumSet.of(ID);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            parsed.add(Arrays.stream(values())
+                    .filter(field -> field.jsonName.equalsIgnoreCase(trimmed))
+                    .findFirst()
+                    .orElseThrow(() -> new InvalidQueryParameterException("Unknown field '" + trimmed + "'. Allowed: "
+                            + Arrays.stream(values()).map(ProductField::getJsonName).collect(Collectors.joining(", ")))));
+        }
+        return parsed;
+    }
+
+    // Fila en memoria (snapshot columnar) -> mismo mapa que devuelve la consulta de proyección
+    public static Map<String, Object> project(ProductView view, Set<ProductField> fields) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (ProductField field : fields) {
+            row.put(field.jsonName, field.extractor.apply(view));
+        }
+        return row;
+    }
+}
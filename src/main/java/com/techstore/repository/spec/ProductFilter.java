@@ -0,0 +1,39 @@
+package com.techstore.repository.spec;
+
+import com.techstore.model.SearchText;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+
+/**
+ * Criterios de /api/products/filter ya normalizados (mismo significado que ProductSpecifications).
+ *
+ * Con cuatro criterios opcionales solo hay 16 consultas distintas: mask() dice cuáles están
+ * presentes y elige la consulta precompilada; los valores viajan siempre como parámetros.
+ */
+public record ProductFilter(String name, BigDecimal minPrice, BigDecimal maxPrice, String category) {
+
+    public static final int NAME = 1;
+    public static final int MIN_PRICE = 1 << 1;
+    public static final int MAX_PRICE = 1 << 2;
+    public static final int CATEGORY = 1 << 3;
+
+    // Número de combinaciones posibles (presente / ausente por criterio)
+    public static final int COMBINATIONS = 1 << 4;
+
+    // Texto vacío = criterio ausente; nombre y categoría pasan a su forma normalizada (columnas *_SEARCH)
+    public static ProductFilter of(String name, BigDecimal minPrice, BigDecimal maxPrice, String category) {
+        return new ProductFilter(
+                StringUtils.hasText(name) ? SearchText.normalize(name) : null,
+                minPrice,
+                maxPrice,
+                StringUtils.hasText(category) ? SearchText.normalize(category) : null);
+    }
+
+    public int mask() {
+        return (name != null ? NAME : 0)
+                | (minPrice != null ? MIN_PRICE : 0)
+                | (maxPrice != null ? MAX_PRICE : 0)
+                | (category != null ? CATEGORY : 0);
+    }
+}
@@ -0,0 +1,51 @@
+package com.techstore.repository.spec;
+
+import com.techstore.exception.InvalidQueryParameterException;
+import com.techstore.repository.projection.ProductView;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.function.Function;
+
+// Propiedades por las que se puede paginar con keyset.
+// Cada una va respaldada por un índice (PROPIEDAD, ID) en la tabla PRODUCT.
+public enum ProductSortKey {
+
+    ID("id", ProductView::id, Long::valueOf),
+    NAME("name", ProductView::name, value -> value),
+    PRICE("price", ProductView::price, BigDecimal::new);
+
+    private final String property;
+    private final Function<ProductView, Comparable<?>> extractor;
+    private final Function<String, Comparable<?>> parser;
+
+    ProductSortKey(String property,
+                   Function<ProductView, Comparable<?>> extractor,
+                   Function<String, Comparable<?>> parser) {
+        this.property = property;
+        this.extractor = extractor;
+        this.parser = parser;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public static ProductSortKey fromProperty(String property) {
+        return Arrays.stream(values())
+                .filter(key -> key.property.equalsIgnoreCase(property))
+                .findFirst()
+                .orElseThrow(() -> new InvalidQueryParameterException(
+                        "Unsupported sort property for cursor pagination: '" + property + "'. Allowed: id, name, price"));
+    }
+
+    // Valor de la clave de orden del producto, serializado para el cursor
+    String valueOf(ProductView product) {
+        Object value = extractor.apply(product);
+        return value instanceof BigDecimal decimal ? decimal.toPlainString() : String.valueOf(value);
+    }
+
+    Comparable<?> parse(String value) {
+        return parser.apply(value);
+    }
+}
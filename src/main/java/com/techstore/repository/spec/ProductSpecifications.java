@@ -1,20 +1,34 @@
 package com.techstore.repository.spec;
 
+import com.techstore.model.Category;
+import com.techstore.model.CategoryClosure;
 import com.techstore.model.Product;
+import com.techstore.model.SearchText;
+import jakarta.persistence.criteria.CommonAbstractCriteria;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 
 public class ProductSpecifications {
 
-    // Filtro por nombre (LIKE %name%)
+    // Filtro por nombre (LIKE %name%) sobre la columna normalizada: sin LOWER() en la consulta.
+    // Con el comodín inicial ningún índice B-tree sirve para buscar, así que NAME_SEARCH de PRODUCT no
+    // lleva índice: el nombre se evalúa sobre las filas que dejan el resto de filtros. El único filtro
+    // que se resuelve con una búsqueda por índice es el de categoría (IDX_CATEGORY_NAME_SEARCH)
     public static Specification<Product> hasName(String name) {
         return (root, query, criteriaBuilder) -> {
             if (!StringUtils.hasText(name)) {
                 return null; // Si es nulo o vacío, no aplica filtro
             }
-            return criteriaBuilder.like(criteriaBuilder.lower(root.get("name")), "%" + name.toLowerCase() + "%");
+            return criteriaBuilder.like(root.get("nameSearch"), "%" + SearchText.normalize(name) + "%");
         };
     }
 
@@ -38,17 +52,67 @@ public class ProductSpecifications {
         };
     }
 
-    // Filtro por categoría (category.name = category)
+    // Filtro por categoría, con todo su subárbol: un IN sobre el cierre de la jerarquía
+    //   p.category.id IN (SELECT cc.descendantId FROM CategoryClosure cc, Category c
+    //                     WHERE cc.ancestorId = c.id AND c.nameSearch = :categoria)
+    // IDX_CATEGORY_NAME_SEARCH da los ancestros y la PK del cierre sus descendientes: sin consultas
+    // recursivas ni más JOIN cuanto más profundo sea el árbol
     public static Specification<Product> hasCategory(String categoryName) {
         return (root, query, criteriaBuilder) -> {
             if (!StringUtils.hasText(categoryName)) {
                 return null;
             }
-            // Navegamos: Product -> Category -> name
-            return criteriaBuilder.equal(
-                    criteriaBuilder.lower(root.get("category").get("name")),
-                    categoryName.toLowerCase()
+            return inCategorySubtree(query, root, criteriaBuilder, SearchText.normalize(categoryName));
+        };
+    }
+
+    // El mismo predicado para cualquier sentencia Criteria (el reprecio masivo es un CriteriaUpdate):
+    // la subconsulta se crea desde la sentencia que la contiene. categoryName ya normalizado
+    public static Predicate inCategorySubtree(CommonAbstractCriteria owner, Root<Product> root,
+                                              CriteriaBuilder criteriaBuilder, String categoryName) {
+        Subquery<Long> subtree = owner.subquery(Long.class);
+        Root<CategoryClosure> closure = subtree.from(CategoryClosure.class);
+        Root<Category> ancestor = subtree.from(Category.class);
+        subtree.select(closure.get("descendantId"))
+                .where(criteriaBuilder.equal(closure.get("ancestorId"), ancestor.get("id")),
+                        criteriaBuilder.equal(ancestor.get("nameSearch"), categoryName));
+        return root.get("category").get("id").in(subtree);
+    }
+
+    // Filtro por lote de IDs (feed de cambios): WHERE id IN (...)
+    public static Specification<Product> hasIdIn(Collection<Long> ids) {
+        return (root, query, criteriaBuilder) -> root.get("id").in(ids);
+    }
+
+    // Filtro keyset: filas estrictamente posteriores al cursor según (clave de orden, id)
+    public static Specification<Product> isAfter(ProductCursor cursor) {
+        return (root, query, criteriaBuilder) -> {
+            if (cursor == null) {
+                return null; // Primera página: sin posición previa
+            }
+            boolean ascending = cursor.direction() == Sort.Direction.ASC;
+            Expression<Long> id = root.get("id");
+            Predicate afterId = beyond(criteriaBuilder, id, cursor.lastId(), ascending);
+            if (cursor.sortKey() == ProductSortKey.ID) {
+                return afterId;
+            }
+            // (clave > valor) OR (clave = valor AND id > últimoId)
+            Expression<Comparable<Object>> key = root.get(cursor.sortKey().getProperty());
+            @SuppressWarnings("unchecked")
+            Comparable<Object> value = (Comparable<Object>) cursor.parsedValue();
+            return criteriaBuilder.or(
+                    beyond(criteriaBuilder, key, value, ascending),
+                    criteriaBuilder.and(criteriaBuilder.equal(key, value), afterId)
             );
         };
     }
+
+    private static <Y extends Comparable<? super Y>> Predicate beyond(CriteriaBuilder criteriaBuilder,
+                                                                    Expression<? extends Y> path,
+                                                                    Y value,
+                                                                    boolean ascending) {
+        return ascending
+                ? criteriaBuilder.greaterThan(path, value)
+                : criteriaBuilder.lessThan(path, value);
+    }
 }
\ No newline at end of file
@@ -1,23 +1,46 @@
 package com.techstore.service;
 
 import com.techstore.dto.CategoryDto;
+import com.techstore.dto.CategorySummaryDto;
+import com.techstore.dto.CategoryTreeDto;
+import com.techstore.event.ProductChangedEvent;
+import com.techstore.event.ReferenceDataChangedEvent;
+import com.techstore.exception.CategoryHierarchyException;
+import com.techstore.exception.InvalidQueryParameterException;
 import com.techstore.exception.ResourceNotFoundException;
 import com.techstore.mapper.CategoryMapper;
 import com.techstore.model.Category;
+import com.techstore.model.enums.ChangeType;
+import com.techstore.repository.CategoryClosureRepository;
 import com.techstore.repository.CategoryRepository;
+import com.techstore.repository.ProductRepository;
+import com.techstore.service.catalog.CategoryTree;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class CategoryService {
 
+    // El resumen se ordena sobre columnas de CATEGORY; los agregados no admiten ORDER BY desde el Pageable
+    private static final Set<String> SUMMARY_SORT_PROPERTIES = Set.of("id", "name");
+
     private final CategoryRepository categoryRepository;
+    private final CategoryClosureRepository categoryClosureRepository;
+    private final ProductRepository productRepository;
     private final CategoryMapper categoryMapper;
+    private final CategoryTree categoryTree;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<CategoryDto> getAllCategories() {
@@ -26,6 +49,25 @@ public class CategoryService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public Page<CategorySummaryDto> getCategorySummaries(Pageable pageable) {
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SUMMARY_SORT_PROPERTIES.contains(order.getProperty())) {
+                throw new InvalidQueryParameterException("Unsupported sort property for category summaries: "
+                        + order.getProperty() + " (allowed: id, name)");
+            }
+        }
+        return categoryRepository.findSummaries(pageable)
+                .map(summary -> CategorySummaryDto.builder()
+                        .id(summary.id())
+                        .name(summary.name())
+                        .productCount(summary.productCount())
+                        .totalStock(summary.totalStock() != null ? summary.totalStock() : 0L)
+                        .minPrice(summary.minPrice())
+                        .maxPrice(summary.maxPrice())
+                        .build());
+    }
+
     @Transactional(readOnly = true)
     public CategoryDto getCategoryById(Long id) {
         Category category = categoryRepository.findById(id)
@@ -33,10 +75,37 @@ public class CategoryService {
         return categoryMapper.toDto(category);
     }
 
+    // --- NAVEGACIÓN: árbol completo y breadcrumbs, servidos desde CategoryTree (sin consultas si está vigente) ---
+
+    public List<CategoryTreeDto> getCategoryTree() {
+        return categoryTree.roots().stream()
+                .map(CategoryService::toTreeDto)
+                .toList();
+    }
+
+    // Desde la raíz hasta la categoría pedida, sin hijos
+    public List<CategoryTreeDto> getCategoryPath(Long id) {
+        List<CategoryTree.Node> path = categoryTree.path(id);
+        if (path.isEmpty()) {
+            throw new ResourceNotFoundException("Category", "id", id);
+        }
+        return path.stream()
+                .map(node -> CategoryTreeDto.builder().id(node.id()).name(node.name()).build())
+                .toList();
+    }
+
     @Transactional
     public CategoryDto createCategory(CategoryDto categoryDto) {
         Category category = categoryMapper.toEntity(categoryDto);
+        category.setParent(parentReference(categoryDto.getParentId()));
         Category savedCategory = categoryRepository.save(category);
+
+        // Cierre: la fila propia y un camino desde cada ancestro del padre
+        categoryClosureRepository.insertSelf(savedCategory.getId());
+        if (categoryDto.getParentId() != null) {
+            categoryClosureRepository.attachSubtree(savedCategory.getId(), categoryDto.getParentId());
+        }
+        eventPublisher.publishEvent(ReferenceDataChangedEvent.category(savedCategory.getId()));
         return categoryMapper.toDto(savedCategory);
     }
 
@@ -47,7 +116,16 @@ public class CategoryService {
 
         category.setName(categoryDto.getName());
 
+        Long currentParentId = category.getParent() != null ? category.getParent().getId() : null;
+        Long newParentId = categoryDto.getParentId();
+        if (!Objects.equals(currentParentId, newParentId)) {
+            move(category, newParentId);
+        }
+
         Category updatedCategory = categoryRepository.save(category);
+        eventPublisher.publishEvent(ReferenceDataChangedEvent.category(id));
+        // El nombre de la categoría viaja en la representación de cada uno de sus productos
+        publishIfAny(ChangeType.UPDATED, productRepository.findIdsByCategoryId(id));
         return categoryMapper.toDto(updatedCategory);
     }
 
@@ -56,6 +134,58 @@ public class CategoryService {
         if (!categoryRepository.existsById(id)) {
             throw new ResourceNotFoundException("Category", "id", id);
         }
-        categoryRepository.deleteById(id);
+        // Solo se borran hojas: las hijas quedarían colgando de un padre inexistente
+        if (categoryRepository.existsByParentId(id)) {
+            throw new CategoryHierarchyException("Category " + id + " has subcategories; move or delete them first");
+        }
+        // Borrar la categoría borra sus productos. Solo se leen sus IDs (para las lápidas del registro de cambios):
+        // con deleteById la cascada cargaría cada producto como entidad y lo borraría de uno en uno
+        List<Long> productIds = productRepository.findIdsByCategoryId(id);
+        productRepository.deleteByCategoryId(id);
+        categoryClosureRepository.deleteLeaf(id);
+        categoryRepository.deleteCategoryById(id);
+        eventPublisher.publishEvent(ReferenceDataChangedEvent.category(id));
+        publishIfAny(ChangeType.DELETED, productIds);
+    }
+
+    // --- MÉTODOS AUXILIARES ---
+
+    // Mover un subárbol: dos sentencias (desenganchar, enganchar) sea cual sea su tamaño o profundidad
+    private void move(Category category, Long newParentId) {
+        Long id = category.getId();
+        if (newParentId != null && categoryClosureRepository.existsByAncestorIdAndDescendantId(id, newParentId)) {
+            throw new CategoryHierarchyException("Category " + newParentId + " is category " + id
+                    + " itself or one of its descendants; it cannot be its parent");
+        }
+        category.setParent(parentReference(newParentId));
+        categoryClosureRepository.detachSubtree(id);
+        if (newParentId != null) {
+            categoryClosureRepository.attachSubtree(id, newParentId);
+        }
+    }
+
+    // Referencia sin SELECT del padre; su existencia se comprueba con una consulta de conteo
+    private Category parentReference(Long parentId) {
+        if (parentId == null) {
+            return null;
+        }
+        if (!categoryRepository.existsById(parentId)) {
+            throw new ResourceNotFoundException("Category", "id", parentId);
+        }
+        return categoryRepository.getReferenceById(parentId);
+    }
+
+    private static CategoryTreeDto toTreeDto(CategoryTree.Node node) {
+        return CategoryTreeDto.builder()
+                .id(node.id())
+                .name(node.name())
+                .children(node.children().stream().map(CategoryService::toTreeDto).toList())
+                .build();
+    }
+
+    private void publishIfAny(ChangeType type, List<Long> productIds) {
+        if (!productIds.isEmpty()) {
+            eventPublisher.publishEvent(ProductChangedEvent.of(type, productIds));
+        }
     }
 }
\ No newline at end of file
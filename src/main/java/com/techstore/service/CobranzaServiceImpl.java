@@ -7,15 +7,16 @@ import com.techstore.dto.response.FijarPrecioResponseDTO;
 import com.techstore.dto.response.TransaccionPagoResponseDTO;
 import com.techstore.exception.ResourceNotFoundException;
 import com.techstore.exception.global.AvBusinessException;
-import com.techstore.model.Provider;
 import com.techstore.model.avicola.AvEstadoCuenta;
 import com.techstore.model.avicola.AvLineaDespacho;
 import com.techstore.model.avicola.AvTransaccionPago;
 import com.techstore.model.enums.TipoPago;
 import com.techstore.repository.ProviderRepository;
+import com.techstore.repository.projection.ProviderRef;
 import com.techstore.repository.avicola.AvEstadoCuentaRepository;
 import com.techstore.repository.avicola.AvTransaccionPagoRepository;
 import com.techstore.service.avicola.component.PesoNetoCalculator;
+import com.techstore.service.catalog.ReferenceDataCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -38,6 +39,7 @@ public class CobranzaServiceImpl implements CobranzaService {
     private final AvTransaccionPagoRepository transaccionPagoRepository;
     private final ProviderRepository        providerRepository;
     private final PesoNetoCalculator pesoNetoCalculator;
+    private final ReferenceDataCache referenceData;
 
     // =========================================================================
     // OPERACIÓN 1 — Fijar Precio y Descuento (mediodía, CIERRE_PARCIAL)
@@ -147,14 +149,15 @@ public class CobranzaServiceImpl implements CobranzaService {
         }
 
         // PASO 5 — Resolver el proveedor destino solo si aplica
-        Provider proveedorDestino = resolverProveedorDestino(request);
+        ProviderRef proveedorDestino = resolverProveedorDestino(request);
 
         // PASO 6 — Construir y persistir la transacción
         AvTransaccionPago transaccion = AvTransaccionPago.builder()
                 .estadoCuenta(estadoCuenta)
                 .tipoPago(request.getTipoPago())
                 .monto(request.getMonto())
-                .proveedorDestino(proveedorDestino)
+                .proveedorDestino(proveedorDestino != null
+                        ? providerRepository.getReferenceById(proveedorDestino.id()) : null)
                 .build();
 
         AvTransaccionPago persistida = transaccionPagoRepository.save(transaccion);
@@ -204,14 +207,14 @@ public class CobranzaServiceImpl implements CobranzaService {
     }
 
     /**
-     * Resuelve el proveedor destino desde BD solo cuando el tipo de pago lo requiere.
-     * Devuelve null para EFECTIVO y PUCHO_ARRASTRADO.
+     * Resuelve el proveedor destino (caché de datos de referencia, sin ir a BD) solo cuando
+     * el tipo de pago lo requiere. Devuelve null para EFECTIVO y PUCHO_ARRASTRADO.
      */
-    private Provider resolverProveedorDestino(TransaccionPagoRequestDTO request) {
+    private ProviderRef resolverProveedorDestino(TransaccionPagoRequestDTO request) {
         if (!TipoPago.TRIANGULACION_MAYORISTA.equals(request.getTipoPago())) {
             return null;
         }
-        return providerRepository.findById(request.getProveedorDestinoId())
+        return referenceData.provider(request.getProveedorDestinoId())
                 .orElseThrow(() -> new ResourceNotFoundException(
                         ENTIDAD_PROVEEDOR, "id", request.getProveedorDestinoId()));
     }
@@ -222,7 +225,7 @@ public class CobranzaServiceImpl implements CobranzaService {
      */
     private TransaccionPagoResponseDTO construirResponse(AvTransaccionPago persistida,
                                                           AvEstadoCuenta estadoCuenta,
-                                                          Provider proveedorDestino) {
+                                                          ProviderRef proveedorDestino) {
 
         // Total pagado: suma de todas las transacciones (incluida la recién persistida)
         BigDecimal totalPagado = estadoCuenta.getTransacciones().stream()
@@ -251,7 +254,7 @@ public class CobranzaServiceImpl implements CobranzaService {
                 .estadoCuentaId(estadoCuenta.getId())
                 .tipoPago(persistida.getTipoPago())
                 .monto(persistida.getMonto())
-                .proveedorDestinoNombre(proveedorDestino != null ? proveedorDestino.getName() : null)
+                .proveedorDestinoNombre(proveedorDestino != null ? proveedorDestino.name() : null)
                 .totalPagadoAcumulado(totalPagado)
                 .saldoPendiente(saldoPendiente)
                 .createdAt(persistida.getCreatedAt())
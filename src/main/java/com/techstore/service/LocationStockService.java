@@ -0,0 +1,166 @@
+package com.techstore.service;
+
+import com.techstore.dto.LocationStockDto;
+import com.techstore.dto.ProductDto;
+import com.techstore.event.LocationStockChangedEvent;
+import com.techstore.exception.InvalidQueryParameterException;
+import com.techstore.exception.ResourceNotFoundException;
+import com.techstore.exception.StockInsufficientException;
+import com.techstore.mapper.ProductMapper;
+import com.techstore.model.LocationStock;
+import com.techstore.model.Product;
+import com.techstore.repository.LocationStockRepository;
+import com.techstore.repository.ProductRepository;
+import com.techstore.repository.spec.ProductSpecifications;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Stock por ubicación (almacenes y tiendas) de cada producto.
+ *
+ * Un descuento es un UPDATE condicional de la fila de esa ubicación (QUANTITY >= cantidad), sin
+ * leer antes la fila ni bloquear la del producto. Sin ubicación indicada se elige la que más stock
+ * tiene entre las que pueden servir el pedido entero; si otra venta se la lleva entre medias, se
+ * prueba la siguiente. Los productos sin ubicaciones siguen con el descuento sobre PRODUCT.STOCK.
+ * Al crear la primera ubicación de un producto con stock, ese stock pasa a una ubicación DEFAULT:
+ * desde ahí PRODUCT.STOCK es la suma de ubicaciones y el total anterior no se pierde. Ese paso y la
+ * venta sin ubicaciones bloquean la fila del producto y vuelven a mirar si ya hay ubicaciones: una
+ * venta no descuenta un PRODUCT.STOCK que ya se ha copiado a DEFAULT, ni DEFAULT copia un total viejo.
+ */
+@Service
+@RequiredArgsConstructor
+public class LocationStockService {
+
+    private static final Pattern LOCATION_CODE = Pattern.compile("[A-Z0-9_-]{1,30}");
+    // Ubicaciones candidatas que se prueban antes de dar el pedido por imposible
+    private static final int ROUTING_ATTEMPTS = 3;
+    // Ubicación que recoge el PRODUCT.STOCK previo a la primera ubicación
+    static final String DEFAULT_LOCATION = "DEFAULT";
+
+    private final LocationStockRepository locationStockRepository;
+    private final ProductRepository productRepository;
+    private final ProductService productService;
+    private final ProductMapper productMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional(readOnly = true)
+    public List<LocationStockDto> getLocations(Long productId) {
+        return locationStockRepository.findByProductIdOrderByLocationCode(productId).stream()
+                .map(LocationStockService::toDto)
+                .toList();
+    }
+
+    @Transactional
+    public LocationStockDto setQuantity(Long productId, String location, int quantity) {
+        String code = normalize(location);
+        if (!locationStockRepository.existsByProductId(productId)) {
+            seedDefaultLocation(productId, code);
+        }
+        LocationStock stock = locationStockRepository.findByProductIdAndLocationCode(productId, code)
+                .orElseGet(() -> LocationStock.builder().productId(productId).locationCode(code).build());
+        stock.setQuantity(quantity);
+        stock.setUpdatedAt(now());
+        LocationStock saved = locationStockRepository.save(stock);
+        eventPublisher.publishEvent(LocationStockChangedEvent.of(productId));
+        return toDto(saved);
+    }
+
+    // Descuento en la ubicación dada o, sin ella, en la mejor. El stock del resultado es el total recién sumado
+    @Transactional
+    public ProductDto reduceStock(Long productId, int quantity, String location) {
+        // Una vez con ubicaciones, un producto no vuelve atrás: solo la respuesta negativa se confirma con el bloqueo
+        if (location == null && !locationStockRepository.existsByProductId(productId) && !lockAndCheckLocations(productId)) {
+            return productService.reduceStock(productId, quantity);
+        }
+
+        if (location != null) {
+            String code = normalize(location);
+            if (locationStockRepository.decrement(productId, code, quantity, now()) == 0) {
+                LocationStock stock = locationStockRepository.findByProductIdAndLocationCode(productId, code)
+                        .orElseThrow(() -> new ResourceNotFoundException("Location stock", "location", code));
+                throw new StockInsufficientException("Not enough stock for product ID: " + productId + " at " + code
+                        + ". Available: " + stock.getQuantity() + ", Requested: " + quantity);
+            }
+        } else if (!decrementBestLocation(productId, quantity)) {
+            throw new StockInsufficientException("Not enough stock for product ID: " + productId
+                    + " in any single location. Requested: " + quantity);
+        }
+        eventPublisher.publishEvent(LocationStockChangedEvent.of(productId));
+
+        ProductDto product = productRepository.findViews(ProductSpecifications.hasIdIn(List.of(productId)), Sort.unsorted(), 1)
+                .stream()
+                .findFirst()
+                .map(productMapper::fromView)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
+        product.setStock((int) locationStockRepository.sumQuantity(productId));
+        return product;
+    }
+
+    // --- MÉTODOS AUXILIARES ---
+
+    // Primera ubicación de un producto: el stock que ya tenía se conserva en DEFAULT. Con la fila bloqueada,
+    // el stock leído es el último confirmado y otra primera ubicación simultánea ya se ve al repetir la consulta
+    private void seedDefaultLocation(Long productId, String code) {
+        Product product = productRepository.findByIdForUpdate(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
+        if (DEFAULT_LOCATION.equals(code) || product.getStock() == null || product.getStock() <= 0
+                || locationStockRepository.existsByProductId(productId)) {
+            return;
+        }
+        locationStockRepository.save(LocationStock.builder()
+                .productId(productId)
+                .locationCode(DEFAULT_LOCATION)
+                .quantity(product.getStock())
+                .updatedAt(now())
+                .build());
+    }
+
+    // Bloquea la fila del producto (404 si no existe) y repite la consulta: una primera ubicación recién
+    // confirmada ya se ve. El bloqueo sigue hasta el commit, durante el descuento sobre PRODUCT.STOCK
+    private boolean lockAndCheckLocations(Long productId) {
+        productRepository.findByIdForUpdate(productId)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", productId));
+        return locationStockRepository.existsByProductId(productId);
+    }
+
+    private boolean decrementBestLocation(Long productId, int quantity) {
+        LocalDateTime updatedAt = now();
+        for (String code : locationStockRepository.findCandidates(productId, quantity, PageRequest.ofSize(ROUTING_ATTEMPTS))) {
+            if (locationStockRepository.decrement(productId, code, quantity, updatedAt) == 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String normalize(String location) {
+        String code = location.trim().toUpperCase(Locale.ROOT);
+        if (!LOCATION_CODE.matcher(code).matches()) {
+            throw new InvalidQueryParameterException("Invalid location code: '" + location
+                    + "'. Use up to 30 letters, digits, '-' or '_'");
+        }
+        return code;
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    private static LocationStockDto toDto(LocationStock stock) {
+        return LocationStockDto.builder()
+                .location(stock.getLocationCode())
+                .quantity(stock.getQuantity())
+                .updatedAt(stock.getUpdatedAt())
+                .build();
+    }
+}
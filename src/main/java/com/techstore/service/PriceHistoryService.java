@@ -0,0 +1,89 @@
+package com.techstore.service;
+
+import com.techstore.dto.PriceBucketDto;
+import com.techstore.dto.PricePointDto;
+import com.techstore.dto.PriceResolution;
+import com.techstore.exception.InvalidQueryParameterException;
+import com.techstore.repository.PriceHistoryRepository;
+import com.techstore.service.catalog.PricePoint;
+import com.techstore.service.catalog.PriceSeriesCodec;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Consultas sobre el histórico de precios (PRICE_HISTORY_CHUNK, ver PriceHistoryRecorder).
+ *
+ * Solo se leen los tramos que se solapan con el rango pedido; se decodifican en memoria y se
+ * recortan al rango. El resumen agrupa los puntos por hora, día o semana (apertura, máximo,
+ * mínimo y cierre) para pintar tendencias sin enviar cada cambio. Los cambios de los últimos
+ * segundos (aún en la cola del volcado) no aparecen hasta el siguiente ciclo.
+ */
+@Service
+@RequiredArgsConstructor
+public class PriceHistoryService {
+
+    // Rango por defecto y máximo de una consulta
+    private static final Duration DEFAULT_RANGE = Duration.ofDays(30);
+    private static final Duration MAX_RANGE = Duration.ofDays(366 * 2);
+
+    private final PriceHistoryRepository priceHistoryRepository;
+
+    @Transactional(readOnly = true)
+    public List<PricePointDto> getHistory(Long productId, LocalDateTime from, LocalDateTime to) {
+        return points(productId, from, to).stream()
+                .map(point -> PricePointDto.builder().at(point.at()).price(point.price()).build())
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public List<PriceBucketDto> getSummary(Long productId, LocalDateTime from, LocalDateTime to, PriceResolution resolution) {
+        List<PriceBucketDto> buckets = new ArrayList<>();
+        PriceBucketDto current = null;
+        for (PricePoint point : points(productId, from, to)) {
+            LocalDateTime start = resolution.bucketStart(point.at());
+            if (current == null || !current.getStart().equals(start)) {
+                current = PriceBucketDto.builder()
+                        .start(start)
+                        .open(point.price())
+                        .high(point.price())
+                        .low(point.price())
+                        .changes(0)
+                        .build();
+                buckets.add(current);
+            }
+            current.setHigh(current.getHigh().max(point.price()));
+            current.setLow(current.getLow().min(point.price()));
+            current.setClose(point.price());
+            current.setChanges(current.getChanges() + 1);
+        }
+        return buckets;
+    }
+
+    // --- MÉTODOS AUXILIARES ---
+
+    // Puntos de [from, to] en orden de tiempo (sin fechas: los últimos 30 días)
+    private List<PricePoint> points(Long productId, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minus(DEFAULT_RANGE);
+        if (start.isAfter(end)) {
+            throw new InvalidQueryParameterException("'from' must not be after 'to'");
+        }
+        if (Duration.between(start, end).compareTo(MAX_RANGE) > 0) {
+            throw new InvalidQueryParameterException("Price history range cannot exceed " + MAX_RANGE.toDays() + " days");
+        }
+
+        // Los tramos de volcados distintos pueden solaparse en el tiempo: se ordena tras decodificar
+        return priceHistoryRepository.findOverlapping(productId, start, end).stream()
+                .flatMap(chunk -> PriceSeriesCodec.decode(chunk.getData()).stream())
+                .filter(point -> !point.at().isBefore(start) && !point.at().isAfter(end))
+                .sorted(Comparator.comparing(PricePoint::at))
+                .toList();
+    }
+}
@@ -0,0 +1,241 @@
+package com.techstore.service;
+
+import com.techstore.dto.ProductBulkRequestDto;
+import com.techstore.dto.ProductBulkRequestDto.Action;
+import com.techstore.dto.ProductBulkRequestDto.Operation;
+import com.techstore.dto.ProductBulkResultDto;
+import com.techstore.dto.ProductDto;
+import com.techstore.event.ProductChangedEvent;
+import com.techstore.event.ProductPricesChangedEvent;
+import com.techstore.mapper.ProductMapper;
+import com.techstore.model.Product;
+import com.techstore.model.enums.ChangeType;
+import com.techstore.repository.CategoryRepository;
+import com.techstore.repository.LocationStockRepository;
+import com.techstore.repository.ProductRepository;
+import com.techstore.repository.ProviderRepository;
+import com.techstore.service.catalog.ReferenceDataCache;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Altas, modificaciones y bajas de productos en lote, en una sola transacción.
+ *
+ * Primero valida todas las operaciones (reglas del DTO, IDs repetidos, referencias existentes) y
+ * rechaza solo las inválidas; las demás se aplican juntas. Categorías y proveedores se validan contra
+ * ReferenceDataCache (sin consultas); productos a modificar e IDs a borrar salen de una consulta cada uno.
+ * Cambiar el stock de un producto con stock por ubicación se rechaza: su PRODUCT.STOCK es la suma de ubicaciones.
+ * Las bajas son un único DELETE y las modificaciones se vuelcan como lote JDBC al confirmar.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductBulkService {
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final ProviderRepository providerRepository;
+    private final LocationStockRepository locationStockRepository;
+    private final ReferenceDataCache referenceData;
+    private final ProductMapper productMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public ProductBulkResultDto apply(ProductBulkRequestDto request) {
+        List<Operation> operations = request.getOperations();
+        List<List<String>> errors = new ArrayList<>(operations.size());
+
+        // --- 1. VALIDACIÓN SIN BD ---
+        Set<Long> targetedIds = new HashSet<>();
+        for (Operation operation : operations) {
+            errors.add(validate(operation, targetedIds));
+        }
+
+        // --- 2. PRECARGA: una consulta por tabla de productos para todo el lote ---
+        Set<Long> updateIds = new HashSet<>();
+        Set<Long> deleteIds = new HashSet<>();
+        forEachValid(operations, errors, (index, operation) -> {
+            if (operation.getAction() == Action.DELETE) {
+                deleteIds.add(operation.getId());
+                return;
+            }
+            if (operation.getAction() == Action.UPDATE) {
+                updateIds.add(operation.getId());
+            }
+        });
+
+        Map<Long, Product> products = byId(productRepository.findAllById(updateIds), Product::getId);
+        Set<Long> existing = deleteIds.isEmpty() ? Set.of() : new HashSet<>(productRepository.findExistingIds(deleteIds));
+        Set<Long> stockedPerLocation = updateIds.isEmpty() ? Set.of() : new HashSet<>(locationStockRepository.findProductIdsIn(updateIds));
+
+        // --- 3. REFERENCIAS: lo que no existe se rechaza sin escribir nada ---
+        forEachValid(operations, errors, (index, operation) -> {
+            List<String> itemErrors = errors.get(index);
+            if (operation.getAction() == Action.DELETE) {
+                if (!existing.contains(operation.getId())) {
+                    itemErrors.add(notFound("Product", operation.getId()));
+                }
+                return;
+            }
+            if (operation.getAction() == Action.UPDATE) {
+                Product product = products.get(operation.getId());
+                if (product == null) {
+                    itemErrors.add(notFound("Product", operation.getId()));
+                } else if (stockedPerLocation.contains(product.getId())
+                        && !Objects.equals(product.getStock(), operation.getProduct().getStock())) {
+                    itemErrors.add("stock: product " + product.getId() + " is stocked per location, "
+                            + "set it with PUT /api/products/" + product.getId() + "/locations/{location}");
+                }
+            }
+            if (referenceData.category(operation.getProduct().getCategoryId()).isEmpty()) {
+                itemErrors.add(notFound("Category", operation.getProduct().getCategoryId()));
+            }
+            if (referenceData.provider(operation.getProduct().getProviderId()).isEmpty()) {
+                itemErrors.add(notFound("Provider", operation.getProduct().getProviderId()));
+            }
+        });
+
+        // --- 4. ESCRITURA ---
+        List<Long> deleted = new ArrayList<>();
+        List<Long> updated = new ArrayList<>();
+        Map<Long, BigDecimal> repriced = new HashMap<>();
+        Map<Integer, Product> created = new LinkedHashMap<>();
+        forEachValid(operations, errors, (index, operation) -> {
+            ProductDto dto = operation.getProduct();
+            switch (operation.getAction()) {
+                case DELETE -> deleted.add(operation.getId());
+                case UPDATE -> {
+                    // Entidad gestionada: Hibernate agrupa los UPDATE en el flush del commit
+                    Product product = products.get(operation.getId());
+                    if (product.getPrice() == null || product.getPrice().compareTo(dto.getPrice()) != 0) {
+                        repriced.put(operation.getId(), dto.getPrice());
+                    }
+                    product.setName(dto.getName());
+                    product.setDescription(dto.getDescription());
+                    product.setPrice(dto.getPrice());
+                    product.setStock(dto.getStock());
+                    product.setCategory(categoryRepository.getReferenceById(dto.getCategoryId()));
+                    product.setProvider(providerRepository.getReferenceById(dto.getProviderId()));
+                    updated.add(operation.getId());
+                }
+                case CREATE -> {
+                    Product product = productMapper.toEntity(dto);
+                    product.setCategory(categoryRepository.getReferenceById(dto.getCategoryId()));
+                    product.setProvider(providerRepository.getReferenceById(dto.getProviderId()));
+                    created.put(index, product);
+                }
+            }
+        });
+
+        if (!deleted.isEmpty()) {
+            productRepository.deleteAllByIdIn(deleted);
+        }
+        // ID IDENTITY: Hibernate no puede agrupar los INSERT, pero al menos van en la misma transacción
+        productRepository.saveAll(created.values());
+
+        publishIfAny(ChangeType.DELETED, deleted);
+        publishIfAny(ChangeType.UPDATED, updated);
+        publishIfAny(ChangeType.CREATED, created.values().stream().map(Product::getId).toList());
+        if (!repriced.isEmpty()) {
+            eventPublisher.publishEvent(ProductPricesChangedEvent.of(repriced));
+        }
+
+        // --- 5. RESULTADO POR OPERACIÓN ---
+        List<ProductBulkResultDto.Item> items = new ArrayList<>(operations.size());
+        int rejected = 0;
+        for (int index = 0; index < operations.size(); index++) {
+            Operation operation = operations.get(index);
+            List<String> itemErrors = errors.get(index);
+            Long id = created.containsKey(index) ? created.get(index).getId() : operation.getId();
+            if (itemErrors.isEmpty()) {
+                items.add(new ProductBulkResultDto.Item(index, operation.getAction(), id, true, null));
+            } else {
+                rejected++;
+                items.add(new ProductBulkResultDto.Item(index, operation.getAction(), id, false, itemErrors));
+            }
+        }
+        log.info("Bulk product request: {} created, {} updated, {} deleted, {} rejected",
+                created.size(), updated.size(), deleted.size(), rejected);
+
+        return ProductBulkResultDto.builder()
+                .applied(operations.size() - rejected)
+                .rejected(rejected)
+                .items(items)
+                .build();
+    }
+
+    // --- MÉTODOS AUXILIARES ---
+
+    private List<String> validate(Operation operation, Set<Long> targetedIds) {
+        List<String> errors = new ArrayList<>();
+        Action action = operation.getAction();
+
+        if (action == Action.CREATE && operation.getId() != null) {
+            errors.add("id: must not be set when creating a product");
+        }
+        if (action != Action.CREATE) {
+            if (operation.getId() == null) {
+                errors.add("id: is required for " + action);
+            } else if (!targetedIds.add(operation.getId())) {
+                // Dos operaciones sobre el mismo producto no tienen un orden bien definido dentro del lote
+                errors.add("id: product " + operation.getId() + " appears more than once in the request");
+            }
+        }
+        if (action != Action.DELETE) {
+            if (operation.getProduct() == null) {
+                errors.add("product: is required for " + action);
+            } else {
+                validator.validate(operation.getProduct()).stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .forEach(errors::add);
+            }
+        }
+        return errors;
+    }
+
+    private static void forEachValid(List<Operation> operations, List<List<String>> errors, IndexedOperation action) {
+        for (int index = 0; index < operations.size(); index++) {
+            if (errors.get(index).isEmpty()) {
+                action.accept(index, operations.get(index));
+            }
+        }
+    }
+
+    private static <T> Map<Long, T> byId(Collection<T> entities, Function<T, Long> id) {
+        return entities.stream().collect(Collectors.toMap(id, Function.identity()));
+    }
+
+    private static String notFound(String resource, Long id) {
+        return String.format("%s not found with id: '%s'", resource, id);
+    }
+
+    private void publishIfAny(ChangeType type, List<Long> productIds) {
+        if (!productIds.isEmpty()) {
+            eventPublisher.publishEvent(ProductChangedEvent.of(type, productIds));
+        }
+    }
+
+    @FunctionalInterface
+    private interface IndexedOperation {
+        void accept(int index, Operation operation);
+    }
+}
@@ -1,14 +1,17 @@
 package com.techstore.service;
 
+import com.techstore.event.ProductChangedEvent;
 import com.techstore.model.Category;
 import com.techstore.model.Product;
 import com.techstore.model.Provider;
+import com.techstore.model.enums.ChangeType;
 import com.techstore.repository.CategoryRepository;
 import com.techstore.repository.ProductRepository;
 import com.techstore.repository.ProviderRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j; // IMPORTANTE (9/02)
 import org.apache.poi.ss.usermodel.*;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -26,6 +29,7 @@ public class ProductImportService {
     private final ProductRepository productRepo;
     private final CategoryRepository categoryRepo;
     private final ProviderRepository providerRepo;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public void importProducts(MultipartFile file) throws IOException {
@@ -89,7 +93,8 @@ public class ProductImportService {
         log.info("--- SUMMARY --- Valid products found: {}", productsToSave.size());
 
         if (!productsToSave.isEmpty()) {
-            productRepo.saveAll(productsToSave);
+            List<Long> savedIds = productRepo.saveAll(productsToSave).stream().map(Product::getId).toList();
+            eventPublisher.publishEvent(ProductChangedEvent.of(ChangeType.CREATED, savedIds));
             log.info("SUCCESS: {} products saved to Database", productsToSave.size());
         } else {
             log.warn("ALERT: Import list is EMPTY. Nothing was saved.");
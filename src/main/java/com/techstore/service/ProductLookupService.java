@@ -0,0 +1,92 @@
+package com.techstore.service;
+
+import com.techstore.dto.ProductLookupResultDto;
+import com.techstore.mapper.ProductMapper;
+import com.techstore.repository.ProductRepository;
+import com.techstore.repository.projection.ProductIdStamp;
+import com.techstore.repository.spec.ProductSpecifications;
+import com.techstore.service.catalog.CachedResponse;
+import com.techstore.service.catalog.CatalogVersions;
+import com.techstore.service.catalog.ResourceVersion;
+import com.techstore.service.catalog.ResponseBytesCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fichas de producto para una lista de IDs (carrito, pedido) en una sola llamada.
+ *
+ * Por cada bloque de IDs: una consulta de versiones (la misma que usa GET /{id} para su ETag) y,
+ * solo para los que no estén ya en ResponseBytesCache con esa versión, una consulta de proyección
+ * con categoría y proveedor en el JOIN. Los cuerpos generados se guardan en la caché, así que
+ * también aprovechan a los GET individuales posteriores (y al revés).
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductLookupService {
+
+    // Límite de elementos de un IN (...) en Oracle
+    private static final int IN_CHUNK = 1000;
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final CatalogVersions catalogVersions;
+    private final ResponseBytesCache responseBytesCache;
+
+    @Transactional(readOnly = true)
+    public ProductLookupResultDto lookup(List<Long> ids) {
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Long, CachedResponse> bodies = new HashMap<>(distinct.size());
+        for (int from = 0; from < distinct.size(); from += IN_CHUNK) {
+            bodies.putAll(fetch(distinct.subList(from, Math.min(from + IN_CHUNK, distinct.size()))));
+        }
+
+        // Respuesta en el orden pedido (con repetidos si los hay) y marca explícita para los que no existen
+        List<ProductLookupResultDto.Item> items = new ArrayList<>(ids.size());
+        int found = 0;
+        for (Long id : ids) {
+            CachedResponse body = bodies.get(id);
+            if (body != null) {
+                found++;
+                items.add(new ProductLookupResultDto.Item(id, true, new String(body.json(), StandardCharsets.UTF_8)));
+            } else {
+                items.add(new ProductLookupResultDto.Item(id, false, null));
+            }
+        }
+        return ProductLookupResultDto.builder()
+                .found(found)
+                .missing(ids.size() - found)
+                .items(items)
+                .build();
+    }
+
+    // --- MÉTODOS AUXILIARES ---
+
+    private Map<Long, CachedResponse> fetch(List<Long> chunk) {
+        Map<Long, CachedResponse> bodies = new HashMap<>(chunk.size());
+        Map<Long, ResourceVersion> misses = new HashMap<>();
+        for (ProductIdStamp row : productRepository.findStampsByIdIn(chunk)) {
+            ResourceVersion version = catalogVersions.product(row.id(), row.stamp());
+            responseBytesCache.peek(ResponseBytesCache.productKey(row.id()), version)
+                    .ifPresentOrElse(hit -> bodies.put(row.id(), hit), () -> misses.put(row.id(), version));
+        }
+        if (misses.isEmpty()) {
+            return bodies;
+        }
+
+        // Un producto borrado entre las dos consultas no vuelve aquí: queda como inexistente
+        productRepository.findViews(ProductSpecifications.hasIdIn(misses.keySet()), Sort.unsorted(), misses.size()).stream()
+                .map(productMapper::fromView)
+                .forEach(dto -> bodies.put(dto.getId(), responseBytesCache.get(
+                        ResponseBytesCache.productKey(dto.getId()), misses.get(dto.getId()), () -> dto)));
+        return bodies;
+    }
+}
@@ -0,0 +1,174 @@
+package com.techstore.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techstore.dto.ProductDto;
+import com.techstore.event.ProductChangedEvent;
+import com.techstore.event.ProductPricesChangedEvent;
+import com.techstore.exception.InvalidPatchException;
+import com.techstore.exception.PreconditionFailedException;
+import com.techstore.exception.ResourceNotFoundException;
+import com.techstore.exception.StockManagedByLocationException;
+import com.techstore.mapper.ProductMapper;
+import com.techstore.model.SearchText;
+import com.techstore.repository.CategoryRepository;
+import com.techstore.repository.LocationStockRepository;
+import com.techstore.repository.ProductRepository;
+import com.techstore.repository.ProviderRepository;
+import com.techstore.repository.projection.ProductStamp;
+import com.techstore.repository.spec.ProductSpecifications;
+import com.techstore.service.catalog.CatalogVersions;
+import com.techstore.service.catalog.ReferenceDataCache;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PATCH de productos con JSON Merge Patch (RFC 7396): solo cambian los campos presentes en el documento.
+ *
+ * El UPDATE lleva únicamente esas columnas (más UPDATED_AT), así un cambio de precio no pisa el stock
+ * que otra petición acaba de descontar con reduceStock. Con If-Match, la versión se comprueba en el
+ * propio UPDATE (WHERE ... AND UPDATED_AT = versión leída): si otro escribió entre medias, 412.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductPatchService {
+
+    // Campos modificables: tipo del valor en ProductDto (sus reglas de validación se reutilizan tal cual)
+    private static final Map<String, Class<?>> PATCHABLE = Map.of(
+            "name", String.class,
+            "description", String.class,
+            "price", BigDecimal.class,
+            "stock", Integer.class,
+            "categoryId", Long.class,
+            "providerId", Long.class);
+
+    private final ProductRepository productRepository;
+    private final LocationStockRepository locationStockRepository;
+    private final CategoryRepository categoryRepository;
+    private final ProviderRepository providerRepository;
+    private final ReferenceDataCache referenceData;
+    private final ProductMapper productMapper;
+    private final CatalogVersions catalogVersions;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public ProductDto patchProduct(Long id, JsonNode patch, String ifMatch) {
+        Map<String, Object> values = parse(patch);
+
+        ProductStamp stamp = productRepository.findStampById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
+        if (ifMatch != null && !matches(ifMatch, catalogVersions.product(id, stamp).etag())) {
+            throw new PreconditionFailedException("Product " + id + " has changed since the given ETag");
+        }
+
+        // Con stock por ubicación PRODUCT.STOCK es la suma de sus filas y el recálculo pisaría el valor
+        if (values.containsKey("stock") && locationStockRepository.existsByProductId(id)) {
+            throw new StockManagedByLocationException(id);
+        }
+
+        Map<String, Object> changes = toAttributes(values);
+        if (!changes.isEmpty()) {
+            LocalDateTime updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+            int updated = productRepository.patch(id, changes, updatedAt, ifMatch != null ? stamp.product() : null);
+            if (updated == 0) {
+                // La fila cambió (o se borró) entre la lectura de la versión y el UPDATE
+                throw new PreconditionFailedException("Product " + id + " was modified concurrently");
+            }
+            eventPublisher.publishEvent(ProductChangedEvent.updated(id));
+            if (changes.get("price") instanceof BigDecimal price) {
+                eventPublisher.publishEvent(ProductPricesChangedEvent.of(id, price));
+            }
+        }
+
+        return productRepository.findViews(ProductSpecifications.hasIdIn(List.of(id)), Sort.unsorted(), 1).stream()
+                .findFirst()
+                .map(productMapper::fromView)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", "id", id));
+    }
+
+    // --- MÉTODOS AUXILIARES ---
+
+    // Documento -> valores tipados y validados con las mismas reglas que ProductDto. null = "quitar el valor"
+    private Map<String, Object> parse(JsonNode patch) {
+        if (patch == null || !patch.isObject()) {
+            throw new InvalidPatchException(List.of("Merge patch document must be a JSON object"));
+        }
+        Map<String, Object> values = new LinkedHashMap<>();
+        List<String> errors = new ArrayList<>();
+
+        Iterator<Map.Entry<String, JsonNode>> fields = patch.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            Class<?> type = PATCHABLE.get(field.getKey());
+            if (type == null) {
+                errors.add(field.getKey() + ": cannot be patched");
+                continue;
+            }
+            Object value;
+            try {
+                value = field.getValue().isNull() ? null : objectMapper.treeToValue(field.getValue(), type);
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                errors.add(field.getKey() + ": invalid value");
+                continue;
+            }
+            validator.validateValue(ProductDto.class, field.getKey(), value).stream()
+                    .map(violation -> field.getKey() + ": " + violation.getMessage())
+                    .sorted()
+                    .forEach(errors::add);
+            values.put(field.getKey(), value);
+        }
+
+        if (!errors.isEmpty()) {
+            throw new InvalidPatchException(errors);
+        }
+        return values;
+    }
+
+    // Campos del DTO -> atributos de la entidad (relaciones validadas en la caché y enlazadas como referencia)
+    private Map<String, Object> toAttributes(Map<String, Object> values) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        values.forEach((field, value) -> {
+            switch (field) {
+                case "categoryId" -> {
+                    Long categoryId = referenceData.requireCategory((Long) value).id();
+                    changes.put("category", categoryRepository.getReferenceById(categoryId));
+                }
+                case "providerId" -> {
+                    Long providerId = referenceData.requireProvider((Long) value).id();
+                    changes.put("provider", providerRepository.getReferenceById(providerId));
+                }
+                case "name" -> {
+                    changes.put("name", value);
+                    // Un UPDATE directo no pasa por @PreUpdate: la columna sombra se mantiene a mano
+                    changes.put("nameSearch", SearchText.normalize((String) value));
+                }
+                default -> changes.put(field, value);
+            }
+        });
+        return changes;
+    }
+
+    // If-Match: lista de ETags o "*". Comparación fuerte, así que un ETag débil (W/) nunca coincide
+    private static boolean matches(String ifMatch, String etag) {
+        return Arrays.stream(ifMatch.split(","))
+                .map(String::trim)
+                .anyMatch(candidate -> candidate.equals("*") || candidate.equals(etag));
+    }
+}
@@ -1,12 +1,21 @@
 package com.techstore.service;
 
+import com.techstore.dto.CountMode;
+import com.techstore.dto.CursorSliceDto;
+import com.techstore.dto.FacetedPageDto;
 import com.techstore.dto.ProductDto;
+import com.techstore.dto.ProductRepriceRequestDto;
+import com.techstore.dto.ProductRepriceResultDto;
 import com.techstore.dto.ProductResponseDto;
+import com.techstore.repository.spec.ProductField;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public interface ProductService {
 
@@ -26,7 +35,11 @@ public interface ProductService {
     // --- MÉTODOS DE BÚSQUEDA AVANZADA ---
     List<ProductDto> getProductsLowStock(Integer stockLimit);
 
-    List<ProductDto> getProductsByMinPrice(BigDecimal minPrice);
+    // Los "count" productos de menor stock (índice en memoria, sin ORDER BY sobre la tabla)
+    List<ProductDto> getLowestStockProducts(int count);
+
+    // Los "limit" más caros con precio >= minPrice, de mayor a menor precio
+    List<ProductDto> getProductsByMinPrice(BigDecimal minPrice, int limit);
 
     List<ProductDto> searchProductsByTerm(String term);
 
@@ -36,4 +49,34 @@ public interface ProductService {
 
     //método de búsqueda avanzada ingresada el 01/02
     Page<ProductResponseDto> searchProducts(String name, BigDecimal minPrice, BigDecimal maxPrice, String category, Pageable pageable);
-}
\ No newline at end of file
+
+    // --- PAGINACIÓN POR CURSOR (KEYSET): sin OFFSET ni COUNT(*) ---
+    CursorSliceDto<ProductDto> scrollProducts(String cursor, int size, String sort);
+
+    CursorSliceDto<ProductResponseDto> scrollProducts(String name, BigDecimal minPrice, BigDecimal maxPrice, String category,
+                                                      String cursor, int size, String sort);
+
+    // --- CONTEO CONFIGURABLE (?count=none|approx|exact) ---
+    // NONE devuelve un Slice sin total; APPROX y EXACT devuelven Page.
+    Slice<ProductDto> getAllProducts(Pageable pageable, CountMode countMode);
+
+    Slice<ProductDto> searchProducts(String query, Pageable pageable, CountMode countMode);
+
+    Slice<ProductResponseDto> searchProducts(String name, BigDecimal minPrice, BigDecimal maxPrice, String category,
+                                             Pageable pageable, CountMode countMode);
+
+    // --- CAMPOS A LA CARTA (?fields=): solo las columnas pedidas viajan desde la BD y en el JSON ---
+    Slice<Map<String, Object>> getProductFields(Set<ProductField> fields, Pageable pageable, CountMode countMode);
+
+    Slice<Map<String, Object>> searchProductFields(String query, Set<ProductField> fields, Pageable pageable, CountMode countMode);
+
+    Slice<Map<String, Object>> filterProductFields(String name, BigDecimal minPrice, BigDecimal maxPrice, String category,
+                                                   Set<ProductField> fields, Pageable pageable, CountMode countMode);
+
+    // --- FACETAS: resultados filtrados + conteos por categoría, proveedor y banda de precio ---
+    FacetedPageDto<ProductResponseDto> searchProductsWithFacets(String name, BigDecimal minPrice, BigDecimal maxPrice,
+                                                                String category, Pageable pageable);
+
+    // --- REPRECIO MASIVO: un solo UPDATE para todos los productos que cumplen el filtro ---
+    ProductRepriceResultDto repriceProducts(ProductRepriceRequestDto request);
+}
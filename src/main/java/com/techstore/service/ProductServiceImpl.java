@@ -1,26 +1,66 @@
 package com.techstore.service;
 
+import com.techstore.dto.CountMode;
+import com.techstore.dto.CursorSliceDto;
+import com.techstore.dto.FacetedPageDto;
 import com.techstore.dto.ProductDto;
+import com.techstore.dto.ProductFacetsDto;
+import com.techstore.dto.ProductRepriceRequestDto;
+import com.techstore.dto.ProductRepriceResultDto;
 import com.techstore.dto.ProductResponseDto;
+import com.techstore.event.ProductChangedEvent;
+import com.techstore.event.ProductPricesChangedEvent;
+import com.techstore.event.ProductsBulkUpdatedEvent;
+import com.techstore.exception.InvalidQueryParameterException;
 import com.techstore.exception.ResourceNotFoundException;
 import com.techstore.exception.StockInsufficientException;
+import com.techstore.exception.StockManagedByLocationException;
 import com.techstore.mapper.ProductMapper;
-import com.techstore.model.Category;
 import com.techstore.model.Product;
-import com.techstore.model.Provider;
 import com.techstore.repository.CategoryRepository;
+import com.techstore.repository.LocationStockRepository;
 import com.techstore.repository.ProductRepository;
 import com.techstore.repository.ProviderRepository;
+import com.techstore.repository.projection.CategoryRef;
+import com.techstore.repository.projection.FacetCount;
+import com.techstore.repository.projection.ProductView;
+import com.techstore.repository.projection.ProviderRef;
+import com.techstore.repository.spec.ProductCursor;
+import com.techstore.repository.spec.ProductField;
+import com.techstore.repository.spec.ProductFilter;
+import com.techstore.repository.spec.ProductSortKey;
 import com.techstore.repository.spec.ProductSpecifications;
+import com.techstore.service.catalog.ColumnarCatalog;
+import com.techstore.service.catalog.FacetedPage;
+import com.techstore.service.catalog.LowStockIndex;
+import com.techstore.service.catalog.PriceBands;
+import com.techstore.service.catalog.ProductCountCache;
+import com.techstore.service.catalog.ReferenceDataCache;
+import com.techstore.service.catalog.TopPricedProducts;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
 
 @Service
 @RequiredArgsConstructor
@@ -28,18 +68,29 @@ public class ProductServiceImpl implements ProductService {
 
     private static final String ENTITY_NAME = "Product";
 
+    // Límite de elementos de un IN (...) en Oracle
+    private static final int IN_CHUNK = 1000;
+
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
     private final CategoryRepository categoryRepository;
     private final ProviderRepository providerRepository;
+    private final LocationStockRepository locationStockRepository;
+    private final ProductCountCache productCountCache;
+    private final ColumnarCatalog columnarCatalog;
+    private final PriceBands priceBands;
+    private final ReferenceDataCache referenceData;
+    private final LowStockIndex lowStockIndex;
+    private final TopPricedProducts topPricedProducts;
+    private final ApplicationEventPublisher eventPublisher;
 
     // --- LECTURA (READ) ---
 
     @Override
     @Transactional(readOnly = true)
     public Page<ProductDto> getAllProducts(Pageable pageable) {
-        return productRepository.findAll(pageable)
-                .map(productMapper::toDto);
+        return productRepository.findAllViews(pageable)
+                .map(productMapper::fromView);
     }
 
     @Override
@@ -53,8 +104,8 @@ public class ProductServiceImpl implements ProductService {
     @Override
     @Transactional(readOnly = true)
     public Page<ProductDto> searchProducts(String query, Pageable pageable) {
-        return productRepository.findByNameContainingIgnoreCase(query, pageable)
-                .map(productMapper::toDto);
+        return productRepository.findViews(ProductSpecifications.hasName(query), pageable)
+                .map(productMapper::fromView);
     }
 
     // --- INTELIGENCIA DE NEGOCIO Y BÚSQUEDAS ---
@@ -62,24 +113,30 @@ public class ProductServiceImpl implements ProductService {
     @Override
     @Transactional(readOnly = true)
     public List<ProductDto> getProductsLowStock(Integer stockLimit) {
-        return productRepository.findByStockLessThan(stockLimit).stream()
-                .map(productMapper::toDto)
-                .toList(); // JAVA 17: Mucho más limpio que collect(Collectors.toList())
+        // El índice en memoria da los IDs ya ordenados por stock; la BD solo aporta las fichas
+        return viewsInOrder(lowStockIndex.below(stockLimit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductDto> getLowestStockProducts(int count) {
+        return viewsInOrder(lowStockIndex.lowest(count));
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ProductDto> getProductsByMinPrice(BigDecimal minPrice) {
-        return productRepository.findByPriceGreaterThanEqual(minPrice).stream()
-                .map(productMapper::toDto)
+    public List<ProductDto> getProductsByMinPrice(BigDecimal minPrice, int limit) {
+        // Top-N acotado: lista en memoria si limit cabe en ella, si no FETCH FIRST sobre el índice de precio
+        return topPricedProducts.top(minPrice, limit).stream()
+                .map(productMapper::fromView)
                 .toList(); // JAVA 17 CLEAN CODE
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ProductDto> searchProductsByTerm(String term) {
-        return productRepository.searchByTerm(term).stream()
-                .map(productMapper::toDto)
+        return productRepository.searchViewsByTerm(term).stream()
+                .map(productMapper::fromView)
                 .toList(); // JAVA 17 CLEAN CODE
     }
 
@@ -88,8 +145,8 @@ public class ProductServiceImpl implements ProductService {
     @Override
     @Transactional // <--- TRANSACCIÓN DE ESCRITURA (ACID)
     public ProductDto reduceStock(Long id, Integer quantity) {
-        // 1. Buscar producto
-        Product product = productRepository.findById(id)
+        // 1. Buscar producto con su fila bloqueada: comprobar y descontar no se intercala con otra venta
+        Product product = productRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new ResourceNotFoundException(ENTITY_NAME, "id", id));
 
         // 2. VALIDACIÓN DE REGLA DE NEGOCIO
@@ -106,6 +163,7 @@ public class ProductServiceImpl implements ProductService {
 
         // 4. Guardado
         Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.updated(id));
 
         // 5. Retorno mapeado
         return productMapper.toDto(savedProduct);
@@ -116,14 +174,17 @@ public class ProductServiceImpl implements ProductService {
     @Override
     @Transactional
     public ProductDto createProduct(ProductDto productDto) {
-        Category category = getCategoryOrThrow(productDto.getCategoryId());
-        Provider provider = getProviderOrThrow(productDto.getProviderId());
+        // IDs validados contra la caché de referencia: ni SELECT de categoría ni de proveedor
+        CategoryRef category = referenceData.requireCategory(productDto.getCategoryId());
+        ProviderRef provider = referenceData.requireProvider(productDto.getProviderId());
 
         Product product = productMapper.toEntity(productDto);
-        product.setCategory(category);
-        product.setProvider(provider);
+        product.setCategory(categoryRepository.getReferenceById(category.id()));
+        product.setProvider(providerRepository.getReferenceById(provider.id()));
 
-        return productMapper.toDto(productRepository.save(product));
+        Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.created(savedProduct.getId()));
+        return productMapper.toDto(savedProduct, category.name(), provider.name());
     }
 
     // --- ACTUALIZACIÓN (UPDATE) ---
@@ -134,22 +195,36 @@ public class ProductServiceImpl implements ProductService {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException(ENTITY_NAME, "id", id));
 
+        BigDecimal previousPrice = product.getPrice();
+
+        // Con stock por ubicación PRODUCT.STOCK es la suma de sus filas: se acepta repetirlo, no cambiarlo
+        if (!Objects.equals(product.getStock(), productDto.getStock()) && locationStockRepository.existsByProductId(id)) {
+            throw new StockManagedByLocationException(id);
+        }
+
         // Actualiza campos básicos
         product.setName(productDto.getName());
         product.setDescription(productDto.getDescription());
         product.setPrice(productDto.getPrice());
         product.setStock(productDto.getStock());
 
-        // Actualiza relaciones solo si cambiaron
-        if (product.getCategory() == null || !product.getCategory().getId().equals(productDto.getCategoryId())) {
-            product.setCategory(getCategoryOrThrow(productDto.getCategoryId()));
+        // Actualiza relaciones solo si cambiaron (getId() de un proxy no lo inicializa)
+        CategoryRef category = referenceData.requireCategory(productDto.getCategoryId());
+        if (product.getCategory() == null || !product.getCategory().getId().equals(category.id())) {
+            product.setCategory(categoryRepository.getReferenceById(category.id()));
         }
 
-        if (product.getProvider() == null || !product.getProvider().getId().equals(productDto.getProviderId())) {
-            product.setProvider(getProviderOrThrow(productDto.getProviderId()));
+        ProviderRef provider = referenceData.requireProvider(productDto.getProviderId());
+        if (product.getProvider() == null || !product.getProvider().getId().equals(provider.id())) {
+            product.setProvider(providerRepository.getReferenceById(provider.id()));
         }
 
-        return productMapper.toDto(productRepository.save(product));
+        Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.updated(id));
+        if (previousPrice == null || previousPrice.compareTo(savedProduct.getPrice()) != 0) {
+            eventPublisher.publishEvent(ProductPricesChangedEvent.of(id, savedProduct.getPrice()));
+        }
+        return productMapper.toDto(savedProduct, category.name(), provider.name());
     }
 
     // --- ELIMINACIÓN (DELETE) ---
@@ -157,60 +232,298 @@ public class ProductServiceImpl implements ProductService {
     @Override
     @Transactional
     public void deleteProduct(Long id) {
-        if (!productRepository.existsById(id)) {
+        // Una sola sentencia: el número de filas borradas ya dice si existía
+        if (productRepository.deleteAllByIdIn(List.of(id)) == 0) {
             throw new ResourceNotFoundException(ENTITY_NAME, "id", id);
         }
-        productRepository.deleteById(id);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
+    }
+
+    // --- REPRECIO MASIVO ---
+
+    @Override
+    @Transactional
+    public ProductRepriceResultDto repriceProducts(ProductRepriceRequestDto request) {
+        // Ambos modos son price * factor + delta: +10% -> (1.10, 0); -5 EUR -> (1, -5)
+        boolean percent = request.getMode() == ProductRepriceRequestDto.Mode.PERCENT;
+        BigDecimal factor = percent ? BigDecimal.ONE.add(request.getValue().movePointLeft(2)) : BigDecimal.ONE;
+        BigDecimal delta = percent ? BigDecimal.ZERO : request.getValue();
+
+        // Marca común de la sentencia: identifica después las filas tocadas (precisión de la columna: microsegundos)
+        LocalDateTime updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        ProductFilter filter = ProductFilter.of(request.getName(), request.getMinPrice(), request.getMaxPrice(), request.getCategory());
+
+        int affected = productRepository.updatePrices(filter, request.getCategoryId(), request.getProviderId(),
+                factor, delta, updatedAt);
+        if (affected > 0) {
+            eventPublisher.publishEvent(new ProductsBulkUpdatedEvent(updatedAt));
+        }
+        return ProductRepriceResultDto.builder().affected(affected).build();
     }
 
     // --- MÉTODOS AUXILIARES ---
 
-    private Category getCategoryOrThrow(Long id) {
-        return categoryRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Category", "id", id));
+    // Método auxiliar para convertir Proyección -> DTO de respuesta avanzada
+    // (los nombres de categoría y proveedor ya vienen del JOIN: nada de carga perezosa).
+    // Visible en el paquete para los benchmarks JMH (perfil "benchmark")
+    ProductResponseDto convertToResponseDTO(ProductView product) {
+        ProductResponseDto dto = new ProductResponseDto();
+        dto.setId(product.id());
+        dto.setName(product.name());
+        dto.setDescription(product.description());
+        dto.setPrice(product.price());
+        dto.setStock(product.stock());
+        dto.setCreatedAt(product.createdAt());
+        dto.setUpdatedAt(product.updatedAt());
+        dto.setCategoryId(product.categoryId());
+        dto.setCategoryName(product.categoryName());
+        dto.setProviderId(product.providerId());
+        dto.setProviderName(product.providerName());
+        return dto;
     }
 
-    private Provider getProviderOrThrow(Long id) {
-        return providerRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Provider", "id", id));
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ProductResponseDto> searchProducts(String name, BigDecimal minPrice, BigDecimal maxPrice, String category, Pageable pageable) {
+
+        // Snapshot columnar en memoria si está vigente; si no, la consulta JPA de siempre
+        Page<ProductView> productPage = columnarCatalog.filter(name, minPrice, maxPrice, category, pageable)
+                .orElseGet(() -> productRepository.findFilteredViews(ProductFilter.of(name, minPrice, maxPrice, category), pageable));
+
+        return productPage.map(this::convertToResponseDTO);
     }
 
-    // Método auxiliar para convertir Entidad -> DTO de respuesta avanzada
-    private ProductResponseDto convertToResponseDTO(Product product) {
-        ProductResponseDto dto = new ProductResponseDto();
-        dto.setId(product.getId());
-        dto.setName(product.getName());
-        dto.setDescription(product.getDescription());
-        dto.setPrice(product.getPrice());
-        dto.setStock(product.getStock());
-        dto.setCreatedAt(product.getCreatedAt());
-        dto.setUpdatedAt(product.getUpdatedAt());
+    // Fichas de los IDs dados, en ese mismo orden (bloques IN de 1000; un ID ya borrado no aparece)
+    private List<ProductDto> viewsInOrder(List<Long> ids) {
+        Map<Long, ProductView> views = new HashMap<>(ids.size());
+        for (int from = 0; from < ids.size(); from += IN_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(from + IN_CHUNK, ids.size()));
+            productRepository.findViews(ProductSpecifications.hasIdIn(chunk), Sort.unsorted(), chunk.size())
+                    .forEach(view -> views.put(view.id(), view));
+        }
+        return ids.stream()
+                .map(views::get)
+                .filter(Objects::nonNull)
+                .map(productMapper::fromView)
+                .toList();
+    }
+
+    private Specification<Product> filterSpec(String name, BigDecimal minPrice, BigDecimal maxPrice, String category) {
+        return Specification.where(ProductSpecifications.hasName(name))
+                .and(ProductSpecifications.hasMinPrice(minPrice))
+                .and(ProductSpecifications.hasMaxPrice(maxPrice))
+                .and(ProductSpecifications.hasCategory(category));
+    }
 
-        // Manejo seguro de relaciones
-        if (product.getCategory() != null) {
-            dto.setCategoryId(product.getCategory().getId());
-            dto.setCategoryName(product.getCategory().getName());
+    // --- PAGINACIÓN POR CURSOR (KEYSET) ---
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorSliceDto<ProductDto> scrollProducts(String cursor, int size, String sort) {
+        return scroll(Specification.where(null), cursor, size, sort, productMapper::fromView);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorSliceDto<ProductResponseDto> scrollProducts(String name, BigDecimal minPrice, BigDecimal maxPrice, String category,
+                                                             String cursor, int size, String sort) {
+        return scroll(filterSpec(name, minPrice, maxPrice, category), cursor, size, sort, this::convertToResponseDTO);
+    }
+
+    // Pide size + 1 filas: la fila extra solo sirve para saber si hay página siguiente (sin COUNT)
+    private <T> CursorSliceDto<T> scroll(Specification<Product> filter, String cursorToken, int size, String sort,
+                                         Function<ProductView, T> mapper) {
+        ProductCursor cursor = cursorToken != null ? ProductCursor.decode(cursorToken) : null;
+
+        // Con cursor, el orden viaja dentro del token; sin él, se toma del parámetro "sort" (ej: "price,desc")
+        ProductSortKey sortKey;
+        Sort.Direction direction;
+        if (cursor != null) {
+            sortKey = cursor.sortKey();
+            direction = cursor.direction();
+        } else {
+            String[] sortParts = sort.split(",");
+            sortKey = ProductSortKey.fromProperty(sortParts[0].trim());
+            // Una dirección mal escrita ("dsc") es un error del cliente, no un ASC silencioso
+            direction = sortParts.length > 1
+                    ? Sort.Direction.fromOptionalString(sortParts[1].trim()).orElseThrow(
+                            () -> new InvalidQueryParameterException("Unsupported sort direction: '"
+                                    + sortParts[1].trim() + "'. Allowed: asc, desc"))
+                    : Sort.Direction.ASC;
         }
 
-        if (product.getProvider() != null) {
-            dto.setProviderId(product.getProvider().getId());
-            dto.setProviderName(product.getProvider().getName());
+        List<ProductView> rows = productRepository.findViews(
+                filter.and(ProductSpecifications.isAfter(cursor)),
+                ProductCursor.sortOf(sortKey, direction),
+                size + 1);
+
+        boolean hasNext = rows.size() > size;
+        List<ProductView> slice = hasNext ? rows.subList(0, size) : rows;
+
+        return CursorSliceDto.<T>builder()
+                .content(slice.stream().map(mapper).toList())
+                .size(size)
+                .numberOfElements(slice.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? ProductCursor.after(slice.get(slice.size() - 1), sortKey, direction).encode() : null)
+                .build();
+    }
+
+    // --- CONTEO CONFIGURABLE (?count=none|approx|exact) ---
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<ProductDto> getAllProducts(Pageable pageable, CountMode countMode) {
+        if (countMode == CountMode.EXACT) {
+            return getAllProducts(pageable);
         }
+        return findCounted(Specification.where(null), "all", pageable, countMode)
+                .map(productMapper::fromView);
+    }
 
-        return dto;
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<ProductDto> searchProducts(String query, Pageable pageable, CountMode countMode) {
+        if (countMode == CountMode.EXACT) {
+            return searchProducts(query, pageable);
+        }
+        return findCounted(ProductSpecifications.hasName(query), countKey("search", query), pageable, countMode)
+                .map(productMapper::fromView);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<ProductResponseDto> searchProducts(String name, BigDecimal minPrice, BigDecimal maxPrice, String category, Pageable pageable) {
+    public Slice<ProductResponseDto> searchProducts(String name, BigDecimal minPrice, BigDecimal maxPrice, String category,
+                                                    Pageable pageable, CountMode countMode) {
+        if (countMode == CountMode.EXACT) {
+            return searchProducts(name, minPrice, maxPrice, category, pageable);
+        }
+        // En memoria el total exacto sale gratis del mismo recorrido
+        Optional<Page<ProductView>> inMemory = columnarCatalog.filter(name, minPrice, maxPrice, category, pageable);
+        if (inMemory.isPresent()) {
+            return inMemory.get().map(this::convertToResponseDTO);
+        }
+        ProductFilter filter = ProductFilter.of(name, minPrice, maxPrice, category);
+        Slice<ProductView> slice = productRepository.findFilteredViewSlice(filter, pageable);
+        if (countMode != CountMode.NONE) {
+            slice = withApproximateTotal(slice, () -> productRepository.countFiltered(filter),
+                    countKey("filter", name, minPrice, maxPrice, category), pageable);
+        }
+        return slice.map(this::convertToResponseDTO);
+    }
 
-        Specification<Product> spec = Specification.where(ProductSpecifications.hasName(name))
-                .and(ProductSpecifications.hasMinPrice(minPrice))
-                .and(ProductSpecifications.hasMaxPrice(maxPrice))
-                .and(ProductSpecifications.hasCategory(category));
+    // Datos sin COUNT(*); el total (si se pide) sale de la caché de conteos aproximados
+    private Slice<ProductView> findCounted(Specification<Product> spec, String countKey, Pageable pageable, CountMode countMode) {
+        Slice<ProductView> slice = productRepository.findViewSlice(spec, pageable);
+        return countMode == CountMode.NONE ? slice
+                : withApproximateTotal(slice, () -> productRepository.count(spec), countKey, pageable);
+    }
 
-        Page<Product> productPage = productRepository.findAll(spec, pageable);
+    private <T> Slice<T> withApproximateTotal(Slice<T> slice, LongSupplier exactCount, String countKey, Pageable pageable) {
+        long approximate = productCountCache.approximate(countKey, exactCount);
+        // El total cacheado puede ir por detrás: nunca menos de lo que ya hemos visto en esta página
+        long seen = pageable.getOffset() + slice.getNumberOfElements() + (slice.hasNext() ? 1 : 0);
+        return new PageImpl<>(slice.getContent(), pageable, Math.max(approximate, seen));
+    }
 
-        return productPage.map(this::convertToResponseDTO);
+    // Clave normalizada del predicado: "filter|lenovo||2000|laptops"
+    private static String countKey(String prefix, Object... values) {
+        StringBuilder key = new StringBuilder(prefix);
+        for (Object value : values) {
+            key.append('|');
+            if (value instanceof BigDecimal decimal) {
+                key.append(decimal.stripTrailingZeros().toPlainString());
+            } else if (value != null) {
+                key.append(value.toString().trim().toLowerCase(Locale.ROOT));
+            }
+        }
+        return key.toString();
+    }
+
+    // --- CAMPOS A LA CARTA (?fields=) ---
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Map<String, Object>> getProductFields(Set<ProductField> fields, Pageable pageable, CountMode countMode) {
+        return findFields(Specification.where(null), "all", fields, pageable, countMode);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Map<String, Object>> searchProductFields(String query, Set<ProductField> fields, Pageable pageable,
+                                                          CountMode countMode) {
+        return findFields(ProductSpecifications.hasName(query), countKey("search", query), fields, pageable, countMode);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Map<String, Object>> filterProductFields(String name, BigDecimal minPrice, BigDecimal maxPrice, String category,
+                                                          Set<ProductField> fields, Pageable pageable, CountMode countMode) {
+        // Con snapshot en memoria no hay columnas que podar: se recorta la fila al serializar
+        Optional<Page<ProductView>> inMemory = columnarCatalog.filter(name, minPrice, maxPrice, category, pageable);
+        if (inMemory.isPresent()) {
+            return inMemory.get().map(view -> ProductField.project(view, fields));
+        }
+        return findFields(filterSpec(name, minPrice, maxPrice, category),
+                countKey("filter", name, minPrice, maxPrice, category), fields, pageable, countMode);
+    }
+
+    // Igual que findCounted, pero con la consulta de proyección dinámica (solo las columnas pedidas)
+    private Slice<Map<String, Object>> findFields(Specification<Product> spec, String countKey, Set<ProductField> fields,
+                                                  Pageable pageable, CountMode countMode) {
+        if (countMode == CountMode.EXACT) {
+            return productRepository.findFields(spec, fields, pageable);
+        }
+        Slice<Map<String, Object>> slice = productRepository.findFieldSlice(spec, fields, pageable);
+        return countMode == CountMode.NONE ? slice
+                : withApproximateTotal(slice, () -> productRepository.count(spec), countKey, pageable);
+    }
+
+    // --- FACETAS ---
+
+    @Override
+    @Transactional(readOnly = true)
+    public FacetedPageDto<ProductResponseDto> searchProductsWithFacets(String name, BigDecimal minPrice, BigDecimal maxPrice,
+                                                                       String category, Pageable pageable) {
+        // Con snapshot: una sola pasada en memoria (bitmap de coincidencias + intersecciones por faceta).
+        // Sin ella: la página de siempre y una consulta agrupada por dimensión.
+        FacetedPage result = columnarCatalog.facetedFilter(name, minPrice, maxPrice, category, pageable)
+                .orElseGet(() -> {
+                    Specification<Product> spec = filterSpec(name, minPrice, maxPrice, category);
+                    List<Long> bandCounts = productRepository.countByPriceBand(spec, priceBands.bounds());
+                    List<FacetCount> bands = new ArrayList<>(bandCounts.size());
+                    for (int band = 0; band < bandCounts.size(); band++) {
+                        bands.add(new FacetCount((long) band, null, bandCounts.get(band)));
+                    }
+                    return new FacetedPage(productRepository.findViews(spec, pageable),
+                            productRepository.countByCategory(spec),
+                            productRepository.countByProvider(spec),
+                            bands);
+                });
+
+        Page<ProductResponseDto> page = result.page().map(this::convertToResponseDTO);
+        return FacetedPageDto.<ProductResponseDto>builder()
+                .content(page.getContent())
+                .page(page.getNumber())
+                .size(page.getSize())
+                .totalElements(page.getTotalElements())
+                .totalPages(page.getTotalPages())
+                .facets(ProductFacetsDto.builder()
+                        .categories(toFacetValues(result.categories()))
+                        .providers(toFacetValues(result.providers()))
+                        .priceBands(result.priceBands().stream()
+                                .map(band -> new ProductFacetsDto.PriceBand(
+                                        priceBands.lowerBound(band.id().intValue()),
+                                        priceBands.upperBound(band.id().intValue()),
+                                        band.count()))
+                                .toList())
+                        .build())
+                .build();
+    }
+
+    private static List<ProductFacetsDto.FacetValue> toFacetValues(List<FacetCount> counts) {
+        return counts.stream()
+                .map(facet -> new ProductFacetsDto.FacetValue(facet.id(), facet.name(), facet.count()))
+                .toList();
     }
-}
\ No newline at end of file
+}
@@ -1,11 +1,13 @@
 package com.techstore.service;
 
 import com.techstore.dto.ProviderDto;
+import com.techstore.event.ReferenceDataChangedEvent;
 import com.techstore.exception.ResourceNotFoundException;
 import com.techstore.mapper.ProviderMapper;
 import com.techstore.model.Provider;
 import com.techstore.repository.ProviderRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,6 +20,7 @@ public class ProviderService {
 
     private final ProviderRepository providerRepository;
     private final ProviderMapper providerMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional(readOnly = true)
     public List<ProviderDto> getAllProviders() {
@@ -37,6 +40,8 @@ public class ProviderService {
     public ProviderDto createProvider(ProviderDto providerDto) {
         Provider provider = providerMapper.toEntity(providerDto);
         Provider savedProvider = providerRepository.save(provider);
+        // Tras el commit, la caché de datos de referencia lo verá (en esta y en el resto de instancias)
+        eventPublisher.publishEvent(ReferenceDataChangedEvent.provider(savedProvider.getId()));
         return providerMapper.toDto(savedProvider);
     }
 
@@ -46,5 +51,6 @@ public class ProviderService {
             throw new ResourceNotFoundException("Provider", "id", id);
         }
         providerRepository.deleteById(id);
+        eventPublisher.publishEvent(ReferenceDataChangedEvent.provider(id));
     }
 }
\ No newline at end of file
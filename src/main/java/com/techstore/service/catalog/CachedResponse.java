@@ -0,0 +1,5 @@
+package com.techstore.service.catalog;
+
+// Respuesta JSON ya serializada (UTF-8) y, si está activado, su versión gzip; etag = versión de la que sale
+public record CachedResponse(String etag, byte[] json, byte[] gzip) {
+}
@@ -0,0 +1,166 @@
+package com.techstore.service.catalog;
+
+import com.techstore.event.ProductChangedEvent;
+import com.techstore.event.ProductsBulkUpdatedEvent;
+import com.techstore.event.ReferenceDataChangedEvent;
+import com.techstore.repository.CategoryRepository;
+import com.techstore.repository.ProductRepository;
+import com.techstore.repository.ProviderRepository;
+import com.techstore.repository.projection.ProductStamp;
+import com.techstore.repository.projection.TableStamp;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Calcula ETag / Last-Modified de las lecturas del catálogo con consultas de agregado
+ * (COUNT + MAX(UPDATED_AT)) o de una sola fila por ID: nunca carga entidades ni mapea DTOs.
+ *
+ * Un listado de productos incluye nombres de categoría y proveedor, así que su versión
+ * combina las tres tablas; la de un producto, su fila más las de su categoría y proveedor.
+ *
+ * La versión de los listados de productos la piden casi todas las lecturas, así que se guarda en
+ * memoria y se invalida como CategoryTree: cada escritura confirmada de producto, categoría o
+ * proveedor sube un contador, y la siguiente petición vuelve a calcular los agregados una vez.
+ * Los cambios de categorías y proveedores de otras instancias llegan por el canal de difusión; los
+ * de productos no, y la edad máxima acota cuánto tardan en verse. El ETag sigue saliendo de los
+ * agregados, así todas las instancias dan el mismo para los mismos datos.
+ */
+@Component
+public class CatalogVersions {
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final ProviderRepository providerRepository;
+    private final Duration maxAge;
+
+    private final AtomicLong writes = new AtomicLong();
+    private volatile CachedVersion products;
+
+    public CatalogVersions(ProductRepository productRepository,
+                           CategoryRepository categoryRepository,
+                           ProviderRepository providerRepository,
+                           ObjectProvider<ReferenceDataBroadcast> channels,
+                           @Value("${catalog.versions.max-age:PT10S}") Duration maxAge) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.providerRepository = providerRepository;
+        this.maxAge = maxAge;
+        channels.orderedStream().forEach(channel -> channel.subscribe(this::invalidate));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<ResourceVersion> product(Long id) {
+        return productRepository.findStampById(id).map(stamp -> single("product-" + id, stamp));
+    }
+
+    // Misma versión que product(id), a partir de un stamp ya leído (escrituras condicionadas por If-Match)
+    public ResourceVersion product(Long id, ProductStamp stamp) {
+        return single("product-" + id, stamp);
+    }
+
+    // Sin transacción: si la versión guardada sigue valiendo, no se toca la BD ni el pool de conexiones
+    public ResourceVersion products() {
+        CachedVersion current = products;
+        if (current != null && isFresh(current)) {
+            return current.version();
+        }
+        // La versión se toma antes de leer: una escritura confirmada durante la lectura deja la copia ya caducada
+        long loadedWrites = writes.get();
+        ResourceVersion version = list("products",
+                productRepository.findTableStamp(),
+                categoryRepository.findTableStamp(),
+                providerRepository.findTableStamp());
+        products = new CachedVersion(loadedWrites, Instant.now(), version);
+        return version;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<ResourceVersion> category(Long id) {
+        return categoryRepository.findStampById(id)
+                .map(updatedAt -> new ResourceVersion(quote("category-" + id + "-" + micros(updatedAt)), instant(updatedAt)));
+    }
+
+    @Transactional(readOnly = true)
+    public ResourceVersion categories() {
+        return list("categories", categoryRepository.findTableStamp());
+    }
+
+    @Transactional(readOnly = true)
+    public ResourceVersion providers() {
+        return list("providers", providerRepository.findTableStamp());
+    }
+
+    // AFTER_COMMIT: un rollback no cambia nada; fallbackExecution cubre escrituras sin transacción
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidate();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsBulkUpdated(ProductsBulkUpdatedEvent event) {
+        invalidate();
+    }
+
+    // Los listados de productos incluyen los nombres de categoría y proveedor
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReferenceDataChanged(ReferenceDataChangedEvent event) {
+        invalidate();
+    }
+
+    // --- MÉTODOS AUXILIARES ---
+
+    private void invalidate() {
+        writes.incrementAndGet();
+    }
+
+    private boolean isFresh(CachedVersion cached) {
+        return cached.writes() == writes.get() && cached.loadedAt().plus(maxAge).isAfter(Instant.now());
+    }
+
+    private static ResourceVersion single(String prefix, ProductStamp stamp) {
+        LocalDateTime latest = Stream.of(stamp.product(), stamp.category(), stamp.provider())
+                .filter(Objects::nonNull)
+                .max(LocalDateTime::compareTo)
+                .orElse(null);
+        String etag = prefix + "-" + micros(stamp.product()) + "-" + micros(stamp.category()) + "-" + micros(stamp.provider());
+        return new ResourceVersion(quote(etag), instant(latest));
+    }
+
+    // Sin Last-Modified: una baja reduce el conteo pero no mueve la fecha máxima
+    private static ResourceVersion list(String prefix, TableStamp... stamps) {
+        StringBuilder etag = new StringBuilder(prefix);
+        for (TableStamp stamp : stamps) {
+            etag.append('-').append(stamp.count()).append('.').append(micros(stamp.lastModified()));
+        }
+        return new ResourceVersion(quote(etag.toString()), null);
+    }
+
+    // Microsegundos: la precisión de TIMESTAMP en Oracle; dos cambios en el mismo milisegundo no colisionan
+    private static String micros(LocalDateTime time) {
+        return time == null ? "0" : Long.toString(ChronoUnit.MICROS.between(Instant.EPOCH, instant(time)), 36);
+    }
+
+    private static Instant instant(LocalDateTime time) {
+        return time == null ? null : time.atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    private static String quote(String etag) {
+        return "\"" + etag + "\"";
+    }
+
+    private record CachedVersion(long writes, Instant loadedAt, ResourceVersion version) {
+    }
+}
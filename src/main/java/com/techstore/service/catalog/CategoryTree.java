@@ -0,0 +1,162 @@
+package com.techstore.service.catalog;
+
+import com.techstore.event.ReferenceDataChangedEvent;
+import com.techstore.model.SearchText;
+import com.techstore.repository.CategoryRepository;
+import com.techstore.repository.projection.CategoryNodeRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Árbol de categorías completo en memoria, para la navegación (/api/categories/tree, breadcrumbs)
+ * y para expandir el filtro por categoría en la snapshot columnar.
+ *
+ * Se carga con una consulta (id, nombre, padre) y se invalida como ReferenceDataCache: cada
+ * escritura de categoría confirmada sube la versión y los avisos de otras instancias llegan por
+ * el canal de difusión. El filtro en BD no lo usa: va contra CATEGORY_CLOSURE en la misma consulta.
+ */
+@Slf4j
+@Component
+public class CategoryTree {
+
+    private final CategoryRepository categoryRepository;
+    private final Duration maxAge;
+
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    public CategoryTree(CategoryRepository categoryRepository,
+                        ObjectProvider<ReferenceDataBroadcast> channels,
+                        @Value("${catalog.reference-data.max-age:PT10M}") Duration maxAge) {
+        this.categoryRepository = categoryRepository;
+        this.maxAge = maxAge;
+        channels.orderedStream().forEach(channel -> channel.subscribe(this::invalidate));
+    }
+
+    // Nodo inmutable; los hijos van ordenados por nombre
+    public record Node(Long id, String name, Long parentId, List<Node> children) {
+    }
+
+    public List<Node> roots() {
+        return current().roots();
+    }
+
+    public Optional<Node> node(Long id) {
+        return Optional.ofNullable(current().byId().get(id));
+    }
+
+    // Camino desde la raíz hasta la categoría (incluida); vacío si no existe
+    public List<Node> path(Long id) {
+        Snapshot current = current();
+        Deque<Node> path = new ArrayDeque<>();
+        Node node = current.byId().get(id);
+        while (node != null) {
+            path.addFirst(node);
+            node = node.parentId() != null ? current.byId().get(node.parentId()) : null;
+        }
+        return List.copyOf(path);
+    }
+
+    // IDs de las categorías con ese nombre y de todo lo que cuelga de ellas. El nombre solo elige las raíces
+    // (como el filtro en BD); el subárbol se sigue por ID, así dos categorías homónimas no se mezclan.
+    // Vacío si ninguna categoría se llama así (ningún producto coincidirá)
+    public Set<Long> subtreeIds(String categoryName) {
+        Set<Long> ids = new HashSet<>();
+        Deque<Node> pending = new ArrayDeque<>(current().byName().getOrDefault(SearchText.normalize(categoryName), List.of()));
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            ids.add(node.id());
+            pending.addAll(node.children());
+        }
+        return ids;
+    }
+
+    // AFTER_COMMIT: un rollback no invalida nada; fallbackExecution cubre escrituras sin transacción
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReferenceDataChanged(ReferenceDataChangedEvent event) {
+        if ("Category".equals(event.entity())) {
+            invalidate();
+        }
+    }
+
+    private void invalidate() {
+        version.incrementAndGet();
+    }
+
+    // --- MÉTODOS AUXILIARES ---
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        return isFresh(current) ? current : reload();
+    }
+
+    // synchronized: tras una invalidación, una sola petición recarga y las demás esperan su resultado
+    private synchronized Snapshot reload() {
+        Snapshot current = snapshot;
+        if (isFresh(current)) {
+            return current;
+        }
+        long loadedVersion = version.get();
+        Snapshot loaded = build(categoryRepository.findAllNodes(), loadedVersion);
+        snapshot = loaded;
+        log.debug("Category tree loaded: {} categories, {} roots", loaded.byId().size(), loaded.roots().size());
+        return loaded;
+    }
+
+    private boolean isFresh(Snapshot candidate) {
+        return candidate != null
+                && candidate.version() == version.get()
+                && candidate.loadedAt().plus(maxAge).isAfter(Instant.now());
+    }
+
+    // Construcción de abajo arriba: cada nodo se crea cuando ya están creados sus hijos
+    private static Snapshot build(List<CategoryNodeRow> rows, long version) {
+        Map<Long, List<CategoryNodeRow>> childRows = new HashMap<>();
+        for (CategoryNodeRow row : rows) {
+            childRows.computeIfAbsent(row.parentId(), parent -> new ArrayList<>()).add(row);
+        }
+        Map<Long, Node> byId = new HashMap<>(rows.size());
+        List<Node> roots = childRows.getOrDefault(null, List.of()).stream()
+                .map(row -> node(row, childRows, byId))
+                .sorted(Comparator.comparing(Node::name))
+                .toList();
+
+        Map<String, List<Node>> byName = new HashMap<>();
+        byId.values().stream()
+                .filter(node -> StringUtils.hasText(node.name()))
+                .forEach(node -> byName.computeIfAbsent(SearchText.normalize(node.name()), name -> new ArrayList<>()).add(node));
+        return new Snapshot(version, Instant.now(), roots, Map.copyOf(byId), Map.copyOf(byName));
+    }
+
+    private static Node node(CategoryNodeRow row, Map<Long, List<CategoryNodeRow>> childRows, Map<Long, Node> byId) {
+        List<Node> children = childRows.getOrDefault(row.id(), List.of()).stream()
+                .map(child -> node(child, childRows, byId))
+                .sorted(Comparator.comparing(Node::name))
+                .toList();
+        Node node = new Node(row.id(), row.name(), row.parentId(), children);
+        byId.put(node.id(), node);
+        return node;
+    }
+
+    private record Snapshot(long version, Instant loadedAt, List<Node> roots, Map<Long, Node> byId,
+                            Map<String, List<Node>> byName) {
+    }
+}
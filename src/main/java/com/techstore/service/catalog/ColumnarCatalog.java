@@ -0,0 +1,309 @@
+package com.techstore.service.catalog;
+
+import com.techstore.event.ProductChangedEvent;
+import com.techstore.event.ProductsBulkUpdatedEvent;
+import com.techstore.repository.ProductRepository;
+import com.techstore.repository.projection.CatalogRow;
+import com.techstore.repository.projection.ProductView;
+import com.techstore.repository.spec.ProductSpecifications;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Motor de consulta en memoria para /api/products/filter (opcional: catalog.columnar.enabled).
+ *
+ * Mantiene una ColumnarSnapshot del catálogo completo con solo las columnas que evalúan el filtro y
+ * las facetas; la página resultante se completa por ID con una consulta IN. Cada escritura confirmada
+ * deja sus IDs en cola y vuelve: un único hilo propio vacía la cola, relee de una vez las filas de
+ * todos los productos pendientes y las aplica a la snapshot sin recargarla. Así la copia de columnas
+ * se paga una vez por lote y no en el hilo de quien escribe; las filas sin cambios no copian nada.
+ * La carga completa queda para el arranque y para la edad máxima, que cubre las escrituras hechas
+ * por otras instancias (no llegan como evento). Mientras no haya snapshot, filter() devuelve vacío
+ * y el servicio usa la ruta JPA de siempre.
+ */
+@Slf4j
+@Component
+public class ColumnarCatalog {
+
+    // Límite de elementos de un IN (...) en Oracle
+    private static final int IN_CHUNK = 1000;
+
+    private final ProductRepository productRepository;
+    private final PriceBands priceBands;
+    private final CategoryTree categoryTree;
+    private final boolean enabled;
+    private final int maxProducts;
+    private final Duration maxAge;
+
+    private final Executor patcher;
+
+    private volatile ColumnarSnapshot snapshot;
+
+    // Protegidos por el monitor de pendingIds: escrituras confirmadas que el hilo de parcheo aún no ha leído
+    private final Set<Long> pendingIds = new HashSet<>();
+    private final Set<LocalDateTime> pendingStamps = new HashSet<>();
+    private boolean drainScheduled;
+
+    // Protegido por el monitor de la instancia: productos cambiados mientras una carga completa lee la tabla
+    private Set<Long> changedDuringLoad;
+
+    @Autowired
+    public ColumnarCatalog(ProductRepository productRepository,
+                           PriceBands priceBands,
+                           CategoryTree categoryTree,
+                           @Value("${catalog.columnar.enabled:false}") boolean enabled,
+                           @Value("${catalog.columnar.max-products:1000000}") int maxProducts,
+                           @Value("${catalog.columnar.max-age:PT5M}") Duration maxAge) {
+        this(productRepository, priceBands, categoryTree, enabled, maxProducts, maxAge,
+                Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "columnar-catalog");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+    }
+
+    // Los tests pasan un Executor síncrono
+    ColumnarCatalog(ProductRepository productRepository, PriceBands priceBands, CategoryTree categoryTree,
+                    boolean enabled, int maxProducts, Duration maxAge, Executor patcher) {
+        this.productRepository = productRepository;
+        this.priceBands = priceBands;
+        this.categoryTree = categoryTree;
+        this.enabled = enabled;
+        this.maxProducts = maxProducts;
+        this.maxAge = maxAge;
+        this.patcher = patcher;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (patcher instanceof ExecutorService service) {
+            service.shutdownNow();
+        }
+    }
+
+    public Optional<Page<ProductView>> filter(String name, BigDecimal minPrice, BigDecimal maxPrice, String category,
+                                              Pageable pageable) {
+        return current().flatMap(s -> s.page(s.filter(name, minPrice, maxPrice, subtree(category)), pageable))
+                .map(this::views);
+    }
+
+    public Optional<FacetedPage> facetedFilter(String name, BigDecimal minPrice, BigDecimal maxPrice, String category,
+                                               Pageable pageable) {
+        return current().flatMap(s -> s.facetedPage(s.filter(name, minPrice, maxPrice, subtree(category)), pageable, this::views));
+    }
+
+    // Como en la ruta JPA, filtrar por una categoría incluye todas las que cuelgan de ella
+    private Set<Long> subtree(String category) {
+        return StringUtils.hasText(category) ? categoryTree.subtreeIds(category) : null;
+    }
+
+    // Snapshot vigente, o vacío si está desactivada, sin construir o caducada
+    Optional<ColumnarSnapshot> current() {
+        ColumnarSnapshot current = snapshot;
+        return isFresh(current) ? Optional.of(current) : Optional.empty();
+    }
+
+    // AFTER_COMMIT: un rollback no toca nada; fallbackExecution cubre escrituras sin transacción.
+    // Un borrado también se relee: el ID que no vuelve de la consulta sale de la snapshot
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (enabled) {
+            enqueue(event.productIds(), null);
+        }
+    }
+
+    // Un reprecio masivo deja su UPDATED_AT en las filas que tocó. Si otra escritura cambia después
+    // alguna, su propio evento vuelve a leerla: la snapshot siempre acaba con la fila confirmada
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsBulkUpdated(ProductsBulkUpdatedEvent event) {
+        if (enabled) {
+            enqueue(List.of(), event.updatedAt());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.columnar.refresh-ms:5000}")
+    public void refresh() {
+        if (!enabled || isFresh(snapshot)) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            // Seguimos sirviendo desde la BD; se reintenta en el próximo ciclo
+            synchronized (this) {
+                changedDuringLoad = null;
+            }
+            log.warn("Could not rebuild columnar catalog snapshot: {}", e.getMessage());
+        }
+    }
+
+    // --- MÉTODOS AUXILIARES ---
+
+    private void rebuild() {
+        long start = System.nanoTime();
+        synchronized (this) {
+            changedDuringLoad = new HashSet<>();
+        }
+
+        List<CatalogRow> rows = productRepository.findCatalogRows(PageRequest.of(0, maxProducts + 1));
+        ColumnarSnapshot loaded = null;
+        if (rows.size() > maxProducts) {
+            log.warn("Columnar catalog disabled: more than {} products", maxProducts);
+        } else {
+            loaded = ColumnarSnapshot.build(rows, priceBands).orElse(null);
+            if (loaded == null) {
+                log.warn("Columnar catalog disabled: prices exceed the supported precision");
+            }
+        }
+
+        synchronized (this) {
+            // Lo escrito mientras se leía la tabla puede no estar en la carga: se vuelve a leer antes de publicarla
+            if (loaded != null && !changedDuringLoad.isEmpty()) {
+                loaded = patched(loaded, changedDuringLoad, rowsByIds(changedDuringLoad));
+            }
+            changedDuringLoad = null;
+            snapshot = loaded;
+        }
+        if (loaded != null) {
+            log.info("Columnar catalog snapshot built: {} products in {} ms",
+                    loaded.size(), Duration.ofNanos(System.nanoTime() - start).toMillis());
+        }
+    }
+
+    // Solo hay una tarea de parcheo en cola a la vez: lo que llega mientras espera entra en su mismo lote
+    private void enqueue(Collection<Long> ids, LocalDateTime stamp) {
+        synchronized (pendingIds) {
+            pendingIds.addAll(ids);
+            if (stamp != null) {
+                pendingStamps.add(stamp);
+            }
+            if (drainScheduled) {
+                return;
+            }
+            drainScheduled = true;
+        }
+        try {
+            patcher.execute(this::applyPending);
+        } catch (RejectedExecutionException e) {
+            log.debug("Columnar catalog patcher stopped: pending writes left to the next full load");
+        }
+    }
+
+    private void applyPending() {
+        Set<Long> ids;
+        List<LocalDateTime> stamps;
+        synchronized (pendingIds) {
+            ids = new HashSet<>(pendingIds);
+            stamps = List.copyOf(pendingStamps);
+            pendingIds.clear();
+            pendingStamps.clear();
+            drainScheduled = false;
+        }
+        try {
+            Map<Long, CatalogRow> rows = new HashMap<>();
+            rowsByIds(ids).forEach(row -> rows.put(row.id(), row));
+            for (LocalDateTime stamp : stamps) {
+                productRepository.findCatalogRowsUpdatedAt(stamp).forEach(row -> {
+                    ids.add(row.id());
+                    rows.putIfAbsent(row.id(), row); // la lectura por ID es tan reciente o más
+                });
+            }
+            apply(ids, List.copyOf(rows.values()));
+        } catch (RuntimeException e) {
+            // Sin las filas la snapshot quedaría desfasada: se descarta y la próxima carga completa la repone
+            synchronized (this) {
+                if (changedDuringLoad != null) {
+                    changedDuringLoad.addAll(ids);
+                }
+                snapshot = null;
+            }
+            log.warn("Columnar catalog snapshot dropped: could not re-read changed products: {}", e.getMessage());
+        }
+    }
+
+    private void apply(Collection<Long> ids, List<CatalogRow> rows) {
+        synchronized (this) {
+            if (changedDuringLoad != null) {
+                changedDuringLoad.addAll(ids);
+            }
+            ColumnarSnapshot current = snapshot;
+            if (current != null) {
+                snapshot = patched(current, ids, rows);
+            }
+        }
+    }
+
+    // Los IDs que no vuelven de la consulta ya no existen. null si la snapshot ya no sirve (se recarga entera)
+    private ColumnarSnapshot patched(ColumnarSnapshot current, Collection<Long> ids, List<CatalogRow> rows) {
+        Set<Long> removed = new HashSet<>(ids);
+        rows.forEach(row -> removed.remove(row.id()));
+        ColumnarSnapshot next = current.apply(rows, removed).orElse(null);
+        if (next == null) {
+            log.warn("Columnar catalog snapshot dropped: a new price exceeds its precision");
+        } else if (next.size() > maxProducts) {
+            log.warn("Columnar catalog disabled: more than {} products", maxProducts);
+            return null;
+        }
+        return next;
+    }
+
+    private List<CatalogRow> rowsByIds(Collection<Long> productIds) {
+        List<Long> ids = new ArrayList<>(productIds);
+        List<CatalogRow> rows = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += IN_CHUNK) {
+            rows.addAll(productRepository.findCatalogRowsByIdIn(ids.subList(from, Math.min(from + IN_CHUNK, ids.size()))));
+        }
+        return rows;
+    }
+
+    // La snapshot no guarda la ficha completa: la página se lee por ID (un ID ya borrado no aparece)
+    private Page<ProductView> views(Page<Long> page) {
+        List<Long> ids = page.getContent();
+        Map<Long, ProductView> views = new HashMap<>(ids.size());
+        for (int from = 0; from < ids.size(); from += IN_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(from + IN_CHUNK, ids.size()));
+            productRepository.findViews(ProductSpecifications.hasIdIn(chunk), Sort.unsorted(), chunk.size())
+                    .forEach(view -> views.put(view.id(), view));
+        }
+        List<ProductView> content = ids.stream()
+                .map(views::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new PageImpl<>(content, page.getPageable(), page.getTotalElements());
+    }
+
+    private boolean isFresh(ColumnarSnapshot candidate) {
+        return enabled
+                && candidate != null
+                && candidate.builtAt.plus(maxAge).isAfter(Instant.now());
+    }
+}
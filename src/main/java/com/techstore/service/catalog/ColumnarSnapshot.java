@@ -0,0 +1,511 @@
+package com.techstore.service.catalog;
+
+import com.techstore.model.SearchText;
+import com.techstore.repository.projection.CatalogRow;
+import com.techstore.repository.projection.FacetCount;
+import com.techstore.repository.projection.ProductView;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * Copia inmutable del catálogo en formato columnar: una posición por producto y un array por columna.
+ *
+ * La carga completa llega ordenada por (NAME, ID) desde la BD, así el orden por nombre respeta la
+ * collation de Oracle sin reimplementarla; para ID y precio se precalculan permutaciones. Es el único
+ * orden por nombre: una fila nueva o renombrada no se puede colocar en él sin la BD, así que desde ese
+ * apply() hasta la siguiente carga completa la ordenación por nombre se deja a la ruta JPA.
+ * Evalúa los mismos predicados que ProductSpecifications (nombre, precio mínimo/máximo, categoría);
+ * la categoría se compara por ID, con el subárbol ya expandido por CategoryTree.
+ * Para las facetas guarda un CompressedBitmap de posiciones por categoría, proveedor y banda de precio.
+ *
+ * Las escrituras se aplican con apply(): descarta las filas que no cambian ninguna columna (un cambio
+ * de stock, por ejemplo) y, si queda algo, copia las columnas, sobrescribe las posiciones afectadas,
+ * añade al final los productos nuevos y deja un hueco en las de los borrados. Las permutaciones se
+ * recolocan mezclando solo las posiciones tocadas y solo se reescriben los bitmaps de las facetas
+ * que ganan o pierden alguna de ellas; los huecos desaparecen en la siguiente carga completa.
+ */
+final class ColumnarSnapshot {
+
+    // Escala máxima de precio representable como long sin perder exactitud
+    private static final int MAX_PRICE_SCALE = 6;
+    private static final int NO_CATEGORY = -1;
+
+    final Instant builtAt;       // carga completa de la que desciende: aplicar cambios no la renueva
+
+    final CatalogRow[] rows;     // null = producto borrado desde la carga
+    final long[] ids;
+    final String[] names;        // nombre normalizado (SearchText), deduplicado
+    final long[] prices;         // precio escalado: price * 10^priceScale
+    final int[] categories;      // índice del ID de categoría; NO_CATEGORY si no tiene
+    final int priceScale;
+    final Map<Long, Integer> categoryIndex;   // ID de categoría -> índice
+
+    private final PriceBands priceBands;
+    private final int[] byName;  // solo posiciones vivas en los tres órdenes; byName null = altas o renombrados
+    private final int[] byId;
+    private final int[] byPrice;
+
+    // Por ID de categoría / proveedor / banda, en el mismo orden que la consulta agrupada
+    private final SortedMap<Long, Facet> categoryFacets;
+    private final SortedMap<Long, Facet> providerFacets;
+    private final SortedMap<Long, Facet> priceBandFacets;
+
+    private ColumnarSnapshot(Instant builtAt, CatalogRow[] rows, long[] ids, String[] names, long[] prices,
+                             int[] categories, int priceScale, Map<Long, Integer> categoryIndex, PriceBands priceBands,
+                             int[] byName, int[] byId, int[] byPrice, SortedMap<Long, Facet> categoryFacets,
+                             SortedMap<Long, Facet> providerFacets, SortedMap<Long, Facet> priceBandFacets) {
+        this.builtAt = builtAt;
+        this.rows = rows;
+        this.ids = ids;
+        this.names = names;
+        this.prices = prices;
+        this.categories = categories;
+        this.priceScale = priceScale;
+        this.categoryIndex = categoryIndex;
+        this.priceBands = priceBands;
+        this.byName = byName;
+        this.byId = byId;
+        this.byPrice = byPrice;
+        this.categoryFacets = categoryFacets;
+        this.providerFacets = providerFacets;
+        this.priceBandFacets = priceBandFacets;
+    }
+
+    // Vacío si algún precio no cabe en un long con la escala soportada (se queda la ruta JPA)
+    static Optional<ColumnarSnapshot> build(List<CatalogRow> rowsByName, PriceBands priceBands) {
+        int size = rowsByName.size();
+        int scale = rowsByName.stream()
+                .mapToInt(row -> scaleOf(row.price()))
+                .max().orElse(0);
+        if (scale > MAX_PRICE_SCALE) {
+            return Optional.empty();
+        }
+
+        CatalogRow[] rows = rowsByName.toArray(CatalogRow[]::new);
+        long[] ids = new long[size];
+        String[] names = new String[size];
+        long[] prices = new long[size];
+        int[] categories = new int[size];
+        Map<String, String> internedNames = new HashMap<>();
+        Map<Long, Integer> categoryIndex = new HashMap<>();
+        Map<Long, FacetBuilder> categoryBits = new HashMap<>();
+        Map<Long, FacetBuilder> providerBits = new HashMap<>();
+        Map<Long, FacetBuilder> bandBits = new HashMap<>();
+        for (int band = 0; band < priceBands.count(); band++) {
+            bandBits.put((long) band, new FacetBuilder((long) band, null)); // siempre todas, aunque queden vacías
+        }
+
+        try {
+            for (int i = 0; i < size; i++) {
+                CatalogRow row = rows[i];
+                fill(i, row, scale, ids, names, prices, categories, internedNames, categoryIndex);
+                if (row.categoryId() != null) {
+                    categoryBits.computeIfAbsent(row.categoryId(), id -> new FacetBuilder(id, row.categoryName())).bits.set(i);
+                }
+                if (row.providerId() != null) {
+                    providerBits.computeIfAbsent(row.providerId(), id -> new FacetBuilder(id, row.providerName())).bits.set(i);
+                }
+                bandBits.get((long) priceBands.bandOf(row.price())).bits.set(i);
+            }
+        } catch (ArithmeticException e) {
+            return Optional.empty();
+        }
+
+        int[] byName = IntStream.range(0, size).toArray(); // las filas ya están en orden de nombre
+        return Optional.of(new ColumnarSnapshot(Instant.now(), rows, ids, names, prices, categories, scale,
+                Map.copyOf(categoryIndex), priceBands, byName,
+                sorted(byName, byId(ids)), sorted(byName, byPrice(ids, prices)),
+                FacetBuilder.build(categoryBits.values()), FacetBuilder.build(providerBits.values()),
+                FacetBuilder.build(bandBits.values())));
+    }
+
+    /**
+     * Nueva snapshot con los productos cambiados (filas ya confirmadas) y sin los borrados; la misma
+     * si ninguna fila cambia nada de lo que guarda. Vacío si un precio nuevo necesita más escala que
+     * la de la carga: toca recargar entera.
+     */
+    Optional<ColumnarSnapshot> apply(Collection<CatalogRow> rowsRead, Collection<Long> removedIds) {
+        List<CatalogRow> changed = rowsRead.stream().filter(this::differs).toList();
+        List<Long> removed = removedIds.stream().filter(id -> positionOf(id) >= 0).toList();
+        if (changed.isEmpty() && removed.isEmpty()) {
+            return Optional.of(this);
+        }
+        if (changed.stream().anyMatch(row -> scaleOf(row.price()) > priceScale)) {
+            return Optional.empty();
+        }
+        int added = (int) changed.stream().filter(row -> positionOf(row.id()) < 0).count();
+        boolean renamed = changed.stream()
+                .anyMatch(row -> positionOf(row.id()) < 0 || !row.name().equals(rows[positionOf(row.id())].name()));
+        int size = rows.length + added;
+
+        CatalogRow[] newRows = Arrays.copyOf(rows, size);
+        long[] newIds = Arrays.copyOf(ids, size);
+        String[] newNames = Arrays.copyOf(names, size);
+        long[] newPrices = Arrays.copyOf(prices, size);
+        int[] newCategories = Arrays.copyOf(categories, size);
+        Map<Long, Integer> newCategoryIndex = new HashMap<>(categoryIndex);
+        Map<String, String> internedNames = new HashMap<>();
+
+        BitSet touched = new BitSet(size);
+        FacetChanges categoryChanges = new FacetChanges();
+        FacetChanges providerChanges = new FacetChanges();
+        FacetChanges bandChanges = new FacetChanges();
+        for (Long id : removed) {
+            int i = positionOf(id);
+            leave(rows[i], i, categoryChanges, providerChanges, bandChanges);
+            newRows[i] = null;
+            touched.set(i);
+        }
+        int next = rows.length;
+        try {
+            for (CatalogRow row : changed) {
+                int i = positionOf(row.id());
+                if (i < 0) {
+                    i = next++;
+                } else {
+                    leave(rows[i], i, categoryChanges, providerChanges, bandChanges);
+                }
+                join(row, i, categoryChanges, providerChanges, bandChanges);
+                newRows[i] = row;
+                fill(i, row, priceScale, newIds, newNames, newPrices, newCategories, internedNames, newCategoryIndex);
+                touched.set(i);
+            }
+        } catch (ArithmeticException e) {
+            return Optional.empty();
+        }
+
+        // Sin altas ni renombrados cada fila viva conserva su sitio en el orden de la BD: basta quitar los borrados
+        int[] newByName = renamed || byName == null
+                ? null
+                : Arrays.stream(byName).filter(i -> newRows[i] != null).toArray();
+        return Optional.of(new ColumnarSnapshot(builtAt, newRows, newIds, newNames, newPrices, newCategories, priceScale,
+                Map.copyOf(newCategoryIndex), priceBands,
+                newByName,
+                merge(byId, touched, newRows, byId(newIds)),
+                merge(byPrice, touched, newRows, byPrice(newIds, newPrices)),
+                categoryChanges.applyTo(categoryFacets, false),
+                providerChanges.applyTo(providerFacets, false),
+                bandChanges.applyTo(priceBandFacets, true)));
+    }
+
+    // Productos vivos (sin contar los huecos de los borrados)
+    int size() {
+        return byId.length;
+    }
+
+    // Vacío si la ordenación pedida no está precalculada (varias claves, ignoreCase, otra propiedad...)
+    Optional<Page<Long>> page(Filter filter, Pageable pageable) {
+        return page(i -> filter.test(this, i), pageable);
+    }
+
+    // Una pasada marca las coincidencias en un bitmap; la página y cada faceta se leen de él.
+    // content completa los IDs de la página con sus filas (la snapshot no guarda la ficha entera)
+    Optional<FacetedPage> facetedPage(Filter filter, Pageable pageable, Function<Page<Long>, Page<ProductView>> content) {
+        long[] matches = new long[(rows.length + 63) >>> 6];
+        for (int i : byId) {
+            if (filter.test(this, i)) {
+                matches[i >>> 6] |= 1L << i;
+            }
+        }
+        return page(i -> (matches[i >>> 6] & (1L << i)) != 0, pageable)
+                .map(page -> new FacetedPage(content.apply(page),
+                        counts(categoryFacets, matches, false),
+                        counts(providerFacets, matches, false),
+                        counts(priceBandFacets, matches, true)));
+    }
+
+    // Como un GROUP BY, los valores sin coincidencias no aparecen; las bandas de precio sí (siempre todas)
+    private static List<FacetCount> counts(SortedMap<Long, Facet> facets, long[] matches, boolean keepEmpty) {
+        List<FacetCount> counts = new ArrayList<>(facets.size());
+        for (Facet facet : facets.values()) {
+            long count = facet.bitmap().andCardinality(matches);
+            if (count > 0 || keepEmpty) {
+                counts.add(new FacetCount(facet.id(), facet.name(), count));
+            }
+        }
+        return counts;
+    }
+
+    private Optional<Page<Long>> page(IntPredicate matches, Pageable pageable) {
+        List<Sort.Order> orders = pageable.getSort().toList();
+        if (orders.size() > 1) {
+            return Optional.empty();
+        }
+        Sort.Order order = orders.isEmpty() ? Sort.Order.asc("id") : orders.get(0);
+        if (order.isIgnoreCase()) {
+            return Optional.empty();
+        }
+        int[] permutation;
+        if (order.getProperty().equals("id")) {
+            permutation = byId;
+        } else if (order.getProperty().equals("price")) {
+            permutation = byPrice;
+        } else if (order.getProperty().equals("name") && byName != null) {
+            permutation = byName;
+        } else {
+            return Optional.empty();
+        }
+        boolean descending = order.isDescending();
+
+        long from = pageable.isPaged() ? pageable.getOffset() : 0;
+        long to = pageable.isPaged() ? from + pageable.getPageSize() : Long.MAX_VALUE;
+        List<Long> content = new ArrayList<>(pageable.isPaged() ? pageable.getPageSize() : 16);
+        long matched = 0;
+
+        int size = permutation.length;
+        for (int k = 0; k < size; k++) {
+            int i = permutation[descending ? size - 1 - k : k];
+            if (!matches.test(i)) {
+                continue;
+            }
+            if (matched >= from && matched < to) {
+                content.add(ids[i]);
+            }
+            matched++;
+        }
+        return Optional.of(new PageImpl<>(content, pageable, matched));
+    }
+
+    // categoryIds: IDs aceptados (la categoría pedida y su subárbol); null = sin filtro
+    Filter filter(String name, BigDecimal minPrice, BigDecimal maxPrice, Set<Long> categoryIds) {
+        boolean[] accepted = null;
+        if (categoryIds != null) {
+            accepted = new boolean[categoryIndex.size()];
+            boolean any = false;
+            for (Long categoryId : categoryIds) {
+                Integer index = categoryIndex.get(categoryId);
+                if (index != null) {
+                    accepted[index] = true;
+                    any = true;
+                }
+            }
+            if (!any) {
+                return Filter.NONE; // ninguna categoría del subárbol tiene productos: ninguna fila coincide
+            }
+        }
+        return new Filter(
+                StringUtils.hasText(name) ? SearchText.normalize(name) : null,
+                minPrice == null ? Long.MIN_VALUE : scaled(minPrice, RoundingMode.CEILING),
+                maxPrice == null ? Long.MAX_VALUE : scaled(maxPrice, RoundingMode.FLOOR),
+                accepted);
+    }
+
+    // Redondeo hacia dentro del rango: price >= 10.005 equivale a scaledPrice >= 1001 con escala 2
+    private long scaled(BigDecimal bound, RoundingMode rounding) {
+        BigDecimal value = bound.setScale(priceScale, rounding).movePointRight(priceScale);
+        if (value.compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) > 0) {
+            return Long.MAX_VALUE;
+        }
+        if (value.compareTo(BigDecimal.valueOf(Long.MIN_VALUE)) < 0) {
+            return Long.MIN_VALUE;
+        }
+        return value.longValueExact();
+    }
+
+    // --- MÉTODOS AUXILIARES ---
+
+    private static int scaleOf(BigDecimal price) {
+        return Math.max(price.stripTrailingZeros().scale(), 0);
+    }
+
+    private static void fill(int i, CatalogRow row, int scale, long[] ids, String[] names, long[] prices, int[] categories,
+                             Map<String, String> internedNames, Map<Long, Integer> categoryIndex) {
+        ids[i] = row.id();
+        names[i] = internedNames.computeIfAbsent(SearchText.normalize(row.name()), name -> name);
+        prices[i] = row.price().setScale(scale).unscaledValue().longValueExact();
+        categories[i] = row.categoryId() == null
+                ? NO_CATEGORY
+                : categoryIndex.computeIfAbsent(row.categoryId(), c -> categoryIndex.size());
+    }
+
+    // Una fila leída cambia la snapshot si es nueva o si difiere en alguna columna guardada (el precio, por valor)
+    private boolean differs(CatalogRow row) {
+        int i = positionOf(row.id());
+        if (i < 0) {
+            return true;
+        }
+        CatalogRow current = rows[i];
+        return !row.name().equals(current.name())
+                || row.price().compareTo(current.price()) != 0
+                || !Objects.equals(row.categoryId(), current.categoryId())
+                || !Objects.equals(row.categoryName(), current.categoryName())
+                || !Objects.equals(row.providerId(), current.providerId())
+                || !Objects.equals(row.providerName(), current.providerName());
+    }
+
+    // La fila sale de sus facetas (antes de sobrescribirla o borrarla) o entra en las de sus valores nuevos
+    private void leave(CatalogRow row, int i, FacetChanges categories, FacetChanges providers, FacetChanges bands) {
+        categories.clear(row.categoryId(), i);
+        providers.clear(row.providerId(), i);
+        bands.clear((long) priceBands.bandOf(row.price()), i);
+    }
+
+    private void join(CatalogRow row, int i, FacetChanges categories, FacetChanges providers, FacetChanges bands) {
+        categories.set(row.categoryId(), row.categoryName(), i);
+        providers.set(row.providerId(), row.providerName(), i);
+        bands.set((long) priceBands.bandOf(row.price()), null, i);
+    }
+
+    // Búsqueda binaria sobre la permutación por ID; -1 si el producto no está en la snapshot
+    private int positionOf(long id) {
+        int low = 0;
+        int high = byId.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long midId = ids[byId[mid]];
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return byId[mid];
+            }
+        }
+        return -1;
+    }
+
+    private static Comparator<Integer> byId(long[] ids) {
+        return Comparator.comparingLong(i -> ids[i]);
+    }
+
+    private static Comparator<Integer> byPrice(long[] ids, long[] prices) {
+        return Comparator.<Integer>comparingLong(i -> prices[i]).thenComparingLong(i -> ids[i]);
+    }
+
+    private static int[] sorted(int[] positions, Comparator<Integer> comparator) {
+        return Arrays.stream(positions).boxed()
+                .sorted(comparator)
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    // El orden anterior sin las posiciones tocadas sigue ordenado: se intercalan las vivas ya reordenadas
+    private static int[] merge(int[] order, BitSet touched, CatalogRow[] rows, Comparator<Integer> comparator) {
+        int[] moved = sorted(touched.stream().filter(i -> rows[i] != null).toArray(), comparator);
+        int kept = (int) Arrays.stream(order).filter(i -> !touched.get(i)).count();
+        int[] merged = new int[kept + moved.length];
+        int m = 0;
+        int k = 0;
+        for (int i : order) {
+            if (touched.get(i)) {
+                continue;
+            }
+            while (k < moved.length && comparator.compare(moved[k], i) < 0) {
+                merged[m++] = moved[k++];
+            }
+            merged[m++] = i;
+        }
+        while (k < moved.length) {
+            merged[m++] = moved[k++];
+        }
+        return merged;
+    }
+
+    private record Facet(Long id, String name, CompressedBitmap bitmap) {
+    }
+
+    // Acumula posiciones en un BitSet durante la carga y se comprime al terminar
+    private record FacetBuilder(Long id, String name, BitSet bits) {
+
+        FacetBuilder(Long id, String name) {
+            this(id, name, new BitSet());
+        }
+
+        static SortedMap<Long, Facet> build(Collection<FacetBuilder> builders) {
+            SortedMap<Long, Facet> facets = new TreeMap<>();
+            builders.forEach(b -> facets.put(b.id(), new Facet(b.id(), b.name(), CompressedBitmap.of(b.bits()))));
+            return Collections.unmodifiableSortedMap(facets);
+        }
+    }
+
+    // Posiciones que entran y salen de cada faceta en un apply(); las facetas sin cambios se comparten tal cual
+    private static final class FacetChanges {
+
+        private final Map<Long, FacetChange> changes = new HashMap<>();
+
+        void clear(Long id, int i) {
+            if (id != null) {
+                changes.computeIfAbsent(id, key -> new FacetChange()).clear.set(i);
+            }
+        }
+
+        void set(Long id, String name, int i) {
+            if (id != null) {
+                FacetChange change = changes.computeIfAbsent(id, key -> new FacetChange());
+                change.set.set(i);
+                change.name = name; // un renombrado llega con todos sus productos
+            }
+        }
+
+        SortedMap<Long, Facet> applyTo(SortedMap<Long, Facet> facets, boolean keepEmpty) {
+            if (changes.isEmpty()) {
+                return facets;
+            }
+            SortedMap<Long, Facet> patched = new TreeMap<>(facets);
+            changes.forEach((id, change) -> {
+                Facet previous = facets.get(id);
+                CompressedBitmap bitmap = (previous == null ? CompressedBitmap.EMPTY : previous.bitmap())
+                        .with(change.set, change.clear);
+                if (bitmap.isEmpty() && !keepEmpty) {
+                    patched.remove(id);
+                } else {
+                    String name = change.set.isEmpty() && previous != null ? previous.name() : change.name;
+                    patched.put(id, new Facet(id, name, bitmap));
+                }
+            });
+            return Collections.unmodifiableSortedMap(patched);
+        }
+    }
+
+    private static final class FacetChange {
+        private final BitSet set = new BitSet();
+        private final BitSet clear = new BitSet();
+        private String name;
+    }
+
+    /**
+     * Predicado ya "compilado" contra la snapshot: solo comparaciones de primitivos en el bucle.
+     */
+    record Filter(String nameNeedle, long minPrice, long maxPrice, boolean[] categories) {
+
+        static final Filter NONE = new Filter(null, Long.MAX_VALUE, Long.MIN_VALUE, null);
+
+        boolean test(ColumnarSnapshot snapshot, int i) {
+            long price = snapshot.prices[i];
+            if (price < minPrice || price > maxPrice) {
+                return false;
+            }
+            if (categories != null) {
+                int category = snapshot.categories[i];
+                if (category == NO_CATEGORY || !categories[category]) {
+                    return false;
+                }
+            }
+            return nameNeedle == null || snapshot.names[i].contains(nameNeedle);
+        }
+    }
+}
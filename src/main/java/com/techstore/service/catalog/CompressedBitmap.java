@@ -0,0 +1,92 @@
+package com.techstore.service.catalog;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Bitmap de posiciones de la snapshot guardado solo con sus palabras de 64 bits no vacías.
+ *
+ * Una categoría pequeña ocupa unas pocas palabras aunque el catálogo tenga un millón de filas,
+ * y contar su intersección con el bitmap del filtro solo recorre esas palabras.
+ */
+final class CompressedBitmap {
+
+    static final CompressedBitmap EMPTY = new CompressedBitmap(new int[0], new long[0]);
+
+    private final int[] wordIndexes;
+    private final long[] words;
+
+    private CompressedBitmap(int[] wordIndexes, long[] words) {
+        this.wordIndexes = wordIndexes;
+        this.words = words;
+    }
+
+    static CompressedBitmap of(BitSet bits) {
+        long[] dense = bits.toLongArray();
+        int[] indexes = new int[dense.length];
+        long[] nonEmpty = new long[dense.length];
+        int size = 0;
+        for (int w = 0; w < dense.length; w++) {
+            if (dense[w] != 0) {
+                indexes[size] = w;
+                nonEmpty[size] = dense[w];
+                size++;
+            }
+        }
+        return new CompressedBitmap(Arrays.copyOf(indexes, size), Arrays.copyOf(nonEmpty, size));
+    }
+
+    // Copia con las posiciones de clear a 0 y las de set a 1 (en ese orden): solo reescribe las palabras tocadas
+    CompressedBitmap with(BitSet set, BitSet clear) {
+        Map<Integer, Long> patched = new TreeMap<>();
+        clear.stream().forEach(i -> patched.put(i >>> 6, patched.getOrDefault(i >>> 6, word(i >>> 6)) & ~(1L << i)));
+        set.stream().forEach(i -> patched.put(i >>> 6, patched.getOrDefault(i >>> 6, word(i >>> 6)) | (1L << i)));
+
+        int[] indexes = new int[words.length + patched.size()];
+        long[] nonEmpty = new long[indexes.length];
+        int size = 0;
+        int k = 0;
+        for (Map.Entry<Integer, Long> entry : patched.entrySet()) {
+            int w = entry.getKey();
+            while (k < words.length && wordIndexes[k] < w) {
+                indexes[size] = wordIndexes[k];
+                nonEmpty[size++] = words[k++];
+            }
+            if (k < words.length && wordIndexes[k] == w) {
+                k++; // sustituida por la palabra nueva
+            }
+            if (entry.getValue() != 0) {
+                indexes[size] = w;
+                nonEmpty[size++] = entry.getValue();
+            }
+        }
+        while (k < words.length) {
+            indexes[size] = wordIndexes[k];
+            nonEmpty[size++] = words[k++];
+        }
+        return new CompressedBitmap(Arrays.copyOf(indexes, size), Arrays.copyOf(nonEmpty, size));
+    }
+
+    boolean isEmpty() {
+        return words.length == 0;
+    }
+
+    private long word(int w) {
+        int k = Arrays.binarySearch(wordIndexes, w);
+        return k >= 0 ? words[k] : 0L;
+    }
+
+    // |this AND filtro| sin materializar la intersección
+    long andCardinality(long[] dense) {
+        long count = 0;
+        for (int k = 0; k < words.length; k++) {
+            int w = wordIndexes[k];
+            if (w < dense.length) {
+                count += Long.bitCount(words[k] & dense[w]);
+            }
+        }
+        return count;
+    }
+}
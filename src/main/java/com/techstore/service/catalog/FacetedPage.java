@@ -0,0 +1,15 @@
+package com.techstore.service.catalog;
+
+import com.techstore.repository.projection.FacetCount;
+import com.techstore.repository.projection.ProductView;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+// Página filtrada + conteos por faceta, calculados sobre el mismo conjunto de coincidencias.
+// En priceBands el id es el índice de la banda (ver PriceBands).
+public record FacetedPage(Page<ProductView> page,
+                          List<FacetCount> categories,
+                          List<FacetCount> providers,
+                          List<FacetCount> priceBands) {
+}
@@ -0,0 +1,117 @@
+package com.techstore.service.catalog;
+
+import com.techstore.event.LocationStockChangedEvent;
+import com.techstore.event.ProductChangedEvent;
+import com.techstore.model.enums.ChangeType;
+import com.techstore.repository.LocationStockRepository;
+import com.techstore.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mantiene PRODUCT.STOCK como total disponible de las filas LOCATION_STOCK de cada producto.
+ *
+ * Los descuentos por ubicación solo marcan el producto (AFTER_COMMIT); cada
+ * catalog.location-stock.aggregate-ms se recalculan de una vez los marcados con un UPDATE ... SET
+ * STOCK = (SELECT SUM ...). Cien ventas de un producto en ese intervalo son una sola escritura de
+ * su fila, y leer el total sigue siendo leer una columna. Se recalcula la suma en vez de aplicar
+ * deltas: un ciclo perdido o repetido no deja el total descuadrado.
+ *
+ * Las marcas viven solo en memoria: un reinicio (o una caída) antes del volcado las pierde, igual que
+ * las de las ventas de otra instancia. reconcile() busca en la BD, al arrancar y cada
+ * catalog.location-stock.reconcile-ms, los productos cuyo total no cuadra con sus ubicaciones y los marca.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LocationStockAggregator {
+
+    // Límite de elementos de un IN (...) en Oracle
+    private static final int IN_CHUNK = 1000;
+
+    private final ProductRepository productRepository;
+    private final LocationStockRepository locationStockRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLocationStockChanged(LocationStockChangedEvent event) {
+        dirty.addAll(event.productIds());
+    }
+
+    // Un producto borrado se lleva sus ubicaciones en la misma transacción
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() == ChangeType.DELETED) {
+            List<Long> ids = new ArrayList<>(event.productIds());
+            for (int from = 0; from < ids.size(); from += IN_CHUNK) {
+                locationStockRepository.deleteByProductIdIn(ids.subList(from, Math.min(from + IN_CHUNK, ids.size())));
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.location-stock.aggregate-ms:1000}")
+    public synchronized void flush() {
+        List<Long> ids = drain();
+        if (ids.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                LocalDateTime updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+                for (int from = 0; from < ids.size(); from += IN_CHUNK) {
+                    productRepository.refreshStockFromLocations(ids.subList(from, Math.min(from + IN_CHUNK, ids.size())), updatedAt);
+                }
+                // Registro de cambios, cachés e índice de stock bajo se enteran como de cualquier otra escritura
+                eventPublisher.publishEvent(ProductChangedEvent.of(ChangeType.UPDATED, ids));
+            });
+        } catch (RuntimeException e) {
+            // Se reintentan en el próximo ciclo
+            dirty.addAll(ids);
+            log.warn("Could not aggregate location stock for {} products: {}", ids.size(), e.getMessage());
+        }
+    }
+
+    // Sin initialDelay: la primera pasada es al arrancar y recoge lo que el proceso anterior no volcó
+    @Scheduled(fixedDelayString = "${catalog.location-stock.reconcile-ms:600000}")
+    public void reconcile() {
+        try {
+            // Los que ya estaban marcados no cuentan: su recálculo ya estaba en camino
+            long lost = locationStockRepository.findProductIdsOutOfSync().stream()
+                    .filter(dirty::add)
+                    .count();
+            if (lost > 0) {
+                log.info("Location stock total out of sync for {} products: queued for aggregation", lost);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not reconcile location stock totals: {}", e.getMessage());
+        }
+    }
+
+    // --- MÉTODOS AUXILIARES ---
+
+    private List<Long> drain() {
+        List<Long> ids = new ArrayList<>();
+        for (Iterator<Long> it = dirty.iterator(); it.hasNext(); ) {
+            ids.add(it.next());
+            it.remove();
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,92 @@
+package com.techstore.service.catalog;
+
+import com.techstore.dto.LowStockAlertDto;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Suscriptores SSE de las alertas de stock (GET /api/products/low-stock/alerts).
+ *
+ * LowStockIndex publica aquí cada producto que cruza el umbral; las conexiones cerradas o caducadas
+ * se descartan en el primer envío fallido. El cliente EventSource se reconecta solo al caducar.
+ *
+ * publish() llega desde el hilo de quien escribe (AFTER_COMMIT) o del agregador de stock: los envíos van
+ * a un hilo propio con cola acotada, así un cliente atascado retrasa otras alertas, no las escrituras.
+ * Con la cola llena la alerta se descarta; el índice sigue siendo la fuente de verdad.
+ */
+@Slf4j
+@Component
+public class LowStockAlerts {
+
+    private static final String EVENT_NAME = "stock-alert";
+    private static final int MAX_PENDING = 1000;
+
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+    private final Duration timeout;
+    private final ThreadPoolExecutor sender = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(MAX_PENDING), runnable -> {
+                Thread thread = new Thread(runnable, "low-stock-alerts");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    public LowStockAlerts(@Value("${catalog.low-stock.sse-timeout:PT30M}") Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> emitters.remove(emitter));
+        emitters.add(emitter);
+        return emitter;
+    }
+
+    public void publish(LowStockAlertDto alert) {
+        if (emitters.isEmpty()) {
+            return;
+        }
+        try {
+            sender.execute(() -> send(alert));
+        } catch (RejectedExecutionException e) {
+            log.warn("Low-stock alert for product {} dropped: too many pending alerts", alert.getProductId());
+        }
+    }
+
+    // --- MÉTODOS AUXILIARES ---
+
+    private void send(LowStockAlertDto alert) {
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(SseEmitter.event().name(EVENT_NAME).data(alert, MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException e) {
+                // Cliente desconectado: se descarta sin afectar al resto
+                emitters.remove(emitter);
+                log.debug("Dropped low-stock subscriber: {}", e.getMessage());
+            }
+        }
+    }
+
+    int subscribers() {
+        return emitters.size();
+    }
+}
@@ -0,0 +1,213 @@
+package com.techstore.service.catalog;
+
+import com.techstore.dto.LowStockAlertDto;
+import com.techstore.event.ProductChangedEvent;
+import com.techstore.model.enums.ChangeType;
+import com.techstore.repository.ProductRepository;
+import com.techstore.repository.projection.ProductStock;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Índice en memoria (stock, id) de todo el catálogo para /search/low-stock y /search/lowest.
+ *
+ * Se carga una vez (dos columnas por producto) y se mantiene con los ProductChangedEvent confirmados:
+ * solo se vuelve a leer el stock de los productos afectados. Así "los k de menor stock" y "los que
+ * están por debajo de N" salen recorriendo k entradas del árbol, sin ORDER BY stock sobre la tabla.
+ * Las escrituras de otras instancias no llegan como evento: una tarea programada recarga el índice
+ * y lo concilia. Cada producto que cruza catalog.low-stock.alert-threshold se publica en LowStockAlerts.
+ */
+@Slf4j
+@Component
+public class LowStockIndex {
+
+    // Límite de elementos de un IN (...) en Oracle
+    private static final int IN_CHUNK = 1000;
+
+    private static final Comparator<Entry> BY_STOCK = Comparator.comparingInt(Entry::stock).thenComparingLong(Entry::id);
+
+    private final ProductRepository productRepository;
+    private final LowStockAlerts alerts;
+    private final int alertThreshold;
+
+    // Protegidos por el monitor de la instancia: las lecturas son O(k) y las escrituras, de pocos productos
+    private final Map<Long, Integer> stocks = new HashMap<>();
+    private final NavigableSet<Entry> byStock = new TreeSet<>(BY_STOCK);
+    private boolean loaded;
+
+    public LowStockIndex(ProductRepository productRepository,
+                         LowStockAlerts alerts,
+                         @Value("${catalog.low-stock.alert-threshold:5}") int alertThreshold) {
+        this.productRepository = productRepository;
+        this.alerts = alerts;
+        this.alertThreshold = alertThreshold;
+    }
+
+    // IDs con stock < limit, de menor a mayor stock (empate: por ID)
+    public List<Long> below(int limit) {
+        ensureLoaded();
+        synchronized (this) {
+            return ids(byStock.headSet(new Entry(limit, Long.MIN_VALUE), false), Integer.MAX_VALUE);
+        }
+    }
+
+    // Los k productos de menor stock
+    public List<Long> lowest(int k) {
+        ensureLoaded();
+        synchronized (this) {
+            return ids(byStock, k);
+        }
+    }
+
+    public int getAlertThreshold() {
+        return alertThreshold;
+    }
+
+    // AFTER_COMMIT: se lee el stock ya confirmado; fallbackExecution cubre escrituras sin transacción
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!isLoaded()) {
+            return; // La primera consulta cargará el estado ya actualizado
+        }
+        Map<Long, Integer> current = new HashMap<>();
+        if (event.type() != ChangeType.DELETED) {
+            List<Long> ids = new ArrayList<>(event.productIds());
+            for (int from = 0; from < ids.size(); from += IN_CHUNK) {
+                productRepository.findStocksByIdIn(ids.subList(from, Math.min(from + IN_CHUNK, ids.size())))
+                        .forEach(row -> current.put(row.id(), row.stock()));
+            }
+        }
+        // Los que no vuelven de la consulta ya no existen
+        List<LowStockAlertDto> crossings = new ArrayList<>();
+        synchronized (this) {
+            for (Long id : event.productIds()) {
+                apply(id, current.get(id), crossings);
+            }
+        }
+        crossings.forEach(alerts::publish);
+    }
+
+    // El reprecio masivo (ProductsBulkUpdatedEvent) no toca el stock: no hace falta escucharlo
+
+    @Scheduled(fixedDelayString = "${catalog.low-stock.refresh-ms:60000}")
+    public void refresh() {
+        if (!isLoaded()) {
+            return;
+        }
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            // El índice sigue sirviendo con lo que tiene; se reintenta en el próximo ciclo
+            log.warn("Could not refresh low-stock index: {}", e.getMessage());
+        }
+    }
+
+    // --- MÉTODOS AUXILIARES ---
+
+    private void ensureLoaded() {
+        if (isLoaded()) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            long start = System.nanoTime();
+            for (ProductStock row : productRepository.findAllStocks()) {
+                put(row.id(), row.stock());
+            }
+            loaded = true;
+            log.info("Low-stock index loaded: {} products in {} ms",
+                    stocks.size(), Duration.ofNanos(System.nanoTime() - start).toMillis());
+        }
+    }
+
+    private synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    // Recarga completa fuera del monitor y aplicación de las diferencias (con sus alertas)
+    private void reconcile() {
+        Map<Long, Integer> current = new HashMap<>();
+        productRepository.findAllStocks().forEach(row -> current.put(row.id(), row.stock()));
+
+        List<LowStockAlertDto> crossings = new ArrayList<>();
+        synchronized (this) {
+            Set<Long> ids = new HashSet<>(stocks.keySet());
+            ids.addAll(current.keySet());
+            for (Long id : ids) {
+                apply(id, current.get(id), crossings);
+            }
+        }
+        crossings.forEach(alerts::publish);
+    }
+
+    // stock null = producto borrado (o sin stock informado): sale del índice
+    private void apply(Long id, Integer stock, List<LowStockAlertDto> crossings) {
+        Integer previous = stock != null ? put(id, stock) : remove(id);
+        if (stock == null || stock.equals(previous)) {
+            return;
+        }
+        boolean wasLow = previous != null && previous < alertThreshold;
+        boolean isLow = stock < alertThreshold;
+        if (wasLow != isLow && (previous != null || isLow)) {
+            crossings.add(LowStockAlertDto.builder()
+                    .type(isLow ? LowStockAlertDto.Type.LOW : LowStockAlertDto.Type.RESTOCKED)
+                    .productId(id)
+                    .stock(stock)
+                    .threshold(alertThreshold)
+                    .detectedAt(LocalDateTime.now())
+                    .build());
+        }
+    }
+
+    private Integer put(Long id, Integer stock) {
+        if (stock == null) {
+            return remove(id);
+        }
+        Integer previous = stocks.put(id, stock);
+        if (previous != null) {
+            byStock.remove(new Entry(previous, id));
+        }
+        byStock.add(new Entry(stock, id));
+        return previous;
+    }
+
+    private Integer remove(Long id) {
+        Integer previous = stocks.remove(id);
+        if (previous != null) {
+            byStock.remove(new Entry(previous, id));
+        }
+        return previous;
+    }
+
+    private static List<Long> ids(Set<Entry> entries, int max) {
+        // Sin capacidad inicial: size() de un headSet recorre toda la vista
+        List<Long> ids = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (ids.size() == max) {
+                break;
+            }
+            ids.add(entry.id());
+        }
+        return ids;
+    }
+
+    private record Entry(int stock, long id) {
+    }
+}
@@ -0,0 +1,47 @@
+package com.techstore.service.catalog;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Bandas de precio para las facetas: con límites [50, 100, 500] salen
+ * [-, 50), [50, 100), [100, 500) y [500, -). Límite inferior incluido, superior excluido.
+ */
+@Component
+public class PriceBands {
+
+    private final List<BigDecimal> bounds;
+
+    public PriceBands(@Value("${catalog.facets.price-bands:50,100,250,500,1000}") List<BigDecimal> bounds) {
+        this.bounds = bounds.stream().sorted().distinct().toList();
+    }
+
+    public List<BigDecimal> bounds() {
+        return bounds;
+    }
+
+    public int count() {
+        return bounds.size() + 1;
+    }
+
+    public int bandOf(BigDecimal price) {
+        int band = 0;
+        while (band < bounds.size() && price.compareTo(bounds.get(band)) >= 0) {
+            band++;
+        }
+        return band;
+    }
+
+    // null = banda abierta por abajo
+    public BigDecimal lowerBound(int band) {
+        return band == 0 ? null : bounds.get(band - 1);
+    }
+
+    // null = banda abierta por arriba
+    public BigDecimal upperBound(int band) {
+        return band == bounds.size() ? null : bounds.get(band);
+    }
+}
@@ -0,0 +1,112 @@
+package com.techstore.service.catalog;
+
+import com.techstore.model.PriceHistoryChunk;
+import com.techstore.repository.PriceHistoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Fusiona los tramos pequeños de PRICE_HISTORY_CHUNK.
+ *
+ * Cada volcado de PriceHistoryRecorder inserta un tramo por producto con solo los puntos de su
+ * intervalo: un producto que cambia de precio a menudo acabaría con miles de filas de uno o dos
+ * puntos. Cada catalog.price-history.compact-ms se toman los productos con varios tramos de menos
+ * de la mitad de catalog.price-history.chunk-points y sus tramos consecutivos se reescriben en uno
+ * de hasta chunk-points puntos. Alta del nuevo y baja de los originales van en la misma transacción:
+ * una lectura ve unos u otros, nunca ambos. Como dos candidatos siempre caben en un tramo, cada
+ * ciclo avanza; los volcados solo insertan, así que no compiten con la fusión.
+ */
+@Slf4j
+@Component
+public class PriceHistoryCompactor {
+
+    // Productos por ciclo; el DELETE va en bloques IN de 1000 (límite de Oracle)
+    private static final int BATCH_PRODUCTS = 500;
+    private static final int IN_CHUNK = 1000;
+
+    private final PriceHistoryRepository priceHistoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkPoints;
+
+    public PriceHistoryCompactor(PriceHistoryRepository priceHistoryRepository,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${catalog.price-history.chunk-points:256}") int chunkPoints) {
+        this.priceHistoryRepository = priceHistoryRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkPoints = chunkPoints;
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.price-history.compact-ms:60000}")
+    public void compact() {
+        try {
+            Integer merged = transactionTemplate.execute(status -> compactBatch());
+            if (merged != null && merged > 0) {
+                log.debug("Price history compacted: {} chunks merged", merged);
+            }
+        } catch (RuntimeException e) {
+            // Los tramos siguen como estaban; se reintenta en el próximo ciclo
+            log.warn("Could not compact price history chunks: {}", e.getMessage());
+        }
+    }
+
+    // Una pasada sobre un bloque de productos; devuelve cuántos tramos se han sustituido
+    int compactBatch() {
+        int small = chunkPoints / 2;
+        List<Long> productIds = priceHistoryRepository.findProductsWithSmallChunks(small, PageRequest.ofSize(BATCH_PRODUCTS));
+        if (productIds.isEmpty()) {
+            return 0;
+        }
+
+        List<PriceHistoryChunk> merged = new ArrayList<>();
+        List<Long> replaced = new ArrayList<>();
+        List<PriceHistoryChunk> run = new ArrayList<>();
+        int runPoints = 0;
+        for (PriceHistoryChunk chunk : priceHistoryRepository.findSmallChunks(productIds, small)) {
+            boolean otherProduct = !run.isEmpty() && !run.get(0).getProductId().equals(chunk.getProductId());
+            if (otherProduct || runPoints + chunk.getPoints() > chunkPoints) {
+                close(run, merged, replaced);
+                run = new ArrayList<>();
+                runPoints = 0;
+            }
+            run.add(chunk);
+            runPoints += chunk.getPoints();
+        }
+        close(run, merged, replaced);
+
+        priceHistoryRepository.saveAll(merged);
+        for (int from = 0; from < replaced.size(); from += IN_CHUNK) {
+            priceHistoryRepository.deleteAllByIdInBatch(replaced.subList(from, Math.min(from + IN_CHUNK, replaced.size())));
+        }
+        return replaced.size();
+    }
+
+    // --- MÉTODOS AUXILIARES ---
+
+    // Tramos consecutivos de un producto -> un tramo (uno solo se queda como está)
+    private static void close(List<PriceHistoryChunk> run, List<PriceHistoryChunk> merged, List<Long> replaced) {
+        if (run.size() < 2) {
+            return;
+        }
+        // Volcados distintos pueden solaparse en el tiempo: se ordena antes de volver a codificar
+        List<PricePoint> points = run.stream()
+                .flatMap(chunk -> PriceSeriesCodec.decode(chunk.getData()).stream())
+                .sorted(Comparator.comparing(PricePoint::at))
+                .toList();
+        merged.add(PriceHistoryChunk.builder()
+                .productId(run.get(0).getProductId())
+                .firstAt(run.stream().map(PriceHistoryChunk::getFirstAt).min(Comparator.naturalOrder()).orElseThrow())
+                .lastAt(run.stream().map(PriceHistoryChunk::getLastAt).max(Comparator.naturalOrder()).orElseThrow())
+                .points(points.size())
+                .data(PriceSeriesCodec.encode(points))
+                .build());
+        run.forEach(chunk -> replaced.add(chunk.getId()));
+    }
+}
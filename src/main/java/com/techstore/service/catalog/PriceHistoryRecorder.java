@@ -0,0 +1,152 @@
+package com.techstore.service.catalog;
+
+import com.techstore.event.ProductPricesChangedEvent;
+import com.techstore.event.ProductsBulkUpdatedEvent;
+import com.techstore.repository.ProductRepository;
+import com.techstore.repository.projection.ProductPrice;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Escribe el histórico de precios por lotes, fuera de la transacción que cambia el precio.
+ *
+ * AFTER_COMMIT: el cambio confirmado solo se encola (un rollback no deja rastro) y una tarea
+ * programada lo vuelca cada catalog.price-history.flush-ms: una fila PRICE_HISTORY_CHUNK por
+ * producto con todos sus puntos del intervalo, en un único batchUpdate (PriceHistoryCompactor
+ * fusiona después los tramos pequeños). Los precios de un reprecio masivo se leen por su marca
+ * UPDATED_AT antes del commit y se encolan tras él. Si el volcado falla, los puntos vuelven a la
+ * cola; si la cola supera catalog.price-history.max-buffered, el propio escritor vuelca
+ * (contrapresión en vez de perder puntos o crecer sin límite).
+ */
+@Slf4j
+@Component
+public class PriceHistoryRecorder {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO PRICE_HISTORY_CHUNK (PRODUCT_ID, FIRST_AT, LAST_AT, POINTS, DATA) VALUES (?, ?, ?, ?, ?)";
+    private static final int BATCH_SIZE = 500;
+
+    private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxBuffered;
+
+    private final Queue<PendingPrice> pending = new ConcurrentLinkedQueue<>();
+    // Precios de reprecios masivos leídos antes del commit, a la espera de saber si se confirman
+    private final Map<ProductsBulkUpdatedEvent, List<ProductPrice>> capturedBulk = new ConcurrentHashMap<>();
+    private final AtomicInteger buffered = new AtomicInteger();
+
+    public PriceHistoryRecorder(ProductRepository productRepository,
+                                JdbcTemplate jdbcTemplate,
+                                @Value("${catalog.price-history.max-buffered:100000}") int maxBuffered) {
+        this.productRepository = productRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxBuffered = maxBuffered;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPricesChanged(ProductPricesChangedEvent event) {
+        event.prices().forEach((productId, price) ->
+                enqueue(new PendingPrice(productId, new PricePoint(event.changedAt(), price))));
+        flushIfOverLimit();
+    }
+
+    // BEFORE_COMMIT: las filas del reprecio siguen bloqueadas por su transacción, así que la marca
+    // UPDATED_AT da exactamente sus precios nuevos. Tras el commit, otra escritura podría cambiarlos
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onProductsBulkUpdating(ProductsBulkUpdatedEvent event) {
+        capturedBulk.put(event, productRepository.findPricesUpdatedAt(event.updatedAt()));
+    }
+
+    @TransactionalEventListener
+    public void onProductsBulkUpdated(ProductsBulkUpdatedEvent event) {
+        List<ProductPrice> prices = capturedBulk.remove(event);
+        if (prices == null) {
+            return;
+        }
+        prices.forEach(row -> enqueue(new PendingPrice(row.id(), new PricePoint(event.updatedAt(), row.price()))));
+        flushIfOverLimit();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public void onProductsBulkRolledBack(ProductsBulkUpdatedEvent event) {
+        capturedBulk.remove(event);
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${catalog.price-history.flush-ms:5000}")
+    public synchronized void flush() {
+        List<PendingPrice> drained = drain();
+        if (drained.isEmpty()) {
+            return;
+        }
+        try {
+            write(drained);
+        } catch (RuntimeException e) {
+            // Los puntos se reintentan en el próximo ciclo
+            drained.forEach(this::enqueue);
+            log.warn("Could not write {} price history points: {}", drained.size(), e.getMessage());
+        }
+    }
+
+    // --- MÉTODOS AUXILIARES ---
+
+    private void flushIfOverLimit() {
+        if (buffered.get() > maxBuffered) {
+            flush();
+        }
+    }
+
+    private void enqueue(PendingPrice price) {
+        pending.add(price);
+        buffered.incrementAndGet();
+    }
+
+    private List<PendingPrice> drain() {
+        List<PendingPrice> drained = new ArrayList<>();
+        PendingPrice price;
+        while ((price = pending.poll()) != null) {
+            buffered.decrementAndGet();
+            drained.add(price);
+        }
+        return drained;
+    }
+
+    private void write(List<PendingPrice> drained) {
+        Map<Long, List<PricePoint>> byProduct = new TreeMap<>();
+        for (PendingPrice price : drained) {
+            byProduct.computeIfAbsent(price.productId(), id -> new ArrayList<>()).add(price.point());
+        }
+        List<Map.Entry<Long, List<PricePoint>>> rows = new ArrayList<>(byProduct.entrySet());
+        rows.forEach(row -> row.getValue().sort(Comparator.comparing(PricePoint::at)));
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, BATCH_SIZE, (statement, row) -> {
+            List<PricePoint> points = row.getValue();
+            statement.setLong(1, row.getKey());
+            statement.setTimestamp(2, Timestamp.valueOf(points.get(0).at()));
+            statement.setTimestamp(3, Timestamp.valueOf(points.get(points.size() - 1).at()));
+            statement.setInt(4, points.size());
+            statement.setBytes(5, PriceSeriesCodec.encode(points));
+        });
+        log.debug("Price history flushed: {} points for {} products", drained.size(), rows.size());
+    }
+
+    private record PendingPrice(Long productId, PricePoint point) {
+    }
+}
@@ -0,0 +1,8 @@
+package com.techstore.service.catalog;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Un punto de la serie de precios de un producto
+public record PricePoint(LocalDateTime at, BigDecimal price) {
+}
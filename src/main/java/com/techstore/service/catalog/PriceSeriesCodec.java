@@ -0,0 +1,83 @@
+package com.techstore.service.catalog;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Codificación compacta de un tramo de la serie de precios de un producto (PRICE_HISTORY_CHUNK.DATA).
+ *
+ * Formato: nº de puntos y, por punto, el salto de tiempo en segundos y el de precio en céntimos
+ * respecto al anterior (el primero, respecto a 0), todo en varint con zigzag para los negativos.
+ * Un cambio de precio típico ocupa 3-5 bytes en vez de los ~30 de una fila con fecha y NUMBER.
+ * Los puntos se guardan en orden de tiempo; los precios, con 2 decimales como la columna PRICE.
+ */
+public final class PriceSeriesCodec {
+
+    private PriceSeriesCodec() {
+    }
+
+    public static byte[] encode(List<PricePoint> points) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(4 + points.size() * 5);
+        writeVarint(out, points.size());
+        long previousSecond = 0;
+        long previousCents = 0;
+        for (PricePoint point : points) {
+            long second = point.at().toEpochSecond(ZoneOffset.UTC);
+            long cents = point.price().setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+            writeVarint(out, zigzag(second - previousSecond));
+            writeVarint(out, zigzag(cents - previousCents));
+            previousSecond = second;
+            previousCents = cents;
+        }
+        return out.toByteArray();
+    }
+
+    public static List<PricePoint> decode(byte[] data) {
+        ByteBuffer in = ByteBuffer.wrap(data);
+        int count = (int) readVarint(in);
+        List<PricePoint> points = new ArrayList<>(count);
+        long second = 0;
+        long cents = 0;
+        for (int i = 0; i < count; i++) {
+            second += unzigzag(readVarint(in));
+            cents += unzigzag(readVarint(in));
+            points.add(new PricePoint(LocalDateTime.ofEpochSecond(second, 0, ZoneOffset.UTC), BigDecimal.valueOf(cents, 2)));
+        }
+        return points;
+    }
+
+    // --- MÉTODOS AUXILIARES ---
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+    }
+}
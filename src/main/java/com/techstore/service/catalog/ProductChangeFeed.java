@@ -0,0 +1,122 @@
+package com.techstore.service.catalog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techstore.dto.ChangeFeedEndDto;
+import com.techstore.dto.ProductChangeDto;
+import com.techstore.mapper.ProductMapper;
+import com.techstore.model.ProductChange;
+import com.techstore.model.enums.ChangeType;
+import com.techstore.repository.ProductChangeRepository;
+import com.techstore.repository.ProductRepository;
+import com.techstore.repository.projection.ProductView;
+import com.techstore.repository.spec.ProductSpecifications;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Feed incremental del catálogo para los TPV: los cambios posteriores a una marca de agua, en NDJSON.
+ *
+ * Una línea por producto cambiado (estado actual o lápida) y una última línea con la nueva marca de
+ * agua. Solo se sirven cambios con más antigüedad que la ventana de asentamiento: los IDs se reservan
+ * antes del commit, y sin esa espera un cliente podría avanzar su marca por encima de un cambio
+ * todavía no confirmado y no verlo nunca. La ventana debe superar la duración de una escritura.
+ */
+@Component
+public class ProductChangeFeed {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final ProductChangeRepository productChangeRepository;
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final ObjectMapper objectMapper;
+    private final Duration settleWindow;
+
+    public ProductChangeFeed(ProductChangeRepository productChangeRepository,
+                             ProductRepository productRepository,
+                             ProductMapper productMapper,
+                             ObjectMapper objectMapper,
+                             @Value("${catalog.changes.settle-window:PT5S}") Duration settleWindow) {
+        this.productChangeRepository = productChangeRepository;
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.objectMapper = objectMapper;
+        this.settleWindow = settleWindow;
+    }
+
+    public void stream(long since, int limit, OutputStream out) throws IOException {
+        LocalDateTime settledBefore = LocalDateTime.now().minus(settleWindow);
+        long watermark = since;
+        int consumed = 0;
+        boolean hasMore = true;
+
+        while (hasMore && consumed < limit) {
+            int batchSize = Math.min(BATCH_SIZE, limit - consumed);
+            List<ProductChange> batch = productChangeRepository.findSettledAfter(
+                    watermark, settledBefore, PageRequest.of(0, batchSize));
+            hasMore = batch.size() == batchSize;
+            if (batch.isEmpty()) {
+                break;
+            }
+
+            for (ProductChangeDto line : toLines(batch)) {
+                writeLine(out, line);
+            }
+            watermark = batch.get(batch.size() - 1).getId();
+            consumed += batch.size();
+        }
+
+        writeLine(out, ChangeFeedEndDto.builder().watermark(watermark).hasMore(hasMore).build());
+        out.flush();
+    }
+
+    // Un producto con varios cambios en el lote sale una sola vez, con su último cambio
+    private List<ProductChangeDto> toLines(List<ProductChange> batch) {
+        Map<Long, ProductChange> latest = new LinkedHashMap<>();
+        for (ProductChange change : batch) {
+            latest.remove(change.getProductId()); // reinsertar para respetar el orden de secuencia
+            latest.put(change.getProductId(), change);
+        }
+
+        List<Long> liveIds = latest.values().stream()
+                .filter(change -> change.getChangeType() != ChangeType.DELETED)
+                .map(ProductChange::getProductId)
+                .toList();
+        Map<Long, ProductView> views = liveIds.isEmpty()
+                ? Map.of()
+                : productRepository.findViews(ProductSpecifications.hasIdIn(liveIds), Sort.unsorted(), liveIds.size())
+                .stream()
+                .collect(Collectors.toMap(ProductView::id, Function.identity()));
+
+        return latest.values().stream()
+                // Sin vista: se borró después; su lápida llega en un cambio posterior
+                .filter(change -> change.getChangeType() == ChangeType.DELETED || views.containsKey(change.getProductId()))
+                .map(change -> ProductChangeDto.builder()
+                        .seq(change.getId())
+                        .type(change.getChangeType())
+                        .id(change.getProductId())
+                        .product(change.getChangeType() == ChangeType.DELETED
+                                ? null
+                                : productMapper.fromView(views.get(change.getProductId())))
+                        .build())
+                .toList();
+    }
+
+    // writeValueAsBytes y no writeValue(out): este último cerraría el stream de la respuesta
+    private void writeLine(OutputStream out, Object line) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(line));
+        out.write('\n');
+    }
+}
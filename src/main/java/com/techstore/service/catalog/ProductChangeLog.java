@@ -0,0 +1,51 @@
+package com.techstore.service.catalog;
+
+import com.techstore.event.ProductChangedEvent;
+import com.techstore.event.ProductsBulkUpdatedEvent;
+import com.techstore.repository.ProductChangeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Escribe cada ProductChangedEvent en PRODUCT_CHANGE dentro de la misma transacción que el cambio.
+ *
+ * BEFORE_COMMIT: si la escritura hace rollback, no queda fila; y la secuencia (ID) se asigna
+ * justo antes del commit, así el hueco entre reservar el ID y hacerlo visible es mínimo.
+ * Las filas van por lotes JDBC: con ID IDENTITY, saveAll() haría un INSERT por fila
+ * (borrar una categoría con 50.000 productos deja 50.000 lápidas).
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductChangeLog {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO PRODUCT_CHANGE (PRODUCT_ID, CHANGE_TYPE, CHANGED_AT) VALUES (?, ?, ?)";
+    private static final int BATCH_SIZE = 500;
+
+    private final ProductChangeRepository productChangeRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onProductChanged(ProductChangedEvent event) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String type = event.type().name();
+        jdbcTemplate.batchUpdate(INSERT_SQL, event.productIds().stream().sorted().toList(), BATCH_SIZE,
+                (statement, productId) -> {
+                    statement.setLong(1, productId);
+                    statement.setString(2, type);
+                    statement.setTimestamp(3, now);
+                });
+    }
+
+    // Cambio masivo: INSERT ... SELECT de los productos marcados con ese UPDATED_AT (una sentencia)
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onProductsBulkUpdated(ProductsBulkUpdatedEvent event) {
+        productChangeRepository.insertUpdatedAt(event.updatedAt());
+    }
+}
@@ -0,0 +1,89 @@
+package com.techstore.service.catalog;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Totales aproximados por predicado para "?count=approx".
+ *
+ * La primera petición de un predicado paga el COUNT(*) una vez; las siguientes leen el
+ * valor cacheado y una tarea programada lo recalcula en segundo plano. Los predicados
+ * que nadie consulta durante un tiempo se descartan para no refrescarlos eternamente.
+ * Cada ciclo recalcula como mucho refresh-batch predicados, los de valor más antiguo:
+ * con la caché llena el ciclo no encadena mil COUNT(*) ni retiene el hilo del planificador.
+ */
+@Slf4j
+@Component
+public class ProductCountCache {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final int maxEntries;
+    private final int refreshBatch;
+    private final Duration idleTimeout;
+
+    public ProductCountCache(@Value("${catalog.count-cache.max-entries:1000}") int maxEntries,
+                             @Value("${catalog.count-cache.refresh-batch:50}") int refreshBatch,
+                             @Value("${catalog.count-cache.idle-timeout:PT30M}") Duration idleTimeout) {
+        this.maxEntries = maxEntries;
+        this.refreshBatch = refreshBatch;
+        this.idleTimeout = idleTimeout;
+    }
+
+    public long approximate(String key, LongSupplier exactCount) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            // Si la caché está llena no guardamos más predicados: se cuenta al momento
+            if (entries.size() >= maxEntries) {
+                return exactCount.getAsLong();
+            }
+            entry = entries.computeIfAbsent(key, k -> new Entry(exactCount, exactCount.getAsLong()));
+        }
+        entry.lastAccess = Instant.now();
+        return entry.value;
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.count-cache.refresh-ms:60000}")
+    public void refresh() {
+        Instant idleLimit = Instant.now().minus(idleTimeout);
+        entries.entrySet().removeIf(e -> e.getValue().lastAccess.isBefore(idleLimit));
+
+        List<Map.Entry<String, Entry>> oldest = entries.entrySet().stream()
+                .sorted(Comparator.comparing(e -> e.getValue().refreshedAt))
+                .limit(refreshBatch)
+                .toList();
+        for (Map.Entry<String, Entry> e : oldest) {
+            Entry entry = e.getValue();
+            try {
+                entry.value = entry.counter.getAsLong();
+            } catch (RuntimeException ex) {
+                // Mantenemos el último valor conocido; se reintenta en el próximo ciclo
+                log.warn("Could not refresh approximate count for '{}': {}", e.getKey(), ex.getMessage());
+            }
+            entry.refreshedAt = Instant.now();
+        }
+        log.debug("Approximate counts refreshed: {} of {} predicates", oldest.size(), entries.size());
+    }
+
+    private static final class Entry {
+        private final LongSupplier counter;
+        private volatile long value;
+        private volatile Instant lastAccess = Instant.now();
+        private volatile Instant refreshedAt = Instant.now();
+
+        private Entry(LongSupplier counter, long value) {
+            this.counter = counter;
+            this.value = value;
+        }
+    }
+}
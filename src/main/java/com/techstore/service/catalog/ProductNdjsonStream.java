@@ -0,0 +1,75 @@
+package com.techstore.service.catalog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techstore.mapper.ProductMapper;
+import com.techstore.repository.ProductRepository;
+import com.techstore.repository.projection.ProductView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Listados sin límite (stock bajo, precio mínimo, búsqueda por término) como NDJSON: un ProductDto por línea.
+ *
+ * Cada fila se mapea y se escribe en cuanto el driver la entrega, así que la memoria no crece con el
+ * número de resultados y el cliente recibe la primera línea antes de que termine la consulta.
+ * Se ejecuta en el hilo de StreamingResponseBody: la transacción de lectura la abre este componente.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductNdjsonStream {
+
+    // Vaciar el buffer de la respuesta cada tantas líneas (y tras la primera)
+    private static final int FLUSH_EVERY = 100;
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public void lowStock(Integer stockLimit, OutputStream out) throws IOException {
+        write("low-stock", () -> productRepository.streamViewsByStockLessThan(stockLimit), out);
+    }
+
+    @Transactional(readOnly = true)
+    public void minPrice(BigDecimal minPrice, OutputStream out) throws IOException {
+        write("min-price", () -> productRepository.streamViewsByPriceGreaterThanEqual(minPrice), out);
+    }
+
+    @Transactional(readOnly = true)
+    public void term(String term, OutputStream out) throws IOException {
+        write("term", () -> productRepository.streamViewsByTerm(term), out);
+    }
+
+    // try-with-resources: el Stream tiene el cursor JDBC abierto hasta que se cierra
+    private void write(String name, Supplier<Stream<ProductView>> query, OutputStream out) throws IOException {
+        long rows = 0;
+        try (Stream<ProductView> views = query.get()) {
+            Iterator<ProductView> iterator = views.iterator();
+            while (iterator.hasNext()) {
+                writeLine(out, iterator.next());
+                rows++;
+                if (rows == 1 || rows % FLUSH_EVERY == 0) {
+                    out.flush();
+                }
+            }
+        }
+        out.flush();
+        log.debug("Streamed {} products ({})", rows, name);
+    }
+
+    // writeValueAsBytes y no writeValue(out): este último cerraría el stream de la respuesta
+    private void writeLine(OutputStream out, ProductView view) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(productMapper.fromView(view)));
+        out.write('\n');
+    }
+}
@@ -0,0 +1,17 @@
+package com.techstore.service.catalog;
+
+/**
+ * Canal de difusión entre instancias para la caché de datos de referencia.
+ *
+ * Sin ninguna implementación registrada, cada instancia solo invalida su propia copia (y la
+ * edad máxima acota lo que puede tardar en ver cambios hechos en otra). Con varias instancias,
+ * basta con publicar un bean que implemente esta interfaz sobre el bus disponible (Redis, JMS, ...).
+ */
+public interface ReferenceDataBroadcast {
+
+    // Avisa al resto de instancias de que sus copias están obsoletas
+    void publish(String entity);
+
+    // Registra la acción a ejecutar cuando llega el aviso de otra instancia
+    void subscribe(Runnable onRemoteChange);
+}
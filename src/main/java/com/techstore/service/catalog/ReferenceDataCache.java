@@ -0,0 +1,116 @@
+package com.techstore.service.catalog;
+
+import com.techstore.event.ReferenceDataChangedEvent;
+import com.techstore.exception.ResourceNotFoundException;
+import com.techstore.repository.CategoryRepository;
+import com.techstore.repository.ProviderRepository;
+import com.techstore.repository.projection.CategoryRef;
+import com.techstore.repository.projection.ProviderRef;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Copia inmutable en memoria de categorías y proveedores (cambian unas pocas veces al mes).
+ *
+ * Sustituye los findById de cada alta/modificación de producto o pago: el servicio valida el ID
+ * aquí y enlaza la relación con getReferenceById (sin SELECT). Se carga entera con dos consultas
+ * de proyección la primera vez que se necesita tras una invalidación. Como en ColumnarCatalog,
+ * cada escritura confirmada sube la versión; la edad máxima cubre avisos perdidos entre instancias.
+ */
+@Slf4j
+@Component
+public class ReferenceDataCache {
+
+    private final CategoryRepository categoryRepository;
+    private final ProviderRepository providerRepository;
+    private final List<ReferenceDataBroadcast> channels;
+    private final Duration maxAge;
+
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    public ReferenceDataCache(CategoryRepository categoryRepository,
+                              ProviderRepository providerRepository,
+                              ObjectProvider<ReferenceDataBroadcast> channels,
+                              @Value("${catalog.reference-data.max-age:PT10M}") Duration maxAge) {
+        this.categoryRepository = categoryRepository;
+        this.providerRepository = providerRepository;
+        this.channels = channels.orderedStream().toList();
+        this.maxAge = maxAge;
+        this.channels.forEach(channel -> channel.subscribe(this::invalidate));
+    }
+
+    public Optional<CategoryRef> category(Long id) {
+        return Optional.ofNullable(current().categories().get(id));
+    }
+
+    public Optional<ProviderRef> provider(Long id) {
+        return Optional.ofNullable(current().providers().get(id));
+    }
+
+    public CategoryRef requireCategory(Long id) {
+        return category(id).orElseThrow(() -> new ResourceNotFoundException("Category", "id", id));
+    }
+
+    public ProviderRef requireProvider(Long id) {
+        return provider(id).orElseThrow(() -> new ResourceNotFoundException("Provider", "id", id));
+    }
+
+    // AFTER_COMMIT: un rollback no invalida nada; fallbackExecution cubre escrituras sin transacción
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReferenceDataChanged(ReferenceDataChangedEvent event) {
+        invalidate();
+        channels.forEach(channel -> channel.publish(event.entity()));
+    }
+
+    private void invalidate() {
+        version.incrementAndGet();
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        return isFresh(current) ? current : reload();
+    }
+
+    // synchronized: tras una invalidación, una sola petición recarga y las demás esperan su resultado
+    private synchronized Snapshot reload() {
+        Snapshot current = snapshot;
+        if (isFresh(current)) {
+            return current;
+        }
+        // La versión se lee ANTES de cargar: si entra una escritura durante la carga, la copia nace obsoleta
+        long loadedVersion = version.get();
+        Snapshot loaded = new Snapshot(loadedVersion, Instant.now(),
+                byId(categoryRepository.findAllRefs(), CategoryRef::id),
+                byId(providerRepository.findAllRefs(), ProviderRef::id));
+        snapshot = loaded;
+        log.debug("Reference data loaded: {} categories, {} providers", loaded.categories().size(), loaded.providers().size());
+        return loaded;
+    }
+
+    private boolean isFresh(Snapshot candidate) {
+        return candidate != null
+                && candidate.version() == version.get()
+                && candidate.loadedAt().plus(maxAge).isAfter(Instant.now());
+    }
+
+    private static <T> Map<Long, T> byId(List<T> rows, Function<T, Long> id) {
+        return rows.stream().collect(Collectors.toUnmodifiableMap(id, Function.identity()));
+    }
+
+    private record Snapshot(long version, Instant loadedAt, Map<Long, CategoryRef> categories,
+                            Map<Long, ProviderRef> providers) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.techstore.service.catalog;
+
+import java.time.Instant;
+
+/**
+ * Versión de una representación para el GET condicional.
+ *
+ * etag es un ETag fuerte (entre comillas, listo para la cabecera); lastModified es null cuando
+ * la fecha no basta para decidir (listados: una baja no mueve MAX(UPDATED_AT)).
+ */
+public record ResourceVersion(String etag, Instant lastModified) {
+
+    // Formato esperado por WebRequest.checkNotModified: -1 = sin Last-Modified
+    public long lastModifiedMillis() {
+        return lastModified == null ? -1 : lastModified.toEpochMilli();
+    }
+}
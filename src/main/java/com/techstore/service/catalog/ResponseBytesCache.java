@@ -0,0 +1,100 @@
+package com.techstore.service.catalog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techstore.event.ProductChangedEvent;
+import com.techstore.event.ProductsBulkUpdatedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Caché de respuestas JSON ya serializadas para las lecturas más calientes del catálogo.
+ *
+ * Cada entrada guarda el ETag (ResourceVersion) con el que se generó: si la versión actual no
+ * coincide, se vuelve a mapear y serializar. Así nunca se sirve un cuerpo de una versión anterior,
+ * aunque la escritura se haya hecho en otra instancia. Los eventos de cambio solo liberan memoria antes.
+ */
+@Slf4j
+@Component
+public class ResponseBytesCache {
+
+    private static final String PRODUCT_KEY_PREFIX = "product:";
+
+    private final Map<String, CachedResponse> entries = new ConcurrentHashMap<>();
+
+    private final ObjectMapper objectMapper;
+    private final int maxEntries;
+    private final boolean gzip;
+
+    public ResponseBytesCache(ObjectMapper objectMapper,
+                              @Value("${catalog.response-cache.max-entries:10000}") int maxEntries,
+                              @Value("${catalog.response-cache.gzip:true}") boolean gzip) {
+        this.objectMapper = objectMapper;
+        this.maxEntries = maxEntries;
+        this.gzip = gzip;
+    }
+
+    public CachedResponse get(String key, ResourceVersion version, Supplier<?> body) {
+        CachedResponse cached = entries.get(key);
+        if (cached != null && cached.etag().equals(version.etag())) {
+            return cached;
+        }
+        CachedResponse fresh = serialize(version.etag(), body.get());
+        // Con la caché llena solo se reemplazan claves existentes; las nuevas se sirven sin guardar
+        if (cached != null || entries.size() < maxEntries) {
+            entries.put(key, fresh);
+        }
+        return fresh;
+    }
+
+    // Cuerpo guardado para esta versión, sin generarlo si no lo hay (el llamante agrupa la carga de los fallos)
+    public Optional<CachedResponse> peek(String key, ResourceVersion version) {
+        CachedResponse cached = entries.get(key);
+        return cached != null && cached.etag().equals(version.etag()) ? Optional.of(cached) : Optional.empty();
+    }
+
+    public static String productKey(Long id) {
+        return PRODUCT_KEY_PREFIX + id;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        event.productIds().forEach(id -> entries.remove(productKey(id)));
+    }
+
+    // Sin IDs: se sueltan de una pasada todas las fichas de producto (solo liberan memoria, ver arriba)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsBulkUpdated(ProductsBulkUpdatedEvent event) {
+        entries.keySet().removeIf(key -> key.startsWith(PRODUCT_KEY_PREFIX));
+    }
+
+    private CachedResponse serialize(String etag, Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            return new CachedResponse(etag, json, gzip ? gzip(json) : null);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize cached response", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 2 + 32);
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+            gzipOut.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
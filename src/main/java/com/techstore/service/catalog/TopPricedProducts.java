@@ -0,0 +1,243 @@
+package com.techstore.service.catalog;
+
+import com.techstore.event.ProductChangedEvent;
+import com.techstore.event.ProductPricesChangedEvent;
+import com.techstore.event.ProductsBulkUpdatedEvent;
+import com.techstore.model.enums.ChangeType;
+import com.techstore.repository.ProductRepository;
+import com.techstore.repository.projection.ProductView;
+import com.techstore.repository.spec.ProductSpecifications;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Los N productos más caros del catálogo (catalog.top-price.size), para /search/expensive.
+ *
+ * Los productos con precio >= mínimo son un prefijo del orden por precio descendente, así que
+ * la misma lista sirve para cualquier mínimo con limit <= N: se filtra y se corta en memoria.
+ * Un limit mayor que N va directo a la BD (también acotado).
+ *
+ * La lista se mantiene con cada escritura confirmada en vez de tirarla: un cambio de un producto
+ * de la lista relee solo su fila; un producto de fuera solo importa si su precio nuevo supera al
+ * último de la lista, y entonces se lee y se coloca. Si un producto de la lista baja por debajo
+ * del último, sale: fuera puede haber otros entre medias. Lo que queda sigue siendo un prefijo
+ * exacto del orden; con menos de N, la siguiente lectura recarga con la consulta top-N acotada.
+ * Los reprecios masivos (sin precios en el evento) y la edad máxima, que cubre otras instancias,
+ * también recargan.
+ */
+@Component
+public class TopPricedProducts {
+
+    // Límite de elementos de un IN (...) en Oracle
+    private static final int IN_CHUNK = 1000;
+
+    // El de findTopViewsByPrice: precio descendente, empate por ID descendente
+    private static final Comparator<ProductView> ORDER = Comparator.comparing(ProductView::price, Comparator.reverseOrder())
+            .thenComparing(ProductView::id, Comparator.reverseOrder());
+
+    private final ProductRepository productRepository;
+    private final int size;
+    private final Duration maxAge;
+
+    private final Object loadLock = new Object();
+    private volatile TopList top;
+
+    // Protegido por el monitor de la instancia: escrituras confirmadas mientras una recarga lee la BD
+    private Set<Long> changedDuringLoad;
+    private boolean bulkDuringLoad;
+
+    public TopPricedProducts(ProductRepository productRepository,
+                             @Value("${catalog.top-price.size:50}") int size,
+                             @Value("${catalog.top-price.max-age:PT1M}") Duration maxAge) {
+        this.productRepository = productRepository;
+        this.size = size;
+        this.maxAge = maxAge;
+    }
+
+    // Los "limit" productos más caros con precio >= minPrice, de mayor a menor precio (empate: ID descendente)
+    public List<ProductView> top(BigDecimal minPrice, int limit) {
+        if (limit > size) {
+            return productRepository.findTopViewsByPrice(minPrice, PageRequest.ofSize(limit));
+        }
+        return current().stream()
+                .takeWhile(view -> view.price().compareTo(minPrice) >= 0)
+                .limit(limit)
+                .toList();
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    // AFTER_COMMIT: un rollback no cambia nada; fallbackExecution cubre escrituras sin transacción.
+    // Altas: entran las que superan al último de la lista; resto de cambios: solo los productos de la lista
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        if (changedDuringLoad != null) {
+            changedDuringLoad.addAll(event.productIds());
+        }
+        TopList current = top;
+        if (current == null) {
+            return;
+        }
+        if (event.type() == ChangeType.DELETED) {
+            top = current.merged(event.productIds(), List.of(), size);
+        } else if (event.type() == ChangeType.CREATED) {
+            top = current.merged(List.of(), views(event.productIds(), current.floorPrice()), size);
+        } else {
+            top = refreshed(current, current.members(event.productIds()));
+        }
+    }
+
+    // Precio nuevo: se relee la fila si el producto está en la lista o si su precio le haría entrar
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPricesChanged(ProductPricesChangedEvent event) {
+        if (changedDuringLoad != null) {
+            changedDuringLoad.addAll(event.prices().keySet());
+        }
+        TopList current = top;
+        if (current == null) {
+            return;
+        }
+        Set<Long> affected = new HashSet<>(current.members(event.prices().keySet()));
+        event.prices().forEach((id, price) -> {
+            if (current.admits(id, price)) {
+                affected.add(id);
+            }
+        });
+        top = refreshed(current, affected);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductsBulkUpdated(ProductsBulkUpdatedEvent event) {
+        bulkDuringLoad = changedDuringLoad != null;
+        top = null;
+    }
+
+    // --- MÉTODOS AUXILIARES ---
+
+    private List<ProductView> current() {
+        TopList candidate = top;
+        if (isFresh(candidate)) {
+            return candidate.views();
+        }
+        synchronized (loadLock) {
+            // Una sola petición recarga; las que esperaban usan su resultado
+            candidate = top;
+            return isFresh(candidate) ? candidate.views() : reload();
+        }
+    }
+
+    private boolean isFresh(TopList candidate) {
+        return candidate != null && candidate.isUsable(size) && candidate.loadedAt().plus(maxAge).isAfter(Instant.now());
+    }
+
+    // Lo confirmado mientras se leía se vuelve a leer antes de publicarla; tras un reprecio masivo la lista
+    // nace ya obsoleta (la recibe quien la pidió, pero no se guarda)
+    private List<ProductView> reload() {
+        synchronized (this) {
+            changedDuringLoad = new HashSet<>();
+            bulkDuringLoad = false;
+        }
+        List<ProductView> views = productRepository.findTopViewsByPrice(BigDecimal.ZERO, PageRequest.ofSize(size));
+        synchronized (this) {
+            TopList loaded = new TopList(views, views.size() < size, Instant.now());
+            if (!changedDuringLoad.isEmpty()) {
+                loaded = loaded.merged(changedDuringLoad, views(changedDuringLoad, loaded.floorPrice()), size);
+            }
+            top = bulkDuringLoad ? null : loaded;
+            changedDuringLoad = null;
+            return loaded.views();
+        }
+    }
+
+    // Relee las filas afectadas: las que ya no existen salen de la lista
+    private TopList refreshed(TopList current, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return current;
+        }
+        return current.merged(ids, views(ids, null), size);
+    }
+
+    // Fichas por ID, en bloques de IN_CHUNK; con floor, solo las que podrían entrar en la lista
+    private List<ProductView> views(Collection<Long> productIds, BigDecimal floor) {
+        List<Long> ids = new ArrayList<>(productIds);
+        List<ProductView> views = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += IN_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(from + IN_CHUNK, ids.size()));
+            views.addAll(productRepository.findViews(ProductSpecifications.hasIdIn(chunk)
+                    .and(ProductSpecifications.hasMinPrice(floor)), Sort.unsorted(), chunk.size()));
+        }
+        return views;
+    }
+
+    /**
+     * Prefijo del orden por precio. complete = es el catálogo entero (había menos de N productos),
+     * así que cualquier producto entra; si no, solo lo que supera al último.
+     */
+    private record TopList(List<ProductView> views, boolean complete, Instant loadedAt) {
+
+        boolean isUsable(int size) {
+            return complete || views.size() >= size;
+        }
+
+        // Precio mínimo para poder entrar (null = cualquiera)
+        BigDecimal floorPrice() {
+            return complete || views.isEmpty() ? null : views.get(views.size() - 1).price();
+        }
+
+        Set<Long> members(Collection<Long> ids) {
+            Set<Long> members = new HashSet<>();
+            for (ProductView view : views) {
+                if (ids.contains(view.id())) {
+                    members.add(view.id());
+                }
+            }
+            return members;
+        }
+
+        boolean admits(Long id, BigDecimal price) {
+            if (complete || views.isEmpty()) {
+                return true;
+            }
+            ProductView last = views.get(views.size() - 1);
+            int byPrice = price.compareTo(last.price());
+            return byPrice > 0 || (byPrice == 0 && id > last.id());
+        }
+
+        // Quita los IDs de "changed" que no vuelven en "fresh" y coloca los que vuelven. Un producto que
+        // queda por detrás del último de antes se descarta: puede haber otros entre medias que no están
+        TopList merged(Collection<Long> changed, List<ProductView> fresh, int size) {
+            ProductView last = complete || views.isEmpty() ? null : views.get(views.size() - 1);
+            Map<Long, ProductView> byId = new HashMap<>();
+            views.forEach(view -> byId.put(view.id(), view));
+            changed.forEach(byId::remove);
+            for (ProductView view : fresh) {
+                byId.remove(view.id());
+                if (last == null || ORDER.compare(view, last) <= 0) {
+                    byId.put(view.id(), view);
+                }
+            }
+            List<ProductView> merged = byId.values().stream().sorted(ORDER).toList();
+            if (merged.size() > size) {
+                return new TopList(merged.subList(0, size), false, loadedAt);
+            }
+            return new TopList(merged, complete, loadedAt);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.techstore.filter;
+
+import com.techstore.controller.PageableConstraints;
+import com.techstore.exception.InvalidQueryParameterException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PageableConstraintsInterceptorTest {
+
+    private final PageableConstraintsInterceptor interceptor = new PageableConstraintsInterceptor();
+
+    @Test
+    @DisplayName("Should accept indexed sort properties and sizes within the cap")
+    void shouldAcceptWhitelistedRequest() throws Exception {
+        MockHttpServletRequest request = request("100", "name,desc", "id", "price,ASC");
+
+        assertThat(interceptor.preHandle(request, new MockHttpServletResponse(), handler("list"))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should reject unindexed sort properties and oversized pages before the controller runs")
+    void shouldRejectOverLimitRequests() throws Exception {
+        assertThatThrownBy(() -> interceptor.preHandle(request("20", "description"), new MockHttpServletResponse(), handler("list")))
+                .isInstanceOf(InvalidQueryParameterException.class)
+                .hasMessageContaining("'description'")
+                .hasMessageContaining("id, name, price");
+        assertThatThrownBy(() -> interceptor.preHandle(request("100000"), new MockHttpServletResponse(), handler("list")))
+                .isInstanceOf(InvalidQueryParameterException.class)
+                .hasMessageContaining("maximum of 100")
+                .hasMessageContaining("/scroll");
+        // ignorecase ordenaría por UPPER(name), que no tiene índice
+        assertThatThrownBy(() -> interceptor.preHandle(request("20", "name,asc,IgnoreCase"), new MockHttpServletResponse(), handler("list")))
+                .isInstanceOf(InvalidQueryParameterException.class)
+                .hasMessageContaining("Case-insensitive");
+    }
+
+    @Test
+    @DisplayName("Should let a method annotation override the controller one and skip handlers without Pageable")
+    void shouldResolveConstraintsPerHandler() throws Exception {
+        assertThatThrownBy(() -> interceptor.preHandle(request("20", "price"), new MockHttpServletResponse(), handler("summary")))
+                .isInstanceOf(InvalidQueryParameterException.class);
+        // Sin Pageable, "sort" es un parámetro propio del endpoint (ej: cursor de /scroll)
+        assertThat(interceptor.preHandle(request("500", "stock"), new MockHttpServletResponse(), handler("scroll"))).isTrue();
+    }
+
+    private static MockHttpServletRequest request(String size, String... sorts) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products");
+        request.addParameter("size", size);
+        if (sorts.length > 0) {
+            request.addParameter("sort", sorts);
+        }
+        return request;
+    }
+
+    private static HandlerMethod handler(String name) throws NoSuchMethodException {
+        Class<?>[] parameters = name.equals("scroll") ? new Class<?>[]{String.class} : new Class<?>[]{Pageable.class};
+        return new HandlerMethod(new SampleController(), SampleController.class.getDeclaredMethod(name, parameters));
+    }
+
+    @PageableConstraints(sort = {"id", "name", "price"}, maxSize = 100, bulkAlternative = "/api/products/scroll")
+    static class SampleController {
+
+        void list(Pageable pageable) {
+        }
+
+        @PageableConstraints(sort = {"id", "name"})
+        void summary(Pageable pageable) {
+        }
+
+        void scroll(String sort) {
+        }
+    }
+}
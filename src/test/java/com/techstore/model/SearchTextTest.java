@@ -0,0 +1,32 @@
+package com.techstore.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchTextTest {
+
+    @Test
+    @DisplayName("Should lowercase and strip accents so filters match regardless of spelling")
+    void shouldNormalizeCaseAndAccents() {
+        assertThat(SearchText.normalize("Electrónica")).isEqualTo("electronica");
+        assertThat(SearchText.normalize("CÁMARA Ñandú")).isEqualTo("camara nandu");
+    }
+
+    @Test
+    @DisplayName("Should keep null as null")
+    void shouldReturnNull_whenInputIsNull() {
+        assertThat(SearchText.normalize(null)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should fill the shadow column before persisting a product")
+    void shouldFillNameSearch_onPrePersist() {
+        Product product = Product.builder().name("Portátil Gaming").build();
+
+        product.normalizeSearchColumns();
+
+        assertThat(product.getNameSearch()).isEqualTo("portatil gaming");
+    }
+}
@@ -0,0 +1,100 @@
+package com.techstore.repository;
+
+import com.techstore.config.AuditConfig;
+import com.techstore.event.ProductChangedEvent;
+import com.techstore.model.Category;
+import com.techstore.model.Product;
+import com.techstore.model.ProductChange;
+import com.techstore.model.enums.ChangeType;
+import com.techstore.service.catalog.ProductChangeLog;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Test de integración contra H2 para el INSERT ... SELECT de arranque y la lectura "asentada" del feed
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Import({AuditConfig.class, ProductChangeLog.class})
+class ProductChangeRepositoryTest {
+
+    @Autowired
+    private ProductChangeRepository productChangeRepository;
+    @Autowired
+    private ProductChangeLog productChangeLog;
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    @DisplayName("Bootstrap should log one CREATED change per existing product in a single statement")
+    void shouldLogExistingProducts_onBootstrap() {
+        Category category = Category.builder().name("Electronics").build();
+        entityManager.persist(category);
+        for (int i = 0; i < 3; i++) {
+            entityManager.persist(Product.builder().name("Product " + i).price(BigDecimal.TEN).category(category).build());
+        }
+        LocalDateTime bootstrapAt = LocalDateTime.now().minusMinutes(1);
+
+        int inserted = productChangeRepository.insertCreatedForAllProducts(bootstrapAt);
+
+        assertThat(inserted).isEqualTo(3);
+        List<ProductChange> changes = productChangeRepository.findSettledAfter(0, LocalDateTime.now(), PageRequest.of(0, 10));
+        assertThat(changes).hasSize(3).allMatch(change -> change.getChangeType() == ChangeType.CREATED);
+    }
+
+    @Test
+    @DisplayName("Feed should skip changes younger than the settle window and anything before the watermark")
+    void shouldReturnOnlySettledChangesAfterWatermark() {
+        LocalDateTime now = LocalDateTime.now();
+        ProductChange old = productChangeRepository.save(change(1L, now.minusMinutes(5)));
+        ProductChange settled = productChangeRepository.save(change(2L, now.minusMinutes(1)));
+        productChangeRepository.save(change(3L, now)); // todavía dentro de la ventana
+
+        List<ProductChange> changes = productChangeRepository.findSettledAfter(
+                old.getId(), now.minusSeconds(5), PageRequest.of(0, 10));
+
+        assertThat(changes).extracting(ProductChange::getId).containsExactly(settled.getId());
+    }
+
+    @Test
+    @DisplayName("Bulk updates should log one UPDATED change per product carrying the statement's timestamp")
+    void shouldLogProductsStampedByBulkUpdate() {
+        Category category = Category.builder().name("Electronics").build();
+        entityManager.persist(category);
+        Product repriced = Product.builder().name("Repriced").price(BigDecimal.TEN).category(category).build();
+        entityManager.persist(repriced);
+        entityManager.persist(Product.builder().name("Untouched").price(BigDecimal.ONE).category(category).build());
+        entityManager.flush();
+        LocalDateTime stamp = LocalDateTime.of(2026, 3, 1, 10, 0, 0, 123456000);
+        entityManager.createQuery("UPDATE Product p SET p.updatedAt = :stamp WHERE p.id = :id")
+                .setParameter("stamp", stamp).setParameter("id", repriced.getId()).executeUpdate();
+
+        assertThat(productChangeRepository.insertUpdatedAt(stamp)).isEqualTo(1);
+        assertThat(productChangeRepository.findAll()).singleElement()
+                .matches(change -> change.getProductId().equals(repriced.getId()) && change.getChangeType() == ChangeType.UPDATED);
+    }
+
+    @Test
+    @DisplayName("Change log should write one row per product through JDBC batches, in id order")
+    void shouldLogEventRows_inIdOrder() {
+        productChangeLog.onProductChanged(ProductChangedEvent.of(ChangeType.DELETED, Set.of(30L, 10L, 20L)));
+
+        List<ProductChange> changes = productChangeRepository.findSettledAfter(0, LocalDateTime.now().plusSeconds(1),
+                PageRequest.of(0, 10));
+        assertThat(changes).extracting(ProductChange::getProductId).containsExactly(10L, 20L, 30L);
+        assertThat(changes).allMatch(change -> change.getChangeType() == ChangeType.DELETED);
+    }
+
+    private static ProductChange change(Long productId, LocalDateTime at) {
+        return ProductChange.builder().productId(productId).changeType(ChangeType.UPDATED).changedAt(at).build();
+    }
+}
@@ -0,0 +1,474 @@
+package com.techstore.repository;
+
+import com.techstore.config.AuditConfig;
+import com.techstore.dto.CategoryDto;
+import com.techstore.dto.CategorySummaryDto;
+import com.techstore.dto.CountMode;
+import com.techstore.dto.FacetedPageDto;
+import com.techstore.dto.ProductDto;
+import com.techstore.dto.ProductFacetsDto;
+import com.techstore.dto.ProductRepriceRequestDto;
+import com.techstore.dto.ProductResponseDto;
+import com.techstore.event.ProductsBulkUpdatedEvent;
+import com.techstore.event.ReferenceDataChangedEvent;
+import com.techstore.mapper.CategoryMapper;
+import com.techstore.mapper.ProductMapper;
+import com.techstore.model.Category;
+import com.techstore.model.LocationStock;
+import com.techstore.model.Product;
+import com.techstore.model.Provider;
+import com.techstore.repository.projection.ProductView;
+import com.techstore.repository.spec.ProductField;
+import com.techstore.service.CategoryService;
+import com.techstore.service.ProductServiceImpl;
+import com.techstore.service.catalog.CatalogVersions;
+import com.techstore.service.catalog.CategoryTree;
+import com.techstore.service.catalog.ColumnarCatalog;
+import com.techstore.service.catalog.LowStockAlerts;
+import com.techstore.service.catalog.LowStockIndex;
+import com.techstore.service.catalog.PriceBands;
+import com.techstore.service.catalog.ProductCountCache;
+import com.techstore.service.catalog.ReferenceDataCache;
+import com.techstore.service.catalog.ResourceVersion;
+import com.techstore.service.catalog.TopPricedProducts;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Test de integración contra H2: cuenta las sentencias SQL que lanza cada listado.
+// Antes de las proyecciones, cada fila disparaba 2 SELECT extra (categoría + proveedor perezosos).
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.techstore.repository.RecordingStatementInspector"
+})
+@Import({
+        ProductServiceImpl.class, ProductMapper.class, CategoryService.class, CategoryMapper.class, CatalogVersions.class,
+        ProductCountCache.class, ColumnarCatalog.class, CategoryTree.class, PriceBands.class, ReferenceDataCache.class,
+        TopPricedProducts.class, LowStockIndex.class, LowStockAlerts.class, AuditConfig.class})
+class ProductRepositoryStatementCountTest {
+
+    private static final int PRODUCTS = 6;
+
+    @Autowired
+    private ProductServiceImpl productService;
+    @Autowired
+    private CategoryService categoryService;
+    @Autowired
+    private CatalogVersions catalogVersions;
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+    @Autowired
+    private LowStockIndex lowStockIndex;
+    @Autowired
+    private TopPricedProducts topPricedProducts;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private LocationStockRepository locationStockRepository;
+    @Autowired
+    private CategoryClosureRepository categoryClosureRepository;
+    @Autowired
+    private CategoryTree categoryTree;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        // ARRANGE COMÚN: cada producto con su propia categoría y proveedor (el peor caso del N+1)
+        for (int i = 0; i < PRODUCTS; i++) {
+            Category category = Category.builder().name("Category " + i).build();
+            Provider provider = Provider.builder().name("Provider " + i).taxId("TAX-" + i).build();
+            entityManager.persist(category);
+            entityManager.persist(provider);
+            entityManager.persist(Product.builder()
+                    .name("Product " + i)
+                    .description("Gaming gear " + i)
+                    .price(BigDecimal.valueOf(100 + i))
+                    .stock(i)
+                    .category(category)
+                    .provider(provider)
+                    .build());
+        }
+        entityManager.flush();
+        // Las categorías se insertan sin CategoryService: su fila propia en el cierre, como al arrancar
+        categoryClosureRepository.insertMissingSelfRows();
+        entityManager.clear(); // Sin esto la caché de primer nivel escondería los SELECT perezosos
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("getAllProducts should run one data query and one count query")
+    void shouldListAllProducts_withDataAndCountStatementsOnly() {
+        Page<ProductDto> page = productService.getAllProducts(PageRequest.of(0, 4));
+
+        assertThat(page.getContent()).hasSize(4);
+        assertThat(page.getTotalElements()).isEqualTo(PRODUCTS);
+        assertThat(page.getContent().get(0).getCategoryName()).startsWith("Category");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Low stock, min price and term searches should run exactly one statement each")
+    void shouldRunSingleStatement_forUnpagedSearches() {
+        // El índice de stock es un bean compartido entre tests: se concilia con los datos de este
+        warmLowStockIndex();
+
+        List<ProductDto> lowStock = productService.getProductsLowStock(PRODUCTS);
+        assertThat(lowStock).hasSize(PRODUCTS);
+        assertThat(lowStock).allMatch(dto -> dto.getProviderName().startsWith("Provider"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        statistics.clear();
+        // El top-N en memoria también es un bean compartido: se invalida para que cargue los datos de este test
+        topPricedProducts.onProductsBulkUpdated(new ProductsBulkUpdatedEvent(LocalDateTime.now()));
+        assertThat(productService.getProductsByMinPrice(BigDecimal.valueOf(100), PRODUCTS)).hasSize(PRODUCTS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        statistics.clear();
+        assertThat(productService.searchProductsByTerm("gaming")).hasSize(PRODUCTS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Filter endpoint should not lazy-load category or provider per row")
+    void shouldFilterProducts_withoutLazyLoading() {
+        Page<ProductResponseDto> page = productService.searchProducts(
+                "product", BigDecimal.valueOf(100), null, null, PageRequest.of(0, 10));
+
+        assertThat(page.getContent()).hasSize(PRODUCTS);
+        assertThat(page.getContent()).allMatch(dto -> dto.getCategoryName() != null && dto.getProviderName() != null);
+        // La primera página ya revela el total: ni siquiera hace falta el COUNT
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Facets without the in-memory snapshot should cost one grouped query per dimension")
+    void shouldCountFacets_withGroupedQueries() {
+        FacetedPageDto<ProductResponseDto> result = productService.searchProductsWithFacets(
+                null, BigDecimal.valueOf(102), null, null, PageRequest.of(0, 10));
+
+        assertThat(result.getTotalElements()).isEqualTo(4);
+        assertThat(result.getFacets().getCategories()).hasSize(4)
+                .allMatch(facet -> facet.getCount() == 1 && facet.getName().startsWith("Category"));
+        assertThat(result.getFacets().getProviders()).hasSize(4);
+        // Bandas por defecto 50,100,250,500,1000: los precios 102..105 caen en [100, 250)
+        assertThat(result.getFacets().getPriceBands()).extracting(ProductFacetsDto.PriceBand::getCount)
+                .containsExactly(0L, 0L, 4L, 0L, 0L, 0L);
+        // Página + categorías + proveedores + bandas de precio
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Freshness checks for conditional GET should only run aggregate or single-row statements")
+    void shouldComputeVersions_withoutLoadingRows() {
+        // Bean compartido entre tests: sus datos se insertan sin eventos, así que la versión guardada se invalida a mano
+        catalogVersions.onProductsBulkUpdated(new ProductsBulkUpdatedEvent(LocalDateTime.now()));
+        ResourceVersion list = catalogVersions.products();
+        assertThat(list.etag()).startsWith("\"products-" + PRODUCTS + ".");
+        assertThat(list.lastModified()).isNull(); // los listados solo validan por ETag
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3); // producto + categoría + proveedor
+        assertThat(statistics.getEntityLoadCount()).isZero();
+
+        // Sin escrituras de por medio, la siguiente comprobación no va a la BD
+        statistics.clear();
+        assertThat(catalogVersions.products()).isEqualTo(list);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        statistics.clear();
+        Long id = entityManager.createQuery("SELECT MIN(p.id) FROM Product p", Long.class).getSingleResult();
+        statistics.clear();
+        ResourceVersion single = catalogVersions.product(id).orElseThrow();
+        assertThat(single.lastModified()).isNotNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(catalogVersions.product(-1L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Bulk reprice should run a single UPDATE and skip rows whose price would not stay positive")
+    void shouldRepriceMatchingProducts_withSingleStatement() {
+        int affected = productService.repriceProducts(ProductRepriceRequestDto.builder()
+                .mode(ProductRepriceRequestDto.Mode.PERCENT)
+                .value(new BigDecimal("10"))
+                .name("product")
+                .maxPrice(BigDecimal.valueOf(102))
+                .build()).getAffected();
+
+        assertThat(affected).isEqualTo(3); // precios 100, 101 y 102
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        List<BigDecimal> prices = entityManager.createQuery("SELECT p.price FROM Product p ORDER BY p.id", BigDecimal.class)
+                .getResultList();
+        assertThat(prices).extracting(BigDecimal::doubleValue).containsExactly(110.0, 111.1, 112.2, 103.0, 104.0, 105.0);
+
+        Long categoryId = entityManager.createQuery("SELECT MIN(c.id) FROM Category c", Long.class).getSingleResult();
+        int untouched = productService.repriceProducts(ProductRepriceRequestDto.builder()
+                .mode(ProductRepriceRequestDto.Mode.AMOUNT)
+                .value(new BigDecimal("-500"))
+                .categoryId(categoryId)
+                .build()).getAffected();
+        assertThat(untouched).isZero();
+    }
+
+    @Test
+    @DisplayName("Patch should not overwrite columns it was not given and should honour the expected version")
+    void shouldPatchSuppliedColumnsOnly() {
+        Product product = entityManager.createQuery("SELECT p FROM Product p WHERE p.name = 'Product 5'", Product.class)
+                .getSingleResult();
+        LocalDateTime version = product.getUpdatedAt() != null ? product.getUpdatedAt() : product.getCreatedAt();
+        entityManager.clear();
+        // Otra petición descuenta stock después de que el cliente leyera el producto
+        entityManager.createQuery("UPDATE Product p SET p.stock = 1 WHERE p.id = :id")
+                .setParameter("id", product.getId()).executeUpdate();
+        statistics.clear();
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        int updated = productRepository.patch(product.getId(), Map.of("price", new BigDecimal("42.00")), now, null);
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        Product reloaded = entityManager.find(Product.class, product.getId());
+        assertThat(reloaded.getPrice()).isEqualByComparingTo("42.00");
+        assertThat(reloaded.getStock()).isEqualTo(1); // el descuento concurrente sigue ahí
+        assertThat(reloaded.getName()).isEqualTo("Product 5");
+
+        entityManager.clear();
+        assertThat(productRepository.patch(product.getId(), Map.of("stock", 0), now.plusSeconds(1), version)).isZero();
+    }
+
+    @Test
+    @DisplayName("Category summaries should come from one GROUP BY without touching Category.products")
+    void shouldSummarizeCategories_withSingleGroupedQuery() {
+        Page<CategorySummaryDto> page = categoryService.getCategorySummaries(PageRequest.of(0, 10, Sort.by("name")));
+
+        assertThat(page.getTotalElements()).isEqualTo(PRODUCTS);
+        CategorySummaryDto first = page.getContent().get(0);
+        assertThat(first.getName()).isEqualTo("Category 0");
+        assertThat(first.getProductCount()).isEqualTo(1);
+        assertThat(first.getTotalStock()).isZero();
+        assertThat(first.getMinPrice()).isEqualByComparingTo("100");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1); // la primera página ya revela el total
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Deleting a category should remove its products with set-based statements, loading no entities")
+    void shouldDeleteCategory_withoutHydratingProducts() {
+        Long categoryId = entityManager.createQuery("SELECT MIN(c.id) FROM Category c", Long.class).getSingleResult();
+        statistics.clear();
+
+        categoryService.deleteCategory(categoryId);
+
+        // existsById + ¿tiene hijas? + IDs de sus productos + DELETE productos + DELETE cierre + DELETE categoría
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(6);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+        assertThat(entityManager.createQuery("SELECT COUNT(p) FROM Product p", Long.class).getSingleResult())
+                .isEqualTo(PRODUCTS - 1);
+    }
+
+    @Test
+    @DisplayName("Creating a product with warm reference data should only run the INSERT")
+    void shouldCreateProduct_withoutLoadingReferences() {
+        Long categoryId = entityManager.createQuery("SELECT MIN(c.id) FROM Category c", Long.class).getSingleResult();
+        Long providerId = entityManager.createQuery("SELECT MIN(p.id) FROM Provider p", Long.class).getSingleResult();
+        referenceDataCache.category(categoryId); // primera carga: dos consultas de proyección
+        statistics.clear();
+
+        ProductDto created = productService.createProduct(ProductDto.builder()
+                .name("Fresh Product").price(BigDecimal.TEN).stock(1)
+                .categoryId(categoryId).providerId(providerId)
+                .build());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1); // solo el INSERT
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(created.getCategoryName()).isEqualTo("Category 0");
+        assertThat(created.getProviderName()).isEqualTo("Provider 0");
+    }
+
+    @Test
+    @DisplayName("Lowest-stock products should come from the index in stock order with one query for the rows")
+    void shouldServeLowestStock_fromIndexInStockOrder() {
+        warmLowStockIndex();
+
+        List<ProductDto> lowest = productService.getLowestStockProducts(3);
+
+        assertThat(lowest).extracting(ProductDto::getStock).containsExactly(0, 1, 2);
+        assertThat(lowest).allMatch(dto -> dto.getCategoryName().startsWith("Category"));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Expensive products should be a bounded top-N by price, served from memory once loaded")
+    void shouldBoundExpensiveProducts_toTopN() {
+        topPricedProducts.onProductsBulkUpdated(new ProductsBulkUpdatedEvent(LocalDateTime.now()));
+        RecordingStatementInspector.clear();
+
+        List<ProductDto> top = productService.getProductsByMinPrice(BigDecimal.valueOf(101), 2);
+
+        assertThat(top).extracting(ProductDto::getPrice)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(BigDecimal.valueOf(105), BigDecimal.valueOf(104));
+        assertThat(RecordingStatementInspector.statements().get(0).toLowerCase()).contains("fetch first");
+
+        statistics.clear();
+        assertThat(productService.getProductsByMinPrice(BigDecimal.valueOf(104), 3)).hasSize(2);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Location decrements should be conditional single UPDATEs, the total one statement, and drift detectable")
+    void shouldDecrementLocation_andAggregateTotal() {
+        Long id = entityManager.createQuery("SELECT p.id FROM Product p ORDER BY p.id", Long.class).setMaxResults(1).getSingleResult();
+        LocalDateTime now = LocalDateTime.now();
+        locationStockRepository.save(LocationStock.builder().productId(id).locationCode("MAD-01").quantity(5).updatedAt(now).build());
+        locationStockRepository.save(LocationStock.builder().productId(id).locationCode("BCN-01").quantity(3).updatedAt(now).build());
+        locationStockRepository.flush();
+        statistics.clear();
+
+        assertThat(locationStockRepository.decrement(id, "MAD-01", 4, now)).isEqualTo(1);
+        assertThat(locationStockRepository.decrement(id, "BCN-01", 4, now)).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        // Hasta el recálculo, el repaso lo encuentra descuadrado (PRODUCT.STOCK sigue en 0)
+        assertThat(locationStockRepository.findProductIdsOutOfSync()).containsExactly(id);
+
+        statistics.clear();
+        productRepository.refreshStockFromLocations(List.of(id), now);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        entityManager.clear();
+        assertThat(productRepository.findById(id)).get().extracting(Product::getStock).isEqualTo(4);
+        assertThat(locationStockRepository.findProductIdsOutOfSync()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Version lookup for an ID list should be a single query that skips unknown IDs")
+    void shouldFindStampsForIdList_withSingleQuery() {
+        List<Long> ids = entityManager.createQuery("SELECT p.id FROM Product p", Long.class).getResultList();
+        statistics.clear();
+
+        assertThat(productRepository.findStampsByIdIn(List.of(ids.get(0), ids.get(1), -1L))).hasSize(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Sparse fields should select only the requested columns and join only for names")
+    void shouldSelectRequestedColumnsOnly() {
+        RecordingStatementInspector.clear();
+
+        Slice<Map<String, Object>> page = productService.getProductFields(
+                ProductField.parse("name,price,categoryId"), PageRequest.of(0, 4, Sort.by("name")), CountMode.NONE);
+
+        assertThat(page.getContent()).hasSize(4);
+        assertThat(page.getContent().get(0)).containsOnlyKeys("id", "name", "price", "categoryId");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        String sql = RecordingStatementInspector.statements().get(0).toLowerCase();
+        assertThat(sql).doesNotContain("description").doesNotContain("join");
+
+        RecordingStatementInspector.clear();
+        Slice<Map<String, Object>> named = productService.filterProductFields(null, null, null, null,
+                ProductField.parse("categoryName"), PageRequest.of(0, 4), CountMode.NONE);
+        assertThat(named.getContent().get(0).get("categoryName")).asString().startsWith("Category ");
+        assertThat(RecordingStatementInspector.statements().get(0).toLowerCase()).contains("join").doesNotContain("description");
+    }
+
+    @Test
+    @DisplayName("Streaming queries should read projections in one statement without loading entities")
+    void shouldStreamViews_withSingleStatement() {
+        try (Stream<ProductView> views = productRepository.streamViewsByStockLessThan(3)) {
+            assertThat(views.map(ProductView::stock)).containsExactly(0, 1, 2);
+        }
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Filtering by a parent category should include its whole subtree in one statement, also after a move")
+    void shouldFilterCategorySubtree_withSingleStatement() {
+        Long laptopsId = entityManager.createQuery("SELECT c.id FROM Category c WHERE c.name = 'Category 1'", Long.class)
+                .getSingleResult();
+        CategoryDto computers = categoryService.createCategory(CategoryDto.builder().name("Computers").build());
+        CategoryDto portable = categoryService.createCategory(
+                CategoryDto.builder().name("Portable").parentId(computers.getId()).build());
+        categoryService.updateCategory(laptopsId, CategoryDto.builder().name("Category 1").parentId(portable.getId()).build());
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        Page<ProductResponseDto> page = productService.searchProducts(null, null, null, "computers", PageRequest.of(0, 10));
+
+        assertThat(page.getContent()).extracting(ProductResponseDto::getCategoryName).containsExactly("Category 1");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        // El árbol en memoria es un bean compartido y el test no confirma: se invalida a mano
+        categoryTree.onReferenceDataChanged(ReferenceDataChangedEvent.category(laptopsId));
+        assertThat(categoryTree.path(laptopsId)).extracting(CategoryTree.Node::name)
+                .containsExactly("Computers", "Portable", "Category 1");
+
+        // Mover "Portable" a la raíz saca su subárbol (con los portátiles) de "Computers"
+        categoryService.updateCategory(portable.getId(), CategoryDto.builder().name("Portable").build());
+        entityManager.flush();
+        assertThat(productService.searchProducts(null, null, null, "computers", PageRequest.of(0, 10)).getContent()).isEmpty();
+        assertThat(productService.searchProducts(null, null, null, "portable", PageRequest.of(0, 10)).getContent()).hasSize(1);
+        assertThat(categoryClosureRepository.existsByAncestorIdAndDescendantId(computers.getId(), laptopsId)).isFalse();
+
+        // El reprecio masivo aplica el mismo filtro de subárbol dentro de su UPDATE
+        statistics.clear();
+        int repriced = productService.repriceProducts(ProductRepriceRequestDto.builder()
+                .mode(ProductRepriceRequestDto.Mode.AMOUNT)
+                .value(BigDecimal.ONE)
+                .category("Portable")
+                .build()).getAffected();
+        assertThat(repriced).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Filter queries should reuse the precompiled plan of their combination, for data and count")
+    void shouldReuseFilterQueryPlans_acrossDifferentValues() {
+        // Primera llamada de cada variante (datos + COUNT): puede traducirse aquí o venir de otro test
+        productService.searchProducts("product", BigDecimal.valueOf(100), null, "Category 1", PageRequest.of(0, 1));
+        statistics.clear();
+
+        Page<ProductResponseDto> page = productService.searchProducts(
+                "product 2", BigDecimal.valueOf(101), null, "Category 2", PageRequest.of(0, 1));
+
+        assertThat(page.getTotalElements()).isEqualTo(1);
+        // Mismo texto JPQL con otros valores: sin nueva traducción, solo aciertos en la caché de planes
+        assertThat(statistics.getQueryPlanCacheMissCount()).isZero();
+        assertThat(statistics.getQueryPlanCacheHitCount()).isPositive();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2); // página llena: datos + COUNT
+    }
+
+    private void warmLowStockIndex() {
+        lowStockIndex.refresh();
+        lowStockIndex.lowest(1);
+        statistics.clear();
+    }
+}
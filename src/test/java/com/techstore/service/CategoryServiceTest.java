@@ -0,0 +1,73 @@
+package com.techstore.service;
+
+import com.techstore.dto.CategoryDto;
+import com.techstore.exception.CategoryHierarchyException;
+import com.techstore.mapper.CategoryMapper;
+import com.techstore.model.Category;
+import com.techstore.repository.CategoryClosureRepository;
+import com.techstore.repository.CategoryRepository;
+import com.techstore.repository.ProductRepository;
+import com.techstore.service.catalog.CategoryTree;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CategoryServiceTest {
+
+    @Mock
+    private CategoryRepository categoryRepository;
+    @Mock
+    private CategoryClosureRepository categoryClosureRepository;
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private CategoryMapper categoryMapper;
+    @Mock
+    private CategoryTree categoryTree;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private CategoryService categoryService;
+
+    @Test
+    @DisplayName("Should reject moving a category under one of its descendants, without touching the closure")
+    void shouldRejectCycle_whenNewParentIsDescendant() {
+        Category computers = Category.builder().id(1L).name("Computers").build();
+        when(categoryRepository.findById(1L)).thenReturn(Optional.of(computers));
+        when(categoryClosureRepository.existsByAncestorIdAndDescendantId(1L, 2L)).thenReturn(true);
+
+        assertThatThrownBy(() -> categoryService.updateCategory(1L,
+                CategoryDto.builder().name("Computers").parentId(2L).build()))
+                .isInstanceOf(CategoryHierarchyException.class)
+                .hasMessageContaining("descendants");
+        verify(categoryClosureRepository, never()).detachSubtree(anyLong());
+        verify(categoryRepository, never()).save(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should reject deleting a category that still has subcategories, without deleting its products")
+    void shouldRejectDelete_whenCategoryHasChildren() {
+        when(categoryRepository.existsById(1L)).thenReturn(true);
+        when(categoryRepository.existsByParentId(1L)).thenReturn(true);
+
+        assertThatThrownBy(() -> categoryService.deleteCategory(1L))
+                .isInstanceOf(CategoryHierarchyException.class)
+                .hasMessageContaining("subcategories");
+        verifyNoInteractions(productRepository, categoryClosureRepository, eventPublisher);
+        verify(categoryRepository, never()).deleteCategoryById(anyLong());
+    }
+}
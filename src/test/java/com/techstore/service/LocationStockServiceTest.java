@@ -0,0 +1,154 @@
+package com.techstore.service;
+
+import com.techstore.dto.LocationStockDto;
+import com.techstore.dto.ProductDto;
+import com.techstore.event.LocationStockChangedEvent;
+import com.techstore.exception.StockInsufficientException;
+import com.techstore.mapper.ProductMapper;
+import com.techstore.model.LocationStock;
+import com.techstore.model.Product;
+import com.techstore.repository.LocationStockRepository;
+import com.techstore.repository.ProductRepository;
+import com.techstore.repository.projection.ProductView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LocationStockServiceTest {
+
+    @Mock
+    private LocationStockRepository locationStockRepository;
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private ProductService productService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private LocationStockService locationStockService;
+
+    @BeforeEach
+    void setUp() {
+        locationStockService = new LocationStockService(locationStockRepository, productRepository, productService,
+                new ProductMapper(), eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should fall back to the next candidate location when the best one is taken concurrently")
+    void shouldRouteToNextLocation_whenBestIsTaken() {
+        when(locationStockRepository.existsByProductId(1L)).thenReturn(true);
+        when(locationStockRepository.findCandidates(eq(1L), eq(2), any(Pageable.class))).thenReturn(List.of("MAD-01", "BCN-01"));
+        when(locationStockRepository.decrement(eq(1L), eq("MAD-01"), eq(2), any())).thenReturn(0);
+        when(locationStockRepository.decrement(eq(1L), eq("BCN-01"), eq(2), any())).thenReturn(1);
+        when(productRepository.findViews(ArgumentMatchers.<Specification<Product>>any(), eq(Sort.unsorted()), eq(1)))
+                .thenReturn(List.of(new ProductView(1L, "Laptop", null, BigDecimal.TEN, 9, 1L, "Electronics", 1L, "Lenovo", null, null)));
+        when(locationStockRepository.sumQuantity(1L)).thenReturn(7L);
+
+        ProductDto result = locationStockService.reduceStock(1L, 2, null);
+
+        assertThat(result.getStock()).isEqualTo(7);
+        verify(eventPublisher).publishEvent(LocationStockChangedEvent.of(1L));
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    @DisplayName("Should report the available quantity when the given location cannot serve the order")
+    void shouldThrow_whenLocationHasNotEnough() {
+        when(locationStockRepository.decrement(eq(1L), eq("MAD-01"), eq(5), any())).thenReturn(0);
+        when(locationStockRepository.findByProductIdAndLocationCode(1L, "MAD-01"))
+                .thenReturn(Optional.of(LocationStock.builder().productId(1L).locationCode("MAD-01").quantity(3).build()));
+
+        assertThatThrownBy(() -> locationStockService.reduceStock(1L, 5, "mad-01"))
+                .isInstanceOf(StockInsufficientException.class)
+                .hasMessageContaining("Available: 3");
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should move the existing product stock to a DEFAULT location when the first location is created")
+    void shouldSeedDefaultLocation_whenFirstLocationIsSet() {
+        Product product = new Product();
+        product.setId(1L);
+        product.setStock(40);
+        when(productRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(product));
+        when(locationStockRepository.existsByProductId(1L)).thenReturn(false);
+        when(locationStockRepository.findByProductIdAndLocationCode(1L, "MAD-01")).thenReturn(Optional.empty());
+        when(locationStockRepository.save(any(LocationStock.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        LocationStockDto result = locationStockService.setQuantity(1L, "mad-01", 10);
+
+        ArgumentCaptor<LocationStock> saved = ArgumentCaptor.forClass(LocationStock.class);
+        verify(locationStockRepository, times(2)).save(saved.capture());
+        assertThat(saved.getAllValues()).extracting(LocationStock::getLocationCode, LocationStock::getQuantity)
+                .containsExactly(tuple(LocationStockService.DEFAULT_LOCATION, 40), tuple("MAD-01", 10));
+        assertThat(result.getQuantity()).isEqualTo(10);
+        verify(eventPublisher).publishEvent(LocationStockChangedEvent.of(1L));
+    }
+
+    @Test
+    @DisplayName("Should not seed a DEFAULT location once the product already has locations")
+    void shouldNotSeed_whenProductHasLocations() {
+        when(locationStockRepository.existsByProductId(1L)).thenReturn(true);
+        when(locationStockRepository.findByProductIdAndLocationCode(1L, "MAD-01")).thenReturn(Optional.empty());
+        when(locationStockRepository.save(any(LocationStock.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        locationStockService.setQuantity(1L, "MAD-01", 10);
+
+        verify(locationStockRepository).save(argThat(stock -> "MAD-01".equals(stock.getLocationCode())));
+        verifyNoMoreInteractions(locationStockRepository);
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    @DisplayName("Should keep the single-row path for products without locations")
+    void shouldDelegate_whenProductHasNoLocations() {
+        when(locationStockRepository.existsByProductId(1L)).thenReturn(false);
+        when(productRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(new Product()));
+
+        locationStockService.reduceStock(1L, 2, null);
+
+        verify(productService).reduceStock(1L, 2);
+        verify(locationStockRepository, never()).decrement(anyLong(), anyString(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("Should use the locations when the first one is committed while waiting for the product row lock")
+    void shouldRouteToLocations_whenSeededBeforeLockIsTaken() {
+        // Antes del bloqueo no hay ubicaciones; al repetir la consulta con la fila bloqueada, ya sí
+        when(locationStockRepository.existsByProductId(1L)).thenReturn(false, true);
+        when(productRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(new Product()));
+        when(locationStockRepository.findCandidates(eq(1L), eq(2), any(Pageable.class))).thenReturn(List.of("DEFAULT"));
+        when(locationStockRepository.decrement(eq(1L), eq("DEFAULT"), eq(2), any())).thenReturn(1);
+        when(productRepository.findViews(ArgumentMatchers.<Specification<Product>>any(), eq(Sort.unsorted()), eq(1)))
+                .thenReturn(List.of(new ProductView(1L, "Laptop", null, BigDecimal.TEN, 40, 1L, "Electronics", 1L, "Lenovo", null, null)));
+        when(locationStockRepository.sumQuantity(1L)).thenReturn(38L);
+
+        ProductDto result = locationStockService.reduceStock(1L, 2, null);
+
+        assertThat(result.getStock()).isEqualTo(38);
+        verifyNoInteractions(productService);
+    }
+}
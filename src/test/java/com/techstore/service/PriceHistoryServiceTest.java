@@ -0,0 +1,94 @@
+package com.techstore.service;
+
+import com.techstore.dto.PriceBucketDto;
+import com.techstore.dto.PricePointDto;
+import com.techstore.dto.PriceResolution;
+import com.techstore.exception.InvalidQueryParameterException;
+import com.techstore.model.PriceHistoryChunk;
+import com.techstore.repository.PriceHistoryRepository;
+import com.techstore.service.catalog.PricePoint;
+import com.techstore.service.catalog.PriceSeriesCodec;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PriceHistoryServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 3, 2, 9, 0);
+
+    @Mock
+    private PriceHistoryRepository priceHistoryRepository;
+
+    @InjectMocks
+    private PriceHistoryService priceHistoryService;
+
+    @Test
+    @DisplayName("Should merge overlapping chunks in time order and clip them to the range")
+    void shouldMergeAndClipChunks() {
+        LocalDateTime from = T0.plusMinutes(1);
+        LocalDateTime to = T0.plusDays(1);
+        when(priceHistoryRepository.findOverlapping(1L, from, to)).thenReturn(List.of(
+                chunk(point(T0, "10.00"), point(T0.plusHours(2), "12.00")),
+                chunk(point(T0.plusHours(1), "11.00"), point(T0.plusDays(2), "20.00"))));
+
+        List<PricePointDto> history = priceHistoryService.getHistory(1L, from, to);
+
+        assertThat(history).extracting(PricePointDto::getAt).containsExactly(T0.plusHours(1), T0.plusHours(2));
+    }
+
+    @Test
+    @DisplayName("Should downsample points into open/high/low/close buckets")
+    void shouldSummarizeByDay() {
+        LocalDateTime from = T0.minusDays(1);
+        LocalDateTime to = T0.plusDays(2);
+        when(priceHistoryRepository.findOverlapping(1L, from, to)).thenReturn(List.of(
+                chunk(point(T0, "10.00"), point(T0.plusHours(1), "15.00"), point(T0.plusHours(2), "8.00"),
+                        point(T0.plusDays(1), "9.00"))));
+
+        List<PriceBucketDto> buckets = priceHistoryService.getSummary(1L, from, to, PriceResolution.DAY);
+
+        assertThat(buckets).hasSize(2);
+        PriceBucketDto first = buckets.get(0);
+        assertThat(first.getStart()).isEqualTo(T0.toLocalDate().atStartOfDay());
+        assertThat(first.getOpen()).isEqualByComparingTo("10.00");
+        assertThat(first.getHigh()).isEqualByComparingTo("15.00");
+        assertThat(first.getLow()).isEqualByComparingTo("8.00");
+        assertThat(first.getClose()).isEqualByComparingTo("8.00");
+        assertThat(first.getChanges()).isEqualTo(3);
+        assertThat(buckets.get(1).getChanges()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reject a range whose start is after its end")
+    void shouldRejectInvertedRange() {
+        assertThatThrownBy(() -> priceHistoryService.getHistory(1L, T0, T0.minusDays(1)))
+                .isInstanceOf(InvalidQueryParameterException.class);
+        verifyNoInteractions(priceHistoryRepository);
+    }
+
+    private static PricePoint point(LocalDateTime at, String price) {
+        return new PricePoint(at, new BigDecimal(price));
+    }
+
+    private static PriceHistoryChunk chunk(PricePoint... points) {
+        return PriceHistoryChunk.builder()
+                .productId(1L)
+                .firstAt(points[0].at())
+                .lastAt(points[points.length - 1].at())
+                .points(points.length)
+                .data(PriceSeriesCodec.encode(List.of(points)))
+                .build();
+    }
+}
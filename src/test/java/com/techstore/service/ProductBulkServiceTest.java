@@ -0,0 +1,192 @@
+package com.techstore.service;
+
+import com.techstore.dto.ProductBulkRequestDto;
+import com.techstore.dto.ProductBulkRequestDto.Action;
+import com.techstore.dto.ProductBulkRequestDto.Operation;
+import com.techstore.dto.ProductBulkResultDto;
+import com.techstore.dto.ProductDto;
+import com.techstore.event.ProductChangedEvent;
+import com.techstore.mapper.ProductMapper;
+import com.techstore.model.Category;
+import com.techstore.model.Product;
+import com.techstore.model.Provider;
+import com.techstore.model.enums.ChangeType;
+import com.techstore.repository.CategoryRepository;
+import com.techstore.repository.LocationStockRepository;
+import com.techstore.repository.ProductRepository;
+import com.techstore.repository.ProviderRepository;
+import com.techstore.repository.projection.CategoryRef;
+import com.techstore.repository.projection.ProviderRef;
+import com.techstore.service.catalog.ReferenceDataBroadcast;
+import com.techstore.service.catalog.ReferenceDataCache;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductBulkServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private LocationStockRepository locationStockRepository;
+    @Mock
+    private CategoryRepository categoryRepository;
+    @Mock
+    private ProviderRepository providerRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private ObjectProvider<ReferenceDataBroadcast> channels;
+
+    private ProductBulkService productBulkService;
+
+    private final Category category = Category.builder().id(1L).name("Electronics").build();
+    private final Provider provider = Provider.builder().id(1L).name("Lenovo").taxId("TAX-1").build();
+
+    @BeforeEach
+    void setUp() {
+        when(channels.orderedStream()).thenReturn(Stream.empty());
+        ReferenceDataCache referenceData = new ReferenceDataCache(categoryRepository, providerRepository, channels, Duration.ofMinutes(10));
+        productBulkService = new ProductBulkService(productRepository, categoryRepository, providerRepository, locationStockRepository, referenceData,
+                new ProductMapper(), Validation.buildDefaultValidatorFactory().getValidator(), eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should apply creates, updates and deletes with one read per table and one delete statement")
+    void shouldApplyAllOperations_withSetBasedStatements() {
+        Product existing = Product.builder().id(7L).name("Old Name").price(BigDecimal.ONE).stock(1).build();
+        stubReferenceData();
+        when(categoryRepository.getReferenceById(1L)).thenReturn(category);
+        when(providerRepository.getReferenceById(1L)).thenReturn(provider);
+        when(productRepository.findAllById(Set.of(7L))).thenReturn(List.of(existing));
+        when(productRepository.findExistingIds(Set.of(8L, 9L))).thenReturn(List.of(8L, 9L));
+        when(productRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            Collection<Product> products = invocation.getArgument(0);
+            products.forEach(product -> product.setId(100L)); // la BD asigna el ID IDENTITY
+            return List.copyOf(products);
+        });
+
+        ProductBulkResultDto result = productBulkService.apply(request(
+                new Operation(Action.CREATE, null, product("New Laptop")),
+                new Operation(Action.UPDATE, 7L, product("New Name")),
+                new Operation(Action.DELETE, 8L, null),
+                new Operation(Action.DELETE, 9L, null)));
+
+        assertThat(result.getApplied()).isEqualTo(4);
+        assertThat(result.getRejected()).isZero();
+        assertThat(result.getItems()).extracting(ProductBulkResultDto.Item::getId).containsExactly(100L, 7L, 8L, 9L);
+        assertThat(existing.getName()).isEqualTo("New Name");
+        assertThat(existing.getCategory()).isSameAs(category);
+        verify(productRepository).deleteAllByIdIn(List.of(8L, 9L));
+        verify(productRepository, never()).deleteById(any());
+        verify(productRepository, never()).existsById(any());
+        verify(categoryRepository, never()).findAllById(anyIterable());
+
+        ArgumentCaptor<ProductChangedEvent> events = ArgumentCaptor.forClass(ProductChangedEvent.class);
+        verify(eventPublisher, times(3)).publishEvent(events.capture());
+        assertThat(events.getAllValues()).containsExactly(
+                new ProductChangedEvent(ChangeType.DELETED, Set.of(8L, 9L)),
+                new ProductChangedEvent(ChangeType.UPDATED, Set.of(7L)),
+                new ProductChangedEvent(ChangeType.CREATED, Set.of(100L)));
+    }
+
+    @Test
+    @DisplayName("Should reject invalid operations one by one and still apply the valid ones")
+    void shouldReportErrorsPerItem() {
+        stubReferenceData();
+        when(productRepository.findAllById(Set.of())).thenReturn(List.of());
+        when(productRepository.findExistingIds(Set.of(5L, 6L))).thenReturn(List.of());
+        when(productRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            Collection<Product> products = invocation.getArgument(0);
+            products.forEach(product -> product.setId(101L));
+            return List.copyOf(products);
+        });
+
+        ProductDto unknownCategory = product("Tablet");
+        unknownCategory.setCategoryId(99L);
+
+        ProductBulkResultDto result = productBulkService.apply(request(
+                new Operation(Action.CREATE, null, product("")),             // 0: nombre vacío
+                new Operation(Action.DELETE, 5L, null),                      // 1: no existe
+                new Operation(Action.UPDATE, null, product("Sin ID")),       // 2: falta el ID
+                new Operation(Action.CREATE, null, unknownCategory),         // 3: categoría inexistente
+                new Operation(Action.DELETE, 6L, null),                      // 4: no existe
+                new Operation(Action.UPDATE, 6L, product("Duplicated")),     // 5: mismo ID que la 4
+                new Operation(Action.CREATE, null, product("Valid Mouse")))); // 6: válida
+
+        assertThat(result.getRejected()).isEqualTo(6);
+        assertThat(result.getApplied()).isEqualTo(1);
+        List<ProductBulkResultDto.Item> items = result.getItems();
+        assertThat(items.get(0).getErrors()).anyMatch(error -> error.startsWith("name:"));
+        assertThat(items.get(1).getErrors()).containsExactly("Product not found with id: '5'");
+        assertThat(items.get(2).getErrors()).containsExactly("id: is required for UPDATE");
+        assertThat(items.get(3).getErrors()).containsExactly("Category not found with id: '99'");
+        assertThat(items.get(4).getErrors()).containsExactly("Product not found with id: '6'");
+        assertThat(items.get(5).getErrors()).containsExactly("id: product 6 appears more than once in the request");
+        assertThat(items.get(6).isSuccess()).isTrue();
+        assertThat(items.get(6).getId()).isEqualTo(101L);
+        verify(productRepository, never()).deleteAllByIdIn(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should reject a stock change for products stocked per location but accept the current total")
+    void shouldRejectStockChange_whenProductHasLocations() {
+        Product changed = Product.builder().id(7L).name("Laptop").price(BigDecimal.ONE).stock(12).build();
+        Product unchanged = Product.builder().id(8L).name("Mouse").price(BigDecimal.ONE).stock(5).build();
+        stubReferenceData();
+        when(productRepository.findAllById(Set.of(7L, 8L))).thenReturn(List.of(changed, unchanged));
+        when(locationStockRepository.findProductIdsIn(Set.of(7L, 8L))).thenReturn(List.of(7L, 8L));
+
+        ProductBulkResultDto result = productBulkService.apply(request(
+                new Operation(Action.UPDATE, 7L, product("Laptop Pro")),   // stock 12 -> 5: rechazada
+                new Operation(Action.UPDATE, 8L, product("Mouse Pro"))));  // repite el total: válida
+
+        assertThat(result.getItems().get(0).getErrors()).containsExactly(
+                "stock: product 7 is stocked per location, set it with PUT /api/products/7/locations/{location}");
+        assertThat(result.getItems().get(1).isSuccess()).isTrue();
+        assertThat(changed.getName()).isEqualTo("Laptop");
+        assertThat(changed.getStock()).isEqualTo(12);
+        assertThat(unchanged.getName()).isEqualTo("Mouse Pro");
+    }
+
+    // Categorías y proveedores salen de la caché de referencia: una carga, ningún findAllById por lote
+    private void stubReferenceData() {
+        when(categoryRepository.findAllRefs()).thenReturn(List.of(new CategoryRef(1L, "Electronics")));
+        when(providerRepository.findAllRefs()).thenReturn(List.of(new ProviderRef(1L, "Lenovo", "TAX-1")));
+    }
+
+    private static ProductBulkRequestDto request(Operation... operations) {
+        return new ProductBulkRequestDto(List.of(operations));
+    }
+
+    private static ProductDto product(String name) {
+        return ProductDto.builder()
+                .name(name)
+                .price(new BigDecimal("199.99"))
+                .stock(5)
+                .categoryId(1L)
+                .providerId(1L)
+                .build();
+    }
+}
@@ -0,0 +1,109 @@
+package com.techstore.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techstore.dto.ProductLookupResultDto;
+import com.techstore.mapper.ProductMapper;
+import com.techstore.model.Product;
+import com.techstore.repository.CategoryRepository;
+import com.techstore.repository.ProductRepository;
+import com.techstore.repository.ProviderRepository;
+import com.techstore.repository.projection.ProductIdStamp;
+import com.techstore.repository.projection.ProductView;
+import com.techstore.service.catalog.CatalogVersions;
+import com.techstore.service.catalog.ReferenceDataBroadcast;
+import com.techstore.service.catalog.ResponseBytesCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductLookupServiceTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 3, 1, 10, 0);
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private CategoryRepository categoryRepository;
+    @Mock
+    private ProviderRepository providerRepository;
+    @Mock
+    private ObjectProvider<ReferenceDataBroadcast> channels;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private ProductLookupService productLookupService;
+
+    @BeforeEach
+    void setUp() {
+        productLookupService = new ProductLookupService(productRepository, new ProductMapper(),
+                new CatalogVersions(productRepository, categoryRepository, providerRepository, channels, Duration.ofSeconds(10)),
+                new ResponseBytesCache(objectMapper, 100, false));
+    }
+
+    @Test
+    @DisplayName("Should answer in request order with not-found markers, fetching only cache misses")
+    void shouldReturnRequestOrder_andServeHitsFromCache() throws Exception {
+        when(productRepository.findStampsByIdIn(anyCollection()))
+                .thenReturn(List.of(stamp(1L), stamp(2L)));
+        when(productRepository.findViews(ArgumentMatchers.<Specification<Product>>any(), eq(Sort.unsorted()), eq(2)))
+                .thenReturn(List.of(view(1L, "Laptop"), view(2L, "Mouse")));
+
+        ProductLookupResultDto first = productLookupService.lookup(List.of(2L, 9L, 1L, 2L));
+
+        assertThat(first.getFound()).isEqualTo(3);
+        assertThat(first.getMissing()).isEqualTo(1);
+        assertThat(first.getItems()).extracting(ProductLookupResultDto.Item::getId).containsExactly(2L, 9L, 1L, 2L);
+        assertThat(first.getItems()).extracting(ProductLookupResultDto.Item::isFound).containsExactly(true, false, true, true);
+
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(first));
+        assertThat(json.at("/items/0/product/name").asText()).isEqualTo("Mouse");
+        assertThat(json.at("/items/1/product").isMissingNode()).isTrue();
+
+        // Misma versión: la segunda llamada sale entera de la caché (solo la consulta de versiones)
+        productLookupService.lookup(List.of(1L, 2L));
+        verify(productRepository, times(2)).findStampsByIdIn(anyCollection());
+        verify(productRepository, times(1)).findViews(ArgumentMatchers.<Specification<Product>>any(), any(Sort.class), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should split large ID lists into IN chunks of 1000")
+    void shouldChunkInQueries() {
+        List<Long> ids = LongStream.rangeClosed(1, 2500).boxed().toList();
+        when(productRepository.findStampsByIdIn(anyCollection())).thenReturn(List.of());
+
+        ProductLookupResultDto result = productLookupService.lookup(ids);
+
+        assertThat(result.getMissing()).isEqualTo(2500);
+        verify(productRepository, times(3)).findStampsByIdIn(anyCollection());
+        verify(productRepository, never()).findViews(ArgumentMatchers.<Specification<Product>>any(), any(Sort.class), anyInt());
+    }
+
+    private static ProductIdStamp stamp(Long id) {
+        return new ProductIdStamp(id, T0, T0, T0);
+    }
+
+    private static ProductView view(Long id, String name) {
+        return new ProductView(id, name, null, BigDecimal.TEN, 1, 1L, "Electronics", 1L, "Lenovo", T0, T0);
+    }
+}
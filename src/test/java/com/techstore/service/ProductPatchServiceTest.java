@@ -0,0 +1,181 @@
+package com.techstore.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techstore.dto.ProductDto;
+import com.techstore.event.ProductChangedEvent;
+import com.techstore.exception.InvalidPatchException;
+import com.techstore.exception.PreconditionFailedException;
+import com.techstore.exception.StockManagedByLocationException;
+import com.techstore.mapper.ProductMapper;
+import com.techstore.model.Category;
+import com.techstore.model.Product;
+import com.techstore.repository.CategoryRepository;
+import com.techstore.repository.LocationStockRepository;
+import com.techstore.repository.ProductRepository;
+import com.techstore.repository.ProviderRepository;
+import com.techstore.repository.projection.CategoryRef;
+import com.techstore.repository.projection.ProductStamp;
+import com.techstore.repository.projection.ProductView;
+import com.techstore.service.catalog.CatalogVersions;
+import com.techstore.service.catalog.ReferenceDataBroadcast;
+import com.techstore.service.catalog.ReferenceDataCache;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductPatchServiceTest {
+
+    private static final LocalDateTime VERSION = LocalDateTime.of(2026, 3, 1, 10, 0);
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private LocationStockRepository locationStockRepository;
+    @Mock
+    private CategoryRepository categoryRepository;
+    @Mock
+    private ProviderRepository providerRepository;
+    @Mock
+    private ObjectProvider<ReferenceDataBroadcast> channels;
+    @Mock
+    private ReferenceDataCache referenceData;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ProductStamp stamp = new ProductStamp(VERSION, VERSION, VERSION);
+
+    private ProductPatchService productPatchService;
+    private String currentEtag;
+
+    @BeforeEach
+    void setUp() {
+        CatalogVersions catalogVersions = new CatalogVersions(productRepository, categoryRepository, providerRepository,
+                channels, Duration.ofSeconds(10));
+        productPatchService = new ProductPatchService(productRepository, locationStockRepository, categoryRepository, providerRepository, referenceData,
+                new ProductMapper(), catalogVersions, objectMapper,
+                Validation.buildDefaultValidatorFactory().getValidator(), eventPublisher);
+        currentEtag = catalogVersions.product(1L, stamp).etag();
+    }
+
+    @Test
+    @DisplayName("Should write only the supplied fields, keep the search column in sync and publish the change")
+    void shouldPatchOnlySuppliedFields() throws Exception {
+        when(productRepository.findStampById(1L)).thenReturn(Optional.of(stamp));
+        when(productRepository.patch(eq(1L), anyMap(), any(LocalDateTime.class), eq(VERSION))).thenReturn(1);
+        when(productRepository.findViews(ArgumentMatchers.<Specification<Product>>any(), any(Sort.class), anyInt()))
+                .thenReturn(List.of(new ProductView(1L, "Portátil Pro", null, new BigDecimal("899.00"), 4,
+                        2L, "Laptops", 3L, "Lenovo", VERSION, VERSION)));
+
+        ProductDto result = productPatchService.patchProduct(1L,
+                json("{\"name\":\"Portatil Pro\",\"price\":899.00}"), currentEtag);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<String, Object>> changes = ArgumentCaptor.forClass(Map.class);
+        verify(productRepository).patch(eq(1L), changes.capture(), any(LocalDateTime.class), eq(VERSION));
+        assertThat(changes.getValue()).containsOnlyKeys("name", "nameSearch", "price")
+                .containsEntry("nameSearch", "portatil pro");
+        verify(eventPublisher).publishEvent(ProductChangedEvent.updated(1L));
+        assertThat(result.getStock()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should answer 412 when If-Match does not match, without writing")
+    void shouldRejectStaleIfMatch() throws Exception {
+        when(productRepository.findStampById(1L)).thenReturn(Optional.of(stamp));
+
+        assertThatThrownBy(() -> productPatchService.patchProduct(1L, json("{\"stock\":3}"), "\"product-1-old\""))
+                .isInstanceOf(PreconditionFailedException.class);
+        verify(productRepository, never()).patch(anyLong(), anyMap(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should answer 412 when someone else writes between the version check and the update")
+    void shouldRejectConcurrentWrite() throws Exception {
+        when(productRepository.findStampById(1L)).thenReturn(Optional.of(stamp));
+        when(productRepository.patch(eq(1L), anyMap(), any(LocalDateTime.class), eq(VERSION))).thenReturn(0);
+
+        assertThatThrownBy(() -> productPatchService.patchProduct(1L, json("{\"stock\":3}"), currentEtag))
+                .isInstanceOf(PreconditionFailedException.class);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should answer 409 when the stock of a product stocked per location is patched")
+    void shouldRejectStock_whenProductHasLocations() throws Exception {
+        when(productRepository.findStampById(1L)).thenReturn(Optional.of(stamp));
+        when(locationStockRepository.existsByProductId(1L)).thenReturn(true);
+
+        assertThatThrownBy(() -> productPatchService.patchProduct(1L, json("{\"stock\":3,\"name\":\"Laptop\"}"), currentEtag))
+                .isInstanceOf(StockManagedByLocationException.class)
+                .hasMessageContaining("/api/products/1/locations/");
+        verify(productRepository, never()).patch(anyLong(), anyMap(), any(), any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Should reject unknown, read-only and invalid fields with the DTO's validation messages")
+    void shouldRejectInvalidDocument() {
+        assertThatThrownBy(() -> productPatchService.patchProduct(1L,
+                json("{\"id\":9,\"price\":-1,\"categoryId\":null,\"stock\":\"many\"}"), null))
+                .isInstanceOf(InvalidPatchException.class)
+                .extracting(e -> ((InvalidPatchException) e).getDetails())
+                .asList()
+                .containsExactly(
+                        "id: cannot be patched",
+                        "price: Price must be greater than zero",
+                        "categoryId: Category ID is required",
+                        "stock: invalid value");
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    @DisplayName("Should set relations by reference and skip the version predicate without If-Match")
+    void shouldPatchRelation_withoutIfMatch() throws Exception {
+        Category reference = Category.builder().id(2L).build();
+        when(productRepository.findStampById(1L)).thenReturn(Optional.of(stamp));
+        when(referenceData.requireCategory(2L)).thenReturn(new CategoryRef(2L, "Laptops"));
+        when(categoryRepository.getReferenceById(2L)).thenReturn(reference);
+        when(productRepository.patch(eq(1L), anyMap(), any(LocalDateTime.class), isNull())).thenReturn(1);
+        when(productRepository.findViews(ArgumentMatchers.<Specification<Product>>any(), any(Sort.class), anyInt()))
+                .thenReturn(List.of(new ProductView(1L, "Laptop", null, BigDecimal.TEN, 1,
+                        2L, "Laptops", null, null, VERSION, VERSION)));
+
+        productPatchService.patchProduct(1L, json("{\"categoryId\":2}"), null);
+
+        verify(productRepository).patch(eq(1L), eq(Map.of("category", reference)), any(LocalDateTime.class), isNull());
+    }
+
+    private JsonNode json(String document) throws Exception {
+        return objectMapper.readTree(document);
+    }
+}
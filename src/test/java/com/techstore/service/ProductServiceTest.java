@@ -1,24 +1,43 @@
 package com.techstore.service;
 
+import com.techstore.dto.CountMode;
+import com.techstore.dto.CursorSliceDto;
+import com.techstore.dto.FacetedPageDto;
 import com.techstore.dto.ProductDto;
+import com.techstore.dto.ProductResponseDto;
 import com.techstore.exception.ResourceNotFoundException;
 import com.techstore.exception.StockInsufficientException;
+import com.techstore.exception.StockManagedByLocationException;
 import com.techstore.mapper.ProductMapper;
-import com.techstore.model.Category;
 import com.techstore.model.Product;
-import com.techstore.model.Provider;
 import com.techstore.repository.CategoryRepository;
+import com.techstore.repository.LocationStockRepository;
 import com.techstore.repository.ProductRepository;
 import com.techstore.repository.ProviderRepository;
+import com.techstore.repository.projection.FacetCount;
+import com.techstore.repository.projection.ProductView;
+import com.techstore.repository.spec.ProductCursor;
+import com.techstore.repository.spec.ProductFilter;
+import com.techstore.repository.spec.ProductSortKey;
+import com.techstore.service.catalog.ColumnarCatalog;
+import com.techstore.service.catalog.PriceBands;
+import com.techstore.service.catalog.ProductCountCache;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -41,7 +60,17 @@ class ProductServiceTest {
     @Mock
     private ProviderRepository providerRepository;
     @Mock
+    private LocationStockRepository locationStockRepository;
+    @Mock
     private ProductMapper productMapper; // Mockeamos también el mapper para aislar la lógica del servicio
+    @Mock
+    private ProductCountCache productCountCache;
+    @Mock
+    private ColumnarCatalog columnarCatalog;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Spy
+    private PriceBands priceBands = new PriceBands(List.of(new BigDecimal("100")));
 
     // 3. INJECT MOCKS
     // Mockito inyecta los @Mock de arriba dentro de esta instancia.
@@ -53,17 +82,15 @@ class ProductServiceTest {
     @DisplayName("Should return paged products when they exist")
     void shouldReturnAllProducts_whenCalled() {
         // ARRANGE
-        Product product = new Product();
-        product.setId(1L);
-        product.setName("Laptop");
+        ProductView product = view(1L, "Laptop", null, null);
 
         ProductDto dto = new ProductDto();
         dto.setName("Laptop");
 
-        Page<Product> productPage = new PageImpl<>(List.of(product));
+        Page<ProductView> productPage = new PageImpl<>(List.of(product));
 
-        when(productRepository.findAll(any(PageRequest.class))).thenReturn(productPage);
-        when(productMapper.toDto(product)).thenReturn(dto);
+        when(productRepository.findAllViews(any(PageRequest.class))).thenReturn(productPage);
+        when(productMapper.fromView(product)).thenReturn(dto);
 
         // ACT
         Page<ProductDto> result = productService.getAllProducts(PageRequest.of(0, 10));
@@ -73,7 +100,7 @@ class ProductServiceTest {
         assertThat(result.getContent().get(0).getName()).isEqualTo("Laptop");
 
         // Verificamos que el repositorio FUE LLAMADO 1 vez
-        verify(productRepository, times(1)).findAll(any(PageRequest.class));
+        verify(productRepository, times(1)).findAllViews(any(PageRequest.class));
     }
 
     // --- TEST 2: GET BY ID (EXITO) ---
@@ -126,7 +153,7 @@ class ProductServiceTest {
         product.setId(id);
         product.setStock(currentStock); // Tiene 10
 
-        when(productRepository.findById(id)).thenReturn(Optional.of(product));
+        when(productRepository.findByIdForUpdate(id)).thenReturn(Optional.of(product));
         when(productRepository.save(any(Product.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         ProductDto dto = new ProductDto();
@@ -152,7 +179,7 @@ class ProductServiceTest {
         product.setId(id);
         product.setStock(5); // Solo hay 5
 
-        when(productRepository.findById(id)).thenReturn(Optional.of(product));
+        when(productRepository.findByIdForUpdate(id)).thenReturn(Optional.of(product));
 
         // ACT & ASSERT
         // Intentamos reducir 10 (Más de lo que hay)
@@ -176,19 +203,17 @@ class ProductServiceTest {
         String query = "Laptop";
         PageRequest pageable = PageRequest.of(0, 10);
 
-        Product product = new Product();
-        product.setId(1L);
-        product.setName("Gaming Laptop");
+        ProductView product = view(1L, "Gaming Laptop", null, null);
 
         ProductDto dto = new ProductDto();
         dto.setName("Gaming Laptop");
 
-        Page<Product> productPage = new PageImpl<>(List.of(product));
+        Page<ProductView> productPage = new PageImpl<>(List.of(product));
 
         // Enseñamos al mock del repo qué hacer
-        when(productRepository.findByNameContainingIgnoreCase(query, pageable))
+        when(productRepository.findViews(ArgumentMatchers.<Specification<Product>>any(), eq(pageable)))
                 .thenReturn(productPage);
-        when(productMapper.toDto(product)).thenReturn(dto);
+        when(productMapper.fromView(product)).thenReturn(dto);
 
         // ACT
         Page<ProductDto> result = productService.searchProducts(query, pageable);
@@ -211,28 +236,14 @@ class ProductServiceTest {
         String categoryName = "Electronics";
         PageRequest pageable = PageRequest.of(0, 10);
 
-        // 2. Mock de Relaciones (Para que el convertidor privado no falle)
-        Category mockCategory = new Category();
-        mockCategory.setId(5L);
-        mockCategory.setName("Electronics");
+        // 2. Proyección encontrada (categoría y proveedor ya vienen del JOIN)
+        ProductView product = new ProductView(1L, "Gamer Mouse", null, BigDecimal.valueOf(50), null,
+                5L, "Electronics", 9L, "Sony", null, null);
 
-        Provider mockProvider = new Provider();
-        mockProvider.setId(9L);
-        mockProvider.setName("Sony");
+        Page<ProductView> productPage = new PageImpl<>(List.of(product));
 
-        // 3. Mock del Producto encontrado
-        Product product = new Product();
-        product.setId(1L);
-        product.setName("Gamer Mouse");
-        product.setPrice(BigDecimal.valueOf(50));
-        product.setCategory(mockCategory); // ¡Vital para entrar al if del privado!
-        product.setProvider(mockProvider); // ¡Vital para entrar al if del privado!
-
-        Page<Product> productPage = new PageImpl<>(List.of(product));
-
-        // 4. Mock del Repositorio con Specification
-        // Usamos any() porque Specification es un objeto complejo creado dentro del servicio
-        when(productRepository.findAll(any(org.springframework.data.jpa.domain.Specification.class), eq(pageable)))
+        // 3. Mock del Repositorio: consulta precompilada con los criterios ya normalizados
+        when(productRepository.findFilteredViews(eq(new ProductFilter("gamer", min, max, "electronics")), eq(pageable)))
                 .thenReturn(productPage);
 
         // ACT
@@ -248,4 +259,142 @@ class ProductServiceTest {
         assertThat(dto.getCategoryName()).isEqualTo("Electronics");
         assertThat(dto.getProviderName()).isEqualTo("Sony");
     }
+
+    // --- TEST 8: PAGINACIÓN POR CURSOR (KEYSET) ---
+    @Test
+    @DisplayName("Should return a slice with next cursor pointing at the last row when more rows exist")
+    void shouldReturnSliceWithCursor_whenMoreRowsExist() {
+        // ARRANGE: pedimos 2, el repositorio devuelve 3 (size + 1) => hay página siguiente
+        ProductView p1 = view(1L, "A", BigDecimal.valueOf(10), null);
+        ProductView p2 = view(2L, "B", BigDecimal.valueOf(20), null);
+        ProductView p3 = view(3L, "C", BigDecimal.valueOf(30), null);
+
+        when(productRepository.findViews(ArgumentMatchers.<Specification<Product>>any(), any(Sort.class), eq(3))).thenReturn(List.of(p1, p2, p3));
+        when(productMapper.fromView(any(ProductView.class))).thenReturn(new ProductDto());
+
+        // ACT
+        CursorSliceDto<ProductDto> result = productService.scrollProducts(null, 2, "price,desc");
+
+        // ASSERT
+        assertThat(result.getContent()).hasSize(2);
+        assertThat(result.isHasNext()).isTrue();
+
+        ProductCursor next = ProductCursor.decode(result.getNextCursor());
+        assertThat(next.sortKey()).isEqualTo(ProductSortKey.PRICE);
+        assertThat(next.direction()).isEqualTo(Sort.Direction.DESC);
+        assertThat(next.lastId()).isEqualTo(2L);
+        assertThat(next.lastValue()).isEqualTo("20");
+    }
+
+    @Test
+    @DisplayName("Should reject an unknown sort direction instead of falling back to ASC")
+    void shouldThrowException_whenSortDirectionIsInvalid() {
+        assertThatThrownBy(() -> productService.scrollProducts(null, 10, "price,dsc"))
+                .isInstanceOf(com.techstore.exception.InvalidQueryParameterException.class)
+                .hasMessageContaining("dsc");
+
+        verify(productRepository, never()).findViews(ArgumentMatchers.<Specification<Product>>any(), any(Sort.class), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should reject a tampered cursor with InvalidQueryParameterException")
+    void shouldThrowException_whenCursorIsInvalid() {
+        assertThatThrownBy(() -> productService.scrollProducts("not-a-cursor", 10, "id"))
+                .isInstanceOf(com.techstore.exception.InvalidQueryParameterException.class);
+
+        verify(productRepository, never()).findViews(ArgumentMatchers.<Specification<Product>>any(), any(Sort.class), anyInt());
+    }
+
+    // --- TEST 9: CONTEO APROXIMADO (SIN COUNT(*) POR PÁGINA) ---
+    @Test
+    @DisplayName("Should use cached total and skip COUNT query when count mode is APPROX")
+    void shouldUseCachedCount_whenCountModeIsApprox() {
+        // ARRANGE
+        PageRequest pageable = PageRequest.of(0, 1);
+        ProductView product = view(1L, "Laptop", null, null);
+
+        when(productRepository.findViewSlice(any(), eq(pageable))).thenReturn(new SliceImpl<>(List.of(product), pageable, true));
+        when(productCountCache.approximate(eq("all"), any())).thenReturn(500L);
+        when(productMapper.fromView(product)).thenReturn(new ProductDto());
+
+        // ACT
+        Slice<ProductDto> result = productService.getAllProducts(pageable, CountMode.APPROX);
+
+        // ASSERT
+        assertThat(result).isInstanceOf(Page.class);
+        assertThat(((Page<ProductDto>) result).getTotalElements()).isEqualTo(500L);
+        verify(productRepository, never()).count(ArgumentMatchers.<Specification<Product>>any());
+        verify(productRepository, never()).findAllViews(any(PageRequest.class));
+    }
+
+    @Test
+    @DisplayName("Should return a plain slice without total when count mode is NONE")
+    void shouldReturnSlice_whenCountModeIsNone() {
+        // ARRANGE
+        PageRequest pageable = PageRequest.of(0, 10);
+        when(productRepository.findViewSlice(any(), eq(pageable))).thenReturn(new SliceImpl<>(List.of(), pageable, false));
+
+        // ACT
+        Slice<ProductDto> result = productService.getAllProducts(pageable, CountMode.NONE);
+
+        // ASSERT
+        assertThat(result).isNotInstanceOf(Page.class);
+        verifyNoInteractions(productCountCache);
+    }
+
+    // --- TEST 10: FACETAS SIN SNAPSHOT EN MEMORIA ---
+    @Test
+    @DisplayName("Should fall back to grouped queries for facets when the columnar snapshot is unavailable")
+    void shouldComputeFacetsWithGroupedQueries_whenSnapshotUnavailable() {
+        // ARRANGE
+        PageRequest pageable = PageRequest.of(0, 10);
+        ProductView product = view(1L, "Laptop", new BigDecimal("1400"), 5);
+        List<BigDecimal> bounds = priceBands.bounds();
+
+        when(columnarCatalog.facetedFilter(any(), any(), any(), any(), eq(pageable))).thenReturn(Optional.empty());
+        when(productRepository.findViews(ArgumentMatchers.<Specification<Product>>any(), eq(pageable))).thenReturn(new PageImpl<>(List.of(product)));
+        when(productRepository.countByCategory(any())).thenReturn(List.of(new FacetCount(1L, "Electronics", 1L)));
+        when(productRepository.countByProvider(any())).thenReturn(List.of());
+        when(productRepository.countByPriceBand(any(), eq(bounds))).thenReturn(List.of(0L, 1L));
+
+        // ACT
+        FacetedPageDto<ProductResponseDto> result =
+                productService.searchProductsWithFacets("laptop", null, null, null, pageable);
+
+        // ASSERT
+        assertThat(result.getTotalElements()).isEqualTo(1);
+        assertThat(result.getFacets().getCategories()).singleElement()
+                .satisfies(facet -> assertThat(facet.getCount()).isEqualTo(1L));
+        assertThat(result.getFacets().getPriceBands()).hasSize(2);
+        assertThat(result.getFacets().getPriceBands().get(1).getFrom()).isEqualByComparingTo("100");
+        assertThat(result.getFacets().getPriceBands().get(1).getTo()).isNull();
+    }
+
+    // --- TEST 11: STOCK POR UBICACIÓN (PUT NO LO PISA) ---
+    @Test
+    @DisplayName("Should reject a stock change on update when the product is stocked per location")
+    void shouldRejectStockChange_whenProductHasLocations() {
+        // ARRANGE
+        Product product = new Product();
+        product.setId(1L);
+        product.setStock(12); // Suma de sus ubicaciones
+
+        ProductDto dto = new ProductDto();
+        dto.setName("Laptop");
+        dto.setStock(5);
+
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(locationStockRepository.existsByProductId(1L)).thenReturn(true);
+
+        // ACT & ASSERT
+        assertThatThrownBy(() -> productService.updateProduct(1L, dto))
+                .isInstanceOf(StockManagedByLocationException.class);
+        assertThat(product.getStock()).isEqualTo(12);
+        verify(productRepository, never()).save(any(Product.class));
+    }
+
+    // Proyección mínima para los tests de listado
+    private static ProductView view(Long id, String name, BigDecimal price, Integer stock) {
+        return new ProductView(id, name, null, price, stock, null, null, null, null, null, null);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,114 @@
+package com.techstore.service.catalog;
+
+import com.techstore.event.ProductChangedEvent;
+import com.techstore.event.ProductsBulkUpdatedEvent;
+import com.techstore.event.ReferenceDataChangedEvent;
+import com.techstore.repository.CategoryRepository;
+import com.techstore.repository.ProductRepository;
+import com.techstore.repository.ProviderRepository;
+import com.techstore.repository.projection.ProductStamp;
+import com.techstore.repository.projection.TableStamp;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogVersionsTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 2, 1, 10, 0);
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private CategoryRepository categoryRepository;
+    @Mock
+    private ProviderRepository providerRepository;
+    @Mock
+    private ObjectProvider<ReferenceDataBroadcast> channels;
+
+    private CatalogVersions catalogVersions;
+
+    @BeforeEach
+    void setUp() {
+        catalogVersions = new CatalogVersions(productRepository, categoryRepository, providerRepository, channels,
+                Duration.ofSeconds(10));
+    }
+
+    @Test
+    @DisplayName("Should change the list ETag when a row is deleted even if MAX(updatedAt) stays the same")
+    void shouldChangeListEtag_whenCountChanges() {
+        when(categoryRepository.findTableStamp()).thenReturn(new TableStamp(3L, T0));
+        when(providerRepository.findTableStamp()).thenReturn(new TableStamp(2L, T0));
+
+        when(productRepository.findTableStamp()).thenReturn(new TableStamp(10L, T0));
+        ResourceVersion before = catalogVersions.products();
+        when(productRepository.findTableStamp()).thenReturn(new TableStamp(9L, T0));
+        catalogVersions.onProductChanged(ProductChangedEvent.deleted(7L));
+        ResourceVersion after = catalogVersions.products();
+
+        assertThat(before.etag()).startsWith("\"").endsWith("\"");
+        assertThat(after.etag()).isNotEqualTo(before.etag());
+        assertThat(after.lastModifiedMillis()).isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("Should read the list aggregates once until a product, category or provider write commits")
+    void shouldKeepListVersion_untilSomethingIsWritten() {
+        when(productRepository.findTableStamp()).thenReturn(new TableStamp(10L, T0));
+        when(categoryRepository.findTableStamp()).thenReturn(new TableStamp(3L, T0));
+        when(providerRepository.findTableStamp()).thenReturn(new TableStamp(2L, T0));
+
+        ResourceVersion first = catalogVersions.products();
+        assertThat(catalogVersions.products()).isSameAs(first);
+        verify(productRepository, times(1)).findTableStamp();
+
+        catalogVersions.onProductsBulkUpdated(new ProductsBulkUpdatedEvent(T0));
+        catalogVersions.products();
+        catalogVersions.onReferenceDataChanged(ReferenceDataChangedEvent.provider(4L));
+        catalogVersions.products();
+        verify(productRepository, times(3)).findTableStamp();
+    }
+
+    @Test
+    @DisplayName("Should re-read the list aggregates after the maximum age (writes made by other instances)")
+    void shouldReloadListVersion_whenOlderThanMaxAge() {
+        CatalogVersions noCache = new CatalogVersions(productRepository, categoryRepository, providerRepository, channels,
+                Duration.ZERO);
+        when(productRepository.findTableStamp()).thenReturn(new TableStamp(10L, T0));
+        when(categoryRepository.findTableStamp()).thenReturn(new TableStamp(3L, T0));
+        when(providerRepository.findTableStamp()).thenReturn(new TableStamp(2L, T0));
+
+        noCache.products();
+        noCache.products();
+
+        verify(productRepository, times(2)).findTableStamp();
+    }
+
+    @Test
+    @DisplayName("Should version a product by its own row and by the category and provider names it embeds")
+    void shouldChangeProductEtag_whenCategoryIsRenamed() {
+        when(productRepository.findStampById(1L))
+                .thenReturn(Optional.of(new ProductStamp(T0, T0, null)))
+                .thenReturn(Optional.of(new ProductStamp(T0, T0.plusNanos(1_000), null)));
+
+        ResourceVersion before = catalogVersions.product(1L).orElseThrow();
+        ResourceVersion after = catalogVersions.product(1L).orElseThrow();
+
+        assertThat(after.etag()).isNotEqualTo(before.etag());
+        assertThat(before.lastModified()).isEqualTo(T0.atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
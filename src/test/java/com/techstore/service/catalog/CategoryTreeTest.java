@@ -0,0 +1,71 @@
+package com.techstore.service.catalog;
+
+import com.techstore.event.ReferenceDataChangedEvent;
+import com.techstore.repository.CategoryRepository;
+import com.techstore.repository.projection.CategoryNodeRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CategoryTreeTest {
+
+    @Mock
+    private CategoryRepository categoryRepository;
+    @Mock
+    private ObjectProvider<ReferenceDataBroadcast> channels;
+
+    private CategoryTree categoryTree;
+
+    @BeforeEach
+    void setUp() {
+        categoryTree = new CategoryTree(categoryRepository, channels, Duration.ofMinutes(10));
+    }
+
+    @Test
+    @DisplayName("Should build the nested tree, breadcrumbs and subtree ids from one query")
+    void shouldBuildTreeAndPaths_fromSingleLoad() {
+        when(categoryRepository.findAllNodes()).thenReturn(List.of(
+                new CategoryNodeRow(3L, "Laptops", 1L),
+                new CategoryNodeRow(1L, "Computers", null),
+                new CategoryNodeRow(4L, "Gaming Laptops", 3L),
+                new CategoryNodeRow(2L, "Audio", null),
+                new CategoryNodeRow(5L, "Desktops", 1L)));
+
+        assertThat(categoryTree.roots()).extracting(CategoryTree.Node::name).containsExactly("Audio", "Computers");
+        assertThat(categoryTree.node(1L).orElseThrow().children()).extracting(CategoryTree.Node::name)
+                .containsExactly("Desktops", "Laptops");
+        assertThat(categoryTree.path(4L)).extracting(CategoryTree.Node::id).containsExactly(1L, 3L, 4L);
+        assertThat(categoryTree.path(99L)).isEmpty();
+        assertThat(categoryTree.subtreeIds("COMPUTERS")).containsExactlyInAnyOrder(1L, 3L, 4L, 5L);
+        // Nombre desconocido: ningún ID (el filtro no encontrará nada, como en la BD)
+        assertThat(categoryTree.subtreeIds("Cámaras")).isEmpty();
+        verify(categoryRepository, times(1)).findAllNodes();
+    }
+
+    @Test
+    @DisplayName("Should reload after a category change but ignore provider changes")
+    void shouldReload_onlyWhenCategoriesChange() {
+        when(categoryRepository.findAllNodes())
+                .thenReturn(List.of(new CategoryNodeRow(1L, "Computers", null)))
+                .thenReturn(List.of(new CategoryNodeRow(1L, "Computers", null), new CategoryNodeRow(2L, "Laptops", 1L)));
+        categoryTree.roots();
+
+        categoryTree.onReferenceDataChanged(ReferenceDataChangedEvent.provider(7L));
+        assertThat(categoryTree.path(2L)).isEmpty();
+
+        categoryTree.onReferenceDataChanged(ReferenceDataChangedEvent.category(2L));
+        assertThat(categoryTree.path(2L)).extracting(CategoryTree.Node::name).containsExactly("Computers", "Laptops");
+        verify(categoryRepository, times(2)).findAllNodes();
+    }
+}
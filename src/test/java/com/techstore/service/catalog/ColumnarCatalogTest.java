@@ -0,0 +1,349 @@
+package com.techstore.service.catalog;
+
+import com.techstore.event.ProductChangedEvent;
+import com.techstore.event.ProductsBulkUpdatedEvent;
+import com.techstore.model.Product;
+import com.techstore.repository.CategoryRepository;
+import com.techstore.repository.ProductRepository;
+import com.techstore.repository.projection.CatalogRow;
+import com.techstore.repository.projection.CategoryNodeRow;
+import com.techstore.repository.projection.FacetCount;
+import com.techstore.repository.projection.ProductView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ColumnarCatalogTest {
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private CategoryRepository categoryRepository;
+    @Mock
+    private ObjectProvider<ReferenceDataBroadcast> channels;
+
+    private final PriceBands priceBands = new PriceBands(List.of(new BigDecimal("100"), new BigDecimal("1000")));
+
+    private CategoryTree categoryTree;
+    private ColumnarCatalog catalog;
+
+    // Filas tal como llegan de la BD: ordenadas por (name, id)
+    private final List<CatalogRow> rows = List.of(
+            row(3L, "Cámara Réflex", "9.99", 2L, "Fotografía", 20L),
+            row(1L, "Laptop Gamer", "1400.00", 1L, "Electronics", 10L),
+            row(2L, "Laptop Office", "650.50", 1L, "Electronics", 20L),
+            row(4L, "Monitor 4K", "650.50", 1L, "Electronics", null));
+
+    // Fichas completas de la BD, que completan la página por ID
+    private final List<ProductView> views = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        rows.forEach(row -> views.add(view(row)));
+        categoryTree = new CategoryTree(categoryRepository, channels, Duration.ofMinutes(10));
+        catalog = new ColumnarCatalog(productRepository, priceBands, categoryTree, true, 1000, Duration.ofMinutes(5), Runnable::run);
+    }
+
+    @Test
+    @DisplayName("Should answer the filter from memory with the same predicates as the JPA specifications")
+    void shouldFilterFromSnapshot_whenFresh() {
+        loadCatalog();
+        stubRootCategories();
+
+        Optional<Page<ProductView>> page = catalog.filter("LAPTOP", new BigDecimal("650.5"), new BigDecimal("2000"),
+                "electronics", PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "price")));
+
+        assertThat(page).isPresent();
+        assertThat(page.get().getTotalElements()).isEqualTo(2);
+        assertThat(page.get().getContent()).extracting(ProductView::id).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Should match accents, price ties and paging like the database path")
+    void shouldPageAndBreakTiesById() {
+        loadCatalog();
+        stubRootCategories();
+
+        Page<ProductView> byCategory = catalog.filter(null, null, null, "FOTOGRAFIA", PageRequest.of(0, 10)).orElseThrow();
+        Page<ProductView> secondPage = catalog.filter(null, null, null, null,
+                PageRequest.of(1, 2, Sort.by("price"))).orElseThrow();
+
+        assertThat(byCategory.getContent()).extracting(ProductView::id).containsExactly(3L);
+        assertThat(secondPage.getTotalElements()).isEqualTo(4);
+        assertThat(secondPage.getContent()).extracting(ProductView::id).containsExactly(4L, 1L);
+    }
+
+    @Test
+    @DisplayName("Should include every descendant category when filtering by a parent")
+    void shouldFilterWholeSubtree_whenCategoryHasChildren() {
+        loadCatalog();
+        when(categoryRepository.findAllNodes()).thenReturn(List.of(
+                new CategoryNodeRow(5L, "Tecnología", null),
+                new CategoryNodeRow(1L, "Electronics", 5L),
+                new CategoryNodeRow(6L, "Imagen", 5L),
+                new CategoryNodeRow(2L, "Fotografía", 6L)));
+
+        Page<ProductView> root = catalog.filter(null, null, null, "tecnologia", PageRequest.of(0, 10)).orElseThrow();
+        Page<ProductView> middle = catalog.filter(null, null, null, "Imagen", PageRequest.of(0, 10)).orElseThrow();
+
+        assertThat(root.getContent()).extracting(ProductView::id).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(middle.getContent()).extracting(ProductView::id).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("Should follow the subtree by id when two categories share a name")
+    void shouldNotMixSubtrees_whenCategoryNamesRepeat() {
+        // Un "Accesorios" bajo cada raíz: filtrar por Electronics no trae los de Fotografía
+        when(productRepository.findCatalogRows(any(Pageable.class))).thenReturn(List.of(
+                row(5L, "Funda", "20", 7L, "Accesorios", 10L),
+                row(1L, "Laptop Gamer", "1400.00", 1L, "Electronics", 10L),
+                row(6L, "Trípode", "35", 8L, "Accesorios", 10L)));
+        stubViews();
+        catalog.refresh();
+        views.add(view(row(5L, "Funda", "20", 7L, "Accesorios", 10L)));
+        views.add(view(row(6L, "Trípode", "35", 8L, "Accesorios", 10L)));
+        when(categoryRepository.findAllNodes()).thenReturn(List.of(
+                new CategoryNodeRow(1L, "Electronics", null),
+                new CategoryNodeRow(7L, "Accesorios", 1L),
+                new CategoryNodeRow(2L, "Fotografía", null),
+                new CategoryNodeRow(8L, "Accesorios", 2L)));
+
+        Page<ProductView> electronics = catalog.filter(null, null, null, "electronics", PageRequest.of(0, 10)).orElseThrow();
+        Page<ProductView> accessories = catalog.filter(null, null, null, "accesorios", PageRequest.of(0, 10)).orElseThrow();
+
+        assertThat(electronics.getContent()).extracting(ProductView::id).containsExactly(1L, 5L);
+        assertThat(accessories.getContent()).extracting(ProductView::id).containsExactly(5L, 6L);
+    }
+
+    @Test
+    @DisplayName("Should apply committed writes to the snapshot without reloading the catalog")
+    void shouldPatchSnapshot_whenProductsChange() {
+        loadCatalog();
+        stubRootCategories();
+
+        // Precio y nombre nuevos para el 1, alta del 5 y baja del 3
+        changeInDatabase(row(1L, "Zoom Laptop", "99.00", 1L, "Electronics", 10L));
+        changeInDatabase(row(5L, "Laptop Mini", "700", 2L, "Fotografía", 10L));
+        when(productRepository.findCatalogRowsByIdIn(anyCollection()))
+                .thenReturn(List.of(row(1L, "Zoom Laptop", "99.00", 1L, "Electronics", 10L)))
+                .thenReturn(List.of(row(5L, "Laptop Mini", "700", 2L, "Fotografía", 10L)))
+                .thenReturn(List.of());
+        catalog.onProductChanged(ProductChangedEvent.updated(1L));
+        catalog.onProductChanged(ProductChangedEvent.created(5L));
+        catalog.onProductChanged(ProductChangedEvent.deleted(3L));
+
+        Page<ProductView> byPrice = catalog.filter(null, null, null, null, PageRequest.of(0, 10, Sort.by("price"))).orElseThrow();
+        Page<ProductView> laptops = catalog.filter("laptop", null, null, "fotografia", PageRequest.of(0, 10)).orElseThrow();
+
+        // Alta y renombrado: su sitio en la collation de la BD no se conoce, el orden por nombre vuelve a la ruta JPA
+        assertThat(catalog.filter(null, null, null, null, PageRequest.of(0, 10, Sort.by("name")))).isEmpty();
+        assertThat(byPrice.getContent()).extracting(ProductView::id).containsExactly(1L, 2L, 4L, 5L);
+        assertThat(laptops.getContent()).extracting(ProductView::id).containsExactly(5L);
+        verify(productRepository, times(1)).findCatalogRows(any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should keep the snapshot when a write leaves its columns unchanged, and the name order on price changes")
+    void shouldSkipNoOpWrites_andKeepDatabaseNameOrder() {
+        loadCatalog();
+        ColumnarSnapshot loaded = catalog.current().orElseThrow();
+
+        // Cambio de stock: la fila releída es igual (el precio, por valor) y no se copia nada
+        when(productRepository.findCatalogRowsByIdIn(anyCollection()))
+                .thenReturn(List.of(row(2L, "Laptop Office", "650.5", 1L, "Electronics", 20L)))
+                .thenReturn(List.of(row(2L, "Laptop Office", "2000", 1L, "Electronics", 20L)));
+        catalog.onProductChanged(ProductChangedEvent.updated(2L));
+        assertThat(catalog.current()).containsSame(loaded);
+
+        // Solo precio: cada fila conserva su posición en el orden por nombre que dio la BD
+        changeInDatabase(row(2L, "Laptop Office", "2000", 1L, "Electronics", 20L));
+        catalog.onProductChanged(ProductChangedEvent.updated(2L));
+
+        Page<ProductView> byName = catalog.filter(null, null, null, null, PageRequest.of(0, 10, Sort.by("name"))).orElseThrow();
+        Page<ProductView> byPrice = catalog.filter(null, null, null, null, PageRequest.of(0, 10, Sort.by("price"))).orElseThrow();
+        assertThat(byName.getContent()).extracting(ProductView::id).containsExactly(3L, 1L, 2L, 4L);
+        assertThat(byPrice.getContent()).extracting(ProductView::id).containsExactly(3L, 4L, 1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Should apply every write queued while the patch thread was busy in one batch")
+    void shouldApplyQueuedWrites_inOneBatch() {
+        List<Runnable> queued = new ArrayList<>();
+        ColumnarCatalog batched = new ColumnarCatalog(productRepository, priceBands, categoryTree, true, 1000,
+                Duration.ofMinutes(5), queued::add);
+        when(productRepository.findCatalogRows(any(Pageable.class))).thenReturn(rows);
+        stubViews();
+        batched.refresh();
+        changeInDatabase(row(1L, "Laptop Gamer", "10", 1L, "Electronics", 10L));
+        when(productRepository.findCatalogRowsByIdIn(anyCollection()))
+                .thenReturn(List.of(row(1L, "Laptop Gamer", "10", 1L, "Electronics", 10L)));
+
+        batched.onProductChanged(ProductChangedEvent.updated(1L));
+        batched.onProductChanged(ProductChangedEvent.deleted(3L));
+        assertThat(queued).hasSize(1);
+        queued.get(0).run();
+
+        Page<ProductView> page = batched.filter(null, null, null, null, PageRequest.of(0, 10, Sort.by("price"))).orElseThrow();
+        assertThat(page.getContent()).extracting(ProductView::id).containsExactly(1L, 2L, 4L);
+        verify(productRepository, times(1)).findCatalogRowsByIdIn(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should move facet bits of changed products and match the counts of a full reload")
+    void shouldPatchFacetBits_whenProductsChange() {
+        loadCatalog();
+        // El 2 cambia de categoría, proveedor y banda; el 3 se borra (Fotografía se queda sin productos)
+        CatalogRow moved = row(2L, "Laptop Office", "1200", 7L, "Gaming", 10L);
+        changeInDatabase(moved);
+        when(productRepository.findCatalogRowsByIdIn(anyCollection())).thenReturn(List.of(moved));
+        catalog.onProductChanged(ProductChangedEvent.updated(2L));
+        catalog.onProductChanged(ProductChangedEvent.deleted(3L));
+
+        FacetedPage patched = catalog.facetedFilter(null, null, null, null, PageRequest.of(0, 10)).orElseThrow();
+
+        assertThat(patched.categories()).containsExactly(
+                new FacetCount(1L, "Electronics", 2L), new FacetCount(7L, "Gaming", 1L));
+        assertThat(patched.providers()).containsExactly(new FacetCount(10L, "Provider 10", 2L));
+        assertThat(patched.priceBands()).extracting(FacetCount::count).containsExactly(0L, 1L, 2L);
+
+        ColumnarCatalog reloaded = new ColumnarCatalog(productRepository, priceBands, categoryTree, true, 1000, Duration.ofMinutes(5), Runnable::run);
+        when(productRepository.findCatalogRows(any(Pageable.class))).thenReturn(List.of(
+                rows.get(1), moved, rows.get(3)));
+        reloaded.refresh();
+        FacetedPage full = reloaded.facetedFilter(null, null, null, null, PageRequest.of(0, 10)).orElseThrow();
+
+        assertThat(patched.categories()).isEqualTo(full.categories());
+        assertThat(patched.providers()).isEqualTo(full.providers());
+        assertThat(patched.priceBands()).isEqualTo(full.priceBands());
+    }
+
+    @Test
+    @DisplayName("Should re-read the rows a bulk reprice stamped and apply their new prices")
+    void shouldPatchSnapshot_whenBulkRepriceCommits() {
+        loadCatalog();
+        LocalDateTime stamp = LocalDateTime.now();
+        when(productRepository.findCatalogRowsUpdatedAt(stamp)).thenReturn(List.of(
+                row(2L, "Laptop Office", "1500", 1L, "Electronics", 20L),
+                row(4L, "Monitor 4K", "5", 1L, "Electronics", null)));
+
+        catalog.onProductsBulkUpdated(new ProductsBulkUpdatedEvent(stamp));
+
+        Page<ProductView> page = catalog.filter(null, null, null, null,
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "price"))).orElseThrow();
+        assertThat(page.getContent()).extracting(ProductView::id).containsExactly(2L, 1L, 3L, 4L);
+        verify(productRepository, times(1)).findCatalogRows(any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Should re-read products written while the full load was reading the table")
+    void shouldApplyWritesMadeDuringFullLoad() {
+        when(productRepository.findCatalogRows(any(Pageable.class))).thenAnswer(invocation -> {
+            // Borrado confirmado a mitad de la carga, que aún devuelve la fila
+            catalog.onProductChanged(ProductChangedEvent.deleted(2L));
+            return rows;
+        });
+        when(productRepository.findCatalogRowsByIdIn(anyCollection())).thenReturn(List.of());
+        stubViews();
+
+        catalog.refresh();
+
+        Page<ProductView> page = catalog.filter(null, null, null, null, PageRequest.of(0, 10)).orElseThrow();
+        assertThat(page.getContent()).extracting(ProductView::id).containsExactly(1L, 3L, 4L);
+    }
+
+    @Test
+    @DisplayName("Should not answer sorts it has not precomputed")
+    void shouldReturnEmpty_whenSortIsNotSupported() {
+        loadCatalog();
+
+        assertThat(catalog.filter(null, null, null, null, PageRequest.of(0, 10, Sort.by("createdAt")))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should never load the catalog when disabled")
+    void shouldStayOnJpa_whenDisabled() {
+        ColumnarCatalog disabled = new ColumnarCatalog(productRepository, priceBands, categoryTree, false, 1000, Duration.ofMinutes(5), Runnable::run);
+
+        disabled.refresh();
+
+        assertThat(disabled.filter(null, null, null, null, PageRequest.of(0, 10))).isEmpty();
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    @DisplayName("Should count facets over the same match set as the returned page")
+    void shouldReturnFacetCounts_fromSinglePass() {
+        loadCatalog();
+
+        FacetedPage result = catalog.facetedFilter(null, new BigDecimal("100"), null, null, PageRequest.of(0, 1))
+                .orElseThrow();
+
+        assertThat(result.page().getTotalElements()).isEqualTo(3);
+        assertThat(result.page().getContent()).extracting(ProductView::id).containsExactly(1L);
+        // La cámara (9.99) queda fuera del filtro: su categoría no aparece
+        assertThat(result.categories()).containsExactly(new FacetCount(1L, "Electronics", 3L));
+        assertThat(result.providers()).containsExactly(
+                new FacetCount(10L, "Provider 10", 1L), new FacetCount(20L, "Provider 20", 1L));
+        // Bandas [-,100), [100,1000), [1000,-): siempre todas, aunque estén a cero
+        assertThat(result.priceBands()).extracting(FacetCount::count).containsExactly(0L, 2L, 1L);
+    }
+
+    private void loadCatalog() {
+        when(productRepository.findCatalogRows(any(Pageable.class))).thenReturn(rows);
+        stubViews();
+        catalog.refresh();
+    }
+
+    // Las dos categorías de las filas de prueba, sin jerarquía
+    private void stubRootCategories() {
+        when(categoryRepository.findAllNodes()).thenReturn(List.of(
+                new CategoryNodeRow(1L, "Electronics", null),
+                new CategoryNodeRow(2L, "Fotografía", null)));
+    }
+
+    // La página se completa con una consulta por ID: devuelve las fichas de los IDs pedidos que existan
+    private void stubViews() {
+        lenient().when(productRepository.findViews(ArgumentMatchers.<Specification<Product>>any(), eq(Sort.unsorted()), anyInt()))
+                .thenAnswer(invocation -> List.copyOf(views));
+    }
+
+    private void changeInDatabase(CatalogRow row) {
+        views.removeIf(view -> view.id().equals(row.id()));
+        views.add(view(row));
+    }
+
+    private static CatalogRow row(Long id, String name, String price, Long categoryId, String category, Long providerId) {
+        return new CatalogRow(id, name, new BigDecimal(price), categoryId, category,
+                providerId, providerId == null ? null : "Provider " + providerId);
+    }
+
+    private static ProductView view(CatalogRow row) {
+        return new ProductView(row.id(), row.name(), null, row.price(), 1, row.categoryId(), row.categoryName(),
+                row.providerId(), row.providerName(), null, null);
+    }
+}
@@ -0,0 +1,92 @@
+package com.techstore.service.catalog;
+
+import com.techstore.dto.LowStockAlertDto;
+import com.techstore.event.ProductChangedEvent;
+import com.techstore.model.enums.ChangeType;
+import com.techstore.repository.ProductRepository;
+import com.techstore.repository.projection.ProductStock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LowStockIndexTest {
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private LowStockAlerts alerts;
+
+    private LowStockIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new LowStockIndex(productRepository, alerts, 5);
+    }
+
+    @Test
+    @DisplayName("Should answer lowest-k and below-limit in stock order from a single load")
+    void shouldServeQueries_inStockOrder() {
+        when(productRepository.findAllStocks()).thenReturn(List.of(
+                new ProductStock(1L, 40), new ProductStock(2L, 3), new ProductStock(3L, 0), new ProductStock(4L, 3)));
+
+        assertThat(index.lowest(3)).containsExactly(3L, 2L, 4L);
+        assertThat(index.below(4)).containsExactly(3L, 2L, 4L);
+        assertThat(index.below(0)).isEmpty();
+        verify(productRepository, times(1)).findAllStocks();
+    }
+
+    @Test
+    @DisplayName("Should re-read only the changed products and alert when they cross the threshold")
+    void shouldUpdateChangedProducts_andAlertOnCrossing() {
+        when(productRepository.findAllStocks()).thenReturn(List.of(new ProductStock(1L, 10), new ProductStock(2L, 2)));
+        index.lowest(1);
+        when(productRepository.findStocksByIdIn(anyCollection()))
+                .thenReturn(List.of(new ProductStock(1L, 4), new ProductStock(2L, 8)));
+
+        index.onProductChanged(ProductChangedEvent.of(ChangeType.UPDATED, List.of(1L, 2L)));
+
+        assertThat(index.below(5)).containsExactly(1L);
+        ArgumentCaptor<LowStockAlertDto> captor = ArgumentCaptor.forClass(LowStockAlertDto.class);
+        verify(alerts, times(2)).publish(captor.capture());
+        assertThat(captor.getAllValues())
+                .extracting(LowStockAlertDto::getProductId, LowStockAlertDto::getType)
+                .containsExactlyInAnyOrder(
+                        tuple(1L, LowStockAlertDto.Type.LOW),
+                        tuple(2L, LowStockAlertDto.Type.RESTOCKED));
+    }
+
+    @Test
+    @DisplayName("Should drop deleted products without querying or alerting")
+    void shouldRemoveDeletedProducts() {
+        when(productRepository.findAllStocks()).thenReturn(List.of(new ProductStock(1L, 1), new ProductStock(2L, 2)));
+        index.lowest(1);
+
+        index.onProductChanged(ProductChangedEvent.deleted(1L));
+
+        assertThat(index.lowest(10)).containsExactly(2L);
+        verify(productRepository, never()).findStocksByIdIn(anyCollection());
+        verify(alerts, never()).publish(any());
+    }
+
+    @Test
+    @DisplayName("Should ignore events until the index is first used")
+    void shouldIgnoreEvents_beforeFirstLoad() {
+        index.onProductChanged(ProductChangedEvent.updated(1L));
+        index.refresh();
+
+        verifyNoInteractions(productRepository, alerts);
+    }
+}
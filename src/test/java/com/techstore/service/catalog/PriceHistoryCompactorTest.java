@@ -0,0 +1,98 @@
+package com.techstore.service.catalog;
+
+import com.techstore.model.PriceHistoryChunk;
+import com.techstore.repository.PriceHistoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PriceHistoryCompactorTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 3, 1, 10, 0);
+
+    @Mock
+    private PriceHistoryRepository priceHistoryRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private PriceHistoryCompactor compactor;
+
+    @BeforeEach
+    void setUp() {
+        compactor = new PriceHistoryCompactor(priceHistoryRepository, transactionTemplate, 8);
+    }
+
+    @Test
+    @DisplayName("Should merge consecutive small chunks of a product up to the chunk size, in time order")
+    @SuppressWarnings("unchecked")
+    void shouldMergeSmallChunksPerProduct() {
+        when(priceHistoryRepository.findProductsWithSmallChunks(eq(4), any(Pageable.class))).thenReturn(List.of(1L, 2L));
+        // Producto 1: 3 + 3 caben en un tramo de 8, el tercero (3 más) abre otro y se queda solo.
+        // Producto 2: dos tramos de volcados que se solapan en el tiempo
+        when(priceHistoryRepository.findSmallChunks(List.of(1L, 2L), 4)).thenReturn(List.of(
+                chunk(10L, 1L, 0, 3),
+                chunk(11L, 1L, 10, 3),
+                chunk(12L, 1L, 20, 3),
+                chunk(20L, 2L, 5, 2),
+                chunk(21L, 2L, 4, 2)));
+
+        int replaced = compactor.compactBatch();
+
+        ArgumentCaptor<List<PriceHistoryChunk>> saved = ArgumentCaptor.forClass(List.class);
+        verify(priceHistoryRepository).saveAll(saved.capture());
+        verify(priceHistoryRepository).deleteAllByIdInBatch(List.of(10L, 11L, 20L, 21L));
+        assertThat(replaced).isEqualTo(4);
+
+        assertThat(saved.getValue()).extracting(PriceHistoryChunk::getProductId).containsExactly(1L, 2L);
+        PriceHistoryChunk first = saved.getValue().get(0);
+        assertThat(first.getPoints()).isEqualTo(6);
+        assertThat(first.getFirstAt()).isEqualTo(T0);
+        assertThat(first.getLastAt()).isEqualTo(T0.plusMinutes(12));
+        List<PricePoint> overlapping = PriceSeriesCodec.decode(saved.getValue().get(1).getData());
+        assertThat(overlapping).extracting(PricePoint::at)
+                .containsExactly(T0.plusMinutes(4), T0.plusMinutes(5), T0.plusMinutes(5), T0.plusMinutes(6));
+    }
+
+    @Test
+    @DisplayName("Should not touch the table when no product has several small chunks")
+    void shouldDoNothing_whenNothingToMerge() {
+        when(priceHistoryRepository.findProductsWithSmallChunks(anyInt(), any(Pageable.class))).thenReturn(List.of());
+
+        assertThat(compactor.compactBatch()).isZero();
+        verify(priceHistoryRepository, never()).findSmallChunks(anyList(), anyInt());
+        verify(priceHistoryRepository, never()).saveAll(any());
+    }
+
+    // Tramo con un punto por minuto desde T0 + startMinute
+    private static PriceHistoryChunk chunk(Long id, Long productId, int startMinute, int points) {
+        List<PricePoint> series = IntStream.range(0, points)
+                .mapToObj(i -> new PricePoint(T0.plusMinutes(startMinute + i), BigDecimal.valueOf(100 + i)))
+                .toList();
+        return PriceHistoryChunk.builder()
+                .id(id)
+                .productId(productId)
+                .firstAt(series.get(0).at())
+                .lastAt(series.get(points - 1).at())
+                .points(points)
+                .data(PriceSeriesCodec.encode(series))
+                .build();
+    }
+}
@@ -0,0 +1,112 @@
+package com.techstore.service.catalog;
+
+import com.techstore.event.ProductPricesChangedEvent;
+import com.techstore.event.ProductsBulkUpdatedEvent;
+import com.techstore.repository.ProductRepository;
+import com.techstore.repository.projection.ProductPrice;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PriceHistoryRecorderTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 3, 1, 10, 0);
+
+    @Mock
+    private ProductRepository productRepository;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Captor
+    private ArgumentCaptor<Collection<Map.Entry<Long, List<PricePoint>>>> rows;
+
+    private PriceHistoryRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        recorder = new PriceHistoryRecorder(productRepository, jdbcTemplate, 1000);
+    }
+
+    @Test
+    @DisplayName("Should write one chunk row per product in a single batch, including bulk reprices")
+    void shouldBatchOneRowPerProduct() {
+        when(productRepository.findPricesUpdatedAt(T0.plusMinutes(1)))
+                .thenReturn(List.of(new ProductPrice(1L, new BigDecimal("9.00")), new ProductPrice(3L, new BigDecimal("5.00"))));
+
+        ProductsBulkUpdatedEvent bulk = new ProductsBulkUpdatedEvent(T0.plusMinutes(1));
+
+        recorder.onPricesChanged(new ProductPricesChangedEvent(Map.of(1L, BigDecimal.TEN, 2L, BigDecimal.ONE), T0));
+        recorder.onProductsBulkUpdating(bulk);
+        recorder.onProductsBulkUpdated(bulk);
+        recorder.flush();
+
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), rows.capture(), anyInt(), anySetter());
+        assertThat(rows.getValue()).extracting(Map.Entry::getKey).containsExactly(1L, 2L, 3L);
+        assertThat(rows.getValue().iterator().next().getValue()).extracting(PricePoint::at).containsExactly(T0, T0.plusMinutes(1));
+
+        // Cola vacía: el siguiente ciclo no escribe nada
+        recorder.flush();
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Should read bulk reprice prices before commit and drop them if the transaction rolls back")
+    void shouldCaptureBulkPricesBeforeCommit() {
+        ProductsBulkUpdatedEvent committed = new ProductsBulkUpdatedEvent(T0);
+        ProductsBulkUpdatedEvent rolledBack = new ProductsBulkUpdatedEvent(T0.plusMinutes(1));
+        when(productRepository.findPricesUpdatedAt(T0)).thenReturn(List.of(new ProductPrice(1L, new BigDecimal("9.00"))));
+        when(productRepository.findPricesUpdatedAt(T0.plusMinutes(1))).thenReturn(List.of(new ProductPrice(2L, BigDecimal.ONE)));
+
+        recorder.onProductsBulkUpdating(committed);
+        recorder.onProductsBulkUpdating(rolledBack);
+        recorder.onProductsBulkRolledBack(rolledBack);
+        recorder.onProductsBulkUpdated(committed);
+        recorder.flush();
+
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture(), anyInt(), anySetter());
+        assertThat(rows.getValue()).extracting(Map.Entry::getKey).containsExactly(1L);
+        // Leídos una vez, en la transacción: el volcado ya no vuelve a la tabla de productos
+        verify(productRepository, times(2)).findPricesUpdatedAt(any());
+    }
+
+    @Test
+    @DisplayName("Should keep points queued when the write fails and retry them on the next flush")
+    void shouldRequeue_whenWriteFails() {
+        when(jdbcTemplate.batchUpdate(anyString(), ArgumentMatchers.<Collection<Map.Entry<Long, List<PricePoint>>>>any(), anyInt(), anySetter()))
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenReturn(new int[][]{{1}});
+
+        recorder.onPricesChanged(ProductPricesChangedEvent.of(1L, BigDecimal.TEN));
+        recorder.flush();
+        recorder.flush();
+
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), ArgumentMatchers.<Collection<Map.Entry<Long, List<PricePoint>>>>any(), anyInt(), anySetter());
+    }
+
+    // Una fila por producto: su ID y los puntos del intervalo
+    private static ParameterizedPreparedStatementSetter<Map.Entry<Long, List<PricePoint>>> anySetter() {
+        return ArgumentMatchers.any();
+    }
+}
@@ -0,0 +1,44 @@
+package com.techstore.service.catalog;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PriceSeriesCodecTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 3, 1, 10, 0);
+
+    @Test
+    @DisplayName("Should round-trip price points, including price drops")
+    void shouldRoundTrip() {
+        List<PricePoint> points = List.of(
+                new PricePoint(T0, new BigDecimal("1299.99")),
+                new PricePoint(T0.plusMinutes(5), new BigDecimal("1199.50")),
+                new PricePoint(T0.plusDays(2), new BigDecimal("1349.00")));
+
+        List<PricePoint> decoded = PriceSeriesCodec.decode(PriceSeriesCodec.encode(points));
+
+        assertThat(decoded).extracting(PricePoint::at).containsExactly(T0, T0.plusMinutes(5), T0.plusDays(2));
+        assertThat(decoded).extracting(PricePoint::price)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("1299.99"), new BigDecimal("1199.50"), new BigDecimal("1349.00"));
+    }
+
+    @Test
+    @DisplayName("Should store small changes in a few bytes per point")
+    void shouldEncodeCompactly() {
+        List<PricePoint> points = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            points.add(new PricePoint(T0.plusHours(i), BigDecimal.valueOf(49_900 + (i % 2 == 0 ? 100 : -100), 2)));
+        }
+
+        // Primer punto absoluto (~9 bytes) y el resto: 2 bytes de salto horario + 2 de ±1,00
+        assertThat(PriceSeriesCodec.encode(points).length).isLessThan(100 * 5);
+    }
+}
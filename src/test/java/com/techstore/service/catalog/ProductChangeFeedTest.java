@@ -0,0 +1,104 @@
+package com.techstore.service.catalog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techstore.mapper.ProductMapper;
+import com.techstore.model.Product;
+import com.techstore.model.ProductChange;
+import com.techstore.model.enums.ChangeType;
+import com.techstore.repository.ProductChangeRepository;
+import com.techstore.repository.ProductRepository;
+import com.techstore.repository.projection.ProductView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductChangeFeedTest {
+
+    @Mock
+    private ProductChangeRepository productChangeRepository;
+    @Mock
+    private ProductRepository productRepository;
+
+    private ProductChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        feed = new ProductChangeFeed(productChangeRepository, productRepository, new ProductMapper(),
+                new ObjectMapper(), Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Should stream one line per changed product, tombstones for deletes and the new watermark last")
+    void shouldStreamChangesAsNdjson() throws IOException {
+        when(productChangeRepository.findSettledAfter(eq(10L), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(
+                        change(11L, 1L, ChangeType.CREATED),
+                        change(12L, 2L, ChangeType.DELETED),
+                        change(13L, 1L, ChangeType.UPDATED)));
+        when(productRepository.findViews(ArgumentMatchers.<Specification<Product>>any(), any(Sort.class), anyInt()))
+                .thenReturn(List.of(new ProductView(1L, "Laptop", null, new BigDecimal("999.99"), 3,
+                        null, null, null, null, null, null)));
+
+        String[] lines = stream(10L, 100);
+
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).contains("\"seq\":12", "\"type\":\"DELETED\"", "\"id\":2").doesNotContain("product");
+        // Dos cambios del producto 1 en el lote: solo sale el último, con su estado actual
+        assertThat(lines[1]).contains("\"seq\":13", "\"type\":\"UPDATED\"", "\"name\":\"Laptop\"");
+        assertThat(lines[2]).isEqualTo("{\"watermark\":13,\"hasMore\":false}");
+    }
+
+    @Test
+    @DisplayName("Should keep the watermark when nothing settled has changed")
+    void shouldReturnSameWatermark_whenNoChanges() throws IOException {
+        when(productChangeRepository.findSettledAfter(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        assertThat(stream(42L, 100)).containsExactly("{\"watermark\":42,\"hasMore\":false}");
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    @DisplayName("Should stop at the limit and tell the client there is more to fetch")
+    void shouldSignalMore_whenLimitReached() throws IOException {
+        when(productChangeRepository.findSettledAfter(eq(0L), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(change(1L, 5L, ChangeType.DELETED)));
+
+        String[] lines = stream(0L, 1);
+
+        assertThat(lines[lines.length - 1]).isEqualTo("{\"watermark\":1,\"hasMore\":true}");
+    }
+
+    private String[] stream(long since, int limit) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        feed.stream(since, limit, out);
+        return out.toString(StandardCharsets.UTF_8).split("\n");
+    }
+
+    private static ProductChange change(Long seq, Long productId, ChangeType type) {
+        return ProductChange.builder().id(seq).productId(productId).changeType(type).changedAt(LocalDateTime.now()).build();
+    }
+}
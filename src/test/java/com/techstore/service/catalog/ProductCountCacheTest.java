@@ -0,0 +1,30 @@
+package com.techstore.service.catalog;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductCountCacheTest {
+
+    @Test
+    @DisplayName("Should recount at most refresh-batch predicates per cycle, the stalest first")
+    void shouldCapCountsPerRefresh() {
+        ProductCountCache cache = new ProductCountCache(100, 2, Duration.ofMinutes(30));
+        AtomicInteger counts = new AtomicInteger();
+        IntStream.range(0, 5).forEach(i -> cache.approximate("predicate-" + i, counts::incrementAndGet));
+        counts.set(0);
+
+        cache.refresh();
+        assertThat(counts).hasValue(2);
+
+        // Los dos ya recalculados pasan al final: el resto se cubre en los ciclos siguientes
+        cache.refresh();
+        cache.refresh();
+        assertThat(counts).hasValue(6);
+    }
+}
@@ -0,0 +1,51 @@
+package com.techstore.service.catalog;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techstore.mapper.ProductMapper;
+import com.techstore.repository.ProductRepository;
+import com.techstore.repository.projection.ProductView;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductNdjsonStreamTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    @DisplayName("Should write one ProductDto per line and close the database stream")
+    void shouldWriteOneLinePerRow_andCloseCursor() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(productRepository.streamViewsByStockLessThan(5)).thenReturn(Stream.of(
+                        new ProductView(1L, "Mouse", null, BigDecimal.TEN, 2, 1L, "Electronics", null, null, null, null),
+                        new ProductView(2L, "Cable", null, BigDecimal.ONE, 0, null, null, null, null, null, null))
+                .onClose(() -> closed.set(true)));
+        ProductNdjsonStream stream = new ProductNdjsonStream(productRepository, new ProductMapper(), objectMapper);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        stream.lowStock(5, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("name").asText()).isEqualTo("Mouse");
+        assertThat(objectMapper.readTree(lines[1]).get("categoryName").asText()).isEqualTo("Sin Categoría");
+        assertThat(closed).isTrue();
+    }
+}
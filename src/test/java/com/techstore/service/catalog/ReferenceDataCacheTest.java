@@ -0,0 +1,81 @@
+package com.techstore.service.catalog;
+
+import com.techstore.event.ReferenceDataChangedEvent;
+import com.techstore.exception.ResourceNotFoundException;
+import com.techstore.repository.CategoryRepository;
+import com.techstore.repository.ProviderRepository;
+import com.techstore.repository.projection.CategoryRef;
+import com.techstore.repository.projection.ProviderRef;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReferenceDataCacheTest {
+
+    @Mock
+    private CategoryRepository categoryRepository;
+    @Mock
+    private ProviderRepository providerRepository;
+    @Mock
+    private ObjectProvider<ReferenceDataBroadcast> channels;
+    @Mock
+    private ReferenceDataBroadcast broadcast;
+
+    @Test
+    @DisplayName("Should serve lookups from one load until a write invalidates the snapshot")
+    void shouldReload_onlyAfterLocalWrite() {
+        when(channels.orderedStream()).thenReturn(Stream.empty());
+        when(categoryRepository.findAllRefs())
+                .thenReturn(List.of(new CategoryRef(1L, "Laptops")))
+                .thenReturn(List.of(new CategoryRef(1L, "Portátiles")));
+        when(providerRepository.findAllRefs()).thenReturn(List.of(new ProviderRef(2L, "Lenovo", "TAX-2")));
+        ReferenceDataCache cache = new ReferenceDataCache(categoryRepository, providerRepository, channels, Duration.ofMinutes(10));
+
+        assertThat(cache.requireCategory(1L).name()).isEqualTo("Laptops");
+        assertThat(cache.provider(2L)).map(ProviderRef::taxId).contains("TAX-2");
+        assertThat(cache.category(9L)).isEmpty();
+        verify(categoryRepository, times(1)).findAllRefs();
+
+        cache.onReferenceDataChanged(ReferenceDataChangedEvent.category(1L));
+
+        assertThat(cache.requireCategory(1L).name()).isEqualTo("Portátiles");
+        verify(categoryRepository, times(2)).findAllRefs();
+        assertThatThrownBy(() -> cache.requireProvider(9L))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageContaining("Provider");
+    }
+
+    @Test
+    @DisplayName("Should forward local writes to the broadcast channel and invalidate on remote notices")
+    void shouldStayConsistent_acrossInstances() {
+        when(channels.orderedStream()).thenReturn(Stream.of(broadcast));
+        when(categoryRepository.findAllRefs()).thenReturn(List.of(new CategoryRef(1L, "Laptops")));
+        when(providerRepository.findAllRefs()).thenReturn(List.of());
+        ReferenceDataCache cache = new ReferenceDataCache(categoryRepository, providerRepository, channels, Duration.ofMinutes(10));
+        ArgumentCaptor<Runnable> onRemoteChange = ArgumentCaptor.forClass(Runnable.class);
+        verify(broadcast).subscribe(onRemoteChange.capture());
+
+        cache.category(1L);
+        cache.onReferenceDataChanged(ReferenceDataChangedEvent.provider(5L));
+        verify(broadcast).publish("Provider");
+
+        cache.category(1L);
+        onRemoteChange.getValue().run(); // aviso de otra instancia
+        cache.category(1L);
+
+        verify(categoryRepository, times(3)).findAllRefs();
+    }
+}
@@ -0,0 +1,81 @@
+package com.techstore.service.catalog;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.techstore.dto.CategoryDto;
+import com.techstore.event.ProductChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseBytesCacheTest {
+
+    private ResponseBytesCache cache;
+    private final AtomicInteger mappings = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache = new ResponseBytesCache(new ObjectMapper(), 100, true);
+    }
+
+    @Test
+    @DisplayName("Should serialize once and reuse the same bytes while the version does not change")
+    void shouldReuseBytes_whenVersionIsUnchanged() {
+        ResourceVersion v1 = new ResourceVersion("\"v1\"", null);
+
+        CachedResponse first = cache.get("categories", v1, category("Electronics"));
+        CachedResponse second = cache.get("categories", v1, category("Electronics"));
+
+        assertThat(second).isSameAs(first);
+        assertThat(mappings).hasValue(1);
+        assertThat(new String(first.json(), StandardCharsets.UTF_8)).contains("\"name\":\"Electronics\"");
+    }
+
+    @Test
+    @DisplayName("Should re-serialize when the resource version moves on")
+    void shouldRebuild_whenVersionChanges() {
+        cache.get("categories", new ResourceVersion("\"v1\"", null), category("Old"));
+
+        CachedResponse updated = cache.get("categories", new ResourceVersion("\"v2\"", null), category("New"));
+
+        assertThat(mappings).hasValue(2);
+        assertThat(new String(updated.json(), StandardCharsets.UTF_8)).contains("New");
+    }
+
+    @Test
+    @DisplayName("Should keep a gzip copy that decompresses to the same JSON")
+    void shouldPrecomputeGzip() throws IOException {
+        CachedResponse cached = cache.get("categories", new ResourceVersion("\"v1\"", null), category("Electronics"));
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(cached.gzip()))) {
+            assertThat(in.readAllBytes()).isEqualTo(cached.json());
+        }
+    }
+
+    @Test
+    @DisplayName("Should drop a product entry when that product changes")
+    void shouldEvictProduct_onProductChangedEvent() {
+        ResourceVersion v1 = new ResourceVersion("\"v1\"", null);
+        cache.get(ResponseBytesCache.productKey(7L), v1, category("Laptop"));
+
+        cache.onProductChanged(ProductChangedEvent.updated(7L));
+        cache.get(ResponseBytesCache.productKey(7L), v1, category("Laptop"));
+
+        assertThat(mappings).hasValue(2);
+    }
+
+    private Supplier<CategoryDto> category(String name) {
+        return () -> {
+            mappings.incrementAndGet();
+            return CategoryDto.builder().id(1L).name(name).build();
+        };
+    }
+}
@@ -0,0 +1,118 @@
+package com.techstore.service.catalog;
+
+import com.techstore.event.ProductChangedEvent;
+import com.techstore.event.ProductPricesChangedEvent;
+import com.techstore.model.Product;
+import com.techstore.repository.ProductRepository;
+import com.techstore.repository.projection.ProductView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TopPricedProductsTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private TopPricedProducts topPricedProducts;
+
+    @BeforeEach
+    void setUp() {
+        topPricedProducts = new TopPricedProducts(productRepository, 3, Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("Should answer any price floor within N from one cached top-N load")
+    void shouldServeFromCachedTopList() {
+        when(productRepository.findTopViewsByPrice(BigDecimal.ZERO, PageRequest.ofSize(3)))
+                .thenReturn(List.of(view(1L, 900), view(2L, 500), view(3L, 100)));
+
+        assertThat(topPricedProducts.top(BigDecimal.valueOf(400), 3)).extracting(ProductView::id).containsExactly(1L, 2L);
+        assertThat(topPricedProducts.top(BigDecimal.ONE, 1)).extracting(ProductView::id).containsExactly(1L);
+        verify(productRepository, times(1)).findTopViewsByPrice(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should ignore writes to products outside the list whose price cannot enter it")
+    void shouldIgnoreWrites_thatCannotChangeTheList() {
+        loadTop();
+
+        topPricedProducts.onProductChanged(ProductChangedEvent.updated(9L));
+        topPricedProducts.onPricesChanged(ProductPricesChangedEvent.of(8L, BigDecimal.valueOf(50)));
+
+        assertThat(topPricedProducts.top(BigDecimal.ONE, 3)).extracting(ProductView::id).containsExactly(1L, 2L, 3L);
+        verify(productRepository, times(1)).findTopViewsByPrice(any(), any());
+        verify(productRepository, never()).findViews(ArgumentMatchers.<Specification<Product>>any(), any(Sort.class), anyInt());
+    }
+
+    @Test
+    @DisplayName("Should insert a product whose new price enters the top-N and push out the last one")
+    void shouldInsertProduct_whenPriceEntersTopList() {
+        loadTop();
+        when(productRepository.findViews(ArgumentMatchers.<Specification<Product>>any(), eq(Sort.unsorted()), eq(1)))
+                .thenReturn(List.of(view(7L, 700)));
+
+        topPricedProducts.onPricesChanged(ProductPricesChangedEvent.of(7L, BigDecimal.valueOf(700)));
+
+        assertThat(topPricedProducts.top(BigDecimal.ONE, 3)).extracting(ProductView::id).containsExactly(1L, 7L, 2L);
+        verify(productRepository, times(1)).findTopViewsByPrice(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should re-read a listed product on any write and reload once it falls behind the list")
+    void shouldRefreshMember_andReloadWhenItLeaves() {
+        loadTop();
+        when(productRepository.findViews(ArgumentMatchers.<Specification<Product>>any(), eq(Sort.unsorted()), eq(1)))
+                .thenReturn(List.of(new ProductView(2L, "Product 2", null, BigDecimal.valueOf(500), 0, 1L, "Electronics",
+                        1L, "Lenovo", null, null)))
+                .thenReturn(List.of(view(1L, 50)));
+
+        // Cambio de stock del 2: se relee su fila, sin recargar la lista
+        topPricedProducts.onProductChanged(ProductChangedEvent.updated(2L));
+        assertThat(topPricedProducts.top(BigDecimal.ONE, 3)).extracting(ProductView::stock).containsExactly(1, 0, 1);
+        verify(productRepository, times(1)).findTopViewsByPrice(any(), any());
+
+        // El 1 baja por detrás del último: sale, y con menos de N la siguiente lectura recarga
+        topPricedProducts.onPricesChanged(ProductPricesChangedEvent.of(1L, BigDecimal.valueOf(50)));
+        topPricedProducts.top(BigDecimal.ONE, 3);
+        verify(productRepository, times(2)).findTopViewsByPrice(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should query the database directly when the limit exceeds the cached size")
+    void shouldQueryDatabase_whenLimitExceedsCachedSize() {
+        BigDecimal min = BigDecimal.valueOf(50);
+        when(productRepository.findTopViewsByPrice(min, PageRequest.ofSize(10))).thenReturn(List.of(view(1L, 900)));
+
+        assertThat(topPricedProducts.top(min, 10)).hasSize(1);
+        verify(productRepository, never()).findTopViewsByPrice(eq(BigDecimal.ZERO), any());
+    }
+
+    private void loadTop() {
+        when(productRepository.findTopViewsByPrice(BigDecimal.ZERO, PageRequest.ofSize(3)))
+                .thenReturn(List.of(view(1L, 900), view(2L, 500), view(3L, 100)));
+        topPricedProducts.top(BigDecimal.ONE, 3);
+    }
+
+    private static ProductView view(Long id, int price) {
+        return new ProductView(id, "Product " + id, null, BigDecimal.valueOf(price), 1, 1L, "Electronics", 1L, "Lenovo", null, null);
+    }
+}